@@ -24,6 +24,9 @@ import lineage2.gameserver.database.DatabaseFactory;
 import lineage2.gameserver.handlers.CommunityBoardManager;
 import lineage2.gameserver.handlers.ICommunityBoardHandler;
 import lineage2.gameserver.instancemanager.CastleManorManager;
+import lineage2.gameserver.instancemanager.LeaderboardManager;
+import lineage2.gameserver.instancemanager.LeaderboardManager.Board;
+import lineage2.gameserver.instancemanager.LeaderboardManager.Entry;
 import lineage2.gameserver.model.Player;
 import lineage2.gameserver.network.serverpackets.ShowBoard;
 import lineage2.gameserver.scripts.ScriptFile;
@@ -160,63 +163,10 @@ public final class CommunityStats implements ScriptFile, ICommunityBoardHandler
 	 */
 	private void showPvp(Player player)
 	{
-		
-		try (Connection con = DatabaseFactory.getInstance().getConnection();)
-		{
-			
-			PreparedStatement statement = con.prepareStatement("SELECT * FROM characters WHERE accesslevel = '0' ORDER BY pvpkills DESC LIMIT 10;");
-			ResultSet rs = statement.executeQuery();
-			StringBuilder html = new StringBuilder();
-			html.append("<table width=570>");
-			
-			while (rs.next())
-			{
-				CBStatMan tp = new CBStatMan();
-				tp.PlayerId = rs.getInt("obj_Id");
-				tp.ChName = rs.getString("char_name");
-				tp.ChSex = rs.getInt("sex");
-				tp.ChGameTime = rs.getInt("onlinetime");
-				tp.ChPk = rs.getInt("pkkills");
-				tp.ChPvP = rs.getInt("pvpkills");
-				tp.ChOnOff = rs.getInt("online");
-				String sex = tp.ChSex == 1 ? "F" : "M";
-				String color;
-				String OnOff;
-				
-				if (tp.ChOnOff == 1)
-				{
-					OnOff = "Online.";
-					color = "00CC00";
-				}
-				else
-				{
-					OnOff = "Offline.";
-					color = "D70000";
-				}
-				
-				html.append("<tr>");
-				html.append("<td width=250>" + tp.ChName + "</td>");
-				html.append("<td width=50>" + sex + "</td>");
-				html.append("<td width=100>" + OnlineTime(tp.ChGameTime) + "</td>");
-				html.append("<td width=50>" + tp.ChPk + "</td>");
-				html.append("<td width=50><font color=00CC00>" + tp.ChPvP + "</font></td>");
-				html.append("<td width=100><font color=" + color + ">" + OnOff + "</font></td>");
-				html.append("</tr>");
-			}
-			rs.close();
-			statement.close();
-			html.append("</table>");
-			String content = HtmCache.getInstance().getNotNull(Config.BBS_HOME_DIR + "pages/stats/stats_top_pvp.htm", player);
-			content = content.replace("%stats_top_pvp%", html.toString());
-			content = BbsUtil.htmlBuff(content, player);
-			ShowBoard.separateAndSend(content, player);
-			return;
-		}
-		catch (Exception e)
-		{
-			e.printStackTrace();
-		}
-		
+		String content = HtmCache.getInstance().getNotNull(Config.BBS_HOME_DIR + "pages/stats/stats_top_pvp.htm", player);
+		content = content.replace("%stats_top_pvp%", getTable(Board.PVP));
+		content = BbsUtil.htmlBuff(content, player);
+		ShowBoard.separateAndSend(content, player);
 	}
 	
 	/**
@@ -225,63 +175,10 @@ public final class CommunityStats implements ScriptFile, ICommunityBoardHandler
 	 */
 	private void showPK(Player player)
 	{
-		
-		try (Connection con = DatabaseFactory.getInstance().getConnection();)
-		{
-			
-			PreparedStatement statement = con.prepareStatement("SELECT * FROM characters WHERE accesslevel = '0' ORDER BY pkkills DESC LIMIT 10;");
-			ResultSet rs = statement.executeQuery();
-			StringBuilder html = new StringBuilder();
-			html.append("<table width=570>");
-			
-			while (rs.next())
-			{
-				CBStatMan tp = new CBStatMan();
-				tp.PlayerId = rs.getInt("obj_Id");
-				tp.ChName = rs.getString("char_name");
-				tp.ChSex = rs.getInt("sex");
-				tp.ChGameTime = rs.getInt("onlinetime");
-				tp.ChPk = rs.getInt("pkkills");
-				tp.ChPvP = rs.getInt("pvpkills");
-				tp.ChOnOff = rs.getInt("online");
-				String sex = tp.ChSex == 1 ? "F" : "M";
-				String color;
-				String OnOff;
-				
-				if (tp.ChOnOff == 1)
-				{
-					OnOff = "Online.";
-					color = "00CC00";
-				}
-				else
-				{
-					OnOff = "Offline.";
-					color = "D70000";
-				}
-				
-				html.append("<tr>");
-				html.append("<td width=250>" + tp.ChName + "</td>");
-				html.append("<td width=50>" + sex + "</td>");
-				html.append("<td width=100>" + OnlineTime(tp.ChGameTime) + "</td>");
-				html.append("<td width=50><font color=00CC00>" + tp.ChPk + "</font></td>");
-				html.append("<td width=50>" + tp.ChPvP + "</td>");
-				html.append("<td width=100><font color=" + color + ">" + OnOff + "</font></td>");
-				html.append("</tr>");
-			}
-			rs.close();
-			statement.close();
-			html.append("</table>");
-			String content = HtmCache.getInstance().getNotNull(Config.BBS_HOME_DIR + "pages/stats/stats_top_pk.htm", player);
-			content = content.replace("%stats_top_pk%", html.toString());
-			content = BbsUtil.htmlBuff(content, player);
-			ShowBoard.separateAndSend(content, player);
-			return;
-		}
-		catch (Exception e)
-		{
-			e.printStackTrace();
-		}
-		
+		String content = HtmCache.getInstance().getNotNull(Config.BBS_HOME_DIR + "pages/stats/stats_top_pk.htm", player);
+		content = content.replace("%stats_top_pk%", getTable(Board.PK));
+		content = BbsUtil.htmlBuff(content, player);
+		ShowBoard.separateAndSend(content, player);
 	}
 	
 	/**
@@ -290,64 +187,62 @@ public final class CommunityStats implements ScriptFile, ICommunityBoardHandler
 	 */
 	private void showOnline(Player player)
 	{
+		String content = HtmCache.getInstance().getNotNull(Config.BBS_HOME_DIR + "pages/stats/stats_online.htm", player);
+		content = content.replace("%stats_online%", getTable(Board.ONLINE));
+		content = BbsUtil.htmlBuff(content, player);
+		ShowBoard.separateAndSend(content, player);
+	}
+	
+	/**
+	 * Method getTable.
+	 * @param board Board
+	 * @return String rows of the board with its own column highlighted
+	 */
+	private String getTable(Board board)
+	{
+		StringBuilder html = new StringBuilder();
+		html.append("<table width=570>");
 		
-		try (Connection con = DatabaseFactory.getInstance().getConnection();)
+		for (Entry entry : LeaderboardManager.getInstance().getTop(board))
 		{
+			String sex = entry.getSex() == 1 ? "F" : "M";
+			String color;
+			String OnOff;
 			
-			PreparedStatement statement = con.prepareStatement("SELECT * FROM characters WHERE accesslevel = '0' ORDER BY onlinetime DESC LIMIT 10;");
-			ResultSet rs = statement.executeQuery();
-			StringBuilder html = new StringBuilder();
-			html.append("<table width=570>");
-			
-			while (rs.next())
+			if (entry.isOnline())
 			{
-				CBStatMan tp = new CBStatMan();
-				tp.PlayerId = rs.getInt("obj_Id");
-				tp.ChName = rs.getString("char_name");
-				tp.ChSex = rs.getInt("sex");
-				tp.ChGameTime = rs.getInt("onlinetime");
-				tp.ChPk = rs.getInt("pkkills");
-				tp.ChPvP = rs.getInt("pvpkills");
-				tp.ChOnOff = rs.getInt("online");
-				String sex = tp.ChSex == 1 ? "F" : "M";
-				String color;
-				String OnOff;
-				
-				if (tp.ChOnOff == 1)
-				{
-					OnOff = "Online.";
-					color = "00CC00";
-				}
-				else
-				{
-					OnOff = "Offline.";
-					color = "D70000";
-				}
-				
-				html.append("<tr>");
-				html.append("<td width=250>" + tp.ChName + "</td>");
-				html.append("<td width=50>" + sex + "</td>");
-				html.append("<td width=100><font color=00CC00>" + OnlineTime(tp.ChGameTime) + "</font></td>");
-				html.append("<td width=50>" + tp.ChPk + "</td>");
-				html.append("<td width=50>" + tp.ChPvP + "</td>");
-				html.append("<td width=100><font color=" + color + ">" + OnOff + "</font></td>");
-				html.append("</tr>");
+				OnOff = "Online.";
+				color = "00CC00";
+			}
+			else
+			{
+				OnOff = "Offline.";
+				color = "D70000";
 			}
 			
-			rs.close();
-			statement.close();
-			html.append("</table>");
-			String content = HtmCache.getInstance().getNotNull(Config.BBS_HOME_DIR + "pages/stats/stats_online.htm", player);
-			content = content.replace("%stats_online%", html.toString());
-			content = BbsUtil.htmlBuff(content, player);
-			ShowBoard.separateAndSend(content, player);
-			return;
-		}
-		catch (Exception e)
-		{
-			e.printStackTrace();
+			html.append("<tr>");
+			html.append("<td width=250>" + entry.getName() + "</td>");
+			html.append("<td width=50>" + sex + "</td>");
+			html.append("<td width=100>" + highlight(OnlineTime(entry.getOnlineTime()), board == Board.ONLINE) + "</td>");
+			html.append("<td width=50>" + highlight(String.valueOf(entry.getPkKills()), board == Board.PK) + "</td>");
+			html.append("<td width=50>" + highlight(String.valueOf(entry.getPvpKills()), board == Board.PVP) + "</td>");
+			html.append("<td width=100><font color=" + color + ">" + OnOff + "</font></td>");
+			html.append("</tr>");
 		}
 		
+		html.append("</table>");
+		return html.toString();
+	}
+	
+	/**
+	 * Method highlight.
+	 * @param value String
+	 * @param highlight boolean
+	 * @return String
+	 */
+	private static String highlight(String value, boolean highlight)
+	{
+		return highlight ? "<font color=00CC00>" + value + "</font>" : value;
 	}
 	
 	/**
@@ -12,6 +12,7 @@
  */
 package services.community;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.StringTokenizer;
 
@@ -20,6 +21,7 @@ import lineage2.gameserver.dao.CommunityBufferDAO;
 import lineage2.gameserver.data.htm.HtmCache;
 import lineage2.gameserver.handlers.CommunityBoardManager;
 import lineage2.gameserver.handlers.ICommunityBoardHandler;
+import lineage2.gameserver.model.Creature;
 import lineage2.gameserver.model.Effect;
 import lineage2.gameserver.model.ManageBbsBuffer;
 import lineage2.gameserver.model.ManageBbsBuffer.SBufferScheme;
@@ -173,26 +175,16 @@ public final class ManageBuffer extends Functions implements ScriptFile, ICommun
 			{
 				for (Summon summon : player.getSummonList())
 				{
-					for (EffectTemplate et : skill.getEffectTemplates())
-					{
-						Env env = new Env(summon, summon, skill);
-						Effect effect = et.getEffect(env);
-						effect.setPeriod(time);
-						summon.getEffectList().addEffect(effect);
-						summon.updateEffectIconsImpl();
-					}
+					List<Effect> effects = new ArrayList<>();
+					addEffects(effects, summon, skill, time);
+					summon.getEffectList().addEffects(effects);
 				}
 			}
 			else
 			{
-				for (EffectTemplate et : skill.getEffectTemplates())
-				{
-					Env env = new Env(player, player, skill);
-					Effect effect = et.getEffect(env);
-					effect.setPeriod(time);
-					player.getEffectList().addEffect(effect);
-					player.updateEffectIconsImpl();
-				}
+				List<Effect> effects = new ArrayList<>();
+				addEffects(effects, player, skill, time);
+				player.getEffectList().addEffects(effects);
 			}
 			
 			player.reduceAdena(pice);
@@ -405,7 +397,19 @@ public final class ManageBuffer extends Functions implements ScriptFile, ICommun
 	private void GroupBuff(Player player, List<Integer> list)
 	{
 		int time = Config.COMMUNITYBOARD_BUFF_TIME;
-		Skill skill = null;
+		boolean toSummons = !player.getVarB("isPlayerBuff") && (player.getSummonList().getServitors() != null);
+		List<Summon> summons = new ArrayList<>();
+		List<List<Effect>> summonEffects = new ArrayList<>();
+		List<Effect> playerEffects = new ArrayList<>();
+		
+		if (toSummons)
+		{
+			for (Summon summon : player.getSummonList())
+			{
+				summons.add(summon);
+				summonEffects.add(new ArrayList<Effect>());
+			}
+		}
 		
 		for (int i : list)
 		{
@@ -416,32 +420,47 @@ public final class ManageBuffer extends Functions implements ScriptFile, ICommun
 				continue;
 			}
 			
-			skill = SkillTable.getInstance().getInfo(i, lvl);
+			Skill skill = SkillTable.getInstance().getInfo(i, lvl);
 			
-			if (!player.getVarB("isPlayerBuff") && (player.getSummonList().getServitors() != null))
+			if (toSummons)
 			{
-				for (EffectTemplate et : skill.getEffectTemplates())
+				for (int s = 0; s < summons.size(); s++)
 				{
-					for (Summon summon : player.getSummonList())
-					{
-						Env env = new Env(summon, summon, skill);
-						Effect effect = et.getEffect(env);
-						effect.setPeriod(time);
-						summon.getEffectList().addEffect(effect);
-						summon.updateEffectIconsImpl();
-					}
+					addEffects(summonEffects.get(s), summons.get(s), skill, time);
 				}
 			}
 			else
 			{
-				for (EffectTemplate et : skill.getEffectTemplates())
-				{
-					Env env = new Env(player, player, skill);
-					Effect effect = et.getEffect(env);
-					effect.setPeriod(time);
-					player.getEffectList().addEffect(effect);
-					player.updateEffectIconsImpl();
-				}
+				addEffects(playerEffects, player, skill, time);
+			}
+		}
+		
+		for (int s = 0; s < summons.size(); s++)
+		{
+			summons.get(s).getEffectList().addEffects(summonEffects.get(s));
+		}
+		
+		player.getEffectList().addEffects(playerEffects);
+	}
+	
+	/**
+	 * Method addEffects.
+	 * @param effects List<Effect>
+	 * @param target Creature
+	 * @param skill Skill
+	 * @param time int
+	 */
+	private static void addEffects(List<Effect> effects, Creature target, Skill skill, int time)
+	{
+		for (EffectTemplate et : skill.getEffectTemplates())
+		{
+			Env env = new Env(target, target, skill);
+			Effect effect = et.getEffect(env);
+			
+			if (effect != null)
+			{
+				effect.setPeriod(time);
+				effects.add(effect);
 			}
 		}
 	}
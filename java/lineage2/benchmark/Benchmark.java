@@ -0,0 +1,73 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.benchmark;
+
+/**
+ * One measured operation. The runner calls setup once, then the operation in a tight loop, and returns of the operation are consumed so the JIT cannot drop the work.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public abstract class Benchmark
+{
+	private final String _name;
+	
+	/**
+	 * Constructor for Benchmark.
+	 * @param name String
+	 */
+	protected Benchmark(String name)
+	{
+		_name = name;
+	}
+	
+	/**
+	 * Method getName.
+	 * @return String
+	 */
+	public String getName()
+	{
+		return _name;
+	}
+	
+	/**
+	 * Builds the fixtures of the benchmark.
+	 * @throws Exception
+	 */
+	public void setup() throws Exception
+	{
+	}
+	
+	/**
+	 * Method operation.
+	 * @param invocation long the number of the call, to rotate through the fixtures
+	 * @return Object result consumed by the runner
+	 */
+	public abstract Object operation(long invocation);
+	
+	/**
+	 * Method tearDown.
+	 */
+	public void tearDown()
+	{
+	}
+	
+	/**
+	 * Creates the thread the iterations run on.
+	 * @param r Runnable
+	 * @return Thread
+	 */
+	public Thread newThread(Runnable r)
+	{
+		return new Thread(r, "Benchmark-" + _name);
+	}
+}
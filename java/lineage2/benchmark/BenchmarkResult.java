@@ -0,0 +1,220 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Average time of one benchmark, written in the JSON layout of JMH so the usual result viewers and diff tools read it.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class BenchmarkResult
+{
+	/** Student t quantiles for a 99.9% confidence interval, by degrees of freedom 1 to 30. */
+	private static final double[] T_999 =
+	{
+		636.62,
+		31.60,
+		12.92,
+		8.61,
+		6.87,
+		5.96,
+		5.41,
+		5.04,
+		4.78,
+		4.59,
+		4.44,
+		4.32,
+		4.22,
+		4.14,
+		4.07,
+		4.01,
+		3.97,
+		3.92,
+		3.88,
+		3.85,
+		3.82,
+		3.79,
+		3.77,
+		3.75,
+		3.73,
+		3.71,
+		3.69,
+		3.67,
+		3.66,
+		3.65
+	};
+	private static final Pattern JSON_ENTRY = Pattern.compile("\"benchmark\"\\s*:\\s*\"([^\"]+)\".*?\"score\"\\s*:\\s*([0-9.Ee+-]+)", Pattern.DOTALL);
+	private final String _name;
+	private final double[] _iterations;
+	
+	/**
+	 * Constructor for BenchmarkResult.
+	 * @param name String
+	 * @param iterations double[] nanoseconds per operation of every measured iteration
+	 */
+	public BenchmarkResult(String name, double[] iterations)
+	{
+		_name = name;
+		_iterations = iterations;
+	}
+	
+	/**
+	 * Method getName.
+	 * @return String
+	 */
+	public String getName()
+	{
+		return _name;
+	}
+	
+	/**
+	 * Method getScore.
+	 * @return double nanoseconds per operation
+	 */
+	public double getScore()
+	{
+		double sum = 0;
+		
+		for (double iteration : _iterations)
+		{
+			sum += iteration;
+		}
+		
+		return sum / _iterations.length;
+	}
+	
+	/**
+	 * Method getError.
+	 * @return double half width of the 99.9% confidence interval
+	 */
+	public double getError()
+	{
+		int n = _iterations.length;
+		
+		if (n < 2)
+		{
+			return Double.NaN;
+		}
+		
+		double mean = getScore();
+		double variance = 0;
+		
+		for (double iteration : _iterations)
+		{
+			variance += (iteration - mean) * (iteration - mean);
+		}
+		
+		variance /= n - 1;
+		double t = T_999[Math.min(n - 1, T_999.length) - 1];
+		return (t * Math.sqrt(variance)) / Math.sqrt(n);
+	}
+	
+	/**
+	 * Method toJson.
+	 * @param warmupIterations int
+	 * @param iterationTime long milliseconds
+	 * @return String
+	 */
+	String toJson(int warmupIterations, long iterationTime)
+	{
+		double score = getScore();
+		double error = getError();
+		StringBuilder sb = new StringBuilder();
+		sb.append("    {\n");
+		sb.append("        \"benchmark\" : \"").append(_name).append("\",\n");
+		sb.append("        \"mode\" : \"avgt\",\n");
+		sb.append("        \"threads\" : 1,\n");
+		sb.append("        \"forks\" : 1,\n");
+		sb.append("        \"warmupIterations\" : ").append(warmupIterations).append(",\n");
+		sb.append("        \"warmupTime\" : \"").append(iterationTime).append(" ms\",\n");
+		sb.append("        \"measurementIterations\" : ").append(_iterations.length).append(",\n");
+		sb.append("        \"measurementTime\" : \"").append(iterationTime).append(" ms\",\n");
+		sb.append("        \"primaryMetric\" : {\n");
+		sb.append("            \"score\" : ").append(format(score)).append(",\n");
+		sb.append("            \"scoreError\" : ").append(Double.isNaN(error) ? "\"NaN\"" : format(error)).append(",\n");
+		sb.append("            \"scoreConfidence\" : [").append(format(score - (Double.isNaN(error) ? 0 : error))).append(", ").append(format(score + (Double.isNaN(error) ? 0 : error))).append("],\n");
+		sb.append("            \"scoreUnit\" : \"ns/op\",\n");
+		sb.append("            \"rawData\" : [[");
+		
+		for (int i = 0; i < _iterations.length; i++)
+		{
+			sb.append(i == 0 ? "" : ", ").append(format(_iterations[i]));
+		}
+		
+		sb.append("]]\n");
+		sb.append("        }\n");
+		sb.append("    }");
+		return sb.toString();
+	}
+	
+	/**
+	 * Method format.
+	 * @param value double
+	 * @return String
+	 */
+	private static String format(double value)
+	{
+		return String.format(Locale.US, "%.3f", value);
+	}
+	
+	/**
+	 * Method write.
+	 * @param file File
+	 * @param results List<BenchmarkResult>
+	 * @param warmupIterations int
+	 * @param iterationTime long
+	 * @throws IOException
+	 */
+	static void write(File file, List<BenchmarkResult> results, int warmupIterations, long iterationTime) throws IOException
+	{
+		StringBuilder sb = new StringBuilder("[\n");
+		
+		for (int i = 0; i < results.size(); i++)
+		{
+			sb.append(i == 0 ? "" : ",\n").append(results.get(i).toJson(warmupIterations, iterationTime));
+		}
+		
+		sb.append("\n]\n");
+		Files.write(file.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * Reads the scores of a previous run, written by this class or by JMH.
+	 * @param file File
+	 * @return Map<String, Double> score by benchmark name
+	 * @throws IOException
+	 */
+	static Map<String, Double> readScores(File file) throws IOException
+	{
+		Map<String, Double> scores = new HashMap<>();
+		Matcher m = JSON_ENTRY.matcher(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+		
+		while (m.find())
+		{
+			scores.put(m.group(1), Double.parseDouble(m.group(2)));
+		}
+		
+		return scores;
+	}
+}
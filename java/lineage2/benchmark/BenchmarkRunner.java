@@ -0,0 +1,244 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the benchmarks of the core hot paths against the shipped datapack.<br>
+ * Usage: BenchmarkRunner [-warmup 5] [-iterations 10] [-time 1000] [-filter regex] [-out benchmark-results.json] [-baseline file] [-threshold 10]<br>
+ * Every benchmark warms up, then reports the average time per operation of the measured iterations. The results are written in the JSON layout of JMH; given a baseline file the run fails when a benchmark got slower than the threshold in percent.<br>
+ * Run from the gameserver directory of the distribution, so the configuration and the datapack are found.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class BenchmarkRunner
+{
+	private final int _warmupIterations;
+	private final int _iterations;
+	private final long _iterationTime;
+	private final Pattern _filter;
+	private final File _out;
+	private final File _baseline;
+	private final double _threshold;
+	/** Results are compared against this never matching object, so the JIT has to compute them. */
+	private final Object _blackhole = new Object();
+	private long _hits;
+	
+	/**
+	 * Constructor for BenchmarkRunner.
+	 * @param args Map<String, String>
+	 */
+	private BenchmarkRunner(Map<String, String> args)
+	{
+		_warmupIterations = Integer.parseInt(get(args, "warmup", "5"));
+		_iterations = Integer.parseInt(get(args, "iterations", "10"));
+		_iterationTime = Long.parseLong(get(args, "time", "1000"));
+		_filter = Pattern.compile(get(args, "filter", ".*"));
+		_out = new File(get(args, "out", "benchmark-results.json"));
+		String baseline = args.get("baseline");
+		_baseline = baseline == null ? null : new File(baseline);
+		_threshold = Double.parseDouble(get(args, "threshold", "10"));
+	}
+	
+	/**
+	 * Method get.
+	 * @param args Map<String, String>
+	 * @param name String
+	 * @param defaultValue String
+	 * @return String
+	 */
+	private static String get(Map<String, String> args, String name, String defaultValue)
+	{
+		String value = args.get(name);
+		return value == null ? defaultValue : value;
+	}
+	
+	/**
+	 * Method getBenchmarks.
+	 * @return List<Benchmark>
+	 */
+	private static List<Benchmark> getBenchmarks()
+	{
+		return Arrays.<Benchmark> asList(new WorldAroundBenchmark(), new GeoCanSeeBenchmark(), new GeoMoveCheckBenchmark(), new PathFindBenchmark(), new CalcStatBenchmark(), new PhysDamBenchmark(), new PacketWriteBenchmark(), new NpcHtmlBenchmark(), new SteppingQueueBenchmark(), new ObjectLookupBenchmark(), new ItemRestoreBenchmark());
+	}
+	
+	/**
+	 * Method run.
+	 * @return boolean false when a benchmark failed or regressed
+	 * @throws Exception
+	 */
+	private boolean run() throws Exception
+	{
+		List<BenchmarkResult> results = new ArrayList<>();
+		boolean success = true;
+		
+		for (Benchmark benchmark : getBenchmarks())
+		{
+			if (!_filter.matcher(benchmark.getName()).find())
+			{
+				continue;
+			}
+			
+			BenchmarkResult result = measure(benchmark);
+			
+			if (result == null)
+			{
+				success = false;
+				continue;
+			}
+			
+			System.out.println(String.format("%-40s %12.1f ns/op  +- %.1f", result.getName(), result.getScore(), result.getError()));
+			results.add(result);
+		}
+		
+		BenchmarkResult.write(_out, results, _warmupIterations, _iterationTime);
+		System.out.println("Results written to " + _out.getAbsolutePath());
+		
+		if (_baseline != null)
+		{
+			success &= compare(results, BenchmarkResult.readScores(_baseline));
+		}
+		
+		return success;
+	}
+	
+	/**
+	 * Runs the setup and the iterations of the benchmark on the thread it asks for.
+	 * @param benchmark Benchmark
+	 * @return BenchmarkResult null when the benchmark failed
+	 * @throws InterruptedException
+	 */
+	private BenchmarkResult measure(final Benchmark benchmark) throws InterruptedException
+	{
+		final double[] measured = new double[_iterations];
+		final Throwable[] error = new Throwable[1];
+		Thread thread = benchmark.newThread(() ->
+		{
+			try
+			{
+				benchmark.setup();
+				
+				for (int i = 0; i < _warmupIterations; i++)
+				{
+					iteration(benchmark);
+				}
+				
+				for (int i = 0; i < _iterations; i++)
+				{
+					measured[i] = iteration(benchmark);
+				}
+			}
+			catch (Throwable t)
+			{
+				error[0] = t;
+			}
+			finally
+			{
+				benchmark.tearDown();
+			}
+		});
+		thread.start();
+		thread.join();
+		
+		if (error[0] != null)
+		{
+			System.out.println(benchmark.getName() + " failed: " + error[0]);
+			error[0].printStackTrace(System.out);
+			return null;
+		}
+		
+		return new BenchmarkResult(benchmark.getName(), measured);
+	}
+	
+	/**
+	 * Calls the operation in batches until the iteration time is over.
+	 * @param benchmark Benchmark
+	 * @return double nanoseconds per operation
+	 */
+	private double iteration(Benchmark benchmark)
+	{
+		long start = System.nanoTime();
+		long end = start + TimeUnit.MILLISECONDS.toNanos(_iterationTime);
+		long operations = 0;
+		long now;
+		
+		do
+		{
+			for (int i = 0; i < 64; i++)
+			{
+				if (benchmark.operation(operations++) == _blackhole)
+				{
+					_hits++;
+				}
+			}
+		}
+		while ((now = System.nanoTime()) < end);
+		
+		return (double) (now - start) / operations;
+	}
+	
+	/**
+	 * Prints the change of every benchmark against the baseline.
+	 * @param results List<BenchmarkResult>
+	 * @param baseline Map<String, Double>
+	 * @return boolean false when a benchmark got slower than the threshold
+	 */
+	private boolean compare(List<BenchmarkResult> results, Map<String, Double> baseline)
+	{
+		boolean success = true;
+		System.out.println("Compared to " + _baseline + ":");
+		
+		for (BenchmarkResult result : results)
+		{
+			Double before = baseline.get(result.getName());
+			
+			if (before == null)
+			{
+				System.out.println(String.format("%-40s new", result.getName()));
+				continue;
+			}
+			
+			double change = ((result.getScore() - before) * 100) / before;
+			boolean regression = change > _threshold;
+			System.out.println(String.format("%-40s %12.1f -> %12.1f ns/op %+7.1f%%%s", result.getName(), before, result.getScore(), change, regression ? "  REGRESSION" : ""));
+			success &= !regression;
+		}
+		
+		return success;
+	}
+	
+	/**
+	 * Method main.
+	 * @param args String[] pairs of -name value
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		Map<String, String> parsed = new TreeMap<>();
+		
+		for (int i = 0; (i + 1) < args.length; i += 2)
+		{
+			parsed.put(args[i].replaceFirst("^-+", ""), args[i + 1]);
+		}
+		
+		System.exit(new BenchmarkRunner(parsed).run() ? 0 : 1);
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.benchmark;
+
+import java.util.List;
+
+import lineage2.gameserver.model.instances.MonsterInstance;
+import lineage2.gameserver.stats.Stats;
+
+/**
+ * Calculator.calc of the physical attack and defence of the spawned monsters, through Creature.calcStat.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class CalcStatBenchmark extends Benchmark
+{
+	private MonsterInstance[] _monsters;
+	private double _sum;
+	
+	/**
+	 * Constructor for CalcStatBenchmark.
+	 */
+	public CalcStatBenchmark()
+	{
+		super("Calculator.calc");
+	}
+	
+	/**
+	 * Method setup.
+	 * @throws Exception
+	 */
+	@Override
+	public void setup() throws Exception
+	{
+		Fixtures.load();
+		List<MonsterInstance> monsters = Fixtures.getMonsters();
+		_monsters = monsters.toArray(new MonsterInstance[monsters.size()]);
+	}
+	
+	/**
+	 * Method operation.
+	 * @param invocation long
+	 * @return Object
+	 */
+	@Override
+	public Object operation(long invocation)
+	{
+		int i = (int) (invocation % _monsters.length);
+		MonsterInstance monster = _monsters[i];
+		MonsterInstance target = _monsters[(i + 1) % _monsters.length];
+		
+		if ((invocation & 1) == 0)
+		{
+			_sum += monster.calcStat(Stats.POWER_ATTACK, monster.getTemplate().getBasePAtk(), target, null);
+		}
+		else
+		{
+			_sum += monster.calcStat(Stats.POWER_DEFENCE, monster.getTemplate().getBasePDef(), target, null);
+		}
+		
+		return monster;
+	}
+}
@@ -0,0 +1,248 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.benchmark;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lineage2.gameserver.Config;
+import lineage2.gameserver.data.htm.HtmCache;
+import lineage2.gameserver.data.xml.holder.NpcHolder;
+import lineage2.gameserver.data.xml.holder.PlayerTemplateHolder;
+import lineage2.gameserver.data.xml.holder.SpawnHolder;
+import lineage2.gameserver.data.xml.parser.ClassDataParser;
+import lineage2.gameserver.data.xml.parser.ItemParser;
+import lineage2.gameserver.data.xml.parser.NpcParser;
+import lineage2.gameserver.data.xml.parser.OptionDataParser;
+import lineage2.gameserver.data.xml.parser.PlayerTemplateParser;
+import lineage2.gameserver.data.xml.parser.SpawnParser;
+import lineage2.gameserver.geodata.GeoEngine;
+import lineage2.gameserver.model.Player;
+import lineage2.gameserver.model.base.ClassId;
+import lineage2.gameserver.model.base.Race;
+import lineage2.gameserver.model.base.Sex;
+import lineage2.gameserver.model.instances.MonsterInstance;
+import lineage2.gameserver.model.instances.NpcInstance;
+import lineage2.gameserver.tables.SkillTable;
+import lineage2.gameserver.templates.npc.NpcTemplate;
+import lineage2.gameserver.templates.player.PlayerTemplate;
+import lineage2.gameserver.templates.spawn.SpawnTemplate;
+import lineage2.gameserver.utils.Location;
+
+import net.sf.ehcache.CacheManager;
+
+/**
+ * Loads the shipped datapack once and places its spawns around Giran, without a database server and without the network. The benchmarks only read from these objects.<br>
+ * The database pool is pointed at the StandInDriver, so code reaching the database is measured against its round trips.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public final class Fixtures
+{
+	/** Center of the populated area, the Giran square. */
+	public static final Location CENTER = new Location(83400, 147943, -3404);
+	/** Radius around the center in which the spawns of the datapack are placed. */
+	public static final int RADIUS = 6000;
+	/** Object ids are handed out locally from the first id of the IdFactory, the database is never touched. */
+	private static final AtomicInteger _nextObjectId = new AtomicInteger(0x10000000);
+	private static final List<NpcInstance> _npcs = new ArrayList<>();
+	private static final List<MonsterInstance> _monsters = new ArrayList<>();
+	private static Player _player;
+	private static boolean _loaded;
+	private static boolean _geodata;
+	
+	/**
+	 * Constructor for Fixtures.
+	 */
+	private Fixtures()
+	{
+	}
+	
+	/**
+	 * Loads the datapack and spawns the world, the first call only.
+	 * @throws Exception
+	 */
+	public static synchronized void load() throws Exception
+	{
+		if (_loaded)
+		{
+			return;
+		}
+		
+		_loaded = true;
+		Config.load();
+		Config.DATABASE_DRIVER = StandInDriver.class.getName();
+		Config.DATABASE_URL = StandInDriver.URL;
+		Class.forName(Config.DATABASE_DRIVER);
+		CacheManager.create("config/xml/ehcache.xml");
+		HtmCache.getInstance().reload();
+		SkillTable.getInstance().load();
+		OptionDataParser.getInstance().load();
+		ItemParser.getInstance().load();
+		NpcParser.getInstance().load();
+		SpawnParser.getInstance().load();
+		PlayerTemplateParser.getInstance().load();
+		ClassDataParser.getInstance().load();
+		GeoEngine.load();
+		_geodata = Config.ALLOW_GEODATA && (GeoEngine.getHeight(CENTER, 0) != CENTER.getZ());
+		spawnWorld();
+		_player = createPlayer("Benchmark");
+		_player.setLoc(CENTER);
+		System.out.println("Fixtures: " + _npcs.size() + " npcs (" + _monsters.size() + " monsters) around " + CENTER + ", geodata " + (_geodata ? "loaded" : "not loaded, geodata benchmarks measure the flat world") + ".");
+	}
+	
+	/**
+	 * Spawns every shipped spawn whose range falls within the radius of the center.
+	 * @throws Exception
+	 */
+	private static void spawnWorld() throws Exception
+	{
+		for (List<SpawnTemplate> group : SpawnHolder.getInstance().getSpawns().values())
+		{
+			for (SpawnTemplate spawn : group)
+			{
+				for (int r = 0; r < spawn.getSpawnRangeSize(); r++)
+				{
+					for (int n = 0; n < spawn.getNpcSize(); n++)
+					{
+						NpcTemplate template = spawn.getNpcId(n).getTemplate();
+						
+						if (template == null)
+						{
+							continue;
+						}
+						
+						for (int c = 0; c < spawn.getCount(); c++)
+						{
+							Location loc = spawn.getSpawnRange(r).getRandomLoc(0);
+							
+							if ((loc == null) || (loc.distance(CENTER) > RADIUS))
+							{
+								break;
+							}
+							
+							spawnNpc(template, loc);
+						}
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Method spawnNpc.
+	 * @param template NpcTemplate
+	 * @param loc Location
+	 * @return NpcInstance
+	 * @throws Exception
+	 */
+	public static NpcInstance spawnNpc(NpcTemplate template, Location loc) throws Exception
+	{
+		NpcInstance npc;
+		
+		try
+		{
+			npc = template.getInstanceConstructor().newInstance(_nextObjectId.getAndIncrement(), template);
+		}
+		catch (Exception e)
+		{
+			npc = new NpcInstance(_nextObjectId.getAndIncrement(), template);
+		}
+		
+		npc.setSpawnedLoc(loc);
+		npc.setCurrentHpMp(npc.getMaxHp(), npc.getMaxMp(), true);
+		npc.spawnMe(loc);
+		_npcs.add(npc);
+		
+		if (npc instanceof MonsterInstance)
+		{
+			_monsters.add((MonsterInstance) npc);
+		}
+		
+		return npc;
+	}
+	
+	/**
+	 * Creates a human fighter that is neither stored nor spawned.
+	 * @param name String
+	 * @return Player
+	 * @throws Exception
+	 */
+	public static Player createPlayer(String name) throws Exception
+	{
+		PlayerTemplate template = PlayerTemplateHolder.getInstance().getPlayerTemplate(Race.human, ClassId.HUMAN_FIGHTER, Sex.MALE);
+		Constructor<Player> constructor = Player.class.getDeclaredConstructor(int.class, PlayerTemplate.class, String.class);
+		constructor.setAccessible(true);
+		Player player = constructor.newInstance(_nextObjectId.getAndIncrement(), template, name);
+		player.setName(name);
+		return player;
+	}
+	
+	/**
+	 * Method getNpcs.
+	 * @return List<NpcInstance>
+	 */
+	public static List<NpcInstance> getNpcs()
+	{
+		return Collections.unmodifiableList(_npcs);
+	}
+	
+	/**
+	 * Method getMonsters.
+	 * @return List<MonsterInstance>
+	 */
+	public static List<MonsterInstance> getMonsters()
+	{
+		return Collections.unmodifiableList(_monsters);
+	}
+	
+	/**
+	 * Method getNpc.
+	 * @param npcId int
+	 * @return NpcInstance the first spawned npc of the id, or a new one at the center
+	 * @throws Exception
+	 */
+	public static NpcInstance getNpc(int npcId) throws Exception
+	{
+		for (NpcInstance npc : _npcs)
+		{
+			if (npc.getId() == npcId)
+			{
+				return npc;
+			}
+		}
+		
+		return spawnNpc(NpcHolder.getInstance().getTemplate(npcId), CENTER);
+	}
+	
+	/**
+	 * Method getPlayer.
+	 * @return Player
+	 */
+	public static Player getPlayer()
+	{
+		return _player;
+	}
+	
+	/**
+	 * Method hasGeodata.
+	 * @return boolean
+	 */
+	public static boolean hasGeodata()
+	{
+		return _geodata;
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.benchmark;
+
+import java.util.List;
+
+import lineage2.gameserver.geodata.GeoEngine;
+import lineage2.gameserver.model.instances.NpcInstance;
+
+/**
+ * GeoEngine.canSeeTarget between pairs of spawned npcs.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class GeoCanSeeBenchmark extends Benchmark
+{
+	private NpcInstance[] _npcs;
+	
+	/**
+	 * Constructor for GeoCanSeeBenchmark.
+	 */
+	public GeoCanSeeBenchmark()
+	{
+		super("GeoEngine.canSeeTarget");
+	}
+	
+	/**
+	 * Method setup.
+	 * @throws Exception
+	 */
+	@Override
+	public void setup() throws Exception
+	{
+		Fixtures.load();
+		List<NpcInstance> npcs = Fixtures.getNpcs();
+		_npcs = npcs.toArray(new NpcInstance[npcs.size()]);
+	}
+	
+	/**
+	 * Method operation.
+	 * @param invocation long
+	 * @return Object
+	 */
+	@Override
+	public Object operation(long invocation)
+	{
+		int i = (int) (invocation % _npcs.length);
+		return GeoEngine.canSeeTarget(_npcs[i], _npcs[(i * 7 + 1) % _npcs.length], false) ? Boolean.TRUE : Boolean.FALSE;
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.benchmark;
+
+import java.util.List;
+
+import lineage2.gameserver.geodata.GeoEngine;
+import lineage2.gameserver.model.instances.NpcInstance;
+
+/**
+ * GeoEngine.moveCheck from every spawned npc to a point 500 units away in one of eight directions.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class GeoMoveCheckBenchmark extends Benchmark
+{
+	private static final int[][] DIRECTIONS =
+	{
+		{
+			500,
+			0
+		},
+		{
+			354,
+			354
+		},
+		{
+			0,
+			500
+		},
+		{
+			-354,
+			354
+		},
+		{
+			-500,
+			0
+		},
+		{
+			-354,
+			-354
+		},
+		{
+			0,
+			-500
+		},
+		{
+			354,
+			-354
+		}
+	};
+	private NpcInstance[] _npcs;
+	
+	/**
+	 * Constructor for GeoMoveCheckBenchmark.
+	 */
+	public GeoMoveCheckBenchmark()
+	{
+		super("GeoEngine.moveCheck");
+	}
+	
+	/**
+	 * Method setup.
+	 * @throws Exception
+	 */
+	@Override
+	public void setup() throws Exception
+	{
+		Fixtures.load();
+		List<NpcInstance> npcs = Fixtures.getNpcs();
+		_npcs = npcs.toArray(new NpcInstance[npcs.size()]);
+	}
+	
+	/**
+	 * Method operation.
+	 * @param invocation long
+	 * @return Object
+	 */
+	@Override
+	public Object operation(long invocation)
+	{
+		NpcInstance npc = _npcs[(int) (invocation % _npcs.length)];
+		int[] direction = DIRECTIONS[(int) (invocation & 7)];
+		return GeoEngine.moveCheck(npc.getX(), npc.getY(), npc.getZ(), npc.getX() + direction[0], npc.getY() + direction[1], npc.getGeoIndex());
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lineage2.gameserver.dao.ItemsDAO;
+import lineage2.gameserver.data.xml.holder.ItemHolder;
+import lineage2.gameserver.model.items.ItemInstance.ItemLocation;
+import lineage2.gameserver.templates.item.ItemTemplate;
+
+/**
+ * Cold restore of the items of one character at login: inventory, paperdoll, warehouse and freight, read through ItemsDAO from the stand-in database with an empty item cache.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class ItemRestoreBenchmark extends Benchmark
+{
+	private static final int OWNER_ID = 0x20000000;
+	private static final ItemLocation[] LOCATIONS =
+	{
+		ItemLocation.INVENTORY,
+		ItemLocation.PAPERDOLL,
+		ItemLocation.WAREHOUSE,
+		ItemLocation.FREIGHT
+	};
+	/** Items of the character in every location, a well equipped player with a full warehouse. */
+	private static final int[] COUNTS =
+	{
+		400,
+		16,
+		300,
+		50
+	};
+	
+	/**
+	 * Constructor for ItemRestoreBenchmark.
+	 */
+	public ItemRestoreBenchmark()
+	{
+		super("ItemsDAO.restoreLogin");
+	}
+	
+	/**
+	 * Method setup.
+	 * @throws Exception
+	 */
+	@Override
+	public void setup() throws Exception
+	{
+		Fixtures.load();
+		List<Integer> itemIds = new ArrayList<>();
+		
+		for (ItemTemplate template : ItemHolder.getInstance().getAllTemplates())
+		{
+			if (template != null)
+			{
+				itemIds.add(template.getId());
+			}
+		}
+		
+		StandInDriver.Table items = StandInDriver.createTable("items", "object_id", "owner_id", "item_id", "count", "enchant_level", "loc", "loc_data", "custom_type1", "custom_type2", "life_time", "custom_flags", "augmentation_id", "attribute_fire", "attribute_water", "attribute_wind", "attribute_earth", "attribute_holy", "attribute_unholy", "agathion_energy", "visual_id");
+		int objectId = OWNER_ID + 1;
+		
+		for (int l = 0; l < LOCATIONS.length; l++)
+		{
+			for (int i = 0; i < COUNTS[l]; i++)
+			{
+				int itemId = itemIds.get((objectId * 31) % itemIds.size());
+				items.addRow(objectId++, OWNER_ID, itemId, 1L, i % 10, LOCATIONS[l].name(), i, 0, 0, -1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+			}
+		}
+	}
+	
+	/**
+	 * Method operation.
+	 * @param invocation long
+	 * @return Object
+	 */
+	@Override
+	public Object operation(long invocation)
+	{
+		ItemsDAO dao = ItemsDAO.getInstance();
+		dao.getCache().removeAll();
+		int restored = 0;
+		
+		for (ItemLocation loc : LOCATIONS)
+		{
+			restored += dao.getItemsByOwnerIdAndLoc(OWNER_ID, loc).size();
+		}
+		
+		return restored;
+	}
+}
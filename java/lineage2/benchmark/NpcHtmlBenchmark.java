@@ -0,0 +1,62 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.benchmark;
+
+import lineage2.gameserver.model.Player;
+import lineage2.gameserver.model.instances.NpcInstance;
+import lineage2.gameserver.network.serverpackets.L2GameServerPacket;
+import lineage2.gameserver.network.serverpackets.NpcHtmlMessage;
+
+/**
+ * NpcHtmlMessage of the Giran gatekeeper, with the cache lookup, the replaces and the bypass encoding, written and encrypted.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class NpcHtmlBenchmark extends PacketBenchmark
+{
+	private static final int GATEKEEPER_ID = 30080;
+	private static final String FILE = "teleporter/30080.htm";
+	private Player _player;
+	private NpcInstance _npc;
+	
+	/**
+	 * Constructor for NpcHtmlBenchmark.
+	 */
+	public NpcHtmlBenchmark()
+	{
+		super("NpcHtmlMessage.render");
+	}
+	
+	/**
+	 * Method setup.
+	 * @throws Exception
+	 */
+	@Override
+	public void setup() throws Exception
+	{
+		super.setup();
+		_player = Fixtures.getPlayer();
+		_npc = Fixtures.getNpc(GATEKEEPER_ID);
+	}
+	
+	/**
+	 * Method newPacket.
+	 * @param invocation long
+	 * @return L2GameServerPacket
+	 */
+	@Override
+	protected L2GameServerPacket newPacket(long invocation)
+	{
+		return new NpcHtmlMessage(_player, _npc, FILE, 0);
+	}
+}
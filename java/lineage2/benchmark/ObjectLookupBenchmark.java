@@ -0,0 +1,68 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.benchmark;
+
+import java.util.List;
+
+import lineage2.gameserver.model.GameObjectsStorage;
+import lineage2.gameserver.model.instances.NpcInstance;
+
+/**
+ * GameObjectsStorage lookups of the spawned npcs, alternating by stored id and by object id.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class ObjectLookupBenchmark extends Benchmark
+{
+	private long[] _storedIds;
+	private int[] _objectIds;
+	
+	/**
+	 * Constructor for ObjectLookupBenchmark.
+	 */
+	public ObjectLookupBenchmark()
+	{
+		super("GameObjectsStorage.lookup");
+	}
+	
+	/**
+	 * Method setup.
+	 * @throws Exception
+	 */
+	@Override
+	public void setup() throws Exception
+	{
+		Fixtures.load();
+		List<NpcInstance> npcs = Fixtures.getNpcs();
+		_storedIds = new long[npcs.size()];
+		_objectIds = new int[npcs.size()];
+		
+		for (int i = 0; i < _storedIds.length; i++)
+		{
+			_storedIds[i] = npcs.get(i).getStoredId();
+			_objectIds[i] = npcs.get(i).getObjectId();
+		}
+	}
+	
+	/**
+	 * Method operation.
+	 * @param invocation long
+	 * @return Object
+	 */
+	@Override
+	public Object operation(long invocation)
+	{
+		int i = (int) (invocation % _storedIds.length);
+		return (invocation & 1) == 0 ? GameObjectsStorage.getAsNpc(_storedIds[i]) : GameObjectsStorage.getNpc(_objectIds[i]);
+	}
+}
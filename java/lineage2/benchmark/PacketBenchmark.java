@@ -0,0 +1,187 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.benchmark;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+
+import lineage2.commons.net.nio.impl.SelectorConfig;
+import lineage2.commons.net.nio.impl.SelectorThread;
+import lineage2.gameserver.network.GameClient;
+import lineage2.gameserver.network.GamePacketHandler;
+import lineage2.gameserver.network.serverpackets.L2GameServerPacket;
+
+/**
+ * Writes a server packet into the write buffer and encrypts it with GameCrypt, the work a SelectorThread does for every packet it sends.<br>
+ * The packets find their buffer and client through the current thread, so the iterations run on a SelectorThread whose loop is replaced by the benchmark. The client is connected to a local socket that is never read.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public abstract class PacketBenchmark extends Benchmark
+{
+	private static final SelectorConfig CONFIG = new SelectorConfig();
+	private BenchmarkSelector _selector;
+	private ServerSocket _server;
+	private GameClient _client;
+	
+	/**
+	 * @author Mobius
+	 */
+	private static class BenchmarkSelector extends SelectorThread<GameClient>
+	{
+		final ByteBuffer _buffer = ByteBuffer.wrap(new byte[CONFIG.WRITE_BUFFER_SIZE]).order(CONFIG.BYTE_ORDER);
+		GameClient _writeClient;
+		private final Runnable _task;
+		
+		/**
+		 * Constructor for BenchmarkSelector.
+		 * @param handler GamePacketHandler
+		 * @param task Runnable
+		 * @throws IOException
+		 */
+		BenchmarkSelector(GamePacketHandler handler, Runnable task) throws IOException
+		{
+			super(CONFIG, handler, handler, handler, null);
+			_task = task;
+		}
+		
+		/**
+		 * Method run.
+		 */
+		@Override
+		public void run()
+		{
+			_task.run();
+		}
+		
+		/**
+		 * Method getWriteClient.
+		 * @return GameClient
+		 */
+		@Override
+		protected GameClient getWriteClient()
+		{
+			return _writeClient;
+		}
+		
+		/**
+		 * Method getWriteBuffer.
+		 * @return ByteBuffer
+		 */
+		@Override
+		protected ByteBuffer getWriteBuffer()
+		{
+			return _buffer;
+		}
+	}
+	
+	/**
+	 * Constructor for PacketBenchmark.
+	 * @param name String
+	 */
+	protected PacketBenchmark(String name)
+	{
+		super(name);
+	}
+	
+	/**
+	 * Method newThread.
+	 * @param r Runnable
+	 * @return Thread
+	 */
+	@Override
+	public Thread newThread(Runnable r)
+	{
+		try
+		{
+			_selector = new BenchmarkSelector(new GamePacketHandler(), r);
+		}
+		catch (IOException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		
+		_selector.setName("Benchmark-" + getName());
+		return _selector;
+	}
+	
+	/**
+	 * Method setup.
+	 * @throws Exception
+	 */
+	@Override
+	public void setup() throws Exception
+	{
+		Fixtures.load();
+		_server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+		_client = _selector.openConnection(new InetSocketAddress(_server.getInetAddress(), _server.getLocalPort()));
+		_client.setActiveChar(Fixtures.getPlayer());
+		_client.enableCrypt();
+		// the first call only switches the cipher on, as for the KeyPacket
+		_client.encrypt(_selector._buffer, 0);
+		_selector._writeClient = _client;
+	}
+	
+	/**
+	 * Creates the packet of the invocation, packets keep their state and are written once.
+	 * @param invocation long
+	 * @return L2GameServerPacket
+	 */
+	protected abstract L2GameServerPacket newPacket(long invocation);
+	
+	/**
+	 * Method operation.
+	 * @param invocation long
+	 * @return Object
+	 */
+	@Override
+	public Object operation(long invocation)
+	{
+		ByteBuffer buffer = _selector._buffer;
+		buffer.clear();
+		buffer.position(CONFIG.HEADER_SIZE);
+		L2GameServerPacket packet = newPacket(invocation);
+		packet.write();
+		int size = buffer.position() - CONFIG.HEADER_SIZE;
+		buffer.position(CONFIG.HEADER_SIZE);
+		_client.encrypt(buffer, size);
+		return packet;
+	}
+	
+	/**
+	 * Method tearDown.
+	 */
+	@Override
+	public void tearDown()
+	{
+		if (_client != null)
+		{
+			_client.setActiveChar(null);
+		}
+		
+		try
+		{
+			if (_server != null)
+			{
+				_server.close();
+			}
+		}
+		catch (IOException e)
+		{
+			// ignore
+		}
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.benchmark;
+
+import java.util.List;
+
+import lineage2.gameserver.model.instances.NpcInstance;
+import lineage2.gameserver.network.serverpackets.L2GameServerPacket;
+import lineage2.gameserver.network.serverpackets.NpcInfo;
+
+/**
+ * NpcInfo of the spawned npcs, the most frequent packet of a crowded area, written and encrypted.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class PacketWriteBenchmark extends PacketBenchmark
+{
+	private NpcInstance[] _npcs;
+	
+	/**
+	 * Constructor for PacketWriteBenchmark.
+	 */
+	public PacketWriteBenchmark()
+	{
+		super("SelectorThread.write.NpcInfo");
+	}
+	
+	/**
+	 * Method setup.
+	 * @throws Exception
+	 */
+	@Override
+	public void setup() throws Exception
+	{
+		super.setup();
+		List<NpcInstance> npcs = Fixtures.getNpcs();
+		_npcs = npcs.toArray(new NpcInstance[npcs.size()]);
+	}
+	
+	/**
+	 * Method newPacket.
+	 * @param invocation long
+	 * @return L2GameServerPacket
+	 */
+	@Override
+	protected L2GameServerPacket newPacket(long invocation)
+	{
+		return new NpcInfo(_npcs[(int) (invocation % _npcs.length)], null);
+	}
+}
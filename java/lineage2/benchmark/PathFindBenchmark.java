@@ -0,0 +1,63 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.benchmark;
+
+import java.util.List;
+
+import lineage2.gameserver.geodata.GeoMove;
+import lineage2.gameserver.model.instances.NpcInstance;
+import lineage2.gameserver.utils.Location;
+
+/**
+ * Path finding through GeoMove.findMovePath, from every spawned npc to the location of another one.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class PathFindBenchmark extends Benchmark
+{
+	private NpcInstance[] _npcs;
+	
+	/**
+	 * Constructor for PathFindBenchmark.
+	 */
+	public PathFindBenchmark()
+	{
+		super("PathFind.findPath");
+	}
+	
+	/**
+	 * Method setup.
+	 * @throws Exception
+	 */
+	@Override
+	public void setup() throws Exception
+	{
+		Fixtures.load();
+		List<NpcInstance> npcs = Fixtures.getNpcs();
+		_npcs = npcs.toArray(new NpcInstance[npcs.size()]);
+	}
+	
+	/**
+	 * Method operation.
+	 * @param invocation long
+	 * @return Object
+	 */
+	@Override
+	public Object operation(long invocation)
+	{
+		int i = (int) (invocation % _npcs.length);
+		NpcInstance npc = _npcs[i];
+		Location target = _npcs[(i * 13 + 5) % _npcs.length].getLoc();
+		return GeoMove.findMovePath(npc.getX(), npc.getY(), npc.getZ(), target, npc, false, npc.getGeoIndex());
+	}
+}
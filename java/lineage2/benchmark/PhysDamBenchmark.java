@@ -0,0 +1,60 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.benchmark;
+
+import java.util.List;
+
+import lineage2.gameserver.model.instances.MonsterInstance;
+import lineage2.gameserver.stats.Formulas;
+
+/**
+ * Formulas.calcPhysDam of a plain melee hit between pairs of spawned monsters.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class PhysDamBenchmark extends Benchmark
+{
+	private MonsterInstance[] _monsters;
+	
+	/**
+	 * Constructor for PhysDamBenchmark.
+	 */
+	public PhysDamBenchmark()
+	{
+		super("Formulas.calcPhysDam");
+	}
+	
+	/**
+	 * Method setup.
+	 * @throws Exception
+	 */
+	@Override
+	public void setup() throws Exception
+	{
+		Fixtures.load();
+		List<MonsterInstance> monsters = Fixtures.getMonsters();
+		_monsters = monsters.toArray(new MonsterInstance[monsters.size()]);
+	}
+	
+	/**
+	 * Method operation.
+	 * @param invocation long
+	 * @return Object
+	 */
+	@Override
+	public Object operation(long invocation)
+	{
+		int i = (int) (invocation % _monsters.length);
+		return Formulas.calcPhysDam(_monsters[i], _monsters[(i + 1) % _monsters.length], null, false, false, false, false);
+	}
+}
@@ -0,0 +1,591 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for a local MySQL server, answering the queries of the DAOs from tables in memory.<br>
+ * Every executed statement waits one round trip, by default the 100 microseconds of a MySQL server on the same host, so the benchmarks count round trips the way a real database does. Only "SELECT columns FROM table [WHERE column = ? AND ...]" is evaluated, every other statement returns no rows.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public final class StandInDriver implements Driver
+{
+	public static final String URL = "jdbc:standin:l2jdb";
+	private static final Pattern SELECT = Pattern.compile("SELECT\\s+(.+?)\\s+FROM\\s+`?(\\w+)`?(?:\\s+WHERE\\s+(.+?))?\\s*;?\\s*$", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+	private static final Pattern CONDITION = Pattern.compile("`?(\\w+)`?\\s*=\\s*\\?");
+	private static final Map<String, Table> _tables = new ConcurrentHashMap<>();
+	private static volatile long _latency = 100000L;
+	
+	/**
+	 * Rows of one table, with the names of its columns.
+	 * @author Mobius
+	 */
+	public static final class Table
+	{
+		final List<String> columns;
+		final List<Object[]> rows = new ArrayList<>();
+		
+		/**
+		 * Constructor for Table.
+		 * @param columns String[]
+		 */
+		Table(String... columns)
+		{
+			this.columns = Arrays.asList(columns);
+		}
+		
+		/**
+		 * Method addRow.
+		 * @param values Object[] in the order of the columns
+		 */
+		public void addRow(Object... values)
+		{
+			rows.add(values);
+		}
+	}
+	
+	static
+	{
+		try
+		{
+			DriverManager.registerDriver(new StandInDriver());
+		}
+		catch (SQLException e)
+		{
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+	
+	/**
+	 * Method createTable.
+	 * @param name String
+	 * @param columns String[]
+	 * @return Table the new empty table, replacing any table of the name
+	 */
+	public static Table createTable(String name, String... columns)
+	{
+		Table table = new Table(columns);
+		_tables.put(name.toLowerCase(), table);
+		return table;
+	}
+	
+	/**
+	 * Method setLatency.
+	 * @param nanos long time of one round trip
+	 */
+	public static void setLatency(long nanos)
+	{
+		_latency = nanos;
+	}
+	
+	/**
+	 * Method roundTrip.
+	 */
+	static void roundTrip()
+	{
+		if (_latency > 0)
+		{
+			LockSupport.parkNanos(_latency);
+		}
+	}
+	
+	/**
+	 * Method connect.
+	 * @param url String
+	 * @param info Properties
+	 * @return Connection
+	 * @see java.sql.Driver#connect(String, Properties)
+	 */
+	@Override
+	public Connection connect(String url, Properties info)
+	{
+		return acceptsURL(url) ? proxy(Connection.class, new ConnectionHandler()) : null;
+	}
+	
+	/**
+	 * Method acceptsURL.
+	 * @param url String
+	 * @return boolean
+	 * @see java.sql.Driver#acceptsURL(String)
+	 */
+	@Override
+	public boolean acceptsURL(String url)
+	{
+		return (url != null) && url.startsWith("jdbc:standin:");
+	}
+	
+	/**
+	 * Method getPropertyInfo.
+	 * @param url String
+	 * @param info Properties
+	 * @return DriverPropertyInfo[]
+	 * @see java.sql.Driver#getPropertyInfo(String, Properties)
+	 */
+	@Override
+	public DriverPropertyInfo[] getPropertyInfo(String url, Properties info)
+	{
+		return new DriverPropertyInfo[0];
+	}
+	
+	/**
+	 * Method getMajorVersion.
+	 * @return int
+	 * @see java.sql.Driver#getMajorVersion()
+	 */
+	@Override
+	public int getMajorVersion()
+	{
+		return 1;
+	}
+	
+	/**
+	 * Method getMinorVersion.
+	 * @return int
+	 * @see java.sql.Driver#getMinorVersion()
+	 */
+	@Override
+	public int getMinorVersion()
+	{
+		return 0;
+	}
+	
+	/**
+	 * Method jdbcCompliant.
+	 * @return boolean
+	 * @see java.sql.Driver#jdbcCompliant()
+	 */
+	@Override
+	public boolean jdbcCompliant()
+	{
+		return false;
+	}
+	
+	/**
+	 * Method getParentLogger.
+	 * @return Logger
+	 * @throws SQLFeatureNotSupportedException
+	 * @see java.sql.Driver#getParentLogger()
+	 */
+	@Override
+	public Logger getParentLogger() throws SQLFeatureNotSupportedException
+	{
+		throw new SQLFeatureNotSupportedException();
+	}
+	
+	/**
+	 * Method proxy.
+	 * @param <T>
+	 * @param type Class<T>
+	 * @param handler InvocationHandler
+	 * @return T
+	 */
+	static <T> T proxy(Class<T> type, InvocationHandler handler)
+	{
+		return type.cast(Proxy.newProxyInstance(StandInDriver.class.getClassLoader(), new Class<?>[]
+		{
+			type
+		}, handler));
+	}
+	
+	/**
+	 * Method defaultValue.
+	 * @param type Class<?>
+	 * @return Object the value a method of the type returns when it is not simulated
+	 */
+	static Object defaultValue(Class<?> type)
+	{
+		if (type == boolean.class)
+		{
+			return Boolean.FALSE;
+		}
+		else if (type == int.class)
+		{
+			return 0;
+		}
+		else if (type == long.class)
+		{
+			return 0L;
+		}
+		else if (type == short.class)
+		{
+			return (short) 0;
+		}
+		else if (type == byte.class)
+		{
+			return (byte) 0;
+		}
+		else if (type == double.class)
+		{
+			return 0d;
+		}
+		else if (type == float.class)
+		{
+			return 0f;
+		}
+		else if (type.isArray() && (type.getComponentType() == int.class))
+		{
+			return new int[0];
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Evaluates a select against the tables.
+	 * @param sql String
+	 * @param parameters Map<Integer, Object>
+	 * @return ResultSet
+	 * @throws SQLException
+	 */
+	static ResultSet select(String sql, Map<Integer, Object> parameters) throws SQLException
+	{
+		Matcher m = SELECT.matcher(sql.trim());
+		List<Object[]> result = new ArrayList<>();
+		
+		if (!m.matches())
+		{
+			return proxy(ResultSet.class, new ResultSetHandler(new String[0], result));
+		}
+		
+		String[] columns = m.group(1).split("\\s*,\\s*");
+		Table table = _tables.get(m.group(2).toLowerCase());
+		
+		if (table == null)
+		{
+			if ((columns.length == 1) && columns[0].equals("1"))
+			{
+				result.add(new Object[]
+				{
+					1
+				});
+			}
+			
+			return proxy(ResultSet.class, new ResultSetHandler(columns, result));
+		}
+		
+		int[] projection = new int[columns.length];
+		
+		for (int i = 0; i < columns.length; i++)
+		{
+			columns[i] = columns[i].replace("`", "");
+			
+			if ((projection[i] = table.columns.indexOf(columns[i])) < 0)
+			{
+				throw new SQLException("Unknown column " + columns[i] + " in " + m.group(2));
+			}
+		}
+		
+		List<Integer> filters = new ArrayList<>();
+		
+		if (m.group(3) != null)
+		{
+			Matcher c = CONDITION.matcher(m.group(3));
+			
+			while (c.find())
+			{
+				int column = table.columns.indexOf(c.group(1));
+				
+				if (column < 0)
+				{
+					throw new SQLException("Unknown column " + c.group(1) + " in " + m.group(2));
+				}
+				
+				filters.add(column);
+			}
+		}
+		
+		rows:
+		for (Object[] row : table.rows)
+		{
+			for (int i = 0; i < filters.size(); i++)
+			{
+				Object value = parameters.get(i + 1);
+				
+				if ((value == null) || !String.valueOf(value).equals(String.valueOf(row[filters.get(i)])))
+				{
+					continue rows;
+				}
+			}
+			
+			Object[] values = new Object[projection.length];
+			
+			for (int i = 0; i < projection.length; i++)
+			{
+				values[i] = row[projection[i]];
+			}
+			
+			result.add(values);
+		}
+		
+		return proxy(ResultSet.class, new ResultSetHandler(columns, result));
+	}
+	
+	/**
+	 * @author Mobius
+	 */
+	private static final class ConnectionHandler implements InvocationHandler
+	{
+		private boolean _closed;
+		
+		/**
+		 * Constructor for ConnectionHandler.
+		 */
+		ConnectionHandler()
+		{
+		}
+		
+		/**
+		 * Method invoke.
+		 * @param proxy Object
+		 * @param method Method
+		 * @param args Object[]
+		 * @return Object
+		 * @see java.lang.reflect.InvocationHandler#invoke(Object, Method, Object[])
+		 */
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args)
+		{
+			switch (method.getName())
+			{
+				case "prepareStatement":
+					return proxy(PreparedStatement.class, new StatementHandler((String) args[0]));
+				
+				case "createStatement":
+					return proxy(Statement.class, new StatementHandler(null));
+				
+				case "close":
+					_closed = true;
+					return null;
+				
+				case "isClosed":
+					return _closed;
+				
+				case "isValid":
+				case "getAutoCommit":
+					return !_closed;
+				
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				
+				case "equals":
+					return proxy == args[0];
+				
+				case "toString":
+					return "StandInConnection";
+				
+				default:
+					return defaultValue(method.getReturnType());
+			}
+		}
+	}
+	
+	/**
+	 * @author Mobius
+	 */
+	private static final class StatementHandler implements InvocationHandler
+	{
+		private final String _sql;
+		private final Map<Integer, Object> _parameters = new ConcurrentHashMap<>();
+		private int _batch;
+		
+		/**
+		 * Constructor for StatementHandler.
+		 * @param sql String null for a plain statement
+		 */
+		StatementHandler(String sql)
+		{
+			_sql = sql;
+		}
+		
+		/**
+		 * Method invoke.
+		 * @param proxy Object
+		 * @param method Method
+		 * @param args Object[]
+		 * @return Object
+		 * @throws SQLException
+		 * @see java.lang.reflect.InvocationHandler#invoke(Object, Method, Object[])
+		 */
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws SQLException
+		{
+			String name = method.getName();
+			
+			if (name.startsWith("set") && (args != null) && (args.length == 2) && (args[0] instanceof Integer))
+			{
+				_parameters.put((Integer) args[0], args[1] == null ? "" : args[1]);
+				return null;
+			}
+			
+			switch (name)
+			{
+				case "executeQuery":
+					roundTrip();
+					return select((args != null) && (args.length > 0) ? (String) args[0] : _sql, _parameters);
+				
+				case "execute":
+				case "executeUpdate":
+					roundTrip();
+					return defaultValue(method.getReturnType());
+				
+				case "addBatch":
+					_batch++;
+					return null;
+				
+				case "executeBatch":
+					roundTrip();
+					int[] counts = new int[_batch];
+					Arrays.fill(counts, 1);
+					_batch = 0;
+					return counts;
+				
+				case "clearParameters":
+					_parameters.clear();
+					return null;
+				
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				
+				case "equals":
+					return proxy == args[0];
+				
+				case "toString":
+					return "StandInStatement[" + _sql + "]";
+				
+				default:
+					return defaultValue(method.getReturnType());
+			}
+		}
+	}
+	
+	/**
+	 * @author Mobius
+	 */
+	private static final class ResultSetHandler implements InvocationHandler
+	{
+		private final List<String> _columns;
+		private final List<Object[]> _rows;
+		private int _row = -1;
+		private boolean _wasNull;
+		
+		/**
+		 * Constructor for ResultSetHandler.
+		 * @param columns String[]
+		 * @param rows List<Object[]>
+		 */
+		ResultSetHandler(String[] columns, List<Object[]> rows)
+		{
+			_columns = Arrays.asList(columns);
+			_rows = rows;
+		}
+		
+		/**
+		 * Method invoke.
+		 * @param proxy Object
+		 * @param method Method
+		 * @param args Object[]
+		 * @return Object
+		 * @throws SQLException
+		 * @see java.lang.reflect.InvocationHandler#invoke(Object, Method, Object[])
+		 */
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws SQLException
+		{
+			String name = method.getName();
+			
+			switch (name)
+			{
+				case "next":
+					return ++_row < _rows.size();
+				
+				case "wasNull":
+					return _wasNull;
+				
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				
+				case "equals":
+					return proxy == args[0];
+				
+				case "toString":
+					return "StandInResultSet";
+			}
+			
+			if (!name.startsWith("get") || (args == null) || (args.length != 1) || (_row < 0) || (_row >= _rows.size()))
+			{
+				return defaultValue(method.getReturnType());
+			}
+			
+			int column = args[0] instanceof Integer ? (Integer) args[0] - 1 : _columns.indexOf(args[0]);
+			
+			if ((column < 0) || (column >= _rows.get(_row).length))
+			{
+				throw new SQLException("Column " + args[0] + " not found");
+			}
+			
+			Object value = _rows.get(_row)[column];
+			_wasNull = value == null;
+			Class<?> type = method.getReturnType();
+			
+			if (value == null)
+			{
+				return defaultValue(type);
+			}
+			else if (type == String.class)
+			{
+				return String.valueOf(value);
+			}
+			else if (type == int.class)
+			{
+				return ((Number) value).intValue();
+			}
+			else if (type == long.class)
+			{
+				return ((Number) value).longValue();
+			}
+			else if (type == double.class)
+			{
+				return ((Number) value).doubleValue();
+			}
+			else if (type == boolean.class)
+			{
+				return ((Number) value).intValue() != 0;
+			}
+			
+			return value;
+		}
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.benchmark;
+
+import lineage2.commons.threading.SteppingRunnableQueueManager;
+
+/**
+ * One tick of a SteppingRunnableQueueManager holding 10000 periodic tasks, with periods spread from one to one hundred ticks like the ai and decay tasks.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class SteppingQueueBenchmark extends Benchmark
+{
+	private static final int TASKS = 10000;
+	private static final long TICK = 10L;
+	private SteppingRunnableQueueManager _queue;
+	long _executed;
+	
+	/**
+	 * Constructor for SteppingQueueBenchmark.
+	 */
+	public SteppingQueueBenchmark()
+	{
+		super("SteppingRunnableQueueManager.tick");
+	}
+	
+	/**
+	 * Method setup.
+	 */
+	@Override
+	public void setup()
+	{
+		_queue = new SteppingRunnableQueueManager(TICK)
+		{
+		};
+		Runnable task = () -> _executed++;
+		
+		for (int i = 0; i < TASKS; i++)
+		{
+			long period = TICK * (1 + (i % 100));
+			_queue.scheduleAtFixedRate(task, period, period);
+		}
+	}
+	
+	/**
+	 * Method operation.
+	 * @param invocation long
+	 * @return Object
+	 */
+	@Override
+	public Object operation(long invocation)
+	{
+		_queue.run();
+		return _queue;
+	}
+}
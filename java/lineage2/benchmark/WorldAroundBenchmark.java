@@ -0,0 +1,59 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.benchmark;
+
+import java.util.List;
+
+import lineage2.gameserver.model.World;
+import lineage2.gameserver.model.instances.NpcInstance;
+
+/**
+ * World.getAroundCharacters around every spawned npc in turn, with the radius of the knownlist updates.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class WorldAroundBenchmark extends Benchmark
+{
+	private NpcInstance[] _npcs;
+	
+	/**
+	 * Constructor for WorldAroundBenchmark.
+	 */
+	public WorldAroundBenchmark()
+	{
+		super("World.getAroundCharacters");
+	}
+	
+	/**
+	 * Method setup.
+	 * @throws Exception
+	 */
+	@Override
+	public void setup() throws Exception
+	{
+		Fixtures.load();
+		List<NpcInstance> npcs = Fixtures.getNpcs();
+		_npcs = npcs.toArray(new NpcInstance[npcs.size()]);
+	}
+	
+	/**
+	 * Method operation.
+	 * @param invocation long
+	 * @return Object
+	 */
+	@Override
+	public Object operation(long invocation)
+	{
+		return World.getAroundCharacters(_npcs[(int) (invocation % _npcs.length)], 1500, 400);
+	}
+}
@@ -14,10 +14,16 @@ package lineage2.commons.data.xml;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.util.Collection;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.FileFilterUtils;
+import org.dom4j.Document;
 
 /**
  * @author Mobius
@@ -54,6 +60,15 @@ public abstract class AbstractDirParser<H extends AbstractHolder> extends Abstra
 	 */
 	public abstract String getDTDFileName();
 	
+	/**
+	 * Tells whether the files of the directory are read and validated on the fork-join pool. readData still runs on the loading thread in file order, so the holder is filled as by a serial load.
+	 * @return boolean
+	 */
+	protected boolean isParallel()
+	{
+		return false;
+	}
+	
 	/**
 	 * Method parse.
 	 */
@@ -80,23 +95,31 @@ public abstract class AbstractDirParser<H extends AbstractHolder> extends Abstra
 		
 		try
 		{
-			Collection<File> files = FileUtils.listFiles(dir, FileFilterUtils.suffixFileFilter(".xml"), FileFilterUtils.directoryFileFilter());
+			List<File> files = new ArrayList<>();
+			
+			for (File f : FileUtils.listFiles(dir, FileFilterUtils.suffixFileFilter(".xml"), FileFilterUtils.directoryFileFilter()))
+			{
+				if (!f.isHidden() && !isIgnored(f))
+				{
+					files.add(f);
+				}
+			}
+			
+			if (isParallel() && (files.size() > 1) && (ForkJoinPool.getCommonPoolParallelism() > 1))
+			{
+				parseParallel(files);
+				return;
+			}
 			
 			for (File f : files)
 			{
-				if (!f.isHidden())
+				try (InputStream in = new FileInputStream(f))
+				{
+					parseDocument(in, f.getName());
+				}
+				catch (Exception e)
 				{
-					if (!isIgnored(f))
-					{
-						try
-						{
-							parseDocument(new FileInputStream(f), f.getName());
-						}
-						catch (Exception e)
-						{
-							info("Exception: " + e + " in file: " + f.getName(), e);
-						}
-					}
+					info("Exception: " + e + " in file: " + f.getName(), e);
 				}
 			}
 		}
@@ -105,4 +128,72 @@ public abstract class AbstractDirParser<H extends AbstractHolder> extends Abstra
 			warn("Exception: " + e, e);
 		}
 	}
+	
+	/**
+	 * Reads the files on the fork-join pool and hands their documents to readData in file order. Only a window of files is read ahead, so no more than that many documents are held at once.
+	 * @param files List<File>
+	 * @throws InterruptedException
+	 */
+	private void parseParallel(List<File> files) throws InterruptedException
+	{
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		int window = Math.max(2, pool.getParallelism() * 2);
+		List<Future<Document>> documents = new ArrayList<>(files.size());
+		
+		for (int i = 0; i < Math.min(window, files.size()); i++)
+		{
+			final File f = files.get(i);
+			documents.add(pool.submit(() -> readFile(f)));
+		}
+		
+		for (int i = 0; i < files.size(); i++)
+		{
+			if ((i + window) < files.size())
+			{
+				final File next = files.get(i + window);
+				documents.add(pool.submit(() -> readFile(next)));
+			}
+			
+			String name = files.get(i).getName();
+			Document document;
+			
+			try
+			{
+				document = documents.set(i, null).get();
+			}
+			catch (ExecutionException e)
+			{
+				info("Exception: " + e.getCause() + " in file: " + name, e);
+				continue;
+			}
+			
+			try
+			{
+				setCurrentFileName(name);
+				readData(document.getRootElement());
+			}
+			catch (Exception e)
+			{
+				info("Exception: " + e + " in file: " + name, e);
+			}
+		}
+	}
+	
+	/**
+	 * Method readFile.
+	 * @param f File
+	 * @return Document
+	 * @throws Exception
+	 */
+	private Document readFile(File f) throws Exception
+	{
+		try (InputStream in = new FileInputStream(f))
+		{
+			return readDocument(newReader(), in, f.getName());
+		}
+		finally
+		{
+			setCurrentFileName(null);
+		}
+	}
 }
@@ -19,8 +19,10 @@ import lineage2.commons.data.xml.helpers.ErrorHandlerImpl;
 import lineage2.commons.data.xml.helpers.SimpleDTDEntityResolver;
 import lineage2.commons.logging.LoggerObject;
 
+import org.dom4j.Document;
 import org.dom4j.Element;
 import org.dom4j.io.SAXReader;
+import org.xml.sax.EntityResolver;
 
 /**
  * @author Mobius
@@ -30,8 +32,10 @@ import org.dom4j.io.SAXReader;
 public abstract class AbstractParser<H extends AbstractHolder> extends LoggerObject
 {
 	private final H _holder;
-	private String _currentFile;
+	/** The file read by each thread, so a reader working beside the loading thread reports its own file. */
+	private final ThreadLocal<String> _currentFile = new ThreadLocal<>();
 	private final SAXReader _reader;
+	private volatile EntityResolver _entityResolver;
 	
 	/**
 	 * Constructor for AbstractParser.
@@ -40,9 +44,20 @@ public abstract class AbstractParser<H extends AbstractHolder> extends LoggerObj
 	protected AbstractParser(H holder)
 	{
 		_holder = holder;
-		_reader = new SAXReader();
-		_reader.setValidation(true);
-		_reader.setErrorHandler(new ErrorHandlerImpl(this));
+		_reader = newReader();
+	}
+	
+	/**
+	 * Method newReader.
+	 * @return SAXReader a validating reader, a SAXReader must not be shared between threads
+	 */
+	protected SAXReader newReader()
+	{
+		SAXReader reader = new SAXReader();
+		reader.setValidation(true);
+		reader.setErrorHandler(new ErrorHandlerImpl(this));
+		reader.setEntityResolver(_entityResolver);
+		return reader;
 	}
 	
 	/**
@@ -51,7 +66,8 @@ public abstract class AbstractParser<H extends AbstractHolder> extends LoggerObj
 	 */
 	protected void initDTD(File f)
 	{
-		_reader.setEntityResolver(new SimpleDTDEntityResolver(f));
+		_entityResolver = new SimpleDTDEntityResolver(f);
+		_reader.setEntityResolver(_entityResolver);
 	}
 	
 	/**
@@ -62,9 +78,21 @@ public abstract class AbstractParser<H extends AbstractHolder> extends LoggerObj
 	 */
 	protected void parseDocument(InputStream f, String name) throws Exception
 	{
-		_currentFile = name;
-		org.dom4j.Document document = _reader.read(f);
-		readData(document.getRootElement());
+		readData(readDocument(_reader, f, name).getRootElement());
+	}
+	
+	/**
+	 * Method readDocument.
+	 * @param reader SAXReader
+	 * @param f InputStream
+	 * @param name String
+	 * @return Document
+	 * @throws Exception
+	 */
+	protected Document readDocument(SAXReader reader, InputStream f, String name) throws Exception
+	{
+		setCurrentFileName(name);
+		return reader.read(f);
 	}
 	
 	/**
@@ -94,7 +122,23 @@ public abstract class AbstractParser<H extends AbstractHolder> extends LoggerObj
 	 */
 	public String getCurrentFileName()
 	{
-		return _currentFile;
+		return _currentFile.get();
+	}
+	
+	/**
+	 * Method setCurrentFileName.
+	 * @param name String the file read by the calling thread, null when it is done
+	 */
+	protected void setCurrentFileName(String name)
+	{
+		if (name == null)
+		{
+			_currentFile.remove();
+		}
+		else
+		{
+			_currentFile.set(name);
+		}
 	}
 	
 	/**
@@ -14,29 +14,68 @@ package lineage2.commons.dbcp;
 
 import java.io.PrintWriter;
 import java.sql.Connection;
+import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.Properties;
-import java.util.logging.Logger;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.sql.DataSource;
 
-import org.apache.commons.dbcp.ConnectionFactory;
-import org.apache.commons.dbcp.DriverManagerConnectionFactory;
-import org.apache.commons.dbcp.PoolableConnectionFactory;
-import org.apache.commons.dbcp.PoolingDataSource;
-import org.apache.commons.pool.ObjectPool;
-import org.apache.commons.pool.impl.GenericKeyedObjectPool;
-import org.apache.commons.pool.impl.GenericKeyedObjectPoolFactory;
-import org.apache.commons.pool.impl.GenericObjectPool;
+import lineage2.commons.dbcp.PooledConnection.Lease;
+import lineage2.commons.threading.LatencyHistogram;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
+ * Connection pool of the servers.<br>
+ * At most maxActive connections are borrowed at once; a borrower finding none free waits up to the connection timeout. Idle connections are handed out most recently used first, so the ones left over age out and get closed after idleTimeOut.<br>
+ * Each connection caches its prepared statements by SQL text, so a repeated prepareStatement skips the parsing of the driver. Every execution is timed and counted per SQL text, a borrow held longer than the leak threshold is logged with the stack of the borrower, and the pool state and the slowest statements are logged every report interval.
  * @author Mobius
  * @version $Revision: 1.0 $
  */
 public class BasicDataSource implements DataSource
 {
-	private final PoolingDataSource _source;
-	private final ObjectPool<?> _connectionPool;
+	private static final Logger _log = LoggerFactory.getLogger(BasicDataSource.class);
+	/** Idle connections unused for longer than this are validated before they are handed out. */
+	private static final long VALIDATE_AFTER = 30000L;
+	private static final int VALIDATION_TIMEOUT = 5;
+	private final String _connectURI;
+	private final Properties _connectionProperties = new Properties();
+	private final int _maxActive;
+	private final int _maxIdle;
+	private final long _idleTimeOut;
+	private final long _idleTestPeriod;
+	private final Semaphore _permits;
+	private final ConcurrentLinkedDeque<PooledConnection> _idle = new ConcurrentLinkedDeque<>();
+	private final Set<Lease> _leases = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger _total = new AtomicInteger();
+	private final AtomicInteger _waiting = new AtomicInteger();
+	private final LongAdder _created = new LongAdder();
+	private final LongAdder _timeouts = new LongAdder();
+	private final LongAdder _leaks = new LongAdder();
+	private final LongAdder _statementHits = new LongAdder();
+	private final LongAdder _statementMisses = new LongAdder();
+	private final LatencyHistogram _borrowWait = new LatencyHistogram();
+	private final QueryStats.Registry _queryStats = new QueryStats.Registry();
+	private final ScheduledExecutorService _housekeeper;
+	private volatile int _statementCacheSize;
+	private volatile long _connectionTimeout = 30000L;
+	private volatile long _leakThreshold;
+	private volatile long _reportInterval;
+	private volatile boolean _shutdown;
+	private long _lastTest = System.currentTimeMillis();
+	private long _lastReport = System.currentTimeMillis();
+	private PrintWriter _logWriter;
 	
 	/**
 	 * Constructor for BasicDataSource.
@@ -48,36 +87,81 @@ public class BasicDataSource implements DataSource
 	 * @param maxIdle int
 	 * @param idleTimeOut int
 	 * @param idleTestPeriod int
-	 * @param poolPreparedStatements boolean
+	 * @param poolPreparedStatements boolean caches up to 64 prepared statements per connection, see setStatementCacheSize
 	 */
 	public BasicDataSource(String driver, String connectURI, String uname, String passwd, int maxActive, int maxIdle, int idleTimeOut, int idleTestPeriod, boolean poolPreparedStatements)
 	{
-		GenericObjectPool<?> connectionPool = new GenericObjectPool<>(null);
-		connectionPool.setMaxActive(maxActive);
-		connectionPool.setMaxIdle(maxIdle);
-		connectionPool.setMinIdle(1);
-		connectionPool.setMaxWait(-1L);
-		connectionPool.setWhenExhaustedAction(GenericObjectPool.WHEN_EXHAUSTED_GROW);
-		connectionPool.setTestOnBorrow(false);
-		connectionPool.setTestWhileIdle(true);
-		connectionPool.setTimeBetweenEvictionRunsMillis(idleTestPeriod * 1000L);
-		connectionPool.setNumTestsPerEvictionRun(maxActive);
-		connectionPool.setMinEvictableIdleTimeMillis(idleTimeOut * 1000L);
-		GenericKeyedObjectPoolFactory<?, ?> statementPoolFactory = null;
-		
-		if (poolPreparedStatements)
+		try
 		{
-			statementPoolFactory = new GenericKeyedObjectPoolFactory<>(null, -1, GenericObjectPool.WHEN_EXHAUSTED_FAIL, 0L, 1, GenericKeyedObjectPool.DEFAULT_MAX_TOTAL);
+			Class.forName(driver);
+		}
+		catch (ClassNotFoundException e)
+		{
+			_log.warn("BasicDataSource: driver " + driver + " not found, relying on the registered drivers.");
 		}
 		
-		Properties connectionProperties = new Properties();
-		connectionProperties.put("user", uname);
-		connectionProperties.put("password", passwd);
-		ConnectionFactory connectionFactory = new DriverManagerConnectionFactory(connectURI, connectionProperties);
-		new PoolableConnectionFactory(connectionFactory, connectionPool, statementPoolFactory, "SELECT 1", false, true);
-		PoolingDataSource dataSource = new PoolingDataSource(connectionPool);
-		_connectionPool = connectionPool;
-		_source = dataSource;
+		_connectURI = connectURI;
+		_connectionProperties.put("user", uname);
+		_connectionProperties.put("password", passwd);
+		_maxActive = Math.max(1, maxActive);
+		_maxIdle = Math.max(1, maxIdle);
+		_idleTimeOut = idleTimeOut * 1000L;
+		_idleTestPeriod = idleTestPeriod * 1000L;
+		_permits = new Semaphore(_maxActive);
+		_statementCacheSize = poolPreparedStatements ? 64 : 0;
+		_housekeeper = new ScheduledThreadPoolExecutor(1, r ->
+		{
+			Thread thread = new Thread(r, "DatabasePool");
+			thread.setDaemon(true);
+			return thread;
+		});
+		_housekeeper.scheduleWithFixedDelay(this::housekeeping, 1000L, 1000L, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Method setStatementCacheSize.
+	 * @param size int prepared statements cached per connection, 0 disables the cache
+	 */
+	public void setStatementCacheSize(int size)
+	{
+		_statementCacheSize = Math.max(0, size);
+	}
+	
+	/**
+	 * Method getStatementCacheSize.
+	 * @return int
+	 */
+	public int getStatementCacheSize()
+	{
+		return _statementCacheSize;
+	}
+	
+	/**
+	 * Method setConnectionTimeout.
+	 * @param millis long longest wait for a free connection before getConnection fails
+	 */
+	public void setConnectionTimeout(long millis)
+	{
+		_connectionTimeout = Math.max(0, millis);
+	}
+	
+	/**
+	 * Method setLeakDetectionThreshold.<br>
+	 * When enabled every borrow records the stack of its caller, which costs a few microseconds.
+	 * @param millis long a connection held longer is logged with the stack of its borrower, 0 disables
+	 */
+	public void setLeakDetectionThreshold(long millis)
+	{
+		_leakThreshold = Math.max(0, millis);
+	}
+	
+	/**
+	 * Method setReportInterval.
+	 * @param millis long interval of the logged getStats report, 0 disables
+	 */
+	public void setReportInterval(long millis)
+	{
+		_reportInterval = Math.max(0, millis);
 	}
 	
 	/**
@@ -89,7 +173,249 @@ public class BasicDataSource implements DataSource
 	 */
 	public Connection getConnection(Connection con) throws SQLException
 	{
-		return (con == null) || con.isClosed() ? _source.getConnection() : con;
+		return (con == null) || con.isClosed() ? borrow() : con;
+	}
+	
+	/**
+	 * Method getConnection.
+	 * @return Connection
+	 * @throws SQLException
+	 * @see javax.sql.DataSource#getConnection()
+	 */
+	@Override
+	public Connection getConnection() throws SQLException
+	{
+		return borrow();
+	}
+	
+	/**
+	 * Method borrow.
+	 * @return Connection
+	 * @throws SQLException
+	 */
+	private Connection borrow() throws SQLException
+	{
+		if (_shutdown)
+		{
+			throw new SQLException("Connection pool is shut down");
+		}
+		
+		long start = System.nanoTime();
+		
+		if (!_permits.tryAcquire())
+		{
+			_waiting.incrementAndGet();
+			
+			try
+			{
+				if (!_permits.tryAcquire(_connectionTimeout, TimeUnit.MILLISECONDS))
+				{
+					_timeouts.increment();
+					throw new SQLException("Connection pool exhausted: " + _maxActive + " connections busy for " + _connectionTimeout + " ms");
+				}
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw new SQLException("Interrupted while waiting for a connection", e);
+			}
+			finally
+			{
+				_waiting.decrementAndGet();
+			}
+		}
+		
+		try
+		{
+			PooledConnection connection = borrowIdle();
+			
+			if (connection == null)
+			{
+				connection = new PooledConnection(this, DriverManager.getConnection(_connectURI, _connectionProperties));
+				_total.incrementAndGet();
+				_created.increment();
+			}
+			
+			Connection lease = connection.lease(_leakThreshold > 0 ? new Throwable("Connection borrowed") : null);
+			_leases.add(connection.getLease());
+			_borrowWait.record(System.nanoTime() - start);
+			connectionBorrowed(lease);
+			return lease;
+		}
+		catch (SQLException | RuntimeException e)
+		{
+			_permits.release();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Takes the most recently used idle connection, validating it when it was idle for long.
+	 * @return PooledConnection null when none is idle
+	 */
+	private PooledConnection borrowIdle()
+	{
+		PooledConnection connection;
+		
+		while ((connection = _idle.pollFirst()) != null)
+		{
+			if (((System.currentTimeMillis() - connection.getLastUsed()) < VALIDATE_AFTER) || connection.isValid(VALIDATION_TIMEOUT))
+			{
+				return connection;
+			}
+			
+			destroy(connection);
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Called on the borrowing thread once a connection is handed out.
+	 * @param con Connection
+	 */
+	protected void connectionBorrowed(Connection con)
+	{
+	}
+	
+	/**
+	 * Called when the borrower closed a connection, before it returns to the pool.
+	 * @param con Connection
+	 */
+	protected void connectionReleased(Connection con)
+	{
+	}
+	
+	/**
+	 * Called by a lease when its borrower closed it.
+	 * @param lease Lease
+	 */
+	void release(Lease lease)
+	{
+		PooledConnection connection = lease.getConnection();
+		_leases.remove(lease);
+		
+		try
+		{
+			connectionReleased(lease._proxy);
+			
+			if (connection.passivate() && !_shutdown && (_idle.size() < _maxIdle))
+			{
+				_idle.offerFirst(connection);
+			}
+			else
+			{
+				destroy(connection);
+			}
+		}
+		finally
+		{
+			_permits.release();
+		}
+	}
+	
+	/**
+	 * Method destroy.
+	 * @param connection PooledConnection
+	 */
+	private void destroy(PooledConnection connection)
+	{
+		_total.decrementAndGet();
+		connection.closePhysical();
+	}
+	
+	/**
+	 * Closes connections idle for longer than idleTimeOut, validates the idle ones every idleTestPeriod, reports leaks and logs the report.
+	 */
+	private void housekeeping()
+	{
+		try
+		{
+			long now = System.currentTimeMillis();
+			
+			if (_idleTimeOut > 0)
+			{
+				for (Iterator<PooledConnection> iterator = _idle.descendingIterator(); iterator.hasNext() && (_idle.size() > 1);)
+				{
+					PooledConnection connection = iterator.next();
+					
+					if (((now - connection.getLastUsed()) > _idleTimeOut) && _idle.removeLastOccurrence(connection))
+					{
+						destroy(connection);
+					}
+				}
+			}
+			
+			if ((_idleTestPeriod > 0) && ((now - _lastTest) >= _idleTestPeriod))
+			{
+				_lastTest = now;
+				
+				for (PooledConnection connection : _idle)
+				{
+					if (((now - connection.getLastUsed()) >= _idleTestPeriod) && _idle.removeLastOccurrence(connection))
+					{
+						if (connection.isValid(VALIDATION_TIMEOUT))
+						{
+							_idle.offerLast(connection);
+						}
+						else
+						{
+							destroy(connection);
+						}
+					}
+				}
+			}
+			
+			long leakThreshold = _leakThreshold;
+			
+			if (leakThreshold > 0)
+			{
+				for (Lease lease : _leases)
+				{
+					if (!lease._leakReported && ((now - lease._borrowed) > leakThreshold))
+					{
+						lease._leakReported = true;
+						_leaks.increment();
+						_log.warn("BasicDataSource: connection held for " + (now - lease._borrowed) + " ms by " + lease._thread + ", possible leak", lease._borrower);
+					}
+				}
+			}
+			
+			if ((_reportInterval > 0) && ((now - _lastReport) >= _reportInterval))
+			{
+				_lastReport = now;
+				_log.info(getStats().toString());
+			}
+		}
+		catch (Exception e)
+		{
+			_log.error("BasicDataSource: housekeeping failed", e);
+		}
+	}
+	
+	/**
+	 * Method statementCacheHit.
+	 */
+	void statementCacheHit()
+	{
+		_statementHits.increment();
+	}
+	
+	/**
+	 * Method statementCacheMiss.
+	 */
+	void statementCacheMiss()
+	{
+		_statementMisses.increment();
+	}
+	
+	/**
+	 * Method getQueryStats.
+	 * @return QueryStats.Registry
+	 */
+	QueryStats.Registry getQueryStats()
+	{
+		return _queryStats;
 	}
 	
 	/**
@@ -98,7 +424,7 @@ public class BasicDataSource implements DataSource
 	 */
 	public int getBusyConnectionCount()
 	{
-		return _connectionPool.getNumActive();
+		return _leases.size();
 	}
 	
 	/**
@@ -107,7 +433,47 @@ public class BasicDataSource implements DataSource
 	 */
 	public int getIdleConnectionCount()
 	{
-		return _connectionPool.getNumIdle();
+		return _idle.size();
+	}
+	
+	/**
+	 * Method getWaitingThreadCount.
+	 * @return int
+	 */
+	public int getWaitingThreadCount()
+	{
+		return _waiting.get();
+	}
+	
+	/**
+	 * Method getStats.
+	 * @return CharSequence the state of the pool and the statements with the most total time
+	 */
+	public CharSequence getStats()
+	{
+		StringBuilder list = new StringBuilder();
+		long[] wait = _borrowWait.getPercentiles(50, 99);
+		list.append("DatabasePool\n");
+		list.append("=================================================\n");
+		list.append("\tBusy: ................ ").append(getBusyConnectionCount()).append('/').append(_maxActive).append('\n');
+		list.append("\tIdle: ................ ").append(getIdleConnectionCount()).append('\n');
+		list.append("\tOpen: ................ ").append(_total.get()).append('\n');
+		list.append("\tWaiting: ............. ").append(getWaitingThreadCount()).append('\n');
+		list.append("\tBorrowed: ............ ").append(_borrowWait.getCount()).append('\n');
+		list.append("\tCreated: ............. ").append(_created.sum()).append('\n');
+		list.append("\tTimeouts: ............ ").append(_timeouts.sum()).append('\n');
+		list.append("\tLeaks: ............... ").append(_leaks.sum()).append('\n');
+		list.append("\tBorrow wait (us): .... p50=").append(TimeUnit.NANOSECONDS.toMicros(wait[0])).append(" p99=").append(TimeUnit.NANOSECONDS.toMicros(wait[1])).append(" max=").append(TimeUnit.NANOSECONDS.toMicros(Math.max(0, _borrowWait.getMax()))).append('\n');
+		list.append("\tStatement cache: ..... ").append(_statementHits.sum()).append(" hits, ").append(_statementMisses.sum()).append(" misses\n");
+		list.append("Statements by total time\n");
+		list.append("=================================================\n");
+		
+		for (QueryStats stats : _queryStats.getTop(20))
+		{
+			stats.appendTo(list);
+		}
+		
+		return list;
 	}
 	
 	/**
@@ -116,7 +482,14 @@ public class BasicDataSource implements DataSource
 	 */
 	public void shutdown() throws Exception
 	{
-		_connectionPool.close();
+		_shutdown = true;
+		_housekeeper.shutdownNow();
+		PooledConnection connection;
+		
+		while ((connection = _idle.pollFirst()) != null)
+		{
+			destroy(connection);
+		}
 	}
 	
 	/**
@@ -127,7 +500,7 @@ public class BasicDataSource implements DataSource
 	@Override
 	public PrintWriter getLogWriter()
 	{
-		return _source.getLogWriter();
+		return _logWriter;
 	}
 	
 	/**
@@ -138,7 +511,7 @@ public class BasicDataSource implements DataSource
 	@Override
 	public void setLogWriter(PrintWriter out)
 	{
-		_source.setLogWriter(out);
+		_logWriter = out;
 	}
 	
 	/**
@@ -165,11 +538,11 @@ public class BasicDataSource implements DataSource
 	
 	/**
 	 * Method getParentLogger.
-	 * @return Logger
+	 * @return java.util.logging.Logger
 	 * @see javax.sql.CommonDataSource#getParentLogger()
 	 */
 	@Override
-	public Logger getParentLogger()
+	public java.util.logging.Logger getParentLogger()
 	{
 		throw new UnsupportedOperationException();
 	}
@@ -198,18 +571,6 @@ public class BasicDataSource implements DataSource
 		return false;
 	}
 	
-	/**
-	 * Method getConnection.
-	 * @return Connection
-	 * @throws SQLException
-	 * @see javax.sql.DataSource#getConnection()
-	 */
-	@Override
-	public Connection getConnection() throws SQLException
-	{
-		return _source.getConnection();
-	}
-	
 	/**
 	 * Method getConnection.
 	 * @param username String
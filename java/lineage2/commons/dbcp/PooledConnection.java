@@ -0,0 +1,442 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.commons.dbcp;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * A driver connection owned by the pool, with the prepared statements cached on it by SQL text.<br>
+ * Each borrow gets its own Lease proxy, so a reference kept after close() can not reach the connection once another thread borrowed it.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+final class PooledConnection
+{
+	private final BasicDataSource _pool;
+	private final Connection _connection;
+	/** Prepared statements by text, least recently used first. */
+	private final LinkedHashMap<String, PooledStatement> _statements = new LinkedHashMap<>(16, 0.75f, true);
+	/** Statements handed out during the current lease. */
+	private final List<PooledStatement> _open = new ArrayList<>();
+	private long _lastUsed = System.currentTimeMillis();
+	private volatile Lease _lease;
+	private boolean _broken;
+	private boolean _autoCommitChanged;
+	private boolean _readOnlyChanged;
+	
+	/**
+	 * Constructor for PooledConnection.
+	 * @param pool BasicDataSource
+	 * @param connection Connection
+	 */
+	PooledConnection(BasicDataSource pool, Connection connection)
+	{
+		_pool = pool;
+		_connection = connection;
+	}
+	
+	/**
+	 * Method getPool.
+	 * @return BasicDataSource
+	 */
+	BasicDataSource getPool()
+	{
+		return _pool;
+	}
+	
+	/**
+	 * Method getLastUsed.
+	 * @return long
+	 */
+	long getLastUsed()
+	{
+		return _lastUsed;
+	}
+	
+	/**
+	 * Method getLease.
+	 * @return Lease null when idle
+	 */
+	Lease getLease()
+	{
+		return _lease;
+	}
+	
+	/**
+	 * Method getLeaseProxy.
+	 * @return Connection
+	 */
+	Connection getLeaseProxy()
+	{
+		Lease lease = _lease;
+		return lease == null ? null : lease._proxy;
+	}
+	
+	/**
+	 * Hands the connection to a borrower.
+	 * @param borrower Throwable the call site of the borrower, null without leak detection
+	 * @return Connection
+	 */
+	Connection lease(Throwable borrower)
+	{
+		Lease lease = new Lease(borrower);
+		_lease = lease;
+		return lease._proxy;
+	}
+	
+	/**
+	 * Tells whether the connection answers.
+	 * @param timeout int seconds
+	 * @return boolean
+	 */
+	boolean isValid(int timeout)
+	{
+		try
+		{
+			return !_broken && _connection.isValid(timeout);
+		}
+		catch (SQLException e)
+		{
+			return false;
+		}
+	}
+	
+	/**
+	 * Marks the connection broken when the driver reports a lost link.
+	 * @param e SQLException
+	 */
+	void checkBroken(SQLException e)
+	{
+		String state = e.getSQLState();
+		
+		if ((state != null) && state.startsWith("08"))
+		{
+			_broken = true;
+		}
+	}
+	
+	/**
+	 * Method prepareStatement.
+	 * @param sql String
+	 * @return Statement
+	 * @throws SQLException
+	 */
+	Statement prepareStatement(String sql) throws SQLException
+	{
+		int cacheSize = _pool.getStatementCacheSize();
+		PooledStatement statement = cacheSize > 0 ? _statements.get(sql) : null;
+		
+		if ((statement != null) && statement.isClosed())
+		{
+			_pool.statementCacheHit();
+			statement.reopen();
+		}
+		else
+		{
+			_pool.statementCacheMiss();
+			boolean cache = (cacheSize > 0) && (statement == null);
+			statement = new PooledStatement(this, _connection.prepareStatement(sql), sql, cache);
+			
+			if (cache)
+			{
+				_statements.put(sql, statement);
+				evict(cacheSize);
+			}
+		}
+		
+		_open.add(statement);
+		return statement.getProxy();
+	}
+	
+	/**
+	 * Closes the least recently used parked statements above the cache size.
+	 * @param cacheSize int
+	 */
+	private void evict(int cacheSize)
+	{
+		for (Iterator<PooledStatement> iterator = _statements.values().iterator(); (_statements.size() > cacheSize) && iterator.hasNext();)
+		{
+			PooledStatement statement = iterator.next();
+			iterator.remove();
+			statement.setCached(false);
+			
+			if (statement.isClosed())
+			{
+				statement.closePhysical();
+			}
+		}
+	}
+	
+	/**
+	 * Method track.
+	 * @param statement Statement a driver statement that is not cached
+	 * @param sql String null for a plain statement
+	 * @return Statement
+	 */
+	Statement track(Statement statement, String sql)
+	{
+		PooledStatement pooled = new PooledStatement(this, statement, sql, false);
+		_open.add(pooled);
+		return pooled.getProxy();
+	}
+	
+	/**
+	 * Called when the borrower closed a statement.
+	 * @param statement PooledStatement
+	 */
+	void statementClosed(PooledStatement statement)
+	{
+		_open.remove(statement);
+		
+		if (statement.isCached() && !_broken && statement.passivate())
+		{
+			return;
+		}
+		
+		if (statement.isCached())
+		{
+			statement.setCached(false);
+			_statements.remove(statement.getSql());
+		}
+		
+		statement.closePhysical();
+	}
+	
+	/**
+	 * Ends the lease: closes the statements left open and restores the defaults of the connection.
+	 * @return boolean false when the connection can not be reused
+	 */
+	boolean passivate()
+	{
+		_lease = null;
+		_lastUsed = System.currentTimeMillis();
+		
+		for (PooledStatement statement : _open.toArray(new PooledStatement[_open.size()]))
+		{
+			try
+			{
+				statement.getProxy().close();
+			}
+			catch (SQLException e)
+			{
+				statement.closePhysical();
+			}
+		}
+		
+		_open.clear();
+		
+		if (_broken)
+		{
+			return false;
+		}
+		
+		try
+		{
+			if (_autoCommitChanged)
+			{
+				if (!_connection.getAutoCommit())
+				{
+					_connection.rollback();
+					_connection.setAutoCommit(true);
+				}
+				
+				_autoCommitChanged = false;
+			}
+			
+			if (_readOnlyChanged)
+			{
+				_connection.setReadOnly(false);
+				_readOnlyChanged = false;
+			}
+			
+			_connection.clearWarnings();
+			return true;
+		}
+		catch (SQLException e)
+		{
+			return false;
+		}
+	}
+	
+	/**
+	 * Closes the cached statements and the driver connection.
+	 */
+	void closePhysical()
+	{
+		for (PooledStatement statement : _statements.values())
+		{
+			statement.closePhysical();
+		}
+		
+		_statements.clear();
+		
+		try
+		{
+			_connection.close();
+		}
+		catch (SQLException e)
+		{
+			// already closed by the server
+		}
+	}
+	
+	/**
+	 * One borrow of the connection.
+	 * @author Mobius
+	 */
+	final class Lease implements InvocationHandler
+	{
+		final Connection _proxy;
+		final Throwable _borrower;
+		final String _thread;
+		final long _borrowed = System.currentTimeMillis();
+		volatile boolean _leakReported;
+		private volatile boolean _closed;
+		
+		/**
+		 * Constructor for Lease.
+		 * @param borrower Throwable
+		 */
+		Lease(Throwable borrower)
+		{
+			_borrower = borrower;
+			_thread = Thread.currentThread().getName();
+			_proxy = (Connection) Proxy.newProxyInstance(PooledConnection.class.getClassLoader(), new Class<?>[]
+			{
+				Connection.class
+			}, this);
+		}
+		
+		/**
+		 * Method getConnection.
+		 * @return PooledConnection
+		 */
+		PooledConnection getConnection()
+		{
+			return PooledConnection.this;
+		}
+		
+		/**
+		 * Method invoke.
+		 * @param proxy Object
+		 * @param method Method
+		 * @param args Object[]
+		 * @return Object
+		 * @throws Throwable
+		 * @see java.lang.reflect.InvocationHandler#invoke(Object, Method, Object[])
+		 */
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+		{
+			String name = method.getName();
+			
+			switch (name)
+			{
+				case "close":
+					if (!_closed)
+					{
+						_closed = true;
+						_pool.release(this);
+					}
+					
+					return null;
+				
+				case "isClosed":
+					return _closed;
+				
+				case "equals":
+					return proxy == args[0];
+				
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				
+				case "toString":
+					return "PooledConnection[" + _connection + "]";
+				
+				case "unwrap":
+					return ((Class<?>) args[0]).isInstance(_connection) ? _connection : _connection.unwrap((Class<?>) args[0]);
+				
+				case "isWrapperFor":
+					return ((Class<?>) args[0]).isInstance(_connection) || _connection.isWrapperFor((Class<?>) args[0]);
+			}
+			
+			if (_closed)
+			{
+				throw new SQLException("Connection is closed");
+			}
+			
+			try
+			{
+				switch (name)
+				{
+					case "prepareStatement":
+						if (args.length == 1)
+						{
+							return prepareStatement((String) args[0]);
+						}
+						
+						return track((Statement) method.invoke(_connection, args), (String) args[0]);
+					
+					case "prepareCall":
+						return track((Statement) method.invoke(_connection, args), (String) args[0]);
+					
+					case "createStatement":
+						return track((Statement) method.invoke(_connection, args), null);
+					
+					case "setAutoCommit":
+						_autoCommitChanged = true;
+						break;
+					
+					case "setReadOnly":
+						_readOnlyChanged = true;
+						break;
+					
+					case "setTransactionIsolation":
+					case "setCatalog":
+					case "setSchema":
+					case "setHoldability":
+					case "setTypeMap":
+						// not restored on return, the connection is closed instead of reused
+						_broken = true;
+						break;
+				}
+				
+				return method.invoke(_connection, args);
+			}
+			catch (InvocationTargetException e)
+			{
+				if (e.getCause() instanceof SQLException)
+				{
+					checkBroken((SQLException) e.getCause());
+				}
+				
+				throw e.getCause();
+			}
+			catch (SQLException e)
+			{
+				checkBroken(e);
+				throw e;
+			}
+		}
+	}
+}
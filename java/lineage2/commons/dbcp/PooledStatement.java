@@ -0,0 +1,481 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.commons.dbcp;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A statement handed out by a pooled connection. Every execution is timed and counted for its SQL text, including the rows read from its result sets.<br>
+ * Closing it either parks a cached prepared statement for the next prepareStatement of the same text on the connection, or closes the driver statement.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+final class PooledStatement implements InvocationHandler
+{
+	/** Settings that outlive an execution; a cached statement changed by one of them is not reused. */
+	private static final Set<String> STATEFUL = new HashSet<>(Arrays.asList("setMaxRows", "setLargeMaxRows", "setFetchSize", "setFetchDirection", "setQueryTimeout", "setMaxFieldSize", "setEscapeProcessing", "setPoolable", "setCursorName", "closeOnCompletion"));
+	private final PooledConnection _owner;
+	private final Statement _statement;
+	private final Statement _proxy;
+	/** Stats of the prepared text, null for a plain statement whose text comes with each execution. */
+	private final QueryStats _stats;
+	private final String _sql;
+	private boolean _cached;
+	private boolean _closed;
+	private boolean _dirty;
+	private boolean _batched;
+	private ResultSetHandler _resultSet;
+	
+	/**
+	 * Constructor for PooledStatement.
+	 * @param owner PooledConnection
+	 * @param statement Statement
+	 * @param sql String null for a plain statement
+	 * @param cached boolean
+	 */
+	PooledStatement(PooledConnection owner, Statement statement, String sql, boolean cached)
+	{
+		_owner = owner;
+		_statement = statement;
+		_sql = sql;
+		_cached = cached;
+		_stats = sql == null ? null : owner.getPool().getQueryStats().get(sql, true);
+		Class<?> type = statement instanceof CallableStatement ? CallableStatement.class : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+		_proxy = (Statement) Proxy.newProxyInstance(PooledStatement.class.getClassLoader(), new Class<?>[]
+		{
+			type
+		}, this);
+	}
+	
+	/**
+	 * Method getProxy.
+	 * @return Statement
+	 */
+	Statement getProxy()
+	{
+		return _proxy;
+	}
+	
+	/**
+	 * Method getSql.
+	 * @return String
+	 */
+	String getSql()
+	{
+		return _sql;
+	}
+	
+	/**
+	 * Method isCached.
+	 * @return boolean
+	 */
+	boolean isCached()
+	{
+		return _cached;
+	}
+	
+	/**
+	 * Method setCached.
+	 * @param cached boolean
+	 */
+	void setCached(boolean cached)
+	{
+		_cached = cached;
+	}
+	
+	/**
+	 * Method isClosed.
+	 * @return boolean true when the statement is not handed out
+	 */
+	boolean isClosed()
+	{
+		return _closed;
+	}
+	
+	/**
+	 * Hands a parked cached statement out again.
+	 */
+	void reopen()
+	{
+		_closed = false;
+	}
+	
+	/**
+	 * Clears what the last user left in the statement, so it can be parked.
+	 * @return boolean false when the statement has to be closed instead
+	 */
+	boolean passivate()
+	{
+		if (_dirty)
+		{
+			return false;
+		}
+		
+		try
+		{
+			((PreparedStatement) _statement).clearParameters();
+			
+			if (_batched)
+			{
+				_statement.clearBatch();
+				_batched = false;
+			}
+			
+			_statement.clearWarnings();
+			return true;
+		}
+		catch (SQLException e)
+		{
+			return false;
+		}
+	}
+	
+	/**
+	 * Closes the driver statement.
+	 */
+	void closePhysical()
+	{
+		_closed = true;
+		
+		try
+		{
+			_statement.close();
+		}
+		catch (SQLException e)
+		{
+			// already unusable
+		}
+	}
+	
+	/**
+	 * Closes the result set left open by the last execution.
+	 */
+	private void closeResultSet()
+	{
+		if (_resultSet != null)
+		{
+			_resultSet.close();
+			_resultSet = null;
+		}
+	}
+	
+	/**
+	 * Method invoke.
+	 * @param proxy Object
+	 * @param method Method
+	 * @param args Object[]
+	 * @return Object
+	 * @throws Throwable
+	 * @see java.lang.reflect.InvocationHandler#invoke(Object, Method, Object[])
+	 */
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+	{
+		String name = method.getName();
+		
+		switch (name)
+		{
+			case "close":
+				if (!_closed)
+				{
+					closeResultSet();
+					_closed = true;
+					_owner.statementClosed(this);
+				}
+				
+				return null;
+			
+			case "isClosed":
+				return _closed;
+			
+			case "getConnection":
+				return _owner.getLeaseProxy();
+			
+			case "equals":
+				return proxy == args[0];
+			
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			
+			case "toString":
+				return "PooledStatement[" + (_sql == null ? _statement : _sql) + "]";
+			
+			case "unwrap":
+				return ((Class<?>) args[0]).isInstance(_statement) ? _statement : _statement.unwrap((Class<?>) args[0]);
+			
+			case "isWrapperFor":
+				return ((Class<?>) args[0]).isInstance(_statement) || _statement.isWrapperFor((Class<?>) args[0]);
+		}
+		
+		if (_closed)
+		{
+			throw new SQLException("Statement is closed");
+		}
+		
+		if (STATEFUL.contains(name))
+		{
+			_dirty = true;
+		}
+		else if (name.equals("addBatch"))
+		{
+			_batched = true;
+		}
+		else if (name.startsWith("execute"))
+		{
+			return execute(method, args);
+		}
+		else if (name.equals("getResultSet"))
+		{
+			ResultSet rs = (ResultSet) call(method, args);
+			return rs == null ? null : wrap(rs, _resultSet == null ? null : _resultSet._stats);
+		}
+		
+		return call(method, args);
+	}
+	
+	/**
+	 * Runs an execute method and records it for its text.
+	 * @param method Method
+	 * @param args Object[]
+	 * @return Object
+	 * @throws Throwable
+	 */
+	private Object execute(Method method, Object[] args) throws Throwable
+	{
+		closeResultSet();
+		QueryStats stats = (args != null) && (args.length > 0) && (args[0] instanceof String) ? _owner.getPool().getQueryStats().get((String) args[0], true) : _stats;
+		long start = System.nanoTime();
+		Object result;
+		
+		try
+		{
+			result = call(method, args);
+		}
+		catch (SQLException e)
+		{
+			if (stats != null)
+			{
+				stats.recordError(System.nanoTime() - start);
+			}
+			
+			_owner.checkBroken(e);
+			throw e;
+		}
+		
+		long time = System.nanoTime() - start;
+		
+		if (stats == null)
+		{
+			return result;
+		}
+		
+		if (result instanceof ResultSet)
+		{
+			stats.record(time, 0);
+			return wrap((ResultSet) result, stats);
+		}
+		
+		long rows = 0;
+		
+		if (result instanceof int[])
+		{
+			for (int count : (int[]) result)
+			{
+				rows += Math.max(0, count);
+			}
+		}
+		else if (result instanceof long[])
+		{
+			for (long count : (long[]) result)
+			{
+				rows += Math.max(0, count);
+			}
+		}
+		else if (result instanceof Number)
+		{
+			rows = ((Number) result).longValue();
+		}
+		else if (Boolean.TRUE.equals(result))
+		{
+			_resultSet = new ResultSetHandler(_statement.getResultSet(), stats);
+		}
+		
+		stats.record(time, rows);
+		return result;
+	}
+	
+	/**
+	 * Method wrap.
+	 * @param rs ResultSet
+	 * @param stats QueryStats
+	 * @return ResultSet
+	 */
+	private ResultSet wrap(ResultSet rs, QueryStats stats)
+	{
+		if ((_resultSet == null) || (_resultSet._resultSet != rs))
+		{
+			closeResultSet();
+			_resultSet = new ResultSetHandler(rs, stats);
+		}
+		
+		return _resultSet._proxy;
+	}
+	
+	/**
+	 * Method call.
+	 * @param method Method
+	 * @param args Object[]
+	 * @return Object
+	 * @throws Throwable
+	 */
+	private Object call(Method method, Object[] args) throws Throwable
+	{
+		try
+		{
+			return method.invoke(_statement, args);
+		}
+		catch (InvocationTargetException e)
+		{
+			throw e.getCause();
+		}
+	}
+	
+	/**
+	 * Counts the rows read from a result set and reports them to the stats of its text when it is closed.
+	 * @author Mobius
+	 */
+	private final class ResultSetHandler implements InvocationHandler
+	{
+		final ResultSet _resultSet;
+		final ResultSet _proxy;
+		final QueryStats _stats;
+		private long _rows;
+		private boolean _closed;
+		
+		/**
+		 * Constructor for ResultSetHandler.
+		 * @param resultSet ResultSet
+		 * @param stats QueryStats
+		 */
+		ResultSetHandler(ResultSet resultSet, QueryStats stats)
+		{
+			_resultSet = resultSet;
+			_stats = stats;
+			_proxy = resultSet == null ? null : (ResultSet) Proxy.newProxyInstance(PooledStatement.class.getClassLoader(), new Class<?>[]
+			{
+				ResultSet.class
+			}, this);
+		}
+		
+		/**
+		 * Method close.
+		 */
+		void close()
+		{
+			if (_closed)
+			{
+				return;
+			}
+			
+			_closed = true;
+			
+			if (_stats != null)
+			{
+				_stats.addRows(_rows);
+			}
+			
+			if (_resultSet != null)
+			{
+				try
+				{
+					_resultSet.close();
+				}
+				catch (SQLException e)
+				{
+					// closed with its statement
+				}
+			}
+		}
+		
+		/**
+		 * Method invoke.
+		 * @param proxy Object
+		 * @param method Method
+		 * @param args Object[]
+		 * @return Object
+		 * @throws Throwable
+		 * @see java.lang.reflect.InvocationHandler#invoke(Object, Method, Object[])
+		 */
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+		{
+			switch (method.getName())
+			{
+				case "next":
+					Object next = invokeResultSet(method, args);
+					
+					if (Boolean.TRUE.equals(next))
+					{
+						_rows++;
+					}
+					
+					return next;
+				
+				case "close":
+					close();
+					return null;
+				
+				case "getStatement":
+					return _proxy == null ? null : PooledStatement.this._proxy;
+				
+				case "equals":
+					return proxy == args[0];
+				
+				case "hashCode":
+					return System.identityHashCode(proxy);
+			}
+			
+			return invokeResultSet(method, args);
+		}
+		
+		/**
+		 * Method invokeResultSet.
+		 * @param method Method
+		 * @param args Object[]
+		 * @return Object
+		 * @throws Throwable
+		 */
+		private Object invokeResultSet(Method method, Object[] args) throws Throwable
+		{
+			try
+			{
+				return method.invoke(_resultSet, args);
+			}
+			catch (InvocationTargetException e)
+			{
+				throw e.getCause();
+			}
+		}
+	}
+}
@@ -0,0 +1,237 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.commons.dbcp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import lineage2.commons.threading.LatencyHistogram;
+
+/**
+ * Execution time, row count and failures of one SQL text. Statements built with literal values are counted under their text with the literals replaced by '?', so the entries stay bounded.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public final class QueryStats
+{
+	/** Distinct texts kept; later texts are counted under OTHER. */
+	private static final int MAX_ENTRIES = 2048;
+	private static final String OTHER = "<other>";
+	private final String _sql;
+	private final LatencyHistogram _time = new LatencyHistogram();
+	private final LongAdder _rows = new LongAdder();
+	private final LongAdder _errors = new LongAdder();
+	
+	/**
+	 * Constructor for QueryStats.
+	 * @param sql String
+	 */
+	private QueryStats(String sql)
+	{
+		_sql = sql;
+	}
+	
+	/**
+	 * Method record.
+	 * @param nanos long
+	 * @param rows long returned or changed rows
+	 */
+	void record(long nanos, long rows)
+	{
+		_time.record(nanos);
+		
+		if (rows > 0)
+		{
+			_rows.add(rows);
+		}
+	}
+	
+	/**
+	 * Method addRows.
+	 * @param rows long rows read from a result set
+	 */
+	void addRows(long rows)
+	{
+		if (rows > 0)
+		{
+			_rows.add(rows);
+		}
+	}
+	
+	/**
+	 * Method recordError.
+	 * @param nanos long
+	 */
+	void recordError(long nanos)
+	{
+		_time.record(nanos);
+		_errors.increment();
+	}
+	
+	/**
+	 * Method getSql.
+	 * @return String
+	 */
+	public String getSql()
+	{
+		return _sql;
+	}
+	
+	/**
+	 * Method getCount.
+	 * @return long
+	 */
+	public long getCount()
+	{
+		return _time.getCount();
+	}
+	
+	/**
+	 * Method getTotalTime.
+	 * @return long nanoseconds
+	 */
+	public long getTotalTime()
+	{
+		return _time.getTotal();
+	}
+	
+	/**
+	 * Method getRows.
+	 * @return long
+	 */
+	public long getRows()
+	{
+		return _rows.sum();
+	}
+	
+	/**
+	 * Method getErrors.
+	 * @return long
+	 */
+	public long getErrors()
+	{
+		return _errors.sum();
+	}
+	
+	/**
+	 * Method appendTo.
+	 * @param list StringBuilder
+	 */
+	void appendTo(StringBuilder list)
+	{
+		long[] percentiles = _time.getPercentiles(50, 99);
+		list.append('\t').append(_sql).append('\n');
+		list.append("\t\tcount=").append(getCount());
+		list.append(" rows=").append(getRows());
+		list.append(" errors=").append(getErrors());
+		list.append(" total=").append(TimeUnit.NANOSECONDS.toMillis(getTotalTime())).append("ms");
+		list.append(" avg=").append(TimeUnit.NANOSECONDS.toMicros(_time.getAverage())).append("us");
+		list.append(" p50=").append(TimeUnit.NANOSECONDS.toMicros(percentiles[0])).append("us");
+		list.append(" p99=").append(TimeUnit.NANOSECONDS.toMicros(percentiles[1])).append("us");
+		list.append(" max=").append(TimeUnit.NANOSECONDS.toMicros(_time.getMax())).append("us\n");
+	}
+	
+	/**
+	 * The statistics of every SQL text run through one data source.
+	 * @author Mobius
+	 */
+	static final class Registry
+	{
+		private final Map<String, QueryStats> _stats = new ConcurrentHashMap<>();
+		
+		/**
+		 * Method get.
+		 * @param sql String
+		 * @param literal boolean true when the text may hold literal values
+		 * @return QueryStats
+		 */
+		QueryStats get(String sql, boolean literal)
+		{
+			QueryStats stats = _stats.get(sql);
+			
+			if (stats != null)
+			{
+				return stats;
+			}
+			
+			String key = literal ? normalize(sql) : sql;
+			
+			if ((_stats.size() >= MAX_ENTRIES) && !_stats.containsKey(key))
+			{
+				key = OTHER;
+			}
+			
+			return _stats.computeIfAbsent(key, QueryStats::new);
+		}
+		
+		/**
+		 * Method getTop.
+		 * @param count int
+		 * @return List<QueryStats> the texts with the most total time first
+		 */
+		List<QueryStats> getTop(int count)
+		{
+			List<QueryStats> list = new ArrayList<>(_stats.values());
+			list.sort((s1, s2) -> Long.compare(s2.getTotalTime(), s1.getTotalTime()));
+			return list.size() > count ? list.subList(0, count) : list;
+		}
+		
+		/**
+		 * Replaces the number and quoted string literals of the text by '?'.
+		 * @param sql String
+		 * @return String
+		 */
+		static String normalize(String sql)
+		{
+			StringBuilder sb = new StringBuilder(sql.length());
+			int length = sql.length();
+			
+			for (int i = 0; i < length; i++)
+			{
+				char c = sql.charAt(i);
+				
+				if ((c == '\'') || (c == '"'))
+				{
+					int end = i + 1;
+					
+					while ((end < length) && (sql.charAt(end) != c))
+					{
+						end += sql.charAt(end) == '\\' ? 2 : 1;
+					}
+					
+					sb.append('?');
+					i = end;
+				}
+				else if (Character.isDigit(c) && ((i == 0) || !Character.isLetterOrDigit(sql.charAt(i - 1))) && ((i == 0) || (sql.charAt(i - 1) != '_')))
+				{
+					while (((i + 1) < length) && (Character.isDigit(sql.charAt(i + 1)) || (sql.charAt(i + 1) == '.')))
+					{
+						i++;
+					}
+					
+					sb.append('?');
+				}
+				else
+				{
+					sb.append(c);
+				}
+			}
+			
+			return sb.toString();
+		}
+	}
+}
@@ -84,6 +84,21 @@ public class Circle extends AbstractShape
 		return (((x - c.getX()) * (c.getX() - x)) + ((y - c.getY()) * (c.getY() - y))) <= (r * r);
 	}
 	
+	/**
+	 * Any rectangle touching the bounds of the circle is reported, which holds whatever the exact test inside them.
+	 * @param xmin int
+	 * @param ymin int
+	 * @param xmax int
+	 * @param ymax int
+	 * @return boolean
+	 * @see lineage2.commons.geometry.Shape#crosses(int, int, int, int)
+	 */
+	@Override
+	public boolean crosses(int xmin, int ymin, int xmax, int ymax)
+	{
+		return (xmax >= min.getX()) && (xmin <= max.getX()) && (ymax >= min.getY()) && (ymin <= max.getY());
+	}
+	
 	/**
 	 * Method toString.
 	 * @return String
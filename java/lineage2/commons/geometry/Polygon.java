@@ -178,6 +178,64 @@ public class Polygon extends AbstractShape
 		return ((hits & 1) != 0);
 	}
 	
+	/**
+	 * Method crosses.
+	 * @param xmin int
+	 * @param ymin int
+	 * @param xmax int
+	 * @param ymax int
+	 * @return boolean
+	 * @see lineage2.commons.geometry.Shape#crosses(int, int, int, int)
+	 */
+	@Override
+	public boolean crosses(int xmin, int ymin, int xmax, int ymax)
+	{
+		if ((xmax < min.getX()) || (xmin > max.getX()) || (ymax < min.getY()) || (ymin > max.getY()))
+		{
+			return false;
+		}
+		
+		Point2D last = points[points.length - 1];
+		
+		for (Point2D cur : points)
+		{
+			if (edgeTouches(last, cur, xmin, ymin, xmax, ymax))
+			{
+				return true;
+			}
+			
+			last = cur;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Separating axis test of an edge against a rectangle: they touch unless the bounds of the edge miss the rectangle or its four corners lie strictly on one side of the edge.
+	 * @param a Point2D
+	 * @param b Point2D
+	 * @param xmin int
+	 * @param ymin int
+	 * @param xmax int
+	 * @param ymax int
+	 * @return boolean
+	 */
+	private static boolean edgeTouches(Point2D a, Point2D b, int xmin, int ymin, int xmax, int ymax)
+	{
+		if ((Math.max(a.getX(), b.getX()) < xmin) || (Math.min(a.getX(), b.getX()) > xmax) || (Math.max(a.getY(), b.getY()) < ymin) || (Math.min(a.getY(), b.getY()) > ymax))
+		{
+			return false;
+		}
+		
+		long dx = (long) b.getX() - a.getX();
+		long dy = (long) b.getY() - a.getY();
+		long c1 = Long.signum((dx * ((long) ymin - a.getY())) - (dy * ((long) xmin - a.getX())));
+		long c2 = Long.signum((dx * ((long) ymin - a.getY())) - (dy * ((long) xmax - a.getX())));
+		long c3 = Long.signum((dx * ((long) ymax - a.getY())) - (dy * ((long) xmin - a.getX())));
+		long c4 = Long.signum((dx * ((long) ymax - a.getY())) - (dy * ((long) xmax - a.getX())));
+		return !(((c1 > 0) && (c2 > 0) && (c3 > 0) && (c4 > 0)) || ((c1 < 0) && (c2 < 0) && (c3 < 0) && (c4 < 0)));
+	}
+	
 	/**
 	 * Method validate.
 	 * @return boolean
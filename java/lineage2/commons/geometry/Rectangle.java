@@ -70,6 +70,26 @@ public class Rectangle extends AbstractShape
 		return (x >= min.getX()) && (x <= max.getX()) && (y >= min.getY()) && (y <= max.getY());
 	}
 	
+	/**
+	 * Method crosses.
+	 * @param xmin int
+	 * @param ymin int
+	 * @param xmax int
+	 * @param ymax int
+	 * @return boolean
+	 * @see lineage2.commons.geometry.Shape#crosses(int, int, int, int)
+	 */
+	@Override
+	public boolean crosses(int xmin, int ymin, int xmax, int ymax)
+	{
+		if ((xmax < min.getX()) || (xmin > max.getX()) || (ymax < min.getY()) || (ymin > max.getY()))
+		{
+			return false;
+		}
+		
+		return (xmin < min.getX()) || (xmax > max.getX()) || (ymin < min.getY()) || (ymax > max.getY());
+	}
+	
 	/**
 	 * Method toString.
 	 * @return String
@@ -35,6 +35,16 @@ public interface Shape
 	 */
 	public boolean isInside(int x, int y, int z);
 	
+	/**
+	 * Tells whether the border of the shape may pass through the rectangle, the bounds included. When it does not, isInside(x, y) gives the same answer for every point of the rectangle. A shape that cannot tell answers true.
+	 * @param xmin int
+	 * @param ymin int
+	 * @param xmax int
+	 * @param ymax int
+	 * @return boolean
+	 */
+	public boolean crosses(int xmin, int ymin, int xmax, int ymax);
+	
 	/**
 	 * Method getXmax.
 	 * @return int
@@ -25,4 +25,10 @@ public interface IMMOExecutor<T extends MMOClient>
 	 * @param r Runnable
 	 */
 	public void execute(Runnable r);
+	
+	/**
+	 * Method executeUrgent.
+	 * @param r Runnable whose next packet is latency-critical
+	 */
+	public void executeUrgent(Runnable r);
 }
\ No newline at end of file
@@ -131,4 +131,11 @@ public abstract class MMOClient<T extends MMOConnection>
 	protected void onForcedDisconnection()
 	{
 	}
+	
+	/**
+	 * Method onRecvQueueOverflow.
+	 */
+	protected void onRecvQueueOverflow()
+	{
+	}
 }
\ No newline at end of file
@@ -24,6 +24,8 @@ import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import lineage2.commons.threading.RunnableStatsManager;
+
 /**
  * @author Mobius
  * @version $Revision: 1.0 $
@@ -61,7 +63,7 @@ public class MMOConnection<T extends MMOClient>
 		_writableByteChannel = socket.getChannel();
 		_readableByteChannel = socket.getChannel();
 		_sendQueue = new ArrayDeque<>();
-		_recvQueue = new MMOExecutableQueue<>(selectorThread.getExecutor());
+		_recvQueue = new MMOExecutableQueue<>(selectorThread.getExecutor(), selectorThread.getConfig());
 	}
 	
 	/**
@@ -98,7 +100,15 @@ public class MMOConnection<T extends MMOClient>
 			return;
 		}
 		
-		_recvQueue.add(rp);
+		if (RunnableStatsManager.getInstance().isEnabled())
+		{
+			rp.setReceiveTime(System.nanoTime());
+		}
+		
+		if (!_recvQueue.add(rp))
+		{
+			_client.onRecvQueueOverflow();
+		}
 	}
 	
 	/**
@@ -32,19 +32,26 @@ class MMOExecutableQueue<T extends MMOClient> implements Queue<ReceivablePacket<
 	private final IMMOExecutor<T> _executor;
 	private final Queue<ReceivablePacket<T>> _queue;
 	private final AtomicInteger _state = new AtomicInteger(NONE);
+	private final int _maxSize;
+	private final int _maxPerPass;
+	private volatile boolean _urgent;
 	
 	/**
 	 * Constructor for MMOExecutableQueue.
 	 * @param executor IMMOExecutor<T>
+	 * @param sc SelectorConfig
 	 */
-	MMOExecutableQueue(IMMOExecutor<T> executor)
+	MMOExecutableQueue(IMMOExecutor<T> executor, SelectorConfig sc)
 	{
 		_executor = executor;
 		_queue = new ArrayDeque<>();
+		_maxSize = sc.MAX_RECV_QUEUE_SIZE;
+		_maxPerPass = sc.MAX_EXECUTE_PER_PASS;
 	}
 	
 	/**
-	 * Method run.
+	 * Method run.<br>
+	 * Executes queued packets in order. The queue is handed back to the executor, instead of being drained, when it has used up its pass or when the urgent lane reaches a regular packet, so one flooding client can not hold a worker.
 	 * @see java.lang.Runnable#run()
 	 */
 	@Override
@@ -52,27 +59,59 @@ class MMOExecutableQueue<T extends MMOClient> implements Queue<ReceivablePacket<
 	{
 		while (_state.compareAndSet(QUEUED, RUNNING))
 		{
+			boolean requeued = false;
+			
 			try
 			{
-				for (;;)
+				for (int executed = 0;; executed++)
 				{
-					final Runnable t = poll();
+					final ReceivablePacket<T> t = peek();
 					
 					if (t == null)
 					{
 						break;
 					}
 					
+					if ((_urgent && !t.isUrgent()) || ((_maxPerPass > 0) && (executed >= _maxPerPass)))
+					{
+						_state.set(QUEUED);
+						requeued = true;
+						submit(t.isUrgent());
+						return;
+					}
+					
+					poll();
 					t.run();
 				}
 			}
 			finally
 			{
-				_state.compareAndSet(RUNNING, NONE);
+				if (!requeued)
+				{
+					_state.compareAndSet(RUNNING, NONE);
+				}
 			}
 		}
 	}
 	
+	/**
+	 * Method submit.
+	 * @param urgent boolean
+	 */
+	private void submit(boolean urgent)
+	{
+		_urgent = urgent;
+		
+		if (urgent)
+		{
+			_executor.executeUrgent(this);
+		}
+		else
+		{
+			_executor.execute(this);
+		}
+	}
+	
 	/**
 	 * Method size.
 	 * @return int
@@ -221,6 +260,11 @@ class MMOExecutableQueue<T extends MMOClient> implements Queue<ReceivablePacket<
 	{
 		synchronized (_queue)
 		{
+			if ((_maxSize > 0) && (_queue.size() >= _maxSize))
+			{
+				return false;
+			}
+			
 			if (!_queue.add(e))
 			{
 				return false;
@@ -229,7 +273,7 @@ class MMOExecutableQueue<T extends MMOClient> implements Queue<ReceivablePacket<
 		
 		if (_state.getAndSet(QUEUED) == NONE)
 		{
-			_executor.execute(this);
+			submit(e.isUrgent());
 		}
 		
 		return true;
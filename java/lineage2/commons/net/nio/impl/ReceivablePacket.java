@@ -24,6 +24,7 @@ public abstract class ReceivablePacket<T extends MMOClient> extends lineage2.com
 {
 	protected T _client;
 	protected ByteBuffer _buf;
+	private long _receiveTime;
 	
 	/**
 	 * Method setByteBuffer.
@@ -63,6 +64,33 @@ public abstract class ReceivablePacket<T extends MMOClient> extends lineage2.com
 		return _client;
 	}
 	
+	/**
+	 * Method setReceiveTime.
+	 * @param receiveTime long
+	 */
+	void setReceiveTime(long receiveTime)
+	{
+		_receiveTime = receiveTime;
+	}
+	
+	/**
+	 * Method getReceiveTime.
+	 * @return long the {@link System#nanoTime()} the packet was queued for execution at, 0 if not tracked
+	 */
+	public long getReceiveTime()
+	{
+		return _receiveTime;
+	}
+	
+	/**
+	 * Method isUrgent.
+	 * @return boolean true if the packet is latency-critical and should bypass the common execution lane
+	 */
+	public boolean isUrgent()
+	{
+		return false;
+	}
+	
 	/**
 	 * Method read.
 	 * @return boolean
@@ -28,5 +28,9 @@ public class SelectorConfig
 	public final int HEADER_SIZE = 2;
 	public final int PACKET_SIZE = 32768;
 	public int HELPER_BUFFER_COUNT = 64;
+	/** Maximum of received packets waiting for execution per connection, 0 - unlimited */
+	public int MAX_RECV_QUEUE_SIZE = 0;
+	/** Maximum of packets executed per connection before it yields to other connections, 0 - unlimited */
+	public int MAX_EXECUTE_PER_PASS = 0;
 	public final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
 }
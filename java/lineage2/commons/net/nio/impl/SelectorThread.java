@@ -114,6 +114,37 @@ public class SelectorThread<T extends MMOClient> extends Thread
 		setName("SelectorThread:" + selectable.socket().getLocalPort());
 	}
 	
+	/**
+	 * Opens an outgoing connection, the client is created by the client factory exactly as for an accepted connection.
+	 * @param address InetSocketAddress
+	 * @return T
+	 * @throws IOException
+	 */
+	public T openConnection(InetSocketAddress address) throws IOException
+	{
+		SocketChannel sc = SocketChannel.open(address);
+		
+		try
+		{
+			sc.socket().setTcpNoDelay(true);
+			sc.configureBlocking(false);
+			SelectionKey clientKey = sc.register(getSelector(), SelectionKey.OP_READ);
+			MMOConnection<T> con = new MMOConnection<>(this, sc.socket(), clientKey);
+			T client = getClientFactory().create(con);
+			client.setConnection(con);
+			con.setClient(client);
+			clientKey.attach(con);
+			_connections.add(con);
+			stats.increaseOpenedConnections();
+			return client;
+		}
+		catch (IOException e)
+		{
+			sc.close();
+			throw e;
+		}
+	}
+	
 	/**
 	 * Method getPooledBuffer.
 	 * @return ByteBuffer
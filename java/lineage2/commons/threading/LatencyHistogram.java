@@ -0,0 +1,231 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.commons.threading;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-bucketed latency histogram with striped counters.<br>
+ * Every power of two is split into four sub-buckets, so a percentile is reported with an error below 13%. Each writing thread updates its own stripe, readers merge all stripes.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public final class LatencyHistogram
+{
+	private static final int SUB_BUCKET_BITS = 2;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int MAX_MAGNITUDE = 40;
+	private static final long MAX_VALUE = (1L << (MAX_MAGNITUDE + 1)) - 1;
+	private static final int BUCKETS = MAX_MAGNITUDE * SUB_BUCKETS;
+	private static final int COUNT_SLOT = BUCKETS;
+	private static final int TOTAL_SLOT = BUCKETS + 1;
+	private static final int STRIPE_SIZE = BUCKETS + 2;
+	private static final int STRIPES = stripes();
+	private final AtomicLongArray _slots = new AtomicLongArray(STRIPES * STRIPE_SIZE);
+	private final AtomicLong _min = new AtomicLong(Long.MAX_VALUE);
+	private final AtomicLong _max = new AtomicLong(Long.MIN_VALUE);
+	
+	/**
+	 * Method stripes.
+	 * @return int
+	 */
+	private static int stripes()
+	{
+		int cpus = Math.min(Runtime.getRuntime().availableProcessors(), 16);
+		int stripes = 1;
+		
+		while (stripes < cpus)
+		{
+			stripes <<= 1;
+		}
+		
+		return stripes;
+	}
+	
+	/**
+	 * Method bucketOf.
+	 * @param value long
+	 * @return int
+	 */
+	private static int bucketOf(long value)
+	{
+		if (value < SUB_BUCKETS)
+		{
+			return (int) value;
+		}
+		
+		int magnitude = 63 - Long.numberOfLeadingZeros(value);
+		int sub = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return ((magnitude - 1) * SUB_BUCKETS) + sub;
+	}
+	
+	/**
+	 * Method lowerBound.
+	 * @param bucket int
+	 * @return long
+	 */
+	private static long lowerBound(int bucket)
+	{
+		if (bucket < SUB_BUCKETS)
+		{
+			return bucket;
+		}
+		
+		int magnitude = (bucket / SUB_BUCKETS) + 1;
+		int sub = bucket % SUB_BUCKETS;
+		return ((long) (SUB_BUCKETS | sub)) << (magnitude - SUB_BUCKET_BITS);
+	}
+	
+	/**
+	 * Method record.
+	 * @param value long
+	 */
+	public void record(long value)
+	{
+		value = Math.max(0, Math.min(MAX_VALUE, value));
+		int offset = ((int) Thread.currentThread().getId() & (STRIPES - 1)) * STRIPE_SIZE;
+		_slots.incrementAndGet(offset + bucketOf(value));
+		_slots.incrementAndGet(offset + COUNT_SLOT);
+		_slots.addAndGet(offset + TOTAL_SLOT, value);
+		
+		long current;
+		
+		while (value < (current = _min.get()))
+		{
+			if (_min.compareAndSet(current, value))
+			{
+				break;
+			}
+		}
+		
+		while (value > (current = _max.get()))
+		{
+			if (_max.compareAndSet(current, value))
+			{
+				break;
+			}
+		}
+	}
+	
+	/**
+	 * Method sum.
+	 * @param slot int
+	 * @return long
+	 */
+	private long sum(int slot)
+	{
+		long result = 0;
+		
+		for (int i = 0; i < STRIPES; i++)
+		{
+			result += _slots.get((i * STRIPE_SIZE) + slot);
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Method getCount.
+	 * @return long
+	 */
+	public long getCount()
+	{
+		return sum(COUNT_SLOT);
+	}
+	
+	/**
+	 * Method getTotal.
+	 * @return long
+	 */
+	public long getTotal()
+	{
+		return sum(TOTAL_SLOT);
+	}
+	
+	/**
+	 * Method getMin.
+	 * @return long
+	 */
+	public long getMin()
+	{
+		long min = _min.get();
+		return min == Long.MAX_VALUE ? 0 : min;
+	}
+	
+	/**
+	 * Method getMax.
+	 * @return long
+	 */
+	public long getMax()
+	{
+		long max = _max.get();
+		return max == Long.MIN_VALUE ? 0 : max;
+	}
+	
+	/**
+	 * Method getAverage.
+	 * @return long
+	 */
+	public long getAverage()
+	{
+		long count = getCount();
+		return count == 0 ? 0 : getTotal() / count;
+	}
+	
+	/**
+	 * Method getPercentiles.
+	 * @param percentiles double[] ascending, in range 0..100
+	 * @return long[]
+	 */
+	public long[] getPercentiles(double... percentiles)
+	{
+		long[] buckets = new long[BUCKETS];
+		long count = 0;
+		
+		for (int b = 0; b < BUCKETS; b++)
+		{
+			buckets[b] = sum(b);
+			count += buckets[b];
+		}
+		
+		long[] result = new long[percentiles.length];
+		
+		if (count == 0)
+		{
+			return result;
+		}
+		
+		int p = 0;
+		long seen = 0;
+		
+		for (int b = 0; (b < BUCKETS) && (p < percentiles.length); b++)
+		{
+			seen += buckets[b];
+			
+			while ((p < percentiles.length) && (seen >= Math.ceil((count * percentiles[p]) / 100.)))
+			{
+				long lower = lowerBound(b);
+				long upper = (b + 1) < BUCKETS ? lowerBound(b + 1) : MAX_VALUE;
+				result[p++] = Math.min(getMax(), lower + ((upper - lower) / 2));
+			}
+		}
+		
+		while (p < percentiles.length)
+		{
+			result[p++] = getMax();
+		}
+		
+		return result;
+	}
+}
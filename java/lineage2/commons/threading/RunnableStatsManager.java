@@ -12,44 +12,50 @@
  */
 package lineage2.commons.threading;
 
-import java.util.Arrays;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
+ * Lock-free collector of run time and queue wait time per task class.
  * @author Mobius
  * @version $Revision: 1.0 $
  */
-final class RunnableStatsManager
+public final class RunnableStatsManager
 {
+	private static final Logger _log = LoggerFactory.getLogger(RunnableStatsManager.class);
 	private static final RunnableStatsManager _instance = new RunnableStatsManager();
 	
 	/**
 	 * Method getInstance.
 	 * @return RunnableStatsManager
 	 */
-	static final RunnableStatsManager getInstance()
+	public static final RunnableStatsManager getInstance()
 	{
 		return _instance;
 	}
 	
-	final Map<Class<?>, ClassStat> classStats = new HashMap<>();
-	private final Lock lock = new ReentrantLock();
+	private final ConcurrentMap<Class<?>, ClassStat> classStats = new ConcurrentHashMap<>();
+	private volatile boolean enabled;
 	
 	/**
 	 * @author Mobius
 	 */
-	private class ClassStat
+	private static class ClassStat
 	{
 		final Class<?> clazz;
-		long runCount = 0;
-		long runTime = 0;
-		long minTime = Long.MAX_VALUE;
-		long maxTime = Long.MIN_VALUE;
+		final LatencyHistogram runTime = new LatencyHistogram();
+		final LatencyHistogram waitTime = new LatencyHistogram();
 		
 		/**
 		 * Constructor for ClassStat.
@@ -58,44 +64,71 @@ final class RunnableStatsManager
 		ClassStat(Class<?> cl)
 		{
 			clazz = cl;
-			classStats.put(cl, this);
 		}
 	}
 	
 	/**
-	 * Method handleStats.
+	 * Method isEnabled.
+	 * @return boolean
+	 */
+	public boolean isEnabled()
+	{
+		return enabled;
+	}
+	
+	/**
+	 * Method setEnabled.
+	 * @param enabled boolean
+	 */
+	public void setEnabled(boolean enabled)
+	{
+		this.enabled = enabled;
+	}
+	
+	/**
+	 * Method getClassStat.
 	 * @param cl Class<?>
-	 * @param runTime long
+	 * @return ClassStat
 	 */
-	void handleStats(Class<?> cl, long runTime)
+	private ClassStat getClassStat(Class<?> cl)
 	{
-		try
+		ClassStat stat = classStats.get(cl);
+		
+		if (stat == null)
 		{
-			lock.lock();
-			ClassStat stat = classStats.get(cl);
+			ClassStat newStat = new ClassStat(cl);
+			stat = classStats.putIfAbsent(cl, newStat);
 			
 			if (stat == null)
 			{
-				stat = new ClassStat(cl);
-			}
-			
-			stat.runCount++;
-			stat.runTime += runTime;
-			
-			if (stat.minTime > runTime)
-			{
-				stat.minTime = runTime;
+				stat = newStat;
 			}
-			
-			if (stat.maxTime < runTime)
-			{
-				stat.maxTime = runTime;
-			}
-		}
-		finally
-		{
-			lock.unlock();
 		}
+		
+		return stat;
+	}
+	
+	/**
+	 * Method handleStats.
+	 * @param cl Class<?>
+	 * @param runTime long
+	 */
+	public void handleStats(Class<?> cl, long runTime)
+	{
+		getClassStat(cl).runTime.record(runTime);
+	}
+	
+	/**
+	 * Method handleStats.
+	 * @param cl Class<?>
+	 * @param waitTime long time spent in queue, in nanoseconds
+	 * @param runTime long time spent running, in nanoseconds
+	 */
+	public void handleStats(Class<?> cl, long waitTime, long runTime)
+	{
+		ClassStat stat = getClassStat(cl);
+		stat.waitTime.record(waitTime);
+		stat.runTime.record(runTime);
 	}
 	
 	/**
@@ -104,32 +137,39 @@ final class RunnableStatsManager
 	 */
 	private List<ClassStat> getSortedClassStats()
 	{
-		List<ClassStat> result = Collections.emptyList();
-		
-		try
-		{
-			lock.lock();
-			result = Arrays.asList(classStats.values().toArray(new ClassStat[classStats.size()]));
-		}
-		finally
-		{
-			lock.unlock();
-		}
-		Collections.sort(result, (c1, c2) ->
-		{
-			if (c1.maxTime < c2.maxTime)
-			{
-				return 1;
-			}
-			if (c1.maxTime == c2.maxTime)
-			{
-				return 0;
-			}
-			return -1;
-		});
+		List<ClassStat> result = new ArrayList<>(classStats.values());
+		Collections.sort(result, (c1, c2) -> Long.compare(c2.runTime.getTotal(), c1.runTime.getTotal()));
 		return result;
 	}
 	
+	/**
+	 * Method appendHistogram.
+	 * @param list StringBuilder
+	 * @param name String
+	 * @param histogram LatencyHistogram
+	 */
+	private static void appendHistogram(StringBuilder list, String name, LatencyHistogram histogram)
+	{
+		long[] percentiles = histogram.getPercentiles(50, 99, 99.9);
+		list.append('\t').append(name).append(" (us): ");
+		list.append("min=").append(toMicros(histogram.getMin()));
+		list.append(" avg=").append(toMicros(histogram.getAverage()));
+		list.append(" p50=").append(toMicros(percentiles[0]));
+		list.append(" p99=").append(toMicros(percentiles[1]));
+		list.append(" p999=").append(toMicros(percentiles[2]));
+		list.append(" max=").append(toMicros(histogram.getMax())).append('\n');
+	}
+	
+	/**
+	 * Method toMicros.
+	 * @param nanos long
+	 * @return long
+	 */
+	private static long toMicros(long nanos)
+	{
+		return TimeUnit.NANOSECONDS.toMicros(nanos);
+	}
+	
 	/**
 	 * Method getStats.
 	 * @return CharSequence
@@ -137,18 +177,38 @@ final class RunnableStatsManager
 	public CharSequence getStats()
 	{
 		StringBuilder list = new StringBuilder();
-		List<ClassStat> stats = getSortedClassStats();
 		
-		for (ClassStat stat : stats)
+		for (ClassStat stat : getSortedClassStats())
 		{
 			list.append(stat.clazz.getName()).append(":\n");
-			list.append("\tRun: ............ ").append(stat.runCount).append('\n');
-			list.append("\tTime: ........... ").append(stat.runTime).append('\n');
-			list.append("\tMin: ............ ").append(stat.minTime).append('\n');
-			list.append("\tMax: ............ ").append(stat.maxTime).append('\n');
-			list.append("\tAverage: ........ ").append(stat.runTime / stat.runCount).append('\n');
+			list.append("\tRun: ............ ").append(stat.runTime.getCount()).append('\n');
+			list.append("\tTime (ms): ...... ").append(TimeUnit.NANOSECONDS.toMillis(stat.runTime.getTotal())).append('\n');
+			appendHistogram(list, "Run", stat.runTime);
+			
+			if (stat.waitTime.getCount() > 0)
+			{
+				appendHistogram(list, "Wait", stat.waitTime);
+			}
 		}
 		
 		return list;
 	}
+	
+	/**
+	 * Method dumpStats.
+	 * @param file File
+	 */
+	public void dumpStats(File file)
+	{
+		try (Writer writer = new FileWriter(file, false))
+		{
+			writer.append("Runnable stats, ").append(String.valueOf(classStats.size())).append(" classes\n");
+			writer.append("=================================================\n");
+			writer.append(getStats());
+		}
+		catch (IOException e)
+		{
+			_log.error("RunnableStatsManager: Error while dumping stats to " + file, e);
+		}
+	}
 }
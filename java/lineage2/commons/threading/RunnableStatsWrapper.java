@@ -12,6 +12,8 @@
  */
 package lineage2.commons.threading;
 
+import java.util.concurrent.TimeUnit;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,14 +25,23 @@ public class RunnableStatsWrapper implements Runnable
 {
 	private static final Logger _log = LoggerFactory.getLogger(RunnableStatsWrapper.class);
 	private final Runnable _runnable;
+	private final long _period;
+	private final boolean _fixedRate;
+	private long _expected;
 	
 	/**
 	 * Constructor for RunnableStatsWrapper.
 	 * @param runnable Runnable
+	 * @param initial long delay before the first run, in milliseconds
+	 * @param period long delay between runs in milliseconds, 0 for single run
+	 * @param fixedRate boolean
 	 */
-	private RunnableStatsWrapper(Runnable runnable)
+	private RunnableStatsWrapper(Runnable runnable, long initial, long period, boolean fixedRate)
 	{
 		_runnable = runnable;
+		_period = TimeUnit.MILLISECONDS.toNanos(period);
+		_fixedRate = fixedRate;
+		_expected = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(initial);
 	}
 	
 	/**
@@ -40,35 +51,70 @@ public class RunnableStatsWrapper implements Runnable
 	 */
 	public static Runnable wrap(Runnable runnable)
 	{
-		return new RunnableStatsWrapper(runnable);
+		return new RunnableStatsWrapper(runnable, 0, 0, false);
 	}
 	
 	/**
-	 * Method run.
-	 * @see java.lang.Runnable#run()
+	 * Method wrap.
+	 * @param runnable Runnable
+	 * @param delay long
+	 * @return Runnable
 	 */
-	@Override
-	public void run()
+	public static Runnable wrap(Runnable runnable, long delay)
 	{
-		RunnableStatsWrapper.execute(_runnable);
+		return new RunnableStatsWrapper(runnable, delay, 0, false);
 	}
 	
 	/**
-	 * Method execute.
+	 * Method wrapAtFixedRate.
 	 * @param runnable Runnable
+	 * @param initial long
+	 * @param delay long
+	 * @return Runnable
 	 */
-	private static void execute(Runnable runnable)
+	public static Runnable wrapAtFixedRate(Runnable runnable, long initial, long delay)
+	{
+		return new RunnableStatsWrapper(runnable, initial, delay, true);
+	}
+	
+	/**
+	 * Method wrapAtFixedDelay.
+	 * @param runnable Runnable
+	 * @param initial long
+	 * @param delay long
+	 * @return Runnable
+	 */
+	public static Runnable wrapAtFixedDelay(Runnable runnable, long initial, long delay)
+	{
+		return new RunnableStatsWrapper(runnable, initial, delay, false);
+	}
+	
+	/**
+	 * Method run.
+	 * @see java.lang.Runnable#run()
+	 */
+	@Override
+	public void run()
 	{
 		long begin = System.nanoTime();
 		
 		try
 		{
-			runnable.run();
-			RunnableStatsManager.getInstance().handleStats(runnable.getClass(), System.nanoTime() - begin);
+			_runnable.run();
 		}
 		catch (Exception e)
 		{
 			_log.error("Exception in a Runnable execution:", e);
 		}
+		finally
+		{
+			long end = System.nanoTime();
+			RunnableStatsManager.getInstance().handleStats(_runnable.getClass(), begin - _expected, end - begin);
+			
+			if (_period > 0)
+			{
+				_expected = _fixedRate ? _expected + _period : end + _period;
+			}
+		}
 	}
 }
@@ -83,6 +83,9 @@ public abstract class SteppingRunnableQueueManager implements Runnable
 		{
 			if (--step == 0)
 			{
+				final boolean stats = RunnableStatsManager.getInstance().isEnabled();
+				final long begin = stats ? System.nanoTime() : 0;
+				
 				try
 				{
 					r.run();
@@ -93,6 +96,11 @@ public abstract class SteppingRunnableQueueManager implements Runnable
 				}
 				finally
 				{
+					if (stats)
+					{
+						RunnableStatsManager.getInstance().handleStats(r.getClass(), System.nanoTime() - begin);
+					}
+					
 					if (isPeriodic)
 					{
 						step = stepping;
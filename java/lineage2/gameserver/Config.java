@@ -82,6 +82,12 @@ public class Config
 	public static int DATABASE_MAX_CONNECTIONS;
 	public static int DATABASE_MAX_IDLE_TIMEOUT;
 	public static int DATABASE_IDLE_TEST_PERIOD;
+	public static int DATABASE_STATEMENT_CACHE_SIZE;
+	public static int DATABASE_CONNECTION_TIMEOUT;
+	public static int DATABASE_LEAK_TIMEOUT;
+	public static int DATABASE_REPORT_INTERVAL;
+	public static boolean DATABASE_GUARD;
+	public static int DATABASE_GUARD_SLOW_TIME;
 	public static String DATABASE_URL;
 	public static String DATABASE_LOGIN;
 	public static String DATABASE_PASSWORD;
@@ -148,11 +154,16 @@ public class Config
 	// public static double CRAFT_DOUBLECRAFT_CHANCE;
 	static int SCHEDULED_THREAD_POOL_SIZE;
 	static int EXECUTOR_THREAD_POOL_SIZE;
+	static int PACKET_THREAD_POOL_SIZE;
+	static int URGENT_PACKET_THREAD_POOL_SIZE;
+	static int DATABASE_THREAD_POOL_SIZE;
 	// public static int THREAD_P_MOVE;
 	// public static int NPC_AI_MAX_THREAD;
 	// public static int PLAYER_AI_MAX_THREAD;
 	// public static int THREAD_P_PATHFIND;
 	static boolean ENABLE_RUNNABLE_STATS;
+	static long RUNNABLE_STATS_DUMP_INTERVAL;
+	static String RUNNABLE_STATS_DUMP_FILE;
 	public static boolean L2_TOP_MANAGER_ENABLED;
 	public static int L2_TOP_MANAGER_INTERVAL;
 	public static String L2_TOP_WEB_ADDRESS;
@@ -607,6 +618,8 @@ public class Config
 	public static int RND_ANIMATION_RATE;
 	public static int AGGRO_CHECK_INTERVAL;
 	public static long NONAGGRO_TIME_ONTELEPORT;
+	public static long HATE_DECAY_INTERVAL;
+	public static int HATE_DECAY_PERCENT;
 	public static int MAX_DRIFT_RANGE;
 	public static int MAX_PURSUE_RANGE;
 	public static int MAX_PURSUE_UNDERGROUND_RANGE;
@@ -844,7 +857,20 @@ public class Config
 	public static boolean DEBUG;
 	public static int GAME_POINT_ITEM_ID;
 	public static int WEAR_DELAY;
-	public static int GARBAGE_COLLECTOR_INTERVAL;
+	public static int MEMORY_GOVERNOR_INTERVAL;
+	public static int MEMORY_GOVERNOR_TRIM_RATIO;
+	public static int MEMORY_GOVERNOR_SEVERE_RATIO;
+	public static int BROADCAST_INFO_INTERVAL;
+	public static int INVENTORY_UPDATE_INTERVAL;
+	public static int VISIBLE_PLAYERS_LIMIT;
+	public static String VISIBLE_PLAYERS_PRIORITY;
+	public static int VISIBLE_PLAYERS_HYSTERESIS;
+	public static long VISIBLE_PLAYERS_UPDATE_INTERVAL;
+	public static int SHUTDOWN_FLUSH_THREADS;
+	public static int SHUTDOWN_FLUSH_BATCH_SIZE;
+	public static long SHUTDOWN_FLUSH_TIMEOUT;
+	public static int LEADERBOARD_SIZE;
+	public static int LEADERBOARD_BUFFER;
 	public static final boolean GOODS_INVENTORY_ENABLED = false;
 	public static boolean EX_NEW_PETITION_SYSTEM;
 	public static boolean EX_JAPAN_MINIGAME;
@@ -949,23 +975,47 @@ public class Config
 		DATABASE_MAX_CONNECTIONS = serverSettings.getProperty("MaximumDbConnections", 10);
 		DATABASE_MAX_IDLE_TIMEOUT = serverSettings.getProperty("MaxIdleConnectionTimeout", 600);
 		DATABASE_IDLE_TEST_PERIOD = serverSettings.getProperty("IdleConnectionTestPeriod", 60);
+		DATABASE_STATEMENT_CACHE_SIZE = serverSettings.getProperty("PreparedStatementCacheSize", 64);
+		DATABASE_CONNECTION_TIMEOUT = serverSettings.getProperty("ConnectionTimeout", 30);
+		DATABASE_LEAK_TIMEOUT = serverSettings.getProperty("ConnectionLeakTimeout", 0);
+		DATABASE_REPORT_INTERVAL = serverSettings.getProperty("DatabaseReportInterval", 600);
+		DATABASE_GUARD = serverSettings.getProperty("DatabaseGuard", false);
+		DATABASE_GUARD_SLOW_TIME = serverSettings.getProperty("DatabaseGuardSlowTime", 20);
 		DATABASE_URL = serverSettings.getProperty("URL", "jdbc:mysql://localhost/l2sdb");
 		DATABASE_LOGIN = serverSettings.getProperty("Login", "root");
 		DATABASE_PASSWORD = serverSettings.getProperty("Password", "");
 		EFFECT_TASK_MANAGER_COUNT = serverSettings.getProperty("EffectTaskManagers", 2);
 		SCHEDULED_THREAD_POOL_SIZE = serverSettings.getProperty("ScheduledThreadPoolSize", NCPUS * 4);
 		EXECUTOR_THREAD_POOL_SIZE = serverSettings.getProperty("ExecutorThreadPoolSize", NCPUS * 2);
+		PACKET_THREAD_POOL_SIZE = serverSettings.getProperty("PacketThreadPoolSize", NCPUS * 2);
+		URGENT_PACKET_THREAD_POOL_SIZE = serverSettings.getProperty("UrgentPacketThreadPoolSize", NCPUS);
+		DATABASE_THREAD_POOL_SIZE = serverSettings.getProperty("DatabaseThreadPoolSize", NCPUS * 2);
 		// THREAD_P_MOVE = serverSettings.getProperty("ThreadPoolSizeMove", 25);
 		// THREAD_P_PATHFIND = serverSettings.getProperty("ThreadPoolSizePathfind", 10);
 		// NPC_AI_MAX_THREAD = serverSettings.getProperty("NpcAiMaxThread", 10);
 		// PLAYER_AI_MAX_THREAD = serverSettings.getProperty("PlayerAiMaxThread", 20);
 		ENABLE_RUNNABLE_STATS = serverSettings.getProperty("EnableRunnableStats", false);
+		BROADCAST_INFO_INTERVAL = serverSettings.getProperty("BroadcastInfoInterval", 100);
+		INVENTORY_UPDATE_INTERVAL = serverSettings.getProperty("InventoryUpdateInterval", 100);
+		VISIBLE_PLAYERS_LIMIT = serverSettings.getProperty("VisiblePlayersLimit", 0);
+		VISIBLE_PLAYERS_PRIORITY = serverSettings.getProperty("VisiblePlayersPriority", "PARTY;CLAN;TARGET;ATTACKER");
+		VISIBLE_PLAYERS_HYSTERESIS = serverSettings.getProperty("VisiblePlayersHysteresis", 10);
+		VISIBLE_PLAYERS_UPDATE_INTERVAL = serverSettings.getProperty("VisiblePlayersUpdateInterval", 2000L);
+		SHUTDOWN_FLUSH_THREADS = serverSettings.getProperty("ShutdownFlushThreads", 4);
+		SHUTDOWN_FLUSH_BATCH_SIZE = serverSettings.getProperty("ShutdownFlushBatchSize", 100);
+		SHUTDOWN_FLUSH_TIMEOUT = serverSettings.getProperty("ShutdownFlushTimeout", 180) * 1000L;
+		LEADERBOARD_SIZE = serverSettings.getProperty("LeaderboardSize", 10);
+		LEADERBOARD_BUFFER = serverSettings.getProperty("LeaderboardBuffer", 40);
+		RUNNABLE_STATS_DUMP_INTERVAL = serverSettings.getProperty("RunnableStatsDumpInterval", 300) * 1000L;
+		RUNNABLE_STATS_DUMP_FILE = serverSettings.getProperty("RunnableStatsDumpFile", "./log/runnable_stats.txt");
 		SELECTOR_CONFIG.SLEEP_TIME = serverSettings.getProperty("SelectorSleepTime", 10L);
 		SELECTOR_CONFIG.INTEREST_DELAY = serverSettings.getProperty("InterestDelay", 30L);
 		SELECTOR_CONFIG.MAX_SEND_PER_PASS = serverSettings.getProperty("MaxSendPerPass", 32);
 		SELECTOR_CONFIG.READ_BUFFER_SIZE = serverSettings.getProperty("ReadBufferSize", 65536);
 		SELECTOR_CONFIG.WRITE_BUFFER_SIZE = serverSettings.getProperty("WriteBufferSize", 131072);
 		SELECTOR_CONFIG.HELPER_BUFFER_COUNT = serverSettings.getProperty("BufferPoolSize", 64);
+		SELECTOR_CONFIG.MAX_RECV_QUEUE_SIZE = serverSettings.getProperty("MaxClientPacketQueue", 128);
+		SELECTOR_CONFIG.MAX_EXECUTE_PER_PASS = serverSettings.getProperty("MaxClientPacketsPerPass", 8);
 		CHAT_MESSAGE_MAX_LEN = serverSettings.getProperty("ChatMessageLimit", 1000);
 		ABUSEWORD_BANCHAT = serverSettings.getProperty("ABUSEWORD_BANCHAT", false);
 		int counter = 0;
@@ -1018,7 +1068,9 @@ public class Config
 		DONTLOADQUEST = serverSettings.getProperty("StartWithoutQuest", false);
 		MAX_REFLECTIONS_COUNT = serverSettings.getProperty("MaxReflectionsCount", 300);
 		WEAR_DELAY = serverSettings.getProperty("WearDelay", 5);
-		GARBAGE_COLLECTOR_INTERVAL = serverSettings.getProperty("GarbageCollectorInterval", 30) * 60000;
+		MEMORY_GOVERNOR_INTERVAL = serverSettings.getProperty("MemoryGovernorInterval", 10) * 1000;
+		MEMORY_GOVERNOR_TRIM_RATIO = serverSettings.getProperty("MemoryGovernorTrimRatio", 75);
+		MEMORY_GOVERNOR_SEVERE_RATIO = serverSettings.getProperty("MemoryGovernorSevereRatio", 90);
 		HTM_CACHE_MODE = serverSettings.getProperty("HtmCacheMode", HtmCache.LAZY);
 		HTM_DEBUG_MODE = serverSettings.getProperty("DebugHtmlMessage", false);
 		SHOW_NPC_LVL = serverSettings.getProperty("ShowNpcLevel", false);
@@ -1958,6 +2010,8 @@ public class Config
 		RND_ANIMATION_RATE = npcSettings.getProperty("RndAnimationRate", 2);
 		AGGRO_CHECK_INTERVAL = npcSettings.getProperty("AggroCheckInterval", 250);
 		NONAGGRO_TIME_ONTELEPORT = npcSettings.getProperty("NonAggroTimeOnTeleport", 15000);
+		HATE_DECAY_INTERVAL = npcSettings.getProperty("HateDecayInterval", 0L);
+		HATE_DECAY_PERCENT = npcSettings.getProperty("HateDecayPercent", 10);
 		MAX_DRIFT_RANGE = npcSettings.getProperty("MaxDriftRange", 100);
 		MAX_PURSUE_RANGE = npcSettings.getProperty("MaxPursueRange", 4000);
 		MAX_PURSUE_UNDERGROUND_RANGE = npcSettings.getProperty("MaxPursueUndergoundRange", 2000);
@@ -45,6 +45,7 @@ import lineage2.gameserver.instancemanager.DelusionChamberManager;
 import lineage2.gameserver.instancemanager.FindPartyManager;
 import lineage2.gameserver.instancemanager.HarnakUndegroundManager;
 import lineage2.gameserver.instancemanager.L2TopManager;
+import lineage2.gameserver.instancemanager.LeaderboardManager;
 import lineage2.gameserver.instancemanager.MMOTopManager;
 import lineage2.gameserver.instancemanager.ParnassusManager;
 import lineage2.gameserver.instancemanager.PetitionManager;
@@ -214,6 +215,7 @@ public class GameServer
 		Announcements.getInstance();
 		PetitionManager.getInstance();
 		PlayerMessageStack.getInstance();
+		LeaderboardManager.getInstance();
 		if (Config.AUTODESTROY_ITEM_AFTER > 0)
 		{
 			ItemsAutoDestroy.getInstance();
@@ -259,10 +261,7 @@ public class GameServer
 		ParnassusManager.getInstance();
 		SubClassTable.getInstance();
 		DualClassTable.getInstance();
-		if (Config.GARBAGE_COLLECTOR_INTERVAL > 0)
-		{
-			Class.forName(GarbageCollector.class.getName());
-		}
+		MemoryGovernor.getInstance().start();
 		// Uncomment to check for double spawns
 		/*
 		 * for (NpcInstance npcInst : GameObjectsStorage.getAllNpcsForIterate()) { final List<NpcInstance> around = npcInst.getAroundNpc(10, 10); if ((around != null) && !around.isEmpty()) { for (NpcInstance npc : around) { if ((npcInst.getId() == npc.getId()) && !npcInst.isMonster() &&
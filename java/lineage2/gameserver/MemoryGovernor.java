@@ -0,0 +1,502 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.gameserver;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+
+import lineage2.commons.threading.RunnableImpl;
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.Element;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+/**
+ * Watches the heap through the memory pool beans and, instead of forcing collections, shrinks the registered caches when the old generation stays full after a collection.<br>
+ * Above the trim ratio the next consumer in priority order is trimmed after each new old collection, above the severe ratio all of them are trimmed hard. Collectors without an old generation pool, such as ZGC and Shenandoah, are measured on the whole heap after each collection instead. The allocation rate is measured from the collection notifications, and getStats lists the estimated heap held by each consumer.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public final class MemoryGovernor extends RunnableImpl
+{
+	private static final Logger _log = LoggerFactory.getLogger(MemoryGovernor.class);
+	private static final MemoryGovernor _instance = new MemoryGovernor();
+	private final List<Registration> _consumers = new CopyOnWriteArrayList<>();
+	private final List<MemoryPoolMXBean> _heapPools = new ArrayList<>();
+	private final List<MemoryPoolMXBean> _tenuredPools = new ArrayList<>();
+	private final Object _lock = new Object();
+	/** Bytes allocated up to the last collection. */
+	private long _allocated;
+	private long _usedAfterGc = -1;
+	private long _lastAllocated;
+	private long _lastSample = System.currentTimeMillis();
+	private volatile long _allocationRate;
+	private long _trimMeasured;
+	private int _nextConsumer;
+	private volatile String _lastTrim = "none";
+	
+	/**
+	 * Method getInstance.
+	 * @return MemoryGovernor
+	 */
+	public static MemoryGovernor getInstance()
+	{
+		return _instance;
+	}
+	
+	/**
+	 * Estimated heap of a subsystem, and the way to release part of it.
+	 * @author Mobius
+	 */
+	public interface MemoryConsumer
+	{
+		/**
+		 * Method getMemoryUsage.
+		 * @return long estimated bytes held
+		 */
+		long getMemoryUsage();
+		
+		/**
+		 * Method trim.
+		 * @param severe boolean false to release what is cheap to rebuild, true to release as much as possible
+		 * @return long entries or objects released
+		 */
+		long trim(boolean severe);
+	}
+	
+	/**
+	 * Constructor for MemoryGovernor.
+	 */
+	private MemoryGovernor()
+	{
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+		{
+			if (pool.getType() != MemoryType.HEAP)
+			{
+				continue;
+			}
+			
+			_heapPools.add(pool);
+			
+			if (pool.isCollectionUsageThresholdSupported() && (pool.getName().contains("Old") || pool.getName().contains("Tenured")))
+			{
+				_tenuredPools.add(pool);
+			}
+		}
+		
+		if (_tenuredPools.isEmpty())
+		{
+			_log.warn("MemoryGovernor: no old generation pool found in " + _heapPools.size() + " heap pools, measuring the whole heap after each collection.");
+		}
+		
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+		{
+			if (gc instanceof NotificationEmitter)
+			{
+				((NotificationEmitter) gc).addNotificationListener(this::onCollection, null, null);
+			}
+		}
+	}
+	
+	/**
+	 * Starts the periodic check.
+	 */
+	public void start()
+	{
+		if (Config.MEMORY_GOVERNOR_INTERVAL > 0)
+		{
+			ThreadPoolManager.getInstance().scheduleAtFixedRate(this, Config.MEMORY_GOVERNOR_INTERVAL, Config.MEMORY_GOVERNOR_INTERVAL);
+		}
+	}
+	
+	/**
+	 * Registers a consumer; the ones with the lowest priority are trimmed first.
+	 * @param name String
+	 * @param priority int
+	 * @param consumer MemoryConsumer
+	 */
+	public synchronized void register(String name, int priority, MemoryConsumer consumer)
+	{
+		Registration registration = new Registration(name, priority, consumer);
+		int index = 0;
+		
+		while ((index < _consumers.size()) && (_consumers.get(index)._priority <= priority))
+		{
+			index++;
+		}
+		
+		_consumers.add(index, registration);
+	}
+	
+	/**
+	 * Counts the bytes allocated since the previous collection from the heap used before this one.
+	 * @param notification Notification
+	 * @param handback Object
+	 */
+	private void onCollection(Notification notification, Object handback)
+	{
+		if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType()))
+		{
+			return;
+		}
+		
+		GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+		long before = sum(info.getGcInfo().getMemoryUsageBeforeGc());
+		long after = sum(info.getGcInfo().getMemoryUsageAfterGc());
+		
+		synchronized (_lock)
+		{
+			if ((_usedAfterGc >= 0) && (before > _usedAfterGc))
+			{
+				_allocated += before - _usedAfterGc;
+			}
+			
+			_usedAfterGc = after;
+		}
+	}
+	
+	/**
+	 * Method sum.
+	 * @param usage Map<String,MemoryUsage>
+	 * @return long used bytes of the heap pools
+	 */
+	private long sum(Map<String, MemoryUsage> usage)
+	{
+		long used = 0;
+		
+		for (MemoryPoolMXBean pool : _heapPools)
+		{
+			MemoryUsage pu = usage.get(pool.getName());
+			
+			if (pu != null)
+			{
+				used += pu.getUsed();
+			}
+		}
+		
+		return used;
+	}
+	
+	/**
+	 * Method getAllocatedBytes.
+	 * @return long bytes allocated since start, -1 when the collectors send no notifications
+	 */
+	public long getAllocatedBytes()
+	{
+		synchronized (_lock)
+		{
+			if (_usedAfterGc < 0)
+			{
+				return -1;
+			}
+			
+			long used = 0;
+			
+			for (MemoryPoolMXBean pool : _heapPools)
+			{
+				used += pool.getUsage().getUsed();
+			}
+			
+			return _allocated + Math.max(0, used - _usedAfterGc);
+		}
+	}
+	
+	/**
+	 * Method getAllocationRate.
+	 * @return long bytes per second over the last interval
+	 */
+	public long getAllocationRate()
+	{
+		return _allocationRate;
+	}
+	
+	/**
+	 * Method getPressure.
+	 * @return int percent of the old generation still used after its last collection
+	 */
+	public int getPressure()
+	{
+		if (_tenuredPools.isEmpty())
+		{
+			return getHeapPressure();
+		}
+		
+		int pressure = 0;
+		
+		for (MemoryPoolMXBean pool : _tenuredPools)
+		{
+			MemoryUsage usage = pool.getCollectionUsage();
+			
+			if ((usage == null) || (usage.getUsed() == 0))
+			{
+				continue;
+			}
+			
+			long max = usage.getMax() > 0 ? usage.getMax() : Runtime.getRuntime().maxMemory();
+			pressure = Math.max(pressure, (int) ((usage.getUsed() * 100) / max));
+		}
+		
+		return pressure;
+	}
+	
+	/**
+	 * Method getHeapPressure.
+	 * @return int percent of the heap used after the last collection, or used now while none was reported yet
+	 */
+	private int getHeapPressure()
+	{
+		MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+		long used;
+		
+		synchronized (_lock)
+		{
+			used = _usedAfterGc >= 0 ? _usedAfterGc : heap.getUsed();
+		}
+		
+		long max = heap.getMax() > 0 ? heap.getMax() : Runtime.getRuntime().maxMemory();
+		return (int) ((used * 100) / max);
+	}
+	
+	/**
+	 * Method getMeasuredUsage.
+	 * @return long old generation used after the last collections, changes only when an old collection measured it again
+	 */
+	private long getMeasuredUsage()
+	{
+		if (_tenuredPools.isEmpty())
+		{
+			synchronized (_lock)
+			{
+				// without collection notifications the current usage is the only measure
+				return _usedAfterGc >= 0 ? _usedAfterGc : ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+			}
+		}
+		
+		long used = 0;
+		
+		for (MemoryPoolMXBean pool : _tenuredPools)
+		{
+			MemoryUsage usage = pool.getCollectionUsage();
+			
+			if (usage != null)
+			{
+				used += usage.getUsed();
+			}
+		}
+		
+		return used;
+	}
+	
+	/**
+	 * Method runImpl.
+	 */
+	@Override
+	public void runImpl()
+	{
+		long now = System.currentTimeMillis();
+		long allocated = getAllocatedBytes();
+		
+		if ((allocated >= 0) && (now > _lastSample))
+		{
+			_allocationRate = ((allocated - _lastAllocated) * 1000L) / (now - _lastSample);
+			_lastAllocated = allocated;
+		}
+		
+		_lastSample = now;
+		int pressure = getPressure();
+		long measured = getMeasuredUsage();
+		
+		// trim once per measure, until the next old collection the usage still counts what was just released
+		if ((pressure < Config.MEMORY_GOVERNOR_TRIM_RATIO) || (measured == _trimMeasured) || _consumers.isEmpty())
+		{
+			return;
+		}
+		
+		_trimMeasured = measured;
+		
+		if (pressure >= Config.MEMORY_GOVERNOR_SEVERE_RATIO)
+		{
+			StringBuilder trimmed = new StringBuilder();
+			
+			for (Registration registration : _consumers)
+			{
+				trimmed.append(' ').append(registration._name).append('=').append(trim(registration, true));
+			}
+			
+			_lastTrim = "severe at " + pressure + "%:" + trimmed;
+			_log.warn("MemoryGovernor: old generation " + pressure + "% full after collection, trimmed all caches:" + trimmed);
+			return;
+		}
+		
+		Registration registration = _consumers.get(_nextConsumer++ % _consumers.size());
+		long released = trim(registration, false);
+		_lastTrim = registration._name + " at " + pressure + "%: " + released;
+		_log.info("MemoryGovernor: old generation " + pressure + "% full after collection, trimmed " + registration._name + ": " + released + " released.");
+	}
+	
+	/**
+	 * Method trim.
+	 * @param registration Registration
+	 * @param severe boolean
+	 * @return long
+	 */
+	private static long trim(Registration registration, boolean severe)
+	{
+		try
+		{
+			return registration._consumer.trim(severe);
+		}
+		catch (Exception e)
+		{
+			_log.error("MemoryGovernor: could not trim " + registration._name, e);
+			return 0;
+		}
+	}
+	
+	/**
+	 * Drops the expired elements of the cache, then the least recently used part of the rest.
+	 * @param cache Cache
+	 * @param percent int share of the elements left to drop
+	 * @return long elements dropped
+	 */
+	public static long trimCache(Cache cache, int percent)
+	{
+		int before = cache.getSize();
+		cache.evictExpiredElements();
+		
+		if (percent >= 100)
+		{
+			cache.removeAll();
+			return before;
+		}
+		
+		List<?> keys = cache.getKeys();
+		int count = (keys.size() * percent) / 100;
+		
+		if (count > 0)
+		{
+			Element[] elements = new Element[keys.size()];
+			int size = 0;
+			
+			for (Object key : keys)
+			{
+				Element element = cache.getQuiet(key);
+				
+				if (element != null)
+				{
+					elements[size++] = element;
+				}
+			}
+			
+			elements = Arrays.copyOf(elements, size);
+			Arrays.sort(elements, (e1, e2) -> Long.compare(getLastUsed(e1), getLastUsed(e2)));
+			
+			for (int i = 0; i < Math.min(count, size); i++)
+			{
+				cache.remove(elements[i].getObjectKey());
+			}
+		}
+		
+		return before - cache.getSize();
+	}
+	
+	/**
+	 * Method getLastUsed.
+	 * @param element Element
+	 * @return long
+	 */
+	private static long getLastUsed(Element element)
+	{
+		return element.getLastAccessTime() > 0 ? element.getLastAccessTime() : element.getCreationTime();
+	}
+	
+	/**
+	 * Method getStats.
+	 * @return CharSequence
+	 */
+	public CharSequence getStats()
+	{
+		StringBuilder list = new StringBuilder();
+		list.append("MemoryGovernor\n");
+		list.append("=================================================\n");
+		list.append("\tPressure: ............ ").append(getPressure()).append("% (trim ").append(Config.MEMORY_GOVERNOR_TRIM_RATIO).append("%, severe ").append(Config.MEMORY_GOVERNOR_SEVERE_RATIO).append("%)\n");
+		list.append("\tAllocation rate: ..... ").append(getAllocationRate() / 1024 / 1024).append(" MB/s\n");
+		list.append("\tAllocated: ........... ").append(Math.max(0, getAllocatedBytes()) / 1024 / 1024).append(" MB\n");
+		list.append("\tLast trim: ........... ").append(_lastTrim).append('\n');
+		
+		for (MemoryPoolMXBean pool : _heapPools)
+		{
+			MemoryUsage usage = pool.getUsage();
+			list.append('\t').append(pool.getName()).append(": ").append(usage.getUsed() / 1024 / 1024).append('/').append((usage.getMax() > 0 ? usage.getMax() : usage.getCommitted()) / 1024 / 1024).append(" MB\n");
+		}
+		
+		list.append("Consumers by trim priority (estimated heap)\n");
+		list.append("=================================================\n");
+		
+		for (Registration registration : _consumers)
+		{
+			long usage;
+			
+			try
+			{
+				usage = registration._consumer.getMemoryUsage();
+			}
+			catch (Exception e)
+			{
+				usage = -1;
+			}
+			
+			list.append('\t').append(registration._name).append(" [").append(registration._priority).append("]: ").append(usage < 0 ? "?" : (usage / 1024) + " KB").append('\n');
+		}
+		
+		return list;
+	}
+	
+	/**
+	 * @author Mobius
+	 */
+	private static final class Registration
+	{
+		final String _name;
+		final int _priority;
+		final MemoryConsumer _consumer;
+		
+		/**
+		 * Constructor for Registration.
+		 * @param name String
+		 * @param priority int
+		 * @param consumer MemoryConsumer
+		 */
+		Registration(String name, int priority, MemoryConsumer consumer)
+		{
+			_name = name;
+			_priority = priority;
+			_consumer = consumer;
+		}
+	}
+}
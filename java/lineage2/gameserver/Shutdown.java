@@ -12,12 +12,27 @@
  */
 package lineage2.gameserver;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import lineage2.commons.net.nio.impl.SelectorThread;
+import lineage2.commons.threading.PriorityThreadFactory;
+import lineage2.commons.threading.RunnableImpl;
+import lineage2.commons.threading.RunnableStatsManager;
 import lineage2.commons.time.cron.SchedulingPattern;
 import lineage2.commons.time.cron.SchedulingPattern.InvalidPatternException;
+import lineage2.gameserver.dao.CharacterDAO;
 import lineage2.gameserver.database.DatabaseFactory;
 import lineage2.gameserver.instancemanager.CoupleManager;
 import lineage2.gameserver.instancemanager.CursedWeaponsManager;
@@ -218,8 +233,10 @@ public class Shutdown extends Thread
 		LoginServerCommunication.getInstance().shutdown();
 		System.out.println("Shutting down scripts...");
 		Scripts.getInstance().shutdown();
+		ExecutorService flushExecutor = Executors.newFixedThreadPool(Math.max(1, Config.SHUTDOWN_FLUSH_THREADS), new PriorityThreadFactory("ShutdownFlush", Thread.NORM_PRIORITY));
 		System.out.println("Disconnecting players...");
-		disconnectAllPlayers();
+		disconnectAllPlayers(flushExecutor);
+		flushExecutor.shutdownNow();
 		System.out.println("Saving data...");
 		saveData();
 		
@@ -233,6 +250,12 @@ public class Shutdown extends Thread
 			e.printStackTrace();
 		}
 		
+		if (RunnableStatsManager.getInstance().isEnabled())
+		{
+			System.out.println("Dumping runnable stats...");
+			RunnableStatsManager.getInstance().dumpStats(new File(Config.RUNNABLE_STATS_DUMP_FILE));
+		}
+		
 		System.out.println("Shutting down selector...");
 		
 		if (GameServer.getInstance() != null)
@@ -264,85 +287,232 @@ public class Shutdown extends Thread
 	}
 	
 	/**
-	 * Method saveData.
+	 * Waits for the tasks until the deadline, reporting the progress every second.
+	 * @param tasks List<Future<?>>
+	 * @param done AtomicInteger
+	 * @param total int
+	 * @param name String
+	 * @param deadline long Long.MAX_VALUE to wait until all are done
+	 * @return boolean false if the deadline was reached first
 	 */
-	private void saveData()
+	private static boolean await(List<Future<?>> tasks, AtomicInteger done, int total, String name, long deadline)
 	{
-		if (Config.ENABLE_OLYMPIAD)
+		for (Future<?> task : tasks)
 		{
-			try
+			while (!task.isDone())
 			{
-				OlympiadDatabase.save();
-				System.out.println("Olympiad: Data saved.");
+				long left = deadline - System.currentTimeMillis();
+				
+				if (left <= 0)
+				{
+					System.out.println(name + ": deadline reached, " + (total - done.get()) + " of " + total + " not finished!");
+					return false;
+				}
+				
+				try
+				{
+					task.get(Math.min(left, 1000L), TimeUnit.MILLISECONDS);
+				}
+				catch (TimeoutException e)
+				{
+					System.out.println(name + ": " + done.get() + "/" + total + (deadline == Long.MAX_VALUE ? "." : ", " + (left / 1000L) + " seconds left."));
+				}
+				catch (InterruptedException e)
+				{
+					return false;
+				}
+				catch (ExecutionException e)
+				{
+					e.getCause().printStackTrace();
+				}
 			}
-			catch (Exception e)
+		}
+		
+		System.out.println(name + ": " + done.get() + "/" + total + " done.");
+		return true;
+	}
+	
+	/**
+	 * Method submit.
+	 * @param executor ExecutorService
+	 * @param tasks List<Future<?>>
+	 * @param done AtomicInteger
+	 * @param name String
+	 * @param task RunnableImpl
+	 */
+	private static void submit(ExecutorService executor, List<Future<?>> tasks, final AtomicInteger done, final String name, final RunnableImpl task)
+	{
+		tasks.add(executor.submit(new RunnableImpl()
+		{
+			@Override
+			public void runImpl()
 			{
-				e.printStackTrace();
+				try
+				{
+					task.runImpl();
+					System.out.println(name + ": Data saved.");
+				}
+				catch (Exception e)
+				{
+					e.printStackTrace();
+				}
+				finally
+				{
+					done.incrementAndGet();
+				}
 			}
+		}));
+	}
+	
+	/**
+	 * Saves the managers in parallel, they do not share any table. Unlike the player flush they are not bound by ShutdownFlushTimeout, every save runs to its end.
+	 */
+	private void saveData()
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Config.SHUTDOWN_FLUSH_THREADS), new PriorityThreadFactory("ShutdownSave", Thread.NORM_PRIORITY));
+		List<Future<?>> tasks = new ArrayList<>();
+		AtomicInteger done = new AtomicInteger();
+		
+		if (Config.ENABLE_OLYMPIAD)
+		{
+			submit(executor, tasks, done, "Olympiad", new RunnableImpl()
+			{
+				@Override
+				public void runImpl()
+				{
+					OlympiadDatabase.save();
+				}
+			});
 		}
 		
 		if (Config.ALLOW_WEDDING)
 		{
-			try
+			submit(executor, tasks, done, "CoupleManager", new RunnableImpl()
+			{
+				@Override
+				public void runImpl()
+				{
+					CoupleManager.getInstance().store();
+				}
+			});
+		}
+		
+		submit(executor, tasks, done, "FishingChampionShipManager", new RunnableImpl()
+		{
+			@Override
+			public void runImpl()
 			{
-				CoupleManager.getInstance().store();
-				System.out.println("CoupleManager: Data saved.");
+				FishingChampionShipManager.getInstance().shutdown();
 			}
-			catch (Exception e)
+		});
+		submit(executor, tasks, done, "Hero", new RunnableImpl()
+		{
+			@Override
+			public void runImpl()
 			{
-				e.printStackTrace();
+				Hero.getInstance().shutdown();
 			}
-		}
+		});
 		
-		try
-		{
-			FishingChampionShipManager.getInstance().shutdown();
-			System.out.println("FishingChampionShipManager: Data saved.");
-		}
-		catch (Exception e)
+		if (Config.ALLOW_CURSED_WEAPONS)
 		{
-			e.printStackTrace();
+			submit(executor, tasks, done, "CursedWeaponsManager", new RunnableImpl()
+			{
+				@Override
+				public void runImpl()
+				{
+					CursedWeaponsManager.getInstance().saveData();
+				}
+			});
 		}
 		
-		try
+		await(tasks, done, tasks.size(), "Saving data", Long.MAX_VALUE);
+		executor.shutdown();
+	}
+	
+	/**
+	 * Logs out all players in parallel, then writes the characters rows of all of them in batches. Each of the two steps is bound by ShutdownFlushTimeout.<br>
+	 * In batch mode Player.store leaves these rows to the batches, so a character still logging out at the deadline is batched as well, with its state at that time.
+	 * @param executor ExecutorService
+	 */
+	private void disconnectAllPlayers(ExecutorService executor)
+	{
+		final List<Player> players = new ArrayList<>();
+		
+		for (Player player : GameObjectsStorage.getAllPlayersForIterate())
 		{
-			Hero.getInstance().shutdown();
-			System.out.println("Hero: Data saved.");
+			player.setBatchStore(true);
+			players.add(player);
 		}
-		catch (Exception e)
+		
+		List<Future<?>> tasks = new ArrayList<>(players.size());
+		final AtomicInteger done = new AtomicInteger();
+		
+		for (final Player player : players)
 		{
-			e.printStackTrace();
+			tasks.add(executor.submit(new RunnableImpl()
+			{
+				@Override
+				public void runImpl()
+				{
+					try
+					{
+						player.logout();
+					}
+					catch (Exception e)
+					{
+						System.out.println("Error while disconnecting: " + player + "!");
+						e.printStackTrace();
+					}
+					finally
+					{
+						done.incrementAndGet();
+					}
+				}
+			}));
 		}
 		
-		if (Config.ALLOW_CURSED_WEAPONS)
+		await(tasks, done, players.size(), "Disconnecting players", System.currentTimeMillis() + Config.SHUTDOWN_FLUSH_TIMEOUT);
+		// the logouts past the deadline still hold the flush threads
+		ExecutorService storeExecutor = Executors.newFixedThreadPool(Math.max(1, Config.SHUTDOWN_FLUSH_THREADS), new PriorityThreadFactory("ShutdownStore", Thread.NORM_PRIORITY));
+		tasks.clear();
+		done.set(0);
+		int batchSize = Math.max(1, Config.SHUTDOWN_FLUSH_BATCH_SIZE);
+		
+		for (int i = 0; i < players.size(); i += batchSize)
 		{
-			try
+			final List<Player> batch = players.subList(i, Math.min(i + batchSize, players.size()));
+			tasks.add(storeExecutor.submit(new RunnableImpl()
 			{
-				CursedWeaponsManager.getInstance().saveData();
-				System.out.println("CursedWeaponsManager: Data saved,");
-			}
-			catch (Exception e)
-			{
-				e.printStackTrace();
-			}
+				@Override
+				public void runImpl()
+				{
+					storeBatch(batch);
+					done.addAndGet(batch.size());
+				}
+			}));
 		}
+		
+		await(tasks, done, players.size(), "Storing characters", System.currentTimeMillis() + Config.SHUTDOWN_FLUSH_TIMEOUT);
+		storeExecutor.shutdown();
 	}
 	
 	/**
-	 * Method disconnectAllPlayers.
+	 * Writes the characters rows of the batch, one by one if the batch failed.
+	 * @param batch List<Player>
 	 */
-	private void disconnectAllPlayers()
+	private static void storeBatch(List<Player> batch)
 	{
-		for (Player player : GameObjectsStorage.getAllPlayersForIterate())
+		if (CharacterDAO.getInstance().storeBatch(batch) || (batch.size() == 1))
 		{
-			try
-			{
-				player.logout();
-			}
-			catch (Exception e)
+			return;
+		}
+		
+		for (Player player : batch)
+		{
+			if (!CharacterDAO.getInstance().storeBatch(Collections.singletonList(player)))
 			{
-				System.out.println("Error while disconnecting: " + player + "!");
-				e.printStackTrace();
+				System.out.println("Storing characters: " + player + " not stored!");
 			}
 		}
 	}
@@ -12,6 +12,8 @@
  */
 package lineage2.gameserver;
 
+import java.io.File;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -21,6 +23,7 @@ import java.util.concurrent.TimeUnit;
 import lineage2.commons.threading.LoggingRejectedExecutionHandler;
 import lineage2.commons.threading.PriorityThreadFactory;
 import lineage2.commons.threading.RunnableImpl;
+import lineage2.commons.threading.RunnableStatsManager;
 import lineage2.commons.threading.RunnableStatsWrapper;
 
 /**
@@ -43,6 +46,9 @@ public class ThreadPoolManager
 	
 	final ScheduledThreadPoolExecutor _scheduledExecutor;
 	final ThreadPoolExecutor _executor;
+	final ThreadPoolExecutor _packetExecutor;
+	final ThreadPoolExecutor _urgentPacketExecutor;
+	final ThreadPoolExecutor _databaseExecutor;
 	private boolean _shutdown;
 	
 	/**
@@ -52,6 +58,9 @@ public class ThreadPoolManager
 	{
 		_scheduledExecutor = new ScheduledThreadPoolExecutor(Config.SCHEDULED_THREAD_POOL_SIZE, new PriorityThreadFactory("ScheduledThreadPool", Thread.NORM_PRIORITY), new LoggingRejectedExecutionHandler());
 		_executor = new ThreadPoolExecutor(Config.EXECUTOR_THREAD_POOL_SIZE, Integer.MAX_VALUE, 5L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new PriorityThreadFactory("ThreadPoolExecutor", Thread.NORM_PRIORITY), new LoggingRejectedExecutionHandler());
+		_packetExecutor = new ThreadPoolExecutor(Config.PACKET_THREAD_POOL_SIZE, Config.PACKET_THREAD_POOL_SIZE, 5L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new PriorityThreadFactory("PacketThreadPool", Thread.NORM_PRIORITY), new LoggingRejectedExecutionHandler());
+		_urgentPacketExecutor = new ThreadPoolExecutor(Config.URGENT_PACKET_THREAD_POOL_SIZE, Config.URGENT_PACKET_THREAD_POOL_SIZE, 5L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new PriorityThreadFactory("UrgentPacketThreadPool", Thread.NORM_PRIORITY + 1), new LoggingRejectedExecutionHandler());
+		_databaseExecutor = new ThreadPoolExecutor(Config.DATABASE_THREAD_POOL_SIZE, Config.DATABASE_THREAD_POOL_SIZE, 5L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new PriorityThreadFactory("DatabaseThreadPool", Thread.NORM_PRIORITY), new LoggingRejectedExecutionHandler());
 		scheduleAtFixedRate(new RunnableImpl()
 		{
 			@Override
@@ -59,8 +68,26 @@ public class ThreadPoolManager
 			{
 				_scheduledExecutor.purge();
 				_executor.purge();
+				_packetExecutor.purge();
 			}
 		}, 300000L, 300000L);
+		
+		if (Config.ENABLE_RUNNABLE_STATS)
+		{
+			RunnableStatsManager.getInstance().setEnabled(true);
+			
+			if (Config.RUNNABLE_STATS_DUMP_INTERVAL > 0)
+			{
+				scheduleAtFixedRate(new RunnableImpl()
+				{
+					@Override
+					public void runImpl()
+					{
+						RunnableStatsManager.getInstance().dumpStats(new File(Config.RUNNABLE_STATS_DUMP_FILE));
+					}
+				}, Config.RUNNABLE_STATS_DUMP_INTERVAL, Config.RUNNABLE_STATS_DUMP_INTERVAL);
+			}
+		}
 	}
 	
 	/**
@@ -92,6 +119,17 @@ public class ThreadPoolManager
 		return Config.ENABLE_RUNNABLE_STATS ? RunnableStatsWrapper.wrap(r) : r;
 	}
 	
+	/**
+	 * Method wrap.
+	 * @param r Runnable
+	 * @param delay long
+	 * @return Runnable
+	 */
+	private Runnable wrap(Runnable r, long delay)
+	{
+		return Config.ENABLE_RUNNABLE_STATS ? RunnableStatsWrapper.wrap(r, delay) : r;
+	}
+	
 	/**
 	 * Method schedule.
 	 * @param r Runnable
@@ -100,7 +138,7 @@ public class ThreadPoolManager
 	 */
 	public ScheduledFuture<?> schedule(Runnable r, long delay)
 	{
-		return _scheduledExecutor.schedule(wrap(r), validate(delay), TimeUnit.MILLISECONDS);
+		return _scheduledExecutor.schedule(wrap(r, validate(delay)), validate(delay), TimeUnit.MILLISECONDS);
 	}
 	
 	/**
@@ -112,7 +150,8 @@ public class ThreadPoolManager
 	 */
 	public ScheduledFuture<?> scheduleAtFixedRate(Runnable r, long initial, long delay)
 	{
-		return _scheduledExecutor.scheduleAtFixedRate(wrap(r), validate(initial), validate(delay), TimeUnit.MILLISECONDS);
+		Runnable task = Config.ENABLE_RUNNABLE_STATS ? RunnableStatsWrapper.wrapAtFixedRate(r, validate(initial), validate(delay)) : r;
+		return _scheduledExecutor.scheduleAtFixedRate(task, validate(initial), validate(delay), TimeUnit.MILLISECONDS);
 	}
 	
 	/**
@@ -124,7 +163,8 @@ public class ThreadPoolManager
 	 */
 	public ScheduledFuture<?> scheduleAtFixedDelay(Runnable r, long initial, long delay)
 	{
-		return _scheduledExecutor.scheduleWithFixedDelay(wrap(r), validate(initial), validate(delay), TimeUnit.MILLISECONDS);
+		Runnable task = Config.ENABLE_RUNNABLE_STATS ? RunnableStatsWrapper.wrapAtFixedDelay(r, validate(initial), validate(delay)) : r;
+		return _scheduledExecutor.scheduleWithFixedDelay(task, validate(initial), validate(delay), TimeUnit.MILLISECONDS);
 	}
 	
 	/**
@@ -136,6 +176,46 @@ public class ThreadPoolManager
 		_executor.execute(wrap(r));
 	}
 	
+	/**
+	 * Method executePacket.<br>
+	 * Client packet queues share this lane in FIFO order, each queue yields after a limited number of packets so clients are served round-robin.
+	 * @param r Runnable
+	 */
+	public void executePacket(Runnable r)
+	{
+		_packetExecutor.execute(r);
+	}
+	
+	/**
+	 * Method executeUrgentPacket.<br>
+	 * Lane for client packet queues whose next packet is latency-critical (movement, position validation, attack).
+	 * @param r Runnable
+	 */
+	public void executeUrgentPacket(Runnable r)
+	{
+		_urgentPacketExecutor.execute(r);
+	}
+	
+	/**
+	 * Method submitDatabase.<br>
+	 * Lane for database work: loads a caller waits for, so the loads of one request overlap their round trips instead of queueing behind each other, and the tasks of DatabaseExecutor.
+	 * @param r Runnable
+	 * @return Future<?>
+	 */
+	public Future<?> submitDatabase(Runnable r)
+	{
+		return _databaseExecutor.submit(wrap(r));
+	}
+	
+	/**
+	 * Method getDatabasePoolSize.
+	 * @return int
+	 */
+	public int getDatabasePoolSize()
+	{
+		return _databaseExecutor.getCorePoolSize();
+	}
+	
 	/**
 	 * Method shutdown.
 	 * @throws InterruptedException
@@ -151,7 +231,11 @@ public class ThreadPoolManager
 		}
 		finally
 		{
+			_urgentPacketExecutor.shutdown();
+			_packetExecutor.shutdown();
+			_databaseExecutor.shutdown();
 			_executor.shutdown();
+			_databaseExecutor.awaitTermination(1, TimeUnit.MINUTES);
 			_executor.awaitTermination(1, TimeUnit.MINUTES);
 		}
 	}
@@ -183,6 +267,25 @@ public class ThreadPoolManager
 		list.append("\tgetCompletedTaskCount: ").append(_executor.getCompletedTaskCount()).append('\n');
 		list.append("\tgetQueuedTaskCount: .. ").append(_executor.getQueue().size()).append('\n');
 		list.append("\tgetTaskCount: ........ ").append(_executor.getTaskCount()).append('\n');
+		appendStats(list, "PacketThreadPool", _packetExecutor);
+		appendStats(list, "UrgentPacketThreadPool", _urgentPacketExecutor);
+		appendStats(list, "DatabaseThreadPool", _databaseExecutor);
 		return list;
 	}
+	
+	/**
+	 * Method appendStats.
+	 * @param list StringBuilder
+	 * @param name String
+	 * @param executor ThreadPoolExecutor
+	 */
+	private static void appendStats(StringBuilder list, String name, ThreadPoolExecutor executor)
+	{
+		list.append(name).append('\n');
+		list.append("=================================================\n");
+		list.append("\tgetActiveCount: ...... ").append(executor.getActiveCount()).append('\n');
+		list.append("\tgetPoolSize: ......... ").append(executor.getPoolSize()).append('\n');
+		list.append("\tgetCompletedTaskCount: ").append(executor.getCompletedTaskCount()).append('\n');
+		list.append("\tgetQueuedTaskCount: .. ").append(executor.getQueue().size()).append('\n');
+	}
 }
@@ -800,7 +800,7 @@ public class DefaultAI extends CharacterAI
 			{
 				if (hided)
 				{
-					ai.hate = 0;
+					actor.getAggroList().remove(target, true);
 					return false;
 				}
 				
@@ -1516,14 +1516,16 @@ public class DefaultAI extends CharacterAI
 			}
 		}
 		
+		actor.getAggroList().decayHate(System.currentTimeMillis());
 		List<Creature> hateList = actor.getAggroList().getHateList();
+		LazyArrayList<Creature> lost = LazyArrayList.newInstance();
 		Creature hated = null;
 		
 		for (Creature cha : hateList)
 		{
 			if (!checkTarget(cha, MAX_PURSUE_RANGE))
 			{
-				actor.getAggroList().remove(cha, true);
+				lost.add(cha);
 				continue;
 			}
 			
@@ -1531,6 +1533,9 @@ public class DefaultAI extends CharacterAI
 			break;
 		}
 		
+		actor.getAggroList().removeHate(lost);
+		LazyArrayList.recycle(lost);
+		
 		if (hated != null)
 		{
 			setAttackTarget(hated);
@@ -20,6 +20,7 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import lineage2.commons.dbutils.DbUtils;
+import lineage2.gameserver.MemoryGovernor;
 import lineage2.gameserver.database.DatabaseFactory;
 
 import org.apache.commons.lang3.builder.HashCodeBuilder;
@@ -66,6 +67,47 @@ public class CrestCache
 	private CrestCache()
 	{
 		load();
+		MemoryGovernor.getInstance().register("CrestCache", 60, new MemoryGovernor.MemoryConsumer()
+		{
+			@Override
+			public long getMemoryUsage()
+			{
+				readLock.lock();
+				
+				try
+				{
+					return getSize(_pledgeCrest) + getSize(_pledgeCrestLarge) + getSize(_allyCrest);
+				}
+				finally
+				{
+					readLock.unlock();
+				}
+			}
+			
+			@Override
+			public long trim(boolean severe)
+			{
+				// the crests are only kept here, they are not read back from the database
+				return 0;
+			}
+		});
+	}
+	
+	/**
+	 * Method getSize.
+	 * @param crests TIntObjectHashMap<byte[]>
+	 * @return long bytes of the crests
+	 */
+	static long getSize(TIntObjectHashMap<byte[]> crests)
+	{
+		long size = 0;
+		
+		for (byte[] crest : crests.valueCollection())
+		{
+			size += crest.length + 16;
+		}
+		
+		return size;
 	}
 	
 	/**
@@ -12,6 +12,7 @@
  */
 package lineage2.gameserver.cache;
 
+import lineage2.gameserver.MemoryGovernor;
 import lineage2.gameserver.model.Player;
 import lineage2.gameserver.model.World;
 import lineage2.gameserver.model.items.ItemInfo;
@@ -26,6 +27,8 @@ import net.sf.ehcache.Element;
  */
 public class ItemInfoCache
 {
+	/** Rough heap of an element with its ItemInfo. */
+	private static final int ENTRY_SIZE = 256;
 	private final static ItemInfoCache _instance = new ItemInfoCache();
 	
 	/**
@@ -45,6 +48,20 @@ public class ItemInfoCache
 	private ItemInfoCache()
 	{
 		cache = CacheManager.getInstance().getCache(this.getClass().getName());
+		MemoryGovernor.getInstance().register("ItemInfoCache", 10, new MemoryGovernor.MemoryConsumer()
+		{
+			@Override
+			public long getMemoryUsage()
+			{
+				return (long) cache.getSize() * ENTRY_SIZE;
+			}
+			
+			@Override
+			public long trim(boolean severe)
+			{
+				return MemoryGovernor.trimCache(cache, severe ? 100 : 50);
+			}
+		});
 	}
 	
 	/**
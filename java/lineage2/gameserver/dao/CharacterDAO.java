@@ -15,10 +15,13 @@ package lineage2.gameserver.dao;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.util.List;
 
 import lineage2.commons.dbutils.DbUtils;
 import lineage2.gameserver.database.DatabaseFactory;
+import lineage2.gameserver.instancemanager.LeaderboardManager;
 import lineage2.gameserver.model.Player;
+import lineage2.gameserver.utils.GameStats;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -62,6 +65,7 @@ public class CharacterDAO
 			statement = con.prepareStatement("DELETE FROM characters WHERE obj_Id=?");
 			statement.setInt(1, objid);
 			statement.execute();
+			LeaderboardManager.getInstance().remove(objid);
 		}
 		catch (Exception e)
 		{
@@ -124,6 +128,48 @@ public class CharacterDAO
 		return true;
 	}
 	
+	/**
+	 * Stores the characters and vitality_points rows of the players as two JDBC batches over one connection.
+	 * @param players List<Player>
+	 * @return boolean
+	 */
+	public boolean storeBatch(List<Player> players)
+	{
+		Connection con = null;
+		PreparedStatement characters = null;
+		PreparedStatement vitality = null;
+		
+		try
+		{
+			con = DatabaseFactory.getInstance().getConnection();
+			characters = con.prepareStatement(Player.UPDATE_CHARACTER);
+			vitality = con.prepareStatement(Player.UPDATE_VITALITY);
+			
+			for (Player player : players)
+			{
+				player.setCharacterParams(characters);
+				characters.addBatch();
+				player.setVitalityParams(vitality);
+				vitality.addBatch();
+				GameStats.increaseUpdatePlayerBase();
+			}
+			
+			characters.executeBatch();
+			vitality.executeBatch();
+		}
+		catch (final Exception e)
+		{
+			_log.error("Could not store " + players.size() + " characters!", e);
+			return false;
+		}
+		finally
+		{
+			DbUtils.closeQuietly(characters);
+			DbUtils.closeQuietly(con, vitality);
+		}
+		return true;
+	}
+	
 	/**
 	 * Method getObjectIdByName.
 	 * @param name String
@@ -19,12 +19,14 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 import lineage2.commons.dao.JdbcDAO;
 import lineage2.commons.dao.JdbcEntityState;
 import lineage2.commons.dao.JdbcEntityStats;
 import lineage2.commons.dbutils.DbUtils;
+import lineage2.gameserver.MemoryGovernor;
 import lineage2.gameserver.database.DatabaseFactory;
 import lineage2.gameserver.model.items.ItemInstance;
 import lineage2.gameserver.model.items.ItemInstance.ItemLocation;
@@ -38,9 +40,11 @@ import org.slf4j.LoggerFactory;
 public class ItemsDAO implements JdbcDAO<Integer, ItemInstance>
 {
 	private static final Logger _log = LoggerFactory.getLogger(ItemsDAO.class);
+	/** Rough heap of an element with its entity. */
+	private static final int ENTRY_SIZE = 400;
 	private final static String RESTORE_ITEM = "SELECT object_id, owner_id, item_id, count, enchant_level, loc, loc_data, custom_type1, custom_type2, life_time, custom_flags, augmentation_id, attribute_fire, attribute_water, attribute_wind, attribute_earth, attribute_holy, attribute_unholy, agathion_energy, visual_id FROM items WHERE object_id = ?";
-	private final static String RESTORE_OWNER_ITEMS = "SELECT object_id FROM items WHERE owner_id = ? AND loc = ?";
-	private final static String RESTORE_ITEMS_BY_LOC = "SELECT object_id FROM items WHERE loc = ?";
+	private final static String RESTORE_OWNER_ITEMS = "SELECT object_id, owner_id, item_id, count, enchant_level, loc, loc_data, custom_type1, custom_type2, life_time, custom_flags, augmentation_id, attribute_fire, attribute_water, attribute_wind, attribute_earth, attribute_holy, attribute_unholy, agathion_energy, visual_id FROM items WHERE owner_id = ? AND loc = ?";
+	private final static String RESTORE_ITEMS_BY_LOC = "SELECT object_id, owner_id, item_id, count, enchant_level, loc, loc_data, custom_type1, custom_type2, life_time, custom_flags, augmentation_id, attribute_fire, attribute_water, attribute_wind, attribute_earth, attribute_holy, attribute_unholy, agathion_energy, visual_id FROM items WHERE loc = ?";
 	private final static String STORE_ITEM = "INSERT INTO items (object_id, owner_id, item_id, count, enchant_level, loc, loc_data, custom_type1, custom_type2, life_time, custom_flags, augmentation_id, attribute_fire, attribute_water, attribute_wind, attribute_earth, attribute_holy, attribute_unholy, agathion_energy, visual_id) VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?)";
 	private final static String UPDATE_ITEM = "UPDATE items SET owner_id = ?, item_id = ?, count = ?, enchant_level = ?, loc = ?, loc_data = ?, custom_type1 = ?, custom_type2 = ?, life_time = ?, custom_flags = ?, augmentation_id = ?, attribute_fire = ?, attribute_water = ?, attribute_wind = ?, attribute_earth = ?, attribute_holy = ?, attribute_unholy = ?, agathion_energy=?, visual_id=? WHERE object_id = ?";
 	private final static String REMOVE_ITEM = "DELETE FROM items WHERE object_id = ?";
@@ -93,6 +97,20 @@ public class ItemsDAO implements JdbcDAO<Integer, ItemInstance>
 	private ItemsDAO()
 	{
 		cache = CacheManager.getInstance().getCache(ItemInstance.class.getName());
+		MemoryGovernor.getInstance().register("ItemsDAO", 50, new MemoryGovernor.MemoryConsumer()
+		{
+			@Override
+			public long getMemoryUsage()
+			{
+				return (long) cache.getSize() * ENTRY_SIZE;
+			}
+			
+			@Override
+			public long trim(boolean severe)
+			{
+				return MemoryGovernor.trimCache(cache, severe ? 50 : 25);
+			}
+		});
 	}
 	
 	/**
@@ -151,34 +169,75 @@ public class ItemsDAO implements JdbcDAO<Integer, ItemInstance>
 	 */
 	private ItemInstance load0(ResultSet rset) throws SQLException
 	{
-		ItemInstance item = null;
+		return rset.next() ? restore0(rset) : null;
+	}
+	
+	/**
+	 * Builds the item of the current row.
+	 * @param rset ResultSet
+	 * @return ItemInstance
+	 * @throws SQLException
+	 */
+	private ItemInstance restore0(ResultSet rset) throws SQLException
+	{
+		ItemInstance item = new ItemInstance(rset.getInt(1));
+		item.setOwnerId(rset.getInt(2));
+		item.setId(rset.getInt(3));
+		item.setCount(rset.getLong(4));
+		item.setEnchantLevel(rset.getInt(5));
+		item.setLocName(rset.getString(6));
+		item.setLocData(rset.getInt(7));
+		item.setCustomType1(rset.getInt(8));
+		item.setCustomType2(rset.getInt(9));
+		item.setLifeTime(rset.getInt(10));
+		item.setCustomFlags(rset.getInt(11));
+		item.setAugmentationId(rset.getInt(12));
+		item.getAttributes().setFire(rset.getInt(13));
+		item.getAttributes().setWater(rset.getInt(14));
+		item.getAttributes().setWind(rset.getInt(15));
+		item.getAttributes().setEarth(rset.getInt(16));
+		item.getAttributes().setHoly(rset.getInt(17));
+		item.getAttributes().setUnholy(rset.getInt(18));
+		item.setAgathionEnergy(rset.getInt(19));
+		item.setVisualId(rset.getInt(20));
+		
+		return item;
+	}
+	
+	/**
+	 * Builds the items of all rows, taking the items already cached from the cache, and caches the new ones in one call.
+	 * @param rset ResultSet
+	 * @return Collection<ItemInstance>
+	 * @throws SQLException
+	 */
+	private Collection<ItemInstance> restoreAll(ResultSet rset) throws SQLException
+	{
+		List<ItemInstance> items = new ArrayList<>();
+		List<Element> loaded = new ArrayList<>();
+		
+		while (rset.next())
+		{
+			Element ce = cache.get(rset.getInt(1));
+			
+			if (ce != null)
+			{
+				items.add((ItemInstance) ce.getObjectValue());
+				continue;
+			}
+			
+			ItemInstance item = restore0(rset);
+			item.setJdbcState(JdbcEntityState.STORED);
+			items.add(item);
+			loaded.add(new Element(item.getObjectId(), item));
+		}
 		
-		if (rset.next())
-		{
-			int objectId = rset.getInt(1);
-			item = new ItemInstance(objectId);
-			item.setOwnerId(rset.getInt(2));
-			item.setId(rset.getInt(3));
-			item.setCount(rset.getLong(4));
-			item.setEnchantLevel(rset.getInt(5));
-			item.setLocName(rset.getString(6));
-			item.setLocData(rset.getInt(7));
-			item.setCustomType1(rset.getInt(8));
-			item.setCustomType2(rset.getInt(9));
-			item.setLifeTime(rset.getInt(10));
-			item.setCustomFlags(rset.getInt(11));
-			item.setAugmentationId(rset.getInt(12));
-			item.getAttributes().setFire(rset.getInt(13));
-			item.getAttributes().setWater(rset.getInt(14));
-			item.getAttributes().setWind(rset.getInt(15));
-			item.getAttributes().setEarth(rset.getInt(16));
-			item.getAttributes().setHoly(rset.getInt(17));
-			item.getAttributes().setUnholy(rset.getInt(18));
-			item.setAgathionEnergy(rset.getInt(19));
-			item.setVisualId(rset.getInt(20));
+		if (!loaded.isEmpty())
+		{
+			cache.putAll(loaded);
+			load.addAndGet(loaded.size());
 		}
 		
-		return item;
+		return items;
 	}
 	
 	/**
@@ -362,36 +421,6 @@ public class ItemsDAO implements JdbcDAO<Integer, ItemInstance>
 		return item;
 	}
 	
-	/**
-	 * Method load.
-	 * @param objectIds Collection<Integer>
-	 * @return Collection<ItemInstance>
-	 */
-	private Collection<ItemInstance> load(Collection<Integer> objectIds)
-	{
-		Collection<ItemInstance> list = Collections.emptyList();
-		
-		if (objectIds.isEmpty())
-		{
-			return list;
-		}
-		
-		list = new ArrayList<>(objectIds.size());
-		ItemInstance item;
-		
-		for (Integer objectId : objectIds)
-		{
-			item = load(objectId);
-			
-			if (item != null)
-			{
-				list.add(item);
-			}
-		}
-		
-		return list;
-	}
-	
 	/**
 	 * Method save.
 	 * @param item ItemInstance
@@ -563,7 +592,6 @@ public class ItemsDAO implements JdbcDAO<Integer, ItemInstance>
 	 */
 	public Collection<ItemInstance> getItemsByOwnerIdAndLoc(int ownerId, ItemLocation loc)
 	{
-		Collection<Integer> objectIds = Collections.emptyList();
 		Connection con = null;
 		PreparedStatement statement = null;
 		ResultSet rset = null;
@@ -575,23 +603,17 @@ public class ItemsDAO implements JdbcDAO<Integer, ItemInstance>
 			statement.setInt(1, ownerId);
 			statement.setString(2, loc.name());
 			rset = statement.executeQuery();
-			objectIds = new ArrayList<>();
-			
-			while (rset.next())
-			{
-				objectIds.add(rset.getInt(1));
-			}
+			return restoreAll(rset);
 		}
 		catch (SQLException e)
 		{
 			_log.error("Error while restore items of owner : " + ownerId, e);
-			objectIds.clear();
+			return Collections.emptyList();
 		}
 		finally
 		{
 			DbUtils.closeQuietly(con, statement, rset);
 		}
-		return load(objectIds);
 	}
 	
 	/**
@@ -601,7 +623,6 @@ public class ItemsDAO implements JdbcDAO<Integer, ItemInstance>
 	 */
 	public Collection<ItemInstance> getItemsByLoc(ItemLocation loc)
 	{
-		Collection<Integer> objectIds = Collections.emptyList();
 		Connection con = null;
 		PreparedStatement statement = null;
 		ResultSet rset = null;
@@ -612,22 +633,16 @@ public class ItemsDAO implements JdbcDAO<Integer, ItemInstance>
 			statement = con.prepareStatement(RESTORE_ITEMS_BY_LOC);
 			statement.setString(1, loc.name());
 			rset = statement.executeQuery();
-			objectIds = new ArrayList<>();
-			
-			while (rset.next())
-			{
-				objectIds.add(rset.getInt(1));
-			}
+			return restoreAll(rset);
 		}
 		catch (SQLException e)
 		{
 			_log.error("Error while restore items for loc : " + loc.name(), e);
-			objectIds.clear();
+			return Collections.emptyList();
 		}
 		finally
 		{
 			DbUtils.closeQuietly(con, statement, rset);
 		}
-		return load(objectIds);
 	}
 }
@@ -27,6 +27,7 @@ import lineage2.commons.dao.JdbcDAO;
 import lineage2.commons.dao.JdbcEntityState;
 import lineage2.commons.dao.JdbcEntityStats;
 import lineage2.commons.dbutils.DbUtils;
+import lineage2.gameserver.MemoryGovernor;
 import lineage2.gameserver.database.DatabaseFactory;
 import lineage2.gameserver.model.items.ItemInstance;
 import lineage2.gameserver.model.mail.Mail;
@@ -44,6 +45,8 @@ import org.slf4j.LoggerFactory;
 public class MailDAO implements JdbcDAO<Integer, Mail>
 {
 	private static final Logger _log = LoggerFactory.getLogger(MailDAO.class);
+	/** Rough heap of an element with its entity. */
+	private static final int ENTRY_SIZE = 400;
 	private final static String RESTORE_MAIL = "SELECT sender_id, sender_name, receiver_id, receiver_name, expire_time, topic, body, price, type, unread, returnable, systemMsg1, systemMsg2 FROM mail WHERE message_id = ?";
 	private final static String STORE_MAIL = "INSERT INTO mail(sender_id, sender_name, receiver_id, receiver_name, expire_time, topic, body, price, type, unread, returnable, systemMsg1, systemMsg2) VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?)";
 	private final static String UPDATE_MAIL = "UPDATE mail SET sender_id = ?, sender_name = ?, receiver_id = ?, receiver_name = ?, expire_time = ?, topic = ?, body = ?, price = ?, type = ?, unread = ?, returnable = ?, systemMsg1 = ?, systemMsg2 = ? WHERE message_id = ?";
@@ -104,6 +107,20 @@ public class MailDAO implements JdbcDAO<Integer, Mail>
 	private MailDAO()
 	{
 		cache = CacheManager.getInstance().getCache(Mail.class.getName());
+		MemoryGovernor.getInstance().register("MailDAO", 40, new MemoryGovernor.MemoryConsumer()
+		{
+			@Override
+			public long getMemoryUsage()
+			{
+				return (long) cache.getSize() * ENTRY_SIZE;
+			}
+			
+			@Override
+			public long trim(boolean severe)
+			{
+				return MemoryGovernor.trimCache(cache, severe ? 50 : 25);
+			}
+		});
 	}
 	
 	/**
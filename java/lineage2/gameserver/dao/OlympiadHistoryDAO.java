@@ -17,6 +17,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -158,4 +159,47 @@ public class OlympiadHistoryDAO
 			DbUtils.closeQuietly(con, statement);
 		}
 	}
+	
+	
+	/**
+	 * Inserts the games in one batch.
+	 * @param histories Collection<OlympiadHistory>
+	 */
+	public void insert(Collection<OlympiadHistory> histories)
+	{
+		Connection con = null;
+		PreparedStatement statement = null;
+		
+		try
+		{
+			con = DatabaseFactory.getInstance().getConnection();
+			statement = con.prepareStatement(INSERT_SQL_QUERY);
+			
+			for (OlympiadHistory history : histories)
+			{
+				statement.setInt(1, history.getObjectId1());
+				statement.setInt(2, history.getObjectId2());
+				statement.setInt(3, history.getClassId1());
+				statement.setInt(4, history.getClassId2());
+				statement.setString(5, history.getName1());
+				statement.setString(6, history.getName2());
+				statement.setLong(7, history.getGameStartTime());
+				statement.setInt(8, history.getGameTime());
+				statement.setInt(9, history.getGameStatus());
+				statement.setInt(10, history.getGameType());
+				statement.setInt(11, 0);
+				statement.addBatch();
+			}
+			
+			statement.executeBatch();
+		}
+		catch (Exception e)
+		{
+			_log.error("OlympiadHistoryDAO: insert(Collection): " + histories.size() + " games", e);
+		}
+		finally
+		{
+			DbUtils.closeQuietly(con, statement);
+		}
+	}
 }
@@ -0,0 +1,208 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.gameserver.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lineage2.commons.dbutils.DbUtils;
+import lineage2.commons.threading.RunnableImpl;
+import lineage2.gameserver.ThreadPoolManager;
+import lineage2.gameserver.database.DatabaseFactory;
+import lineage2.gameserver.model.entity.olympiad.OlympiadHistory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-behind journal of the hero diary, the Olympiad games and the noble points.<br>
+ * Diary entries and games are queued and inserted in batches, nobles are only marked and written with their current values, so a noble fighting several games between two flushes is written once. A full queue is flushed by the thread adding to it.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class OlympiadJournalDAO
+{
+	private static final Logger _log = LoggerFactory.getLogger(OlympiadJournalDAO.class);
+	private static final String INSERT_DIARY_SQL_QUERY = "INSERT INTO heroes_diary (charId, time, action, param) VALUES (?,?,?,?)";
+	private static final int QUEUE_CAPACITY = 4096;
+	private static final long FLUSH_DELAY = 5000L;
+	private static final OlympiadJournalDAO _instance = new OlympiadJournalDAO();
+	
+	/**
+	 * @author Mobius
+	 */
+	private static class DiaryEntry
+	{
+		final int charId;
+		final long time;
+		final int action;
+		final int param;
+		
+		/**
+		 * Constructor for DiaryEntry.
+		 * @param charId int
+		 * @param time long
+		 * @param action int
+		 * @param param int
+		 */
+		DiaryEntry(int charId, long time, int action, int param)
+		{
+			this.charId = charId;
+			this.time = time;
+			this.action = action;
+			this.param = param;
+		}
+	}
+	
+	private final BlockingQueue<DiaryEntry> _diary = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+	private final BlockingQueue<OlympiadHistory> _history = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+	private final Set<Integer> _nobles = ConcurrentHashMap.newKeySet();
+	
+	/**
+	 * Method getInstance.
+	 * @return OlympiadJournalDAO
+	 */
+	public static OlympiadJournalDAO getInstance()
+	{
+		return _instance;
+	}
+	
+	/**
+	 * Constructor for OlympiadJournalDAO.
+	 */
+	private OlympiadJournalDAO()
+	{
+		ThreadPoolManager.getInstance().scheduleAtFixedRate(new RunnableImpl()
+		{
+			@Override
+			public void runImpl()
+			{
+				flush();
+			}
+		}, FLUSH_DELAY, FLUSH_DELAY);
+	}
+	
+	/**
+	 * Queues a hero diary entry.
+	 * @param charId int
+	 * @param time long
+	 * @param action int
+	 * @param param int
+	 */
+	public void addDiary(int charId, long time, int action, int param)
+	{
+		DiaryEntry entry = new DiaryEntry(charId, time, action, param);
+		
+		while (!_diary.offer(entry))
+		{
+			flush();
+		}
+	}
+	
+	/**
+	 * Queues a finished Olympiad game.
+	 * @param history OlympiadHistory
+	 */
+	public void addHistory(OlympiadHistory history)
+	{
+		while (!_history.offer(history))
+		{
+			flush();
+		}
+	}
+	
+	/**
+	 * Marks the noble to be written with its values at the next flush.
+	 * @param nobleId int
+	 */
+	public void markNoble(int nobleId)
+	{
+		_nobles.add(nobleId);
+	}
+	
+	/**
+	 * Writes everything queued so far. Holding the lock of the journal keeps a flush out of a bulk update of the same tables.
+	 */
+	public synchronized void flush()
+	{
+		flushDiary();
+		
+		if (!_history.isEmpty())
+		{
+			List<OlympiadHistory> history = new ArrayList<>(_history.size());
+			_history.drainTo(history);
+			OlympiadHistoryDAO.getInstance().insert(history);
+		}
+		
+		if (!_nobles.isEmpty())
+		{
+			List<Integer> nobles = new ArrayList<>(_nobles.size());
+			
+			for (Iterator<Integer> itr = _nobles.iterator(); itr.hasNext();)
+			{
+				nobles.add(itr.next());
+				itr.remove();
+			}
+			
+			OlympiadNobleDAO.getInstance().replace(nobles);
+		}
+	}
+	
+	/**
+	 * Method flushDiary.
+	 */
+	private void flushDiary()
+	{
+		if (_diary.isEmpty())
+		{
+			return;
+		}
+		
+		List<DiaryEntry> entries = new ArrayList<>(_diary.size());
+		_diary.drainTo(entries);
+		Connection con = null;
+		PreparedStatement statement = null;
+		
+		try
+		{
+			con = DatabaseFactory.getInstance().getConnection();
+			statement = con.prepareStatement(INSERT_DIARY_SQL_QUERY);
+			
+			for (DiaryEntry entry : entries)
+			{
+				statement.setInt(1, entry.charId);
+				statement.setLong(2, entry.time);
+				statement.setInt(3, entry.action);
+				statement.setInt(4, entry.param);
+				statement.addBatch();
+			}
+			
+			statement.executeBatch();
+		}
+		catch (Exception e)
+		{
+			_log.error("OlympiadJournalDAO: Could not insert " + entries.size() + " hero diary entries!", e);
+		}
+		finally
+		{
+			DbUtils.closeQuietly(con, statement);
+		}
+	}
+}
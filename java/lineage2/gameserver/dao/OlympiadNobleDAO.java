@@ -15,6 +15,7 @@ package lineage2.gameserver.dao;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.util.Collection;
 
 import lineage2.commons.dbutils.DbUtils;
 import lineage2.gameserver.database.DatabaseFactory;
@@ -43,11 +44,12 @@ public class OlympiadNobleDAO
 	/**
 	 * DESC, `competitions_done` DESC"")
 	 */
-	public static final String OLYMPIAD_GET_HEROS = "SELECT `char_id`, characters.char_name AS char_name FROM `olympiad_nobles` LEFT JOIN characters ON char_id=characters.obj_Id WHERE `class_id` = ? AND `competitions_done` >= ? AND `competitions_win` > 0 ORDER BY `olympiad_points` DESC, `competitions_win` DESC, `competitions_done` DESC";
-	public static final String GET_EACH_CLASS_LEADER = "SELECT characters.char_name AS char_name FROM `olympiad_nobles` LEFT JOIN characters ON char_id=characters.obj_Id WHERE `class_id` = ? AND `olympiad_points_past_static` != 0 ORDER BY `olympiad_points_past_static` DESC LIMIT 10";
+	public static final String OLYMPIAD_GET_HEROS = "SELECT `char_id`, characters.char_name AS char_name, `class_id` FROM `olympiad_nobles` LEFT JOIN characters ON char_id=characters.obj_Id WHERE `class_id` > ? AND `competitions_done` >= ? AND `competitions_win` > 0 ORDER BY `class_id`, `olympiad_points` DESC, `competitions_win` DESC, `competitions_done` DESC";
 	public static final String GET_ALL_CLASSIFIED_NOBLESS = "SELECT `char_id` FROM `olympiad_nobles` ORDER BY olympiad_points_past_static DESC";
-	public static final String OLYMPIAD_CALCULATE_LAST_PERIOD = "UPDATE `olympiad_nobles` SET `olympiad_points_past` = `olympiad_points`, `olympiad_points_past_static` = `olympiad_points` WHERE `competitions_done` >= ?";
-	public static final String OLYMPIAD_CLEANUP_NOBLES = "UPDATE `olympiad_nobles` SET `olympiad_points` = ?, `competitions_done` = 0, `competitions_win` = 0, `competitions_loose` = 0, game_classes_count=0, game_noclasses_count=0";
+	/**
+	 * MySQL assigns from left to right, so the past points are taken before the points and the games are reset.
+	 */
+	public static final String OLYMPIAD_CLEANUP_NOBLES = "UPDATE `olympiad_nobles` SET `olympiad_points_past` = IF(`competitions_done` >= ?, `olympiad_points`, 0), `olympiad_points_past_static` = `olympiad_points_past`, `olympiad_points` = ?, `competitions_done` = 0, `competitions_win` = 0, `competitions_loose` = 0, game_classes_count=0, game_noclasses_count=0";
 	
 	/**
 	 * Method getInstance.
@@ -136,4 +138,53 @@ public class OlympiadNobleDAO
 			DbUtils.closeQuietly(con, statement);
 		}
 	}
+	
+	
+	/**
+	 * Writes the nobles in one batch, with their values at the time of the call. Nobles removed in the meantime are skipped.
+	 * @param nobleIds Collection<Integer>
+	 */
+	public void replace(Collection<Integer> nobleIds)
+	{
+		Connection con = null;
+		PreparedStatement statement = null;
+		
+		try
+		{
+			con = DatabaseFactory.getInstance().getConnection();
+			statement = con.prepareStatement(REPLACE_SQL_QUERY);
+			
+			for (int nobleId : nobleIds)
+			{
+				StatsSet nobleInfo = Olympiad._nobles.get(nobleId);
+				
+				if (nobleInfo == null)
+				{
+					continue;
+				}
+				
+				statement.setInt(1, nobleId);
+				statement.setInt(2, nobleInfo.getInteger(Olympiad.CLASS_ID));
+				statement.setInt(3, nobleInfo.getInteger(Olympiad.POINTS));
+				statement.setInt(4, nobleInfo.getInteger(Olympiad.POINTS_PAST));
+				statement.setInt(5, nobleInfo.getInteger(Olympiad.POINTS_PAST_STATIC));
+				statement.setInt(6, nobleInfo.getInteger(Olympiad.COMP_DONE));
+				statement.setInt(7, nobleInfo.getInteger(Olympiad.COMP_WIN));
+				statement.setInt(8, nobleInfo.getInteger(Olympiad.COMP_LOOSE));
+				statement.setInt(9, nobleInfo.getInteger(Olympiad.GAME_CLASSES_COUNT));
+				statement.setInt(10, nobleInfo.getInteger(Olympiad.GAME_NOCLASSES_COUNT));
+				statement.addBatch();
+			}
+			
+			statement.executeBatch();
+		}
+		catch (Exception e)
+		{
+			_log.error("OlympiadNobleDAO: replace(Collection): " + nobleIds.size() + " nobles", e);
+		}
+		finally
+		{
+			DbUtils.closeQuietly(con, statement);
+		}
+	}
 }
@@ -16,6 +16,7 @@ import java.io.File;
 import java.io.IOException;
 
 import lineage2.gameserver.Config;
+import lineage2.gameserver.MemoryGovernor;
 import lineage2.gameserver.model.Player;
 import lineage2.gameserver.utils.Language;
 import lineage2.gameserver.utils.Strings;
@@ -49,7 +50,11 @@ public class HtmCache
 		return _instance;
 	}
 	
+	/** Rough heap of an element and its string besides the characters. */
+	private static final int ENTRY_OVERHEAD = 96;
 	private final Cache[] _cache = new Cache[Language.VALUES.length];
+	/** Set once the memory governor dropped documents, from then on a missing document is read again even in ENABLED mode. */
+	private volatile boolean _trimmed;
 	
 	/**
 	 * Constructor for HtmCache.
@@ -60,6 +65,49 @@ public class HtmCache
 		{
 			_cache[i] = CacheManager.getInstance().getCache(getClass().getName() + "." + Language.VALUES[i].name());
 		}
+		
+		MemoryGovernor.getInstance().register("HtmCache", 30, new MemoryGovernor.MemoryConsumer()
+		{
+			@Override
+			public long getMemoryUsage()
+			{
+				long usage = 0;
+				
+				for (Cache c : _cache)
+				{
+					for (Object key : c.getKeys())
+					{
+						Element element = c.getQuiet(key);
+						
+						if (element != null)
+						{
+							usage += ((String) element.getObjectValue()).length() + ENTRY_OVERHEAD;
+						}
+					}
+				}
+				
+				return usage;
+			}
+			
+			@Override
+			public long trim(boolean severe)
+			{
+				if (Config.HTM_CACHE_MODE == DISABLED)
+				{
+					return 0;
+				}
+				
+				_trimmed = true;
+				long released = 0;
+				
+				for (Cache c : _cache)
+				{
+					released += MemoryGovernor.trimCache(c, severe ? 100 : 50);
+				}
+				
+				return released;
+			}
+		});
 	}
 	
 	/**
@@ -68,6 +116,7 @@ public class HtmCache
 	public void reload()
 	{
 		clear();
+		_trimmed = false;
 		
 		switch (Config.HTM_CACHE_MODE)
 		{
@@ -203,6 +252,10 @@ public class HtmCache
 			switch (Config.HTM_CACHE_MODE)
 			{
 				case ENABLED:
+					if (_trimmed)
+					{
+						cache = loadLazy(file);
+					}
 					break;
 				
 				case LAZY:
@@ -260,7 +313,7 @@ public class HtmCache
 			{
 				cache = FileUtils.readFileToString(f, "UTF-8");
 				cache = Strings.bbParse(cache);
-				_cache[Language.ENGLISH.ordinal()].put(new Element(file, cache));
+				_cache[Language.ENGLISH.ordinal()].put(new Element(file.toLowerCase(), cache));
 			}
 			catch (IOException e)
 			{
@@ -92,7 +92,7 @@ public final class ItemHolder extends AbstractHolder
 			return null;
 		}
 		
-		return _allTemplates[id];
+		return item;
 	}
 	
 	/**
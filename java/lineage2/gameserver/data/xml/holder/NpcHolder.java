@@ -75,7 +75,7 @@ public final class NpcHolder extends AbstractHolder
 			return null;
 		}
 		
-		return _allTemplates[id];
+		return npc;
 	}
 	
 	/**
@@ -136,7 +136,7 @@ public final class NpcHolder extends AbstractHolder
 			
 			if ((byLevel = _npcsByLevel.get(npc.level)) == null)
 			{
-				_npcsByLevel.put(npcId, byLevel = new ArrayList<>());
+				_npcsByLevel.put(npc.level, byLevel = new ArrayList<>());
 			}
 			
 			byLevel.add(npc);
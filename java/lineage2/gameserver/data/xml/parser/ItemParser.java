@@ -88,6 +88,16 @@ public final class ItemParser extends StatParser<ItemHolder>
 		return "item.dtd";
 	}
 	
+	/**
+	 * Method isParallel.
+	 * @return boolean
+	 */
+	@Override
+	protected boolean isParallel()
+	{
+		return true;
+	}
+	
 	/**
 	 * Method readData.
 	 * @param rootElement org.dom4j.Element
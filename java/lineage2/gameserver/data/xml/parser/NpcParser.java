@@ -97,6 +97,16 @@ public final class NpcParser extends AbstractDirParser<NpcHolder>
 		return "npc.dtd";
 	}
 	
+	/**
+	 * Method isParallel.
+	 * @return boolean
+	 */
+	@Override
+	protected boolean isParallel()
+	{
+		return true;
+	}
+	
 	/**
 	 * Method readData.
 	 * @param rootElement org.dom4j.Element
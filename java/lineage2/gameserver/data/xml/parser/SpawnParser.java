@@ -87,6 +87,16 @@ public final class SpawnParser extends AbstractDirParser<SpawnHolder>
 		return "spawn.dtd";
 	}
 	
+	/**
+	 * Method isParallel.
+	 * @return boolean
+	 */
+	@Override
+	protected boolean isParallel()
+	{
+		return true;
+	}
+	
 	/**
 	 * Method readData.
 	 * @param rootElement Element
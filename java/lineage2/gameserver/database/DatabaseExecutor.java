@@ -0,0 +1,332 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.gameserver.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import lineage2.commons.dbutils.DbUtils;
+import lineage2.commons.threading.LatencyHistogram;
+import lineage2.commons.threading.RunnableImpl;
+import lineage2.gameserver.ThreadPoolManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs database work on the database lane of the ThreadPoolManager, off the packet, AI and scheduled threads.<br>
+ * A task gets a connection borrowed for it and closed after it. Results come back as a CompletableFuture, or through a callback run on the executor given by the caller, the general executor by default.<br>
+ * Work submitted with a key, such as the object id of a character, runs in submission order with the other work of the same key, so the writes of one character never overtake each other and a read submitted with the key sees all of them.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public final class DatabaseExecutor
+{
+	private static final Logger _log = LoggerFactory.getLogger(DatabaseExecutor.class);
+	private static final DatabaseExecutor _instance = new DatabaseExecutor();
+	private final KeyLane[] _lanes;
+	final LongAdder _submitted = new LongAdder();
+	final LongAdder _failed = new LongAdder();
+	final LatencyHistogram _queueTime = new LatencyHistogram();
+	final LatencyHistogram _runTime = new LatencyHistogram();
+	
+	/**
+	 * Method getInstance.
+	 * @return DatabaseExecutor
+	 */
+	public static DatabaseExecutor getInstance()
+	{
+		return _instance;
+	}
+	
+	/**
+	 * Constructor for DatabaseExecutor.
+	 */
+	private DatabaseExecutor()
+	{
+		_lanes = new KeyLane[ThreadPoolManager.getInstance().getDatabasePoolSize()];
+		
+		for (int i = 0; i < _lanes.length; i++)
+		{
+			_lanes[i] = new KeyLane();
+		}
+	}
+	
+	/**
+	 * Database work returning a result.
+	 * @param <T>
+	 */
+	@FunctionalInterface
+	public interface DatabaseTask<T>
+	{
+		/**
+		 * Method call.
+		 * @param con Connection closed after the call
+		 * @return T
+		 * @throws SQLException
+		 */
+		T call(Connection con) throws SQLException;
+	}
+	
+	/**
+	 * Database work without result.
+	 */
+	@FunctionalInterface
+	public interface DatabaseUpdate
+	{
+		/**
+		 * Method run.
+		 * @param con Connection closed after the call
+		 * @throws SQLException
+		 */
+		void run(Connection con) throws SQLException;
+	}
+	
+	/**
+	 * Method submit.
+	 * @param <T>
+	 * @param task DatabaseTask<T>
+	 * @return CompletableFuture<T> completed on a database thread
+	 */
+	public <T> CompletableFuture<T> submit(DatabaseTask<T> task)
+	{
+		return submit(null, task);
+	}
+	
+	/**
+	 * Method submit.
+	 * @param <T>
+	 * @param key Object work of the same key runs in submission order, null for none
+	 * @param task DatabaseTask<T>
+	 * @return CompletableFuture<T> completed on a database thread
+	 */
+	public <T> CompletableFuture<T> submit(Object key, DatabaseTask<T> task)
+	{
+		CompletableFuture<T> future = new CompletableFuture<>();
+		dispatch(key, new DatabaseRunnable<>(task, future));
+		return future;
+	}
+	
+	/**
+	 * Runs the task and hands its result to the callback on the general executor. A failure is logged and the callback is not called.
+	 * @param <T>
+	 * @param task DatabaseTask<T>
+	 * @param callback Consumer<? super T>
+	 */
+	public <T> void submitThen(DatabaseTask<T> task, Consumer<? super T> callback)
+	{
+		submitThen(null, task, callback, ThreadPoolManager.getInstance()::execute);
+	}
+	
+	/**
+	 * Runs the task and hands its result to the callback on the given executor. A failure is logged and the callback is not called.
+	 * @param <T>
+	 * @param key Object work of the same key runs in submission order, null for none
+	 * @param task DatabaseTask<T>
+	 * @param callback Consumer<? super T>
+	 * @param context Executor the context the callback runs in
+	 */
+	public <T> void submitThen(Object key, DatabaseTask<T> task, Consumer<? super T> callback, Executor context)
+	{
+		submit(key, task).thenAccept(result -> context.execute(new RunnableImpl()
+		{
+			@Override
+			public void runImpl()
+			{
+				callback.accept(result);
+			}
+		}));
+	}
+	
+	/**
+	 * Queues a write; a failure is logged.
+	 * @param key Object work of the same key runs in submission order, null for none
+	 * @param update DatabaseUpdate
+	 */
+	public void execute(Object key, DatabaseUpdate update)
+	{
+		submit(key, con ->
+		{
+			update.run(con);
+			return null;
+		});
+	}
+	
+	/**
+	 * Method dispatch.
+	 * @param key Object
+	 * @param r DatabaseRunnable<?>
+	 */
+	private void dispatch(Object key, DatabaseRunnable<?> r)
+	{
+		_submitted.increment();
+		
+		if (key == null)
+		{
+			ThreadPoolManager.getInstance().submitDatabase(r);
+		}
+		else
+		{
+			_lanes[(key.hashCode() & Integer.MAX_VALUE) % _lanes.length].add(r);
+		}
+	}
+	
+	/**
+	 * Method getStats.
+	 * @return CharSequence
+	 */
+	public CharSequence getStats()
+	{
+		long[] queue = _queueTime.getPercentiles(50, 99);
+		long[] run = _runTime.getPercentiles(50, 99);
+		StringBuilder list = new StringBuilder();
+		list.append("DatabaseExecutor\n");
+		list.append("=================================================\n");
+		list.append("\tSubmitted: ........... ").append(_submitted.sum()).append('\n');
+		list.append("\tFailed: .............. ").append(_failed.sum()).append('\n');
+		list.append("\tQueued (us): ......... p50=").append(TimeUnit.NANOSECONDS.toMicros(queue[0])).append(" p99=").append(TimeUnit.NANOSECONDS.toMicros(queue[1])).append(" max=").append(TimeUnit.NANOSECONDS.toMicros(_queueTime.getMax())).append('\n');
+		list.append("\tRun (us): ............ p50=").append(TimeUnit.NANOSECONDS.toMicros(run[0])).append(" p99=").append(TimeUnit.NANOSECONDS.toMicros(run[1])).append(" max=").append(TimeUnit.NANOSECONDS.toMicros(_runTime.getMax())).append('\n');
+		return list;
+	}
+	
+	/**
+	 * One task with the future of its result.
+	 * @param <T>
+	 * @author Mobius
+	 */
+	private final class DatabaseRunnable<T> extends RunnableImpl
+	{
+		private final DatabaseTask<T> _task;
+		private final CompletableFuture<T> _future;
+		private final long _queued = System.nanoTime();
+		
+		/**
+		 * Constructor for DatabaseRunnable.
+		 * @param task DatabaseTask<T>
+		 * @param future CompletableFuture<T>
+		 */
+		DatabaseRunnable(DatabaseTask<T> task, CompletableFuture<T> future)
+		{
+			_task = task;
+			_future = future;
+		}
+		
+		/**
+		 * Method runImpl.
+		 */
+		@Override
+		public void runImpl()
+		{
+			long start = System.nanoTime();
+			_queueTime.record(start - _queued);
+			Connection con = null;
+			
+			try
+			{
+				con = DatabaseFactory.getInstance().getConnection();
+				T result = _task.call(con);
+				DbUtils.closeQuietly(con);
+				con = null;
+				_runTime.record(System.nanoTime() - start);
+				_future.complete(result);
+			}
+			catch (Exception e)
+			{
+				_failed.increment();
+				DatabaseExecutor._log.error("DatabaseExecutor: task " + _task + " failed", e);
+				_future.completeExceptionally(e);
+			}
+			finally
+			{
+				DbUtils.closeQuietly(con);
+			}
+		}
+	}
+	
+	/**
+	 * Work of the keys hashed to it, run in order by at most one database thread at a time.
+	 * @author Mobius
+	 */
+	private static final class KeyLane extends RunnableImpl
+	{
+		private final Queue<Runnable> _queue = new ConcurrentLinkedQueue<>();
+		private final AtomicBoolean _scheduled = new AtomicBoolean();
+		
+		/**
+		 * Constructor for KeyLane.
+		 */
+		KeyLane()
+		{
+		}
+		
+		/**
+		 * Method add.
+		 * @param r Runnable
+		 */
+		void add(Runnable r)
+		{
+			_queue.add(r);
+			schedule();
+		}
+		
+		/**
+		 * Method schedule.
+		 */
+		private void schedule()
+		{
+			if (!_scheduled.compareAndSet(false, true))
+			{
+				return;
+			}
+			
+			if (ThreadPoolManager.getInstance().isShutdown())
+			{
+				// the database lane is stopping, drain on the caller
+				run();
+			}
+			else
+			{
+				ThreadPoolManager.getInstance().submitDatabase(this);
+			}
+		}
+		
+		/**
+		 * Method runImpl.
+		 */
+		@Override
+		public void runImpl()
+		{
+			Runnable r;
+			
+			while ((r = _queue.poll()) != null)
+			{
+				r.run();
+			}
+			
+			_scheduled.set(false);
+			
+			if (!_queue.isEmpty())
+			{
+				schedule();
+			}
+		}
+	}
+}
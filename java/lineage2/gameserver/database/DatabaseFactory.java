@@ -40,7 +40,11 @@ public class DatabaseFactory extends BasicDataSource
 	 */
 	public DatabaseFactory()
 	{
-		super(Config.DATABASE_DRIVER, Config.DATABASE_URL, Config.DATABASE_LOGIN, Config.DATABASE_PASSWORD, Config.DATABASE_MAX_CONNECTIONS, Config.DATABASE_MAX_CONNECTIONS, Config.DATABASE_MAX_IDLE_TIMEOUT, Config.DATABASE_IDLE_TEST_PERIOD, false);
+		super(Config.DATABASE_DRIVER, Config.DATABASE_URL, Config.DATABASE_LOGIN, Config.DATABASE_PASSWORD, Config.DATABASE_MAX_CONNECTIONS, Config.DATABASE_MAX_CONNECTIONS, Config.DATABASE_MAX_IDLE_TIMEOUT, Config.DATABASE_IDLE_TEST_PERIOD, Config.DATABASE_STATEMENT_CACHE_SIZE > 0);
+		setStatementCacheSize(Config.DATABASE_STATEMENT_CACHE_SIZE);
+		setConnectionTimeout(Config.DATABASE_CONNECTION_TIMEOUT * 1000L);
+		setLeakDetectionThreshold(Config.DATABASE_LEAK_TIMEOUT * 1000L);
+		setReportInterval(Config.DATABASE_REPORT_INTERVAL * 1000L);
 	}
 	
 	/**
@@ -60,6 +64,34 @@ public class DatabaseFactory extends BasicDataSource
 		super(driver, url, login, pass, maxconn, maxIdle, idleTime, idleTest, prepared);
 	}
 	
+	/**
+	 * Method connectionBorrowed.
+	 * @param con Connection
+	 * @see lineage2.commons.dbcp.BasicDataSource#connectionBorrowed(Connection)
+	 */
+	@Override
+	protected void connectionBorrowed(Connection con)
+	{
+		if (Config.DATABASE_GUARD)
+		{
+			DatabaseGuard.borrowed(con);
+		}
+	}
+	
+	/**
+	 * Method connectionReleased.
+	 * @param con Connection
+	 * @see lineage2.commons.dbcp.BasicDataSource#connectionReleased(Connection)
+	 */
+	@Override
+	protected void connectionReleased(Connection con)
+	{
+		if (Config.DATABASE_GUARD)
+		{
+			DatabaseGuard.released(con);
+		}
+	}
+	
 	/**
 	 * Method getConnection.
 	 * @return Connection
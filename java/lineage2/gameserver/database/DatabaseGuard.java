@@ -0,0 +1,236 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.gameserver.database;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import lineage2.commons.threading.LatencyHistogram;
+import lineage2.gameserver.Config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Debug guard reporting the connections borrowed from DatabaseFactory on the threads that must not block: the selector threads, the client packet lanes and the AI ticks.<br>
+ * Each offending call site is logged once with its stack, every borrow held longer than DatabaseGuardSlowTime is logged with its time, and getStats lists the sites by total time held, so the worst ones can be moved to DatabaseExecutor.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public final class DatabaseGuard
+{
+	private static final Logger _log = LoggerFactory.getLogger(DatabaseGuard.class);
+	public static final String SELECTOR = "selector";
+	public static final String PACKET = "packet";
+	public static final String AI = "AI";
+	private static final ThreadLocal<String> _context = new ThreadLocal<>();
+	private static final Map<Connection, Borrow> _borrows = new ConcurrentHashMap<>();
+	private static final Map<String, Site> _sites = new ConcurrentHashMap<>();
+	
+	/**
+	 * Constructor for DatabaseGuard.
+	 */
+	private DatabaseGuard()
+	{
+	}
+	
+	/**
+	 * Marks the current thread as running a guarded context until exit().
+	 * @param context String
+	 */
+	public static void enter(String context)
+	{
+		_context.set(context);
+	}
+	
+	/**
+	 * Method exit.
+	 */
+	public static void exit()
+	{
+		_context.remove();
+	}
+	
+	/**
+	 * Method getContext.
+	 * @return String the guarded context of the current thread, null when it may block
+	 */
+	public static String getContext()
+	{
+		String context = _context.get();
+		
+		if (context != null)
+		{
+			return context;
+		}
+		
+		String name = Thread.currentThread().getName();
+		
+		if (name.startsWith("SelectorThread"))
+		{
+			return SELECTOR;
+		}
+		
+		if (name.startsWith("PacketThreadPool") || name.startsWith("UrgentPacketThreadPool"))
+		{
+			return PACKET;
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Called by DatabaseFactory for every borrowed connection.
+	 * @param con Connection
+	 */
+	static void borrowed(Connection con)
+	{
+		String context = getContext();
+		
+		if (context == null)
+		{
+			return;
+		}
+		
+		Throwable stack = new Throwable("Connection borrowed on " + context + " thread " + Thread.currentThread().getName());
+		String site = getCallSite(stack.getStackTrace());
+		Site stats = _sites.get(site);
+		
+		if (stats == null)
+		{
+			Site created = new Site(site, context);
+			stats = _sites.putIfAbsent(site, created);
+			
+			if (stats == null)
+			{
+				stats = created;
+				_log.warn("DatabaseGuard: blocking JDBC at " + site, stack);
+			}
+		}
+		
+		_borrows.put(con, new Borrow(stats, System.nanoTime()));
+	}
+	
+	/**
+	 * Called by DatabaseFactory when a connection is closed.
+	 * @param con Connection
+	 */
+	static void released(Connection con)
+	{
+		Borrow borrow = _borrows.remove(con);
+		
+		if (borrow == null)
+		{
+			return;
+		}
+		
+		long held = System.nanoTime() - borrow._start;
+		borrow._site._held.record(held);
+		
+		if (TimeUnit.NANOSECONDS.toMillis(held) >= Config.DATABASE_GUARD_SLOW_TIME)
+		{
+			_log.warn("DatabaseGuard: " + borrow._site._context + " thread held a connection for " + TimeUnit.NANOSECONDS.toMillis(held) + " ms at " + borrow._site._site);
+		}
+	}
+	
+	/**
+	 * Method getCallSite.
+	 * @param stack StackTraceElement[]
+	 * @return String the first frame outside the database layers
+	 */
+	private static String getCallSite(StackTraceElement[] stack)
+	{
+		for (StackTraceElement element : stack)
+		{
+			String className = element.getClassName();
+			
+			if (!className.startsWith("lineage2.gameserver.database.") && !className.startsWith("lineage2.commons.dbcp.") && !className.startsWith("lineage2.commons.dbutils.") && !className.startsWith("java.") && !className.startsWith("jdk.") && !className.contains("$Proxy"))
+			{
+				return element.toString();
+			}
+		}
+		
+		return "<unknown>";
+	}
+	
+	/**
+	 * Method getStats.
+	 * @return CharSequence
+	 */
+	public static CharSequence getStats()
+	{
+		List<Site> sites = new ArrayList<>(_sites.values());
+		sites.sort((s1, s2) -> Long.compare(s2._held.getTotal(), s1._held.getTotal()));
+		StringBuilder list = new StringBuilder();
+		list.append("Blocking JDBC call sites by total time held\n");
+		list.append("=================================================\n");
+		
+		for (Site site : sites)
+		{
+			long[] percentiles = site._held.getPercentiles(50, 99);
+			list.append('\t').append(site._site).append(" [").append(site._context).append("]\n");
+			list.append("\t\tcount=").append(site._held.getCount());
+			list.append(" total=").append(TimeUnit.NANOSECONDS.toMillis(site._held.getTotal())).append("ms");
+			list.append(" p50=").append(TimeUnit.NANOSECONDS.toMicros(percentiles[0])).append("us");
+			list.append(" p99=").append(TimeUnit.NANOSECONDS.toMicros(percentiles[1])).append("us");
+			list.append(" max=").append(TimeUnit.NANOSECONDS.toMicros(site._held.getMax())).append("us\n");
+		}
+		
+		return list;
+	}
+	
+	/**
+	 * @author Mobius
+	 */
+	private static final class Site
+	{
+		final String _site;
+		final String _context;
+		final LatencyHistogram _held = new LatencyHistogram();
+		
+		/**
+		 * Constructor for Site.
+		 * @param site String
+		 * @param context String
+		 */
+		Site(String site, String context)
+		{
+			_site = site;
+			_context = context;
+		}
+	}
+	
+	/**
+	 * @author Mobius
+	 */
+	private static final class Borrow
+	{
+		final Site _site;
+		final long _start;
+		
+		/**
+		 * Constructor for Borrow.
+		 * @param site Site
+		 * @param start long
+		 */
+		Borrow(Site site, long start)
+		{
+			_site = site;
+			_start = start;
+		}
+	}
+}
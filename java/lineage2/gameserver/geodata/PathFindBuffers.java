@@ -19,6 +19,7 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import lineage2.gameserver.Config;
+import lineage2.gameserver.MemoryGovernor;
 import lineage2.gameserver.utils.Location;
 import gnu.trove.iterator.TIntIntIterator;
 import gnu.trove.map.hash.TIntIntHashMap;
@@ -33,7 +34,11 @@ class PathFindBuffers
 	private final static int MIN_MAP_SIZE = 1 << 6;
 	private final static int STEP_MAP_SIZE = 1 << 5;
 	private final static int MAX_MAP_SIZE = 1 << 9;
+	/** Rough heap of a GeoNode with its slot in the map. */
+	private final static int NODE_SIZE = 52;
 	private static final TIntObjectHashMap<PathFindBuffer[]> buffers = new TIntObjectHashMap<>();
+	/** Buffers per size from the configuration, kept when trimming. */
+	private static final TIntIntHashMap configured = new TIntIntHashMap();
 	private static int[] sizes = new int[0];
 	private static final Lock lock = new ReentrantLock();
 	static
@@ -68,6 +73,89 @@ class PathFindBuffers
 		
 		sizes = config.keys();
 		Arrays.sort(sizes);
+		configured.putAll(config);
+		MemoryGovernor.getInstance().register("PathFindBuffers", 20, new MemoryGovernor.MemoryConsumer()
+		{
+			@Override
+			public long getMemoryUsage()
+			{
+				return PathFindBuffers.getMemoryUsage();
+			}
+			
+			@Override
+			public long trim(boolean severe)
+			{
+				return PathFindBuffers.trim(severe);
+			}
+		});
+	}
+	
+	/**
+	 * Method getMemoryUsage.
+	 * @return long estimated bytes of the buffers
+	 */
+	static long getMemoryUsage()
+	{
+		lock.lock();
+		
+		try
+		{
+			long usage = 0;
+			
+			for (PathFindBuffer[] buff : buffers.valueCollection())
+			{
+				for (PathFindBuffer buffer : buff)
+				{
+					usage += (long) buffer.mapSize * buffer.mapSize * NODE_SIZE;
+				}
+			}
+			
+			return usage;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Drops the free buffers created on demand above the configured ones, or every free buffer when severe.
+	 * @param severe boolean
+	 * @return long buffers dropped
+	 */
+	static long trim(boolean severe)
+	{
+		lock.lock();
+		
+		try
+		{
+			long dropped = 0;
+			
+			for (int size : sizes)
+			{
+				PathFindBuffer[] buff = buffers.get(size);
+				int keep = severe ? 0 : configured.get(size);
+				PathFindBuffer[] kept = new PathFindBuffer[buff.length];
+				int count = 0;
+				
+				for (PathFindBuffer buffer : buff)
+				{
+					if (buffer.inUse || (count < keep))
+					{
+						kept[count++] = buffer;
+					}
+				}
+				
+				dropped += buff.length - count;
+				buffers.put(size, Arrays.copyOf(kept, count));
+			}
+			
+			return dropped;
+		}
+		finally
+		{
+			lock.unlock();
+		}
 	}
 	
 	/**
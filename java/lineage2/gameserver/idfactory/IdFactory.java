@@ -17,6 +17,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
 
 import lineage2.commons.dbutils.DbUtils;
 import lineage2.gameserver.database.DatabaseFactory;
@@ -67,7 +68,7 @@ public abstract class IdFactory
 	static final int FIRST_OID = 0x10000000;
 	private static final int LAST_OID = 0x7FFFFFFF;
 	static final int FREE_OBJECT_ID_SIZE = LAST_OID - FIRST_OID;
-	private static final IdFactory _instance = new BitSetIDFactory();
+	private static final IdFactory _instance = new SegmentedIDFactory();
 	
 	/**
 	 * Method getInstance.
@@ -79,7 +80,7 @@ public abstract class IdFactory
 	}
 	
 	protected boolean initialized;
-	private long releasedCount = 0;
+	private final LongAdder releasedCount = new LongAdder();
 	
 	/**
 	 * Constructor for IdFactory.
@@ -181,7 +182,7 @@ public abstract class IdFactory
 	 */
 	public void releaseId(int id)
 	{
-		releasedCount++;
+		releasedCount.increment();
 	}
 	
 	/**
@@ -190,7 +191,7 @@ public abstract class IdFactory
 	 */
 	public long getReleasedCount()
 	{
-		return releasedCount;
+		return releasedCount.sum();
 	}
 	
 	/**
@@ -0,0 +1,260 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.gameserver.idfactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Object ID factory without a global lock.<br>
+ * Used IDs are bits in segments of 65536 IDs, each segment an array of atomic words created on first use, so the ID space grows one segment at a time instead of by copying.<br>
+ * A thread takes every free ID of a word with one compare-and-set into its own buffer and hands them out from there; released IDs are collected per thread and cleared in the words in batches. The used IDs read from the database at boot are reserved before any is handed out.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+class SegmentedIDFactory extends IdFactory
+{
+	private static final Logger _log = LoggerFactory.getLogger(SegmentedIDFactory.class);
+	private static final int WORD_SHIFT = 6;
+	private static final int SEGMENT_SHIFT = 10;
+	private static final int SEGMENT_WORDS = 1 << SEGMENT_SHIFT;
+	private static final int RELEASE_BATCH = 64;
+	/** Words covering the ID space, the last one partly. */
+	private static final int WORD_COUNT = (int) (((long) FREE_OBJECT_ID_SIZE + 63) >>> WORD_SHIFT);
+	private final AtomicReferenceArray<AtomicLongArray> _segments = new AtomicReferenceArray<>(((WORD_COUNT + SEGMENT_WORDS) - 1) >>> SEGMENT_SHIFT);
+	private final AtomicInteger _freeIdCount = new AtomicInteger(FREE_OBJECT_ID_SIZE);
+	/** Lowest word that may have a free ID. */
+	private final AtomicInteger _cursor = new AtomicInteger();
+	private final ThreadLocal<IdBuffer> _buffers = ThreadLocal.withInitial(IdBuffer::new);
+	
+	/**
+	 * Constructor for SegmentedIDFactory.
+	 */
+	protected SegmentedIDFactory()
+	{
+		super();
+		initialize();
+	}
+	
+	/**
+	 * Method initialize.
+	 */
+	private void initialize()
+	{
+		try
+		{
+			// the bits past the end of the ID space are never free
+			int tail = FREE_OBJECT_ID_SIZE & 63;
+			
+			if (tail != 0)
+			{
+				getSegment(WORD_COUNT - 1).set((WORD_COUNT - 1) & (SEGMENT_WORDS - 1), -1L << tail);
+			}
+			
+			for (int usedObjectId : extractUsedObjectIDTable())
+			{
+				int objectID = usedObjectId - FIRST_OID;
+				
+				if (objectID < 0)
+				{
+					_log.warn("Object ID " + usedObjectId + " in DB is less than minimum ID of " + FIRST_OID);
+					continue;
+				}
+				
+				int word = objectID >>> WORD_SHIFT;
+				AtomicLongArray segment = getSegment(word);
+				int index = word & (SEGMENT_WORDS - 1);
+				long bit = 1L << objectID;
+				
+				if ((segment.get(index) & bit) == 0)
+				{
+					segment.set(index, segment.get(index) | bit);
+					_freeIdCount.decrementAndGet();
+				}
+			}
+			
+			initialized = true;
+			_log.info("IdFactory: " + _freeIdCount.get() + " IDs available.");
+		}
+		catch (Exception e)
+		{
+			initialized = false;
+			_log.error("Segmented ID Factory could not be initialized correctly!", e);
+		}
+	}
+	
+	/**
+	 * Method getSegment.
+	 * @param word int
+	 * @return AtomicLongArray the segment holding the word, created when missing
+	 */
+	private AtomicLongArray getSegment(int word)
+	{
+		int index = word >>> SEGMENT_SHIFT;
+		AtomicLongArray segment = _segments.get(index);
+		
+		if (segment == null)
+		{
+			AtomicLongArray created = new AtomicLongArray(SEGMENT_WORDS);
+			segment = _segments.compareAndSet(index, null, created) ? created : _segments.get(index);
+		}
+		
+		return segment;
+	}
+	
+	/**
+	 * Method getNextId.
+	 * @return int
+	 */
+	@Override
+	public int getNextId()
+	{
+		IdBuffer buffer = _buffers.get();
+		
+		if (buffer._free == 0)
+		{
+			fill(buffer);
+		}
+		
+		long bit = Long.lowestOneBit(buffer._free);
+		buffer._free ^= bit;
+		return buffer._base + Long.numberOfTrailingZeros(bit) + FIRST_OID;
+	}
+	
+	/**
+	 * Takes the free IDs of the first word with any, from the cursor on.
+	 * @param buffer IdBuffer
+	 */
+	private void fill(IdBuffer buffer)
+	{
+		int start = _cursor.get();
+		
+		for (int scanned = 0; scanned < WORD_COUNT; scanned++)
+		{
+			int word = (start + scanned) % WORD_COUNT;
+			AtomicLongArray segment = getSegment(word);
+			int index = word & (SEGMENT_WORDS - 1);
+			long used;
+			
+			while ((used = segment.get(index)) != -1L)
+			{
+				if (segment.compareAndSet(index, used, -1L))
+				{
+					buffer._base = word << WORD_SHIFT;
+					buffer._free = ~used;
+					_freeIdCount.addAndGet(-Long.bitCount(~used));
+					_cursor.compareAndSet(start, word + 1 == WORD_COUNT ? 0 : word + 1);
+					return;
+				}
+			}
+		}
+		
+		throw new NullPointerException("Ran out of valid IDs.");
+	}
+	
+	/**
+	 * Method releaseId.
+	 * @param objectID int
+	 */
+	@Override
+	public void releaseId(int objectID)
+	{
+		if ((objectID - FIRST_OID) > -1)
+		{
+			IdBuffer buffer = _buffers.get();
+			buffer._released[buffer._releasedCount++] = objectID - FIRST_OID;
+			
+			if (buffer._releasedCount == RELEASE_BATCH)
+			{
+				flush(buffer);
+			}
+			
+			super.releaseId(objectID);
+		}
+		else
+		{
+			_log.warn("Segmented ID Factory: release objectID " + objectID + " failed (< " + FIRST_OID + ")");
+		}
+	}
+	
+	/**
+	 * Clears the released IDs of the buffer in their words and moves the cursor back to the lowest of them.
+	 * @param buffer IdBuffer
+	 */
+	private void flush(IdBuffer buffer)
+	{
+		int lowest = Integer.MAX_VALUE;
+		
+		for (int i = 0; i < buffer._releasedCount; i++)
+		{
+			int objectID = buffer._released[i];
+			int word = objectID >>> WORD_SHIFT;
+			AtomicLongArray segment = getSegment(word);
+			int index = word & (SEGMENT_WORDS - 1);
+			long bit = 1L << objectID;
+			long used;
+			
+			do
+			{
+				used = segment.get(index);
+			}
+			while (((used & bit) != 0) && !segment.compareAndSet(index, used, used & ~bit));
+			
+			if ((used & bit) != 0)
+			{
+				_freeIdCount.incrementAndGet();
+				lowest = Math.min(lowest, word);
+			}
+		}
+		
+		buffer._releasedCount = 0;
+		
+		for (int cursor = _cursor.get(); (lowest < cursor) && !_cursor.compareAndSet(cursor, lowest); cursor = _cursor.get())
+		{
+			// retry
+		}
+	}
+	
+	/**
+	 * Method size.
+	 * @return int
+	 */
+	@Override
+	public int size()
+	{
+		return _freeIdCount.get();
+	}
+	
+	/**
+	 * The IDs a thread took and not handed out yet, and the IDs it released and not cleared yet.
+	 * @author Mobius
+	 */
+	private static final class IdBuffer
+	{
+		int _base;
+		long _free;
+		final int[] _released = new int[RELEASE_BATCH];
+		int _releasedCount;
+		
+		/**
+		 * Constructor for IdBuffer.
+		 */
+		IdBuffer()
+		{
+		}
+	}
+}
@@ -0,0 +1,474 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.gameserver.instancemanager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import lineage2.commons.dbutils.DbUtils;
+import lineage2.commons.threading.RunnableImpl;
+import lineage2.gameserver.Config;
+import lineage2.gameserver.ThreadPoolManager;
+import lineage2.gameserver.database.DatabaseFactory;
+import lineage2.gameserver.model.GameObjectsStorage;
+import lineage2.gameserver.model.Player;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the top characters by PvP kills, PK kills and online time in memory.<br>
+ * Every board is seeded once from the database and then updated from the players themselves, so the community board pages never scan the characters table. A board holds a few more rows than it shows; it is only reloaded when a decreasing value (PK kills) empties it below the shown size.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public final class LeaderboardManager
+{
+	private static final Logger _log = LoggerFactory.getLogger(LeaderboardManager.class);
+	private static final String SELECT_TOP = "SELECT obj_Id, char_name, sex, pvpkills, pkkills, onlinetime FROM characters WHERE accesslevel = 0 ORDER BY %s DESC LIMIT ?";
+	private static LeaderboardManager _instance;
+	
+	/**
+	 * @author Mobius
+	 */
+	public static enum Board
+	{
+		PVP("pvpkills")
+		{
+			@Override
+			public long getValue(Entry entry)
+			{
+				return entry.getPvpKills();
+			}
+		},
+		PK("pkkills")
+		{
+			@Override
+			public long getValue(Entry entry)
+			{
+				return entry.getPkKills();
+			}
+		},
+		ONLINE("onlinetime")
+		{
+			@Override
+			public long getValue(Entry entry)
+			{
+				return entry.getOnlineTime();
+			}
+		};
+		
+		final String column;
+		
+		/**
+		 * Constructor for Board.
+		 * @param column String
+		 */
+		private Board(String column)
+		{
+			this.column = column;
+		}
+		
+		/**
+		 * Method getValue.
+		 * @param entry Entry
+		 * @return long
+		 */
+		public abstract long getValue(Entry entry);
+	}
+	
+	/**
+	 * Immutable row of a board.
+	 * @author Mobius
+	 */
+	public static final class Entry
+	{
+		private final int _objectId;
+		private final String _name;
+		private final int _sex;
+		private final int _pvpKills;
+		private final int _pkKills;
+		private final int _onlineTime;
+		
+		/**
+		 * Constructor for Entry.
+		 * @param objectId int
+		 * @param name String
+		 * @param sex int
+		 * @param pvpKills int
+		 * @param pkKills int
+		 * @param onlineTime int
+		 */
+		Entry(int objectId, String name, int sex, int pvpKills, int pkKills, int onlineTime)
+		{
+			_objectId = objectId;
+			_name = name;
+			_sex = sex;
+			_pvpKills = pvpKills;
+			_pkKills = pkKills;
+			_onlineTime = onlineTime;
+		}
+		
+		/**
+		 * Method getObjectId.
+		 * @return int
+		 */
+		public int getObjectId()
+		{
+			return _objectId;
+		}
+		
+		/**
+		 * Method getName.
+		 * @return String
+		 */
+		public String getName()
+		{
+			return _name;
+		}
+		
+		/**
+		 * Method getSex.
+		 * @return int
+		 */
+		public int getSex()
+		{
+			return _sex;
+		}
+		
+		/**
+		 * Method getPvpKills.
+		 * @return int
+		 */
+		public int getPvpKills()
+		{
+			return _pvpKills;
+		}
+		
+		/**
+		 * Method getPkKills.
+		 * @return int
+		 */
+		public int getPkKills()
+		{
+			return _pkKills;
+		}
+		
+		/**
+		 * Method getOnlineTime.
+		 * @return int seconds
+		 */
+		public int getOnlineTime()
+		{
+			return _onlineTime;
+		}
+		
+		/**
+		 * Method isOnline.
+		 * @return boolean
+		 */
+		public boolean isOnline()
+		{
+			Player player = GameObjectsStorage.getPlayer(_objectId);
+			return (player != null) && player.isOnline() && !player.isInOfflineMode();
+		}
+	}
+	
+	/**
+	 * Sorted rows of one board, the rows held are always the exact top of the characters table.
+	 * @author Mobius
+	 */
+	private final class Rows
+	{
+		final Board board;
+		final List<Entry> entries = new ArrayList<>();
+		final AtomicBoolean reloading = new AtomicBoolean();
+		/** True if the table has no more characters than the held rows. */
+		boolean complete;
+		
+		/**
+		 * Constructor for Rows.
+		 * @param board Board
+		 */
+		Rows(Board board)
+		{
+			this.board = board;
+		}
+		
+		/**
+		 * Method indexOf.
+		 * @param objectId int
+		 * @return int
+		 */
+		private int indexOf(int objectId)
+		{
+			for (int i = 0; i < entries.size(); i++)
+			{
+				if (entries.get(i).getObjectId() == objectId)
+				{
+					return i;
+				}
+			}
+			
+			return -1;
+		}
+		
+		/**
+		 * Method update.
+		 * @param entry Entry
+		 */
+		synchronized void update(Entry entry)
+		{
+			int index = indexOf(entry.getObjectId());
+			long value = board.getValue(entry);
+			
+			if (index >= 0)
+			{
+				entries.remove(index);
+			}
+			
+			// Below the last held row an unknown character may rank higher, so the entry is only kept when its place is certain
+			if (!complete && !entries.isEmpty() && (value < board.getValue(entries.get(entries.size() - 1))))
+			{
+				if ((index >= 0) && (entries.size() < Config.LEADERBOARD_SIZE))
+				{
+					reload(this);
+				}
+				
+				return;
+			}
+			
+			int position = entries.size();
+			
+			while ((position > 0) && (board.getValue(entries.get(position - 1)) < value))
+			{
+				position--;
+			}
+			
+			entries.add(position, entry);
+			
+			if (entries.size() > getCapacity())
+			{
+				entries.remove(entries.size() - 1);
+				complete = false;
+			}
+		}
+		
+		/**
+		 * Method remove.
+		 * @param objectId int
+		 */
+		synchronized void remove(int objectId)
+		{
+			int index = indexOf(objectId);
+			
+			if (index >= 0)
+			{
+				entries.remove(index);
+				
+				if (!complete && (entries.size() < Config.LEADERBOARD_SIZE))
+				{
+					reload(this);
+				}
+			}
+		}
+		
+		/**
+		 * Method set.
+		 * @param loaded List<Entry>
+		 */
+		synchronized void set(List<Entry> loaded)
+		{
+			entries.clear();
+			entries.addAll(loaded);
+			complete = loaded.size() < getCapacity();
+		}
+		
+		/**
+		 * Method getTop.
+		 * @param count int
+		 * @return List<Entry>
+		 */
+		synchronized List<Entry> getTop(int count)
+		{
+			return new ArrayList<>(entries.subList(0, Math.min(count, entries.size())));
+		}
+	}
+	
+	private final Rows[] _rows = new Rows[Board.values().length];
+	
+	/**
+	 * Method getInstance.
+	 * @return LeaderboardManager
+	 */
+	public static LeaderboardManager getInstance()
+	{
+		if (_instance == null)
+		{
+			_instance = new LeaderboardManager();
+		}
+		
+		return _instance;
+	}
+	
+	/**
+	 * Constructor for LeaderboardManager.
+	 */
+	private LeaderboardManager()
+	{
+		for (Board board : Board.values())
+		{
+			_rows[board.ordinal()] = new Rows(board);
+			load(_rows[board.ordinal()]);
+		}
+		
+		_log.info("LeaderboardManager: Loaded " + _rows.length + " boards of " + getCapacity() + " rows.");
+	}
+	
+	/**
+	 * Method getCapacity.
+	 * @return int
+	 */
+	static int getCapacity()
+	{
+		return Config.LEADERBOARD_SIZE + Math.max(0, Config.LEADERBOARD_BUFFER);
+	}
+	
+	/**
+	 * Method load.
+	 * @param rows Rows
+	 */
+	private static void load(Rows rows)
+	{
+		List<Entry> loaded = new ArrayList<>(getCapacity());
+		Connection con = null;
+		PreparedStatement statement = null;
+		ResultSet rset = null;
+		
+		try
+		{
+			con = DatabaseFactory.getInstance().getConnection();
+			statement = con.prepareStatement(String.format(SELECT_TOP, rows.board.column));
+			statement.setInt(1, getCapacity());
+			rset = statement.executeQuery();
+			
+			while (rset.next())
+			{
+				loaded.add(new Entry(rset.getInt("obj_Id"), rset.getString("char_name"), rset.getInt("sex"), rset.getInt("pvpkills"), rset.getInt("pkkills"), rset.getInt("onlinetime")));
+			}
+		}
+		catch (Exception e)
+		{
+			_log.error("LeaderboardManager: Could not load " + rows.board + " board!", e);
+			return;
+		}
+		finally
+		{
+			DbUtils.closeQuietly(con, statement, rset);
+		}
+		
+		rows.set(loaded);
+	}
+	
+	/**
+	 * Reloads the board out of the caller's thread, the rows of online players are re-applied afterwards since they may be newer than the database.
+	 * @param rows Rows
+	 */
+	void reload(final Rows rows)
+	{
+		if (!rows.reloading.compareAndSet(false, true))
+		{
+			return;
+		}
+		
+		ThreadPoolManager.getInstance().execute(new RunnableImpl()
+		{
+			@Override
+			public void runImpl()
+			{
+				try
+				{
+					load(rows);
+					
+					for (Player player : GameObjectsStorage.getAllPlayersForIterate())
+					{
+						if (!player.isGM())
+						{
+							rows.update(createEntry(player));
+						}
+					}
+				}
+				finally
+				{
+					rows.reloading.set(false);
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Method createEntry.
+	 * @param player Player
+	 * @return Entry
+	 */
+	static Entry createEntry(Player player)
+	{
+		return new Entry(player.getObjectId(), player.getName(), player.getSex(), player.getPvpKills(), player.getPkKills(), player.getStoredOnlineTime());
+	}
+	
+	/**
+	 * Called when the PvP kills, the PK kills or the online time of the player change.
+	 * @param player Player
+	 */
+	public void update(Player player)
+	{
+		if (player.isGM())
+		{
+			remove(player.getObjectId());
+			return;
+		}
+		
+		Entry entry = createEntry(player);
+		
+		for (Rows rows : _rows)
+		{
+			rows.update(entry);
+		}
+	}
+	
+	/**
+	 * Called when the character is deleted.
+	 * @param objectId int
+	 */
+	public void remove(int objectId)
+	{
+		for (Rows rows : _rows)
+		{
+			rows.remove(objectId);
+		}
+	}
+	
+	/**
+	 * Method getTop.
+	 * @param board Board
+	 * @return List<Entry> the shown rows of the board, best first
+	 */
+	public List<Entry> getTop(Board board)
+	{
+		return _rows[board.ordinal()].getTop(Config.LEADERBOARD_SIZE);
+	}
+}
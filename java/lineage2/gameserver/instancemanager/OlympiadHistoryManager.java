@@ -18,6 +18,7 @@ import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import lineage2.gameserver.dao.OlympiadHistoryDAO;
+import lineage2.gameserver.dao.OlympiadJournalDAO;
 import lineage2.gameserver.model.Player;
 import lineage2.gameserver.model.entity.Hero;
 import lineage2.gameserver.model.entity.olympiad.OlympiadHistory;
@@ -72,6 +73,7 @@ public class OlympiadHistoryManager
 		_historyOld.clear();
 		_historyOld.putAll(_historyNew);
 		_historyNew.clear();
+		OlympiadJournalDAO.getInstance().flush();
 		OlympiadHistoryDAO.getInstance().switchData();
 	}
 	
@@ -82,7 +84,7 @@ public class OlympiadHistoryManager
 	public void saveHistory(OlympiadHistory history)
 	{
 		addHistory(false, history);
-		OlympiadHistoryDAO.getInstance().insert(history);
+		OlympiadJournalDAO.getInstance().addHistory(history);
 	}
 	
 	/**
@@ -99,7 +99,7 @@ public class CommissionItemContainer extends ItemContainer
 			
 			for (ItemInstance item : items)
 			{
-				_items.add(item);
+				putItem(item);
 			}
 		}
 		finally
@@ -18,17 +18,16 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
 
 import lineage2.commons.collections.LazyArrayList;
 import lineage2.commons.util.Rnd;
+import lineage2.gameserver.Config;
 import lineage2.gameserver.model.instances.NpcInstance;
-import gnu.trove.iterator.TIntObjectIterator;
-import gnu.trove.map.hash.TIntObjectHashMap;
 
 /**
+ * Hate and damage of the attackers of an npc, kept in parallel primitive arrays.<br>
+ * The most hated attacker and the top damager are tracked on every change, readers use optimistic reads and never block the attacking threads. Hate decays in batches, every elapsed decay interval is applied to all attackers in one pass.
  * @author Mobius
  * @version $Revision: 1.0 $
  */
@@ -53,18 +52,20 @@ public class AggroList
 		/**
 		 * Constructor for HateInfo.
 		 * @param attacker Creature
-		 * @param ai AggroInfo
+		 * @param hate int
+		 * @param damage int
 		 */
 		@SuppressWarnings("synthetic-access")
-		HateInfo(Creature attacker, AggroInfo ai)
+		HateInfo(Creature attacker, int hate, int damage)
 		{
 			this.attacker = attacker;
-			hate = ai.hate;
-			damage = ai.damage;
+			this.hate = hate;
+			this.damage = damage;
 		}
 	}
 	
 	/**
+	 * Copy of the hate and damage of an attacker, changes are not written back to the list.
 	 * @author Mobius
 	 */
 	public class AggroInfo extends DamageHate
@@ -73,48 +74,16 @@ public class AggroList
 		
 		/**
 		 * Constructor for AggroInfo.
-		 * @param attacker Creature
+		 * @param attackerId int
+		 * @param hate int
+		 * @param damage int
 		 */
 		@SuppressWarnings("synthetic-access")
-		AggroInfo(Creature attacker)
-		{
-			attackerId = attacker.getObjectId();
-		}
-	}
-	
-	/**
-	 * @author Mobius
-	 */
-	private static class DamageComparator implements Comparator<DamageHate>
-	{
-		private static final Comparator<DamageHate> instance = new DamageComparator();
-		
-		/**
-		 * Method getInstance.
-		 * @return Comparator<DamageHate>
-		 */
-		static Comparator<DamageHate> getInstance()
-		{
-			return instance;
-		}
-		
-		/**
-		 * Constructor for DamageComparator.
-		 */
-		DamageComparator()
-		{
-		}
-		
-		/**
-		 * Method compare.
-		 * @param o1 DamageHate
-		 * @param o2 DamageHate
-		 * @return int
-		 */
-		@Override
-		public int compare(DamageHate o1, DamageHate o2)
+		AggroInfo(int attackerId, int hate, int damage)
 		{
-			return o2.damage - o1.damage;
+			this.attackerId = attackerId;
+			this.hate = hate;
+			this.damage = damage;
 		}
 	}
 	
@@ -155,11 +124,29 @@ public class AggroList
 		}
 	}
 	
+	/**
+	 * Consistent copy of the list taken for a single read.
+	 * @author Mobius
+	 */
+	private static class Snapshot
+	{
+		int size;
+		long[] storedIds;
+		int[] hate;
+		int[] damage;
+	}
+	
+	private static final int INITIAL_CAPACITY = 8;
 	private final NpcInstance npc;
-	private final TIntObjectHashMap<AggroInfo> hateList = new TIntObjectHashMap<>();
-	private final ReadWriteLock lock = new ReentrantReadWriteLock();
-	private final Lock readLock = lock.readLock();
-	private final Lock writeLock = lock.writeLock();
+	private final StampedLock lock = new StampedLock();
+	private int[] attackerIds = new int[INITIAL_CAPACITY];
+	private long[] storedIds = new long[INITIAL_CAPACITY];
+	private int[] hateList = new int[INITIAL_CAPACITY];
+	private int[] damageList = new int[INITIAL_CAPACITY];
+	private int size;
+	private int mostHated = -1;
+	private int topDamager = -1;
+	private volatile long lastDecay;
 	
 	/**
 	 * Constructor for AggroList.
@@ -170,6 +157,75 @@ public class AggroList
 		this.npc = npc;
 	}
 	
+	/**
+	 * Method indexOf.
+	 * @param attackerId int
+	 * @return int slot of the attacker or -1
+	 */
+	private int indexOf(int attackerId)
+	{
+		int[] ids = attackerIds;
+		int length = Math.min(size, ids.length);
+		
+		for (int i = 0; i < length; i++)
+		{
+			if (ids[i] == attackerId)
+			{
+				return i;
+			}
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * Method isMoreHated.
+	 * @param i int
+	 * @param j int
+	 * @return boolean
+	 */
+	private boolean isMoreHated(int i, int j)
+	{
+		return (hateList[i] > hateList[j]) || ((hateList[i] == hateList[j]) && (damageList[i] > damageList[j]));
+	}
+	
+	/**
+	 * Recalculates the most hated attacker and the top damager, called under the write lock.
+	 */
+	private void updateTop()
+	{
+		mostHated = -1;
+		topDamager = -1;
+		
+		for (int i = 0; i < size; i++)
+		{
+			if ((hateList[i] > 0) && ((mostHated < 0) || isMoreHated(i, mostHated)))
+			{
+				mostHated = i;
+			}
+			
+			if ((damageList[i] > 0) && ((topDamager < 0) || (damageList[i] > damageList[topDamager])))
+			{
+				topDamager = i;
+			}
+		}
+	}
+	
+	/**
+	 * Removes a slot by moving the last one into it, called under the write lock.
+	 * @param index int
+	 */
+	private void removeIndex(int index)
+	{
+		int last = --size;
+		attackerIds[index] = attackerIds[last];
+		storedIds[index] = storedIds[last];
+		hateList[index] = hateList[last];
+		damageList[index] = damageList[last];
+		attackerIds[last] = 0;
+		storedIds[last] = 0;
+	}
+	
 	/**
 	 * Method addDamageHate.
 	 * @param attacker Creature
@@ -185,44 +241,127 @@ public class AggroList
 			return;
 		}
 		
-		writeLock.lock();
+		long stamp = lock.writeLock();
 		
 		try
 		{
-			AggroInfo ai;
+			int index = indexOf(attacker.getObjectId());
+			
+			if (index < 0)
+			{
+				if (size == attackerIds.length)
+				{
+					int capacity = size * 2;
+					attackerIds = Arrays.copyOf(attackerIds, capacity);
+					storedIds = Arrays.copyOf(storedIds, capacity);
+					hateList = Arrays.copyOf(hateList, capacity);
+					damageList = Arrays.copyOf(damageList, capacity);
+				}
+				
+				index = size;
+				attackerIds[index] = attacker.getObjectId();
+				hateList[index] = 0;
+				damageList[index] = 0;
+				size++;
+			}
+			
+			// a player who logged in again has a new stored id
+			storedIds[index] = attacker.getStoredId();
+			damageList[index] = Math.max(damageList[index] + damage, 0);
+			hateList[index] = Math.max(hateList[index] + aggro, 0);
+			
+			if ((aggro < 0) && (index == mostHated))
+			{
+				updateTop();
+				return;
+			}
 			
-			if ((ai = hateList.get(attacker.getObjectId())) == null)
+			if ((hateList[index] > 0) && ((mostHated < 0) || isMoreHated(index, mostHated)))
 			{
-				hateList.put(attacker.getObjectId(), ai = new AggroInfo(attacker));
+				mostHated = index;
 			}
 			
-			ai.damage += damage;
-			ai.hate += aggro;
-			ai.damage = Math.max(ai.damage, 0);
-			ai.hate = Math.max(ai.hate, 0);
+			if ((damageList[index] > 0) && ((topDamager < 0) || (damageList[index] > damageList[topDamager])))
+			{
+				topDamager = index;
+			}
 		}
 		finally
 		{
-			writeLock.unlock();
+			lock.unlockWrite(stamp);
 		}
 	}
 	
 	/**
 	 * Method get.
 	 * @param attacker Creature
-	 * @return AggroInfo
+	 * @return AggroInfo copy of the hate and damage, or null if the attacker is not in the list
 	 */
 	public AggroInfo get(Creature attacker)
 	{
-		readLock.lock();
+		int attackerId = attacker.getObjectId();
+		long stamp = lock.tryOptimisticRead();
+		AggroInfo result = get(attackerId);
+		
+		if (!lock.validate(stamp))
+		{
+			stamp = lock.readLock();
+			
+			try
+			{
+				result = get(attackerId);
+			}
+			finally
+			{
+				lock.unlockRead(stamp);
+			}
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Method get.
+	 * @param attackerId int
+	 * @return AggroInfo
+	 */
+	private AggroInfo get(int attackerId)
+	{
+		int index = indexOf(attackerId);
+		int[] hate = hateList;
+		int[] damage = damageList;
+		
+		if ((index < 0) || (index >= hate.length) || (index >= damage.length))
+		{
+			return null;
+		}
+		
+		return new AggroInfo(attackerId, hate[index], damage[index]);
+	}
+	
+	/**
+	 * Method setHate.
+	 * @param attacker Creature
+	 * @param hate int
+	 */
+	public void setHate(Creature attacker, int hate)
+	{
+		long stamp = lock.writeLock();
 		
 		try
 		{
-			return hateList.get(attacker.getObjectId());
+			int index = indexOf(attacker.getObjectId());
+			
+			if (index >= 0)
+			{
+				storedIds[index] = attacker.getStoredId();
+				hateList[index] = Math.max(hate, 0);
+				updateTop();
+			}
 		}
 		finally
 		{
-			readLock.unlock();
+			lock.unlockWrite(stamp);
 		}
 	}
 	
@@ -233,26 +372,111 @@ public class AggroList
 	 */
 	public void remove(Creature attacker, boolean onlyHate)
 	{
-		writeLock.lock();
+		long stamp = lock.writeLock();
 		
 		try
 		{
-			if (!onlyHate)
+			int index = indexOf(attacker.getObjectId());
+			
+			if (index < 0)
+			{
+				return;
+			}
+			
+			if (onlyHate)
+			{
+				hateList[index] = 0;
+			}
+			else
+			{
+				removeIndex(index);
+			}
+			
+			updateTop();
+		}
+		finally
+		{
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	/**
+	 * Drops the hate of all given attackers under a single lock.
+	 * @param attackers List<? extends Creature>
+	 */
+	public void removeHate(List<? extends Creature> attackers)
+	{
+		if (attackers.isEmpty())
+		{
+			return;
+		}
+		
+		long stamp = lock.writeLock();
+		
+		try
+		{
+			for (int i = 0; i < attackers.size(); i++)
+			{
+				int index = indexOf(attackers.get(i).getObjectId());
+				
+				if (index >= 0)
+				{
+					hateList[index] = 0;
+				}
+			}
+			
+			updateTop();
+		}
+		finally
+		{
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	/**
+	 * Lowers the hate of every attacker by {@link Config#HATE_DECAY_PERCENT} for each {@link Config#HATE_DECAY_INTERVAL} passed since the last decay. Damage is kept for the rewards.
+	 * @param now long
+	 */
+	public void decayHate(long now)
+	{
+		long interval = Config.HATE_DECAY_INTERVAL;
+		
+		if ((interval <= 0) || (Config.HATE_DECAY_PERCENT <= 0) || ((now - lastDecay) < interval))
+		{
+			return;
+		}
+		
+		long stamp = lock.writeLock();
+		
+		try
+		{
+			long periods = (now - lastDecay) / interval;
+			
+			if ((size == 0) || (lastDecay == 0))
+			{
+				// hate only decays from the first interval after it is added
+				lastDecay = now;
+				return;
+			}
+			
+			if (periods <= 0)
 			{
-				hateList.remove(attacker.getObjectId());
 				return;
 			}
 			
-			AggroInfo ai = hateList.get(attacker.getObjectId());
+			lastDecay += periods * interval;
+			double rate = Math.pow(1. - (Math.min(Config.HATE_DECAY_PERCENT, 100) / 100.), periods);
 			
-			if (ai != null)
+			for (int i = 0; i < size; i++)
 			{
-				ai.hate = 0;
+				hateList[i] = (int) (hateList[i] * rate);
 			}
+			
+			updateTop();
 		}
 		finally
 		{
-			writeLock.unlock();
+			lock.unlockWrite(stamp);
 		}
 	}
 	
@@ -270,38 +494,39 @@ public class AggroList
 	 */
 	public void clear(boolean onlyHate)
 	{
-		writeLock.lock();
+		long stamp = lock.writeLock();
 		
 		try
 		{
-			if (hateList.isEmpty())
+			if (size == 0)
 			{
 				return;
 			}
 			
 			if (!onlyHate)
 			{
-				hateList.clear();
-				return;
+				Arrays.fill(attackerIds, 0, size, 0);
+				Arrays.fill(storedIds, 0, size, 0);
+				size = 0;
 			}
-			
-			AggroInfo ai;
-			
-			for (TIntObjectIterator<AggroInfo> itr = hateList.iterator(); itr.hasNext();)
+			else
 			{
-				itr.advance();
-				ai = itr.value();
-				ai.hate = 0;
-				
-				if (ai.damage == 0)
+				for (int i = size - 1; i >= 0; i--)
 				{
-					itr.remove();
+					hateList[i] = 0;
+					
+					if (damageList[i] == 0)
+					{
+						removeIndex(i);
+					}
 				}
 			}
+			
+			updateTop();
 		}
 		finally
 		{
-			writeLock.unlock();
+			lock.unlockWrite(stamp);
 		}
 	}
 	
@@ -311,67 +536,183 @@ public class AggroList
 	 */
 	public boolean isEmpty()
 	{
-		readLock.lock();
+		long stamp = lock.tryOptimisticRead();
+		boolean result = size == 0;
 		
-		try
+		if (!lock.validate(stamp))
 		{
-			return hateList.isEmpty();
+			stamp = lock.readLock();
+			
+			try
+			{
+				result = size == 0;
+			}
+			finally
+			{
+				lock.unlockRead(stamp);
+			}
 		}
-		finally
+		
+		return result;
+	}
+	
+	/**
+	 * Method copy.
+	 * @return Snapshot
+	 */
+	private Snapshot copy()
+	{
+		Snapshot snapshot = new Snapshot();
+		int[] ids = attackerIds;
+		long[] stored = storedIds;
+		int[] hate = hateList;
+		int[] damage = damageList;
+		int length = Math.max(0, Math.min(Math.min(size, ids.length), Math.min(stored.length, Math.min(hate.length, damage.length))));
+		snapshot.size = length;
+		snapshot.storedIds = Arrays.copyOf(stored, length);
+		snapshot.hate = Arrays.copyOf(hate, length);
+		snapshot.damage = Arrays.copyOf(damage, length);
+		return snapshot;
+	}
+	
+	/**
+	 * Method snapshot.
+	 * @return Snapshot
+	 */
+	private Snapshot snapshot()
+	{
+		long stamp = lock.tryOptimisticRead();
+		Snapshot result = copy();
+		
+		if (!lock.validate(stamp))
 		{
-			readLock.unlock();
+			stamp = lock.readLock();
+			
+			try
+			{
+				result = copy();
+			}
+			finally
+			{
+				lock.unlockRead(stamp);
+			}
 		}
+		
+		return result;
 	}
 	
 	/**
-	 * Method getHateList.
-	 * @return List<Creature>
+	 * Method getTopStoredId.
+	 * @param hated boolean true for the most hated attacker, false for the top damager
+	 * @return long stored id, or 0 if there is none
 	 */
-	public List<Creature> getHateList()
+	private long getTopStoredId(boolean hated)
 	{
-		AggroInfo[] hated;
-		readLock.lock();
+		long stamp = lock.tryOptimisticRead();
+		int index = hated ? mostHated : topDamager;
+		long[] stored = storedIds;
+		long result = (index >= 0) && (index < stored.length) ? stored[index] : 0;
 		
-		try
+		if (!lock.validate(stamp))
 		{
-			if (hateList.isEmpty())
+			stamp = lock.readLock();
+			
+			try
 			{
-				return Collections.emptyList();
+				index = hated ? mostHated : topDamager;
+				result = index >= 0 ? storedIds[index] : 0;
+			}
+			finally
+			{
+				lock.unlockRead(stamp);
 			}
-			
-			hated = hateList.values(new AggroInfo[hateList.size()]);
 		}
-		finally
+		
+		return result;
+	}
+	
+	/**
+	 * Method getAround.
+	 * @param storedId long
+	 * @return Creature the attacker if it is still around the npc, or null
+	 */
+	private Creature getAround(long storedId)
+	{
+		Creature cha = GameObjectsStorage.getAsCharacter(storedId);
+		return (cha != null) && World.isAround(npc, cha) ? cha : null;
+	}
+	
+	/**
+	 * Method sortByHate.
+	 * @param snapshot Snapshot
+	 * @return int[] slots with hate, most hated first
+	 */
+	private static int[] sortByHate(Snapshot snapshot)
+	{
+		long[] keys = new long[snapshot.size];
+		int count = 0;
+		
+		for (int i = 0; i < snapshot.size; i++)
 		{
-			readLock.unlock();
+			if (snapshot.hate[i] > 0)
+			{
+				keys[count++] = ((long) snapshot.hate[i] << 32) | i;
+			}
 		}
-		Arrays.sort(hated, HateComparator.getInstance());
 		
-		if (hated[0].hate == 0)
+		Arrays.sort(keys, 0, count);
+		int[] result = new int[count];
+		
+		for (int i = 0; i < count; i++)
 		{
-			return Collections.emptyList();
+			result[i] = (int) keys[count - 1 - i];
 		}
 		
-		List<Creature> hateList = new LazyArrayList<>();
-		List<Creature> chars = World.getAroundCharacters(npc);
-		AggroInfo ai;
-		
-		for (AggroInfo element : hated)
+		// equal hate is ordered by damage
+		for (int i = 1; i < count; i++)
 		{
-			ai = element;
+			int index = result[i];
+			int j = i - 1;
 			
-			if (ai.hate == 0)
+			while ((j >= 0) && (snapshot.hate[result[j]] == snapshot.hate[index]) && (snapshot.damage[result[j]] < snapshot.damage[index]))
 			{
-				continue;
+				result[j + 1] = result[j];
+				j--;
 			}
 			
-			for (Creature cha : chars)
+			result[j + 1] = index;
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Method getHateList.
+	 * @return List<Creature>
+	 */
+	public List<Creature> getHateList()
+	{
+		if (isEmpty())
+		{
+			return Collections.emptyList();
+		}
+		
+		Snapshot snapshot = snapshot();
+		int[] hated = sortByHate(snapshot);
+		
+		if (hated.length == 0)
+		{
+			return Collections.emptyList();
+		}
+		
+		List<Creature> hateList = new LazyArrayList<>();
+		Creature cha;
+		
+		for (int index : hated)
+		{
+			if ((cha = getAround(snapshot.storedIds[index])) != null)
 			{
-				if (cha.getObjectId() == ai.attackerId)
-				{
-					hateList.add(cha);
-					break;
-				}
+				hateList.add(cha);
 			}
 		}
 		
@@ -384,53 +725,27 @@ public class AggroList
 	 */
 	public Creature getMostHated()
 	{
-		AggroInfo[] hated;
-		readLock.lock();
+		long storedId = getTopStoredId(true);
 		
-		try
-		{
-			if (hateList.isEmpty())
-			{
-				return null;
-			}
-			
-			hated = hateList.values(new AggroInfo[hateList.size()]);
-		}
-		finally
+		if (storedId == 0)
 		{
-			readLock.unlock();
+			return null;
 		}
-		Arrays.sort(hated, HateComparator.getInstance());
 		
-		if (hated[0].hate == 0)
+		Creature cha = getAround(storedId);
+		
+		if ((cha != null) && !cha.isDead())
 		{
-			return null;
+			return cha;
 		}
 		
-		List<Creature> chars = World.getAroundCharacters(npc);
-		AggroInfo ai;
-		loop:
+		Snapshot snapshot = snapshot();
 		
-		for (int i = 0; i < hated.length; i++)
+		for (int index : sortByHate(snapshot))
 		{
-			ai = hated[i];
-			
-			if (ai.hate == 0)
+			if (((cha = getAround(snapshot.storedIds[index])) != null) && !cha.isDead())
 			{
-				continue;
-			}
-			
-			for (Creature cha : chars)
-			{
-				if (cha.getObjectId() == ai.attackerId)
-				{
-					if (cha.isDead())
-					{
-						continue loop;
-					}
-					
-					return cha;
-				}
+				return cha;
 			}
 		}
 		
@@ -443,56 +758,21 @@ public class AggroList
 	 */
 	public Creature getRandomHated()
 	{
-		AggroInfo[] hated;
-		readLock.lock();
-		
-		try
-		{
-			if (hateList.isEmpty())
-			{
-				return null;
-			}
-			
-			hated = hateList.values(new AggroInfo[hateList.size()]);
-		}
-		finally
-		{
-			readLock.unlock();
-		}
-		Arrays.sort(hated, HateComparator.getInstance());
-		
-		if (hated[0].hate == 0)
+		if (isEmpty())
 		{
 			return null;
 		}
 		
-		List<Creature> chars = World.getAroundCharacters(npc);
+		Snapshot snapshot = snapshot();
 		LazyArrayList<Creature> randomHated = LazyArrayList.newInstance();
-		AggroInfo ai;
+		Creature cha;
 		Creature mostHated;
-		loop:
 		
-		for (int i = 0; i < hated.length; i++)
+		for (int i = 0; i < snapshot.size; i++)
 		{
-			ai = hated[i];
-			
-			if (ai.hate == 0)
+			if ((snapshot.hate[i] > 0) && ((cha = getAround(snapshot.storedIds[i])) != null) && !cha.isDead())
 			{
-				continue;
-			}
-			
-			for (Creature cha : chars)
-			{
-				if (cha.getObjectId() == ai.attackerId)
-				{
-					if (cha.isDead())
-					{
-						continue loop;
-					}
-					
-					randomHated.add(cha);
-					break;
-				}
+				randomHated.add(cha);
 			}
 		}
 		
@@ -515,53 +795,34 @@ public class AggroList
 	 */
 	public Creature getTopDamager()
 	{
-		AggroInfo[] hated;
-		readLock.lock();
+		long storedId = getTopStoredId(false);
 		
-		try
+		if (storedId == 0)
 		{
-			if (hateList.isEmpty())
-			{
-				return null;
-			}
-			
-			hated = hateList.values(new AggroInfo[hateList.size()]);
-		}
-		finally
-		{
-			readLock.unlock();
+			return null;
 		}
-		Creature topDamager = null;
-		Arrays.sort(hated, DamageComparator.getInstance());
 		
-		if (hated[0].damage == 0)
+		Creature cha = getAround(storedId);
+		
+		if (cha != null)
 		{
-			return null;
+			return cha;
 		}
 		
-		List<Creature> chars = World.getAroundCharacters(npc);
-		AggroInfo ai;
+		Snapshot snapshot = snapshot();
+		Creature topDamager = null;
+		int topDamage = 0;
 		
-		for (AggroInfo element : hated)
+		for (int i = 0; i < snapshot.size; i++)
 		{
-			ai = element;
-			
-			if (ai.damage == 0)
+			if ((snapshot.damage[i] > topDamage) && ((cha = getAround(snapshot.storedIds[i])) != null))
 			{
-				continue;
-			}
-			
-			for (Creature cha : chars)
-			{
-				if (cha.getObjectId() == ai.attackerId)
-				{
-					topDamager = cha;
-					return topDamager;
-				}
+				topDamager = cha;
+				topDamage = snapshot.damage[i];
 			}
 		}
 		
-		return null;
+		return topDamager;
 	}
 	
 	/**
@@ -575,38 +836,23 @@ public class AggroList
 			return Collections.emptyMap();
 		}
 		
+		Snapshot snapshot = snapshot();
 		Map<Creature, HateInfo> aggroMap = new HashMap<>();
-		List<Creature> chars = World.getAroundCharacters(npc);
-		readLock.lock();
+		Creature attacker;
 		
-		try
+		for (int i = 0; i < snapshot.size; i++)
 		{
-			AggroInfo ai;
+			if ((snapshot.damage[i] == 0) && (snapshot.hate[i] == 0))
+			{
+				continue;
+			}
 			
-			for (TIntObjectIterator<AggroInfo> itr = hateList.iterator(); itr.hasNext();)
+			if ((attacker = getAround(snapshot.storedIds[i])) != null)
 			{
-				itr.advance();
-				ai = itr.value();
-				
-				if ((ai.damage == 0) && (ai.hate == 0))
-				{
-					continue;
-				}
-				
-				for (Creature attacker : chars)
-				{
-					if (attacker.getObjectId() == ai.attackerId)
-					{
-						aggroMap.put(attacker, new HateInfo(attacker, ai));
-						break;
-					}
-				}
+				aggroMap.put(attacker, new HateInfo(attacker, snapshot.hate[i], snapshot.damage[i]));
 			}
 		}
-		finally
-		{
-			readLock.unlock();
-		}
+		
 		return aggroMap;
 	}
 	
@@ -621,38 +867,23 @@ public class AggroList
 			return Collections.emptyMap();
 		}
 		
+		Snapshot snapshot = snapshot();
 		Map<Playable, HateInfo> aggroMap = new HashMap<>();
-		List<Playable> chars = World.getAroundPlayables(npc);
-		readLock.lock();
+		Creature attacker;
 		
-		try
+		for (int i = 0; i < snapshot.size; i++)
 		{
-			AggroInfo ai;
+			if ((snapshot.damage[i] == 0) && (snapshot.hate[i] == 0))
+			{
+				continue;
+			}
 			
-			for (TIntObjectIterator<AggroInfo> itr = hateList.iterator(); itr.hasNext();)
+			if (((attacker = getAround(snapshot.storedIds[i])) != null) && attacker.isPlayable())
 			{
-				itr.advance();
-				ai = itr.value();
-				
-				if ((ai.damage == 0) && (ai.hate == 0))
-				{
-					continue;
-				}
-				
-				for (Playable attacker : chars)
-				{
-					if (attacker.getObjectId() == ai.attackerId)
-					{
-						aggroMap.put(attacker, new HateInfo(attacker, ai));
-						break;
-					}
-				}
+				aggroMap.put((Playable) attacker, new HateInfo(attacker, snapshot.hate[i], snapshot.damage[i]));
 			}
 		}
-		finally
-		{
-			readLock.unlock();
-		}
+		
 		return aggroMap;
 	}
 }
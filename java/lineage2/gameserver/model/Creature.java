@@ -422,7 +422,8 @@ public abstract class Creature extends GameObject
 	public boolean _isEnabledDoubleCast = false;
 	public boolean _isKnockedDown = false;
 	public boolean _isAirBind = false;
-	private final List<Zone> _zones = new LazyArrayList<>();
+	/** Zones the creature is in, sorted by zone index and replaced on change. */
+	private volatile Zone[] _zones = Zone.EMPTY_L2ZONE_ARRAY;
 	private final ReadWriteLock zonesLock = new ReentrantReadWriteLock();
 	private final Lock zonesRead = zonesLock.readLock();
 	private final Lock zonesWrite = zonesLock.writeLock();
@@ -1146,6 +1147,12 @@ public abstract class Creature extends GameObject
 		for (int i = 0; i < players.size(); i++)
 		{
 			target = players.get(i);
+			
+			if (isPlayer() && !target.getVisibility().isShown((Player) this))
+			{
+				continue;
+			}
+			
 			target.sendPacket(packets);
 		}
 	}
@@ -1167,6 +1174,12 @@ public abstract class Creature extends GameObject
 		for (int i = 0; i < players.size(); i++)
 		{
 			target = players.get(i);
+			
+			if (isPlayer() && !target.getVisibility().isShown((Player) this))
+			{
+				continue;
+			}
+			
 			target.sendPacket(packets);
 		}
 	}
@@ -3894,9 +3907,9 @@ public abstract class Creature extends GameObject
 		{
 			Zone zone;
 			
-			for (int i = 0; i < _zones.size(); i++)
+			for (int i = 0; i < _zones.length; i++)
 			{
-				zone = _zones.get(i);
+				zone = _zones[i];
 				
 				if (zone.getType() == ZoneType.Water)
 				{
@@ -3942,66 +3955,81 @@ public abstract class Creature extends GameObject
 			return;
 		}
 		
-		Zone[] zones = isVisible() ? getCurrentRegion().getZones() : Zone.EMPTY_L2ZONE_ARRAY;
+		final int x = getX();
+		final int y = getY();
+		final int z = getZ();
+		final Reflection reflection = getReflection();
+		ZoneCell cell = isVisible() ? getCurrentRegion().getZoneCell(x, y) : ZoneCell.EMPTY;
+		Zone[] candidates = cell.getZones();
 		LazyArrayList<Zone> entering = null;
 		LazyArrayList<Zone> leaving = null;
-		Zone zone;
 		zonesWrite.lock();
 		
 		try
 		{
-			if (!_zones.isEmpty())
+			Zone[] current = _zones;
+			int c = 0;
+			int n = 0;
+			
+			while ((c < current.length) || (n < candidates.length))
 			{
-				leaving = LazyArrayList.newInstance();
+				int order = c == current.length ? 1 : n == candidates.length ? -1 : Integer.compare(current[c].getIndex(), candidates[n].getIndex());
 				
-				for (int i = 0; i < _zones.size(); i++)
+				if (order < 0)
 				{
-					zone = _zones.get(i);
-					
-					if (!Util.contains(zones, zone) || !zone.checkIfInZone(getX(), getY(), getZ(), getReflection()))
+					if (leaving == null)
 					{
-						leaving.add(zone);
+						leaving = LazyArrayList.newInstance();
 					}
+					
+					leaving.add(current[c++]);
 				}
-				
-				if (!leaving.isEmpty())
+				else if (order > 0)
 				{
-					for (int i = 0; i < leaving.size(); i++)
+					if (cell.isInside(n, x, y, z, reflection))
 					{
-						zone = leaving.get(i);
-						_zones.remove(zone);
+						if (entering == null)
+						{
+							entering = LazyArrayList.newInstance();
+						}
+						
+						entering.add(candidates[n]);
 					}
-				}
-			}
-			
-			if (zones.length > 0)
-			{
-				entering = LazyArrayList.newInstance();
-				
-				for (Zone zone2 : zones)
-				{
-					zone = zone2;
 					
-					if (!_zones.contains(zone) && zone.checkIfInZone(getX(), getY(), getZ(), getReflection()))
-					{
-						entering.add(zone);
-					}
+					n++;
 				}
-				
-				if (!entering.isEmpty())
+				else
 				{
-					for (int i = 0; i < entering.size(); i++)
+					if (!cell.isInside(n, x, y, z, reflection))
 					{
-						zone = entering.get(i);
-						_zones.add(zone);
+						if (leaving == null)
+						{
+							leaving = LazyArrayList.newInstance();
+						}
+						
+						leaving.add(current[c]);
 					}
+					
+					c++;
+					n++;
 				}
 			}
+			
+			if ((leaving != null) || (entering != null))
+			{
+				_zones = mergeZones(current, leaving, entering);
+			}
 		}
 		finally
 		{
 			zonesWrite.unlock();
 		}
+		
+		if ((leaving == null) && (entering == null))
+		{
+			return;
+		}
+		
 		onUpdateZones(leaving, entering);
 		
 		if (leaving != null)
@@ -4015,6 +4043,46 @@ public abstract class Creature extends GameObject
 		}
 	}
 	
+	/**
+	 * Removes the leaving zones from the current ones and adds the entering ones, all three in index order.
+	 * @param current Zone[]
+	 * @param leaving List<Zone> a subsequence of current, or null
+	 * @param entering List<Zone> zones missing from current, or null
+	 * @return Zone[]
+	 */
+	private static Zone[] mergeZones(Zone[] current, List<Zone> leaving, List<Zone> entering)
+	{
+		int leavingSize = leaving == null ? 0 : leaving.size();
+		int enteringSize = entering == null ? 0 : entering.size();
+		Zone[] result = new Zone[(current.length - leavingSize) + enteringSize];
+		int l = 0;
+		int e = 0;
+		int r = 0;
+		
+		for (Zone zone : current)
+		{
+			if ((l < leavingSize) && (leaving.get(l) == zone))
+			{
+				l++;
+				continue;
+			}
+			
+			while ((e < enteringSize) && (entering.get(e).getIndex() < zone.getIndex()))
+			{
+				result[r++] = entering.get(e++);
+			}
+			
+			result[r++] = zone;
+		}
+		
+		while (e < enteringSize)
+		{
+			result[r++] = entering.get(e++);
+		}
+		
+		return result;
+	}
+	
 	/**
 	 * Method onUpdateZones.
 	 * @param leaving List<Zone>
@@ -4113,9 +4181,9 @@ public abstract class Creature extends GameObject
 		{
 			Zone zone;
 			
-			for (int i = 0; i < _zones.size(); i++)
+			for (int i = 0; i < _zones.length; i++)
 			{
-				zone = _zones.get(i);
+				zone = _zones[i];
 				
 				if (zone.getName().equals(name))
 				{
@@ -4141,7 +4209,15 @@ public abstract class Creature extends GameObject
 		
 		try
 		{
-			return _zones.contains(zone);
+			for (Zone z : _zones)
+			{
+				if (z == zone)
+				{
+					return true;
+				}
+			}
+			
+			return false;
 		}
 		finally
 		{
@@ -4162,9 +4238,9 @@ public abstract class Creature extends GameObject
 		{
 			Zone zone;
 			
-			for (int i = 0; i < _zones.size(); i++)
+			for (int i = 0; i < _zones.length; i++)
 			{
-				zone = _zones.get(i);
+				zone = _zones[i];
 				
 				if (zone.getType() == type)
 				{
@@ -4179,6 +4255,37 @@ public abstract class Creature extends GameObject
 		return null;
 	}
 	
+	/**
+	 * Method getVisibilityZone.
+	 * @return Zone the zone with the smallest visible players limit, or null if no zone limits them
+	 */
+	public Zone getVisibilityZone()
+	{
+		Zone result = null;
+		zonesRead.lock();
+		
+		try
+		{
+			Zone zone;
+			
+			for (int i = 0; i < _zones.length; i++)
+			{
+				zone = _zones[i];
+				int limit = zone.getTemplate().getVisiblePlayersLimit();
+				
+				if ((limit > 0) && ((result == null) || (limit < result.getTemplate().getVisiblePlayersLimit())))
+				{
+					result = zone;
+				}
+			}
+		}
+		finally
+		{
+			zonesRead.unlock();
+		}
+		return result;
+	}
+	
 	/**
 	 * Method getRestartPoint.
 	 * @return Location
@@ -4191,9 +4298,9 @@ public abstract class Creature extends GameObject
 		{
 			Zone zone;
 			
-			for (int i = 0; i < _zones.size(); i++)
+			for (int i = 0; i < _zones.length; i++)
 			{
-				zone = _zones.get(i);
+				zone = _zones[i];
 				
 				if (zone.getRestartPoints() != null)
 				{
@@ -4225,9 +4332,9 @@ public abstract class Creature extends GameObject
 		{
 			Zone zone;
 			
-			for (int i = 0; i < _zones.size(); i++)
+			for (int i = 0; i < _zones.length; i++)
 			{
-				zone = _zones.get(i);
+				zone = _zones[i];
 				
 				if (zone.getRestartPoints() != null)
 				{
@@ -13,9 +13,12 @@
 package lineage2.gameserver.model;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -46,6 +49,8 @@ public class EffectList
 	private final Creature _actor;
 	private List<Effect> _effects;
 	private final Lock lock = new ReentrantLock();
+	private final AtomicInteger _batchDepth = new AtomicInteger();
+	private final AtomicBoolean _batchChanged = new AtomicBoolean();
 	
 	/**
 	 * Constructor for EffectList.
@@ -429,6 +434,66 @@ public class EffectList
 		return false;
 	}
 	
+	/**
+	 * Starts a batch of changes, stat recalculation and icon updates are sent once by the matching endBatch().
+	 */
+	public void beginBatch()
+	{
+		_batchDepth.incrementAndGet();
+	}
+	
+	/**
+	 * Method endBatch.
+	 */
+	public void endBatch()
+	{
+		if ((_batchDepth.decrementAndGet() == 0) && _batchChanged.getAndSet(false))
+		{
+			_actor.updateStats();
+			_actor.updateEffectIcons();
+		}
+	}
+	
+	/**
+	 * Method onEffectsChanged.
+	 */
+	private void onEffectsChanged()
+	{
+		if (_batchDepth.get() > 0)
+		{
+			_batchChanged.set(true);
+			
+			if (_batchDepth.get() > 0)
+			{
+				return;
+			}
+		}
+		
+		_actor.updateStats();
+		_actor.updateEffectIcons();
+	}
+	
+	/**
+	 * Adds all effects as one batch.
+	 * @param effects Collection<Effect>
+	 */
+	public void addEffects(Collection<Effect> effects)
+	{
+		beginBatch();
+		
+		try
+		{
+			for (Effect effect : effects)
+			{
+				addEffect(effect);
+			}
+		}
+		finally
+		{
+			endBatch();
+		}
+	}
+	
 	/**
 	 * Method addEffect.
 	 * @param effect Effect
@@ -537,8 +602,7 @@ public class EffectList
 			}
 		}
 		
-		_actor.updateStats();
-		_actor.updateEffectIcons();
+		onEffectsChanged();
 	}
 	
 	/**
@@ -577,8 +641,7 @@ public class EffectList
 			return;
 		}
 		
-		_actor.updateStats();
-		_actor.updateEffectIcons();
+		onEffectsChanged();
 	}
 	
 	/**
@@ -621,8 +684,7 @@ public class EffectList
 					return;
 				}
 				
-				_actor.updateStats();
-				_actor.updateEffectIcons();
+				onEffectsChanged();
 			}
 		}
 	}
@@ -637,6 +699,7 @@ public class EffectList
 			return;
 		}
 		
+		beginBatch();
 		lock.lock();
 		
 		try
@@ -649,9 +712,9 @@ public class EffectList
 		finally
 		{
 			lock.unlock();
+			_batchChanged.set(true);
+			endBatch();
 		}
-		_actor.updateStats();
-		_actor.updateEffectIcons();
 	}
 	
 	/**
@@ -93,6 +93,7 @@ import lineage2.gameserver.instancemanager.BypassManager;
 import lineage2.gameserver.instancemanager.BypassManager.BypassType;
 import lineage2.gameserver.instancemanager.BypassManager.DecodedBypass;
 import lineage2.gameserver.instancemanager.CursedWeaponsManager;
+import lineage2.gameserver.instancemanager.LeaderboardManager;
 import lineage2.gameserver.instancemanager.MatchingRoomManager;
 import lineage2.gameserver.instancemanager.QuestManager;
 import lineage2.gameserver.instancemanager.ReflectionManager;
@@ -124,6 +125,7 @@ import lineage2.gameserver.model.actor.instances.player.ShortCutList;
 import lineage2.gameserver.model.actor.instances.player.SubClassList;
 import lineage2.gameserver.model.actor.instances.player.SummonList;
 import lineage2.gameserver.model.actor.listener.PlayerListenerList;
+import lineage2.gameserver.model.actor.recorder.CharStatsChangeRecorder;
 import lineage2.gameserver.model.actor.recorder.PlayerStatsChangeRecorder;
 import lineage2.gameserver.model.base.AcquireType;
 import lineage2.gameserver.model.base.ClassId;
@@ -331,6 +333,8 @@ public final class Player extends Playable implements PlayerGroup
 	public static final String NO_TRADERS_VAR = "notraders";
 	private static final String NO_ANIMATION_OF_CAST_VAR = "notShowBuffAnim";
 	public static final String MY_BIRTHDAY_RECEIVE_YEAR = "MyBirthdayReceiveYear";
+	public static final String UPDATE_CHARACTER = "UPDATE characters SET face=?,hairStyle=?,hairColor=?,sex=?,x=?,y=?,z=?,karma=?,pvpkills=?,pkkills=?,rec_have=?,rec_left=?,rec_bonus_time=?,clanid=?,deletetime=?,title=?,accesslevel=?,online=?,leaveclan=?,deleteclan=?,nochannel=?,onlinetime=?,pledge_type=?,pledge_rank=?,lvl_joined_academy=?,apprentice=?,key_bindings=?,pcBangPoints=?,char_name=?,fame=?,bookmarks=?,faceB=?,hairStyleB=?,hairColorB=? WHERE obj_Id=? LIMIT 1";
+	public static final String UPDATE_VITALITY = "UPDATE `vitality_points` SET `points`=? WHERE `account_name`=?";
 	private static final String NOT_CONNECTED = "<not connected>";
 	public final Map<Integer, SubClass> _classlist = new HashMap<>(4);
 	private final static int OBSERVER_NONE = 0;
@@ -487,6 +491,8 @@ public final class Player extends Playable implements PlayerGroup
 	private final int _race[] = new int[2];
 	private final Map<Integer, String> _blockList = new ConcurrentSkipListMap<>();
 	private final FriendList _friendList = new FriendList(this);
+	private final PlayerVisibility _visibility = new PlayerVisibility(this);
+	private volatile boolean _batchStore;
 	private boolean _hero = false;
 	private Boat _boat;
 	private Location _inBoatPosition;
@@ -1575,6 +1581,11 @@ public final class Player extends Playable implements PlayerGroup
 	public void setPkKills(final int pkKills)
 	{
 		_pkKills = pkKills;
+		
+		if (_isOnline)
+		{
+			LeaderboardManager.getInstance().update(this);
+		}
 	}
 	
 	/**
@@ -2429,6 +2440,11 @@ public final class Player extends Playable implements PlayerGroup
 	public void setPvpKills(int pvpKills)
 	{
 		_pvpKills = pvpKills;
+		
+		if (_isOnline)
+		{
+			LeaderboardManager.getInstance().update(this);
+		}
 	}
 	
 	/**
@@ -3426,6 +3442,15 @@ public final class Player extends Playable implements PlayerGroup
 		_onlineBeginTime = System.currentTimeMillis();
 	}
 	
+	/**
+	 * Method getStoredOnlineTime.
+	 * @return int total online time in seconds, as written to the characters table
+	 */
+	public int getStoredOnlineTime()
+	{
+		return (int) (_onlineBeginTime > 0 ? ((_onlineTime + System.currentTimeMillis()) - _onlineBeginTime) / 1000L : _onlineTime / 1000L);
+	}
+	
 	/**
 	 * Method setNoChannel.
 	 * @param time long
@@ -3902,10 +3927,29 @@ public final class Player extends Playable implements PlayerGroup
 	 */
 	@Override
 	public void broadcastStatusUpdate()
+	{
+		if (Config.BROADCAST_INFO_INTERVAL > 0)
+		{
+			getStatsRecorder().schedule(CharStatsChangeRecorder.PENDING_STATUS_UPDATE);
+			return;
+		}
+		
+		broadcastStatusUpdateImpl(true);
+	}
+	
+	/**
+	 * Method broadcastStatusUpdateImpl.
+	 * @param sendToSelf boolean
+	 */
+	public void broadcastStatusUpdateImpl(boolean sendToSelf)
 	{
 		super.broadcastStatusUpdate();
-		sendPacket(new StatusUpdate(this).addAttribute(StatusUpdateField.CUR_HP, StatusUpdateField.CUR_MP, StatusUpdateField.MAX_HP, StatusUpdateField.MAX_MP));
-		sendPacket(new StatusUpdate(this).addAttribute(StatusUpdateField.CUR_CP, StatusUpdateField.MAX_CP));
+		
+		if (sendToSelf)
+		{
+			sendPacket(new StatusUpdate(this).addAttribute(StatusUpdateField.CUR_HP, StatusUpdateField.CUR_MP, StatusUpdateField.MAX_HP, StatusUpdateField.MAX_MP));
+			sendPacket(new StatusUpdate(this).addAttribute(StatusUpdateField.CUR_CP, StatusUpdateField.MAX_CP));
+		}
 		
 		if (isInParty())
 		// Send the Server->Client packet PartySmallWindowUpdate with current HP, MP and Level to all other L2Player of the Party
@@ -3935,6 +3979,20 @@ public final class Player extends Playable implements PlayerGroup
 	 * Method broadcastUserInfo.
 	 */
 	public void broadcastUserInfo()
+	{
+		if (Config.BROADCAST_INFO_INTERVAL > 0)
+		{
+			getStatsRecorder().schedule(CharStatsChangeRecorder.PENDING_CHAR_INFO);
+			return;
+		}
+		
+		broadcastUserInfoImpl();
+	}
+	
+	/**
+	 * Method broadcastUserInfoImpl.
+	 */
+	public void broadcastUserInfoImpl()
 	{
 		sendUserInfo();
 		
@@ -3947,6 +4005,11 @@ public final class Player extends Playable implements PlayerGroup
 		L2GameServerPacket exCi = new ExBR_ExtraUserInfo(this);
 		for (Player player : World.getAroundPlayers(this))
 		{
+			if (!player.getVisibility().isShown(this))
+			{
+				continue;
+			}
+			
 			player.sendPacket(ci, exCi);
 			player.sendPacket(RelationChanged.update(player, this, player));
 		}
@@ -5185,6 +5248,11 @@ public final class Player extends Playable implements PlayerGroup
 			return Collections.emptyList();
 		}
 		
+		if (object.isPlayer() && !_visibility.canShow((Player) object))
+		{
+			return Collections.emptyList();
+		}
+		
 		return object.addPacketList(this, dropper);
 	}
 	
@@ -5305,6 +5373,11 @@ public final class Player extends Playable implements PlayerGroup
 			return null;
 		}
 		
+		if (object.isPlayer())
+		{
+			_visibility.onRemove((Player) object);
+		}
+		
 		List<L2GameServerPacket> result = list == null ? object.deletePacketList() : list;
 		getAI().notifyEvent(CtrlEvent.EVT_FORGET_OBJECT, object);
 		return result;
@@ -5526,6 +5599,26 @@ public final class Player extends Playable implements PlayerGroup
 		}, time);
 	}
 	
+	/**
+	 * Method onSpawn.
+	 */
+	@Override
+	protected void onSpawn()
+	{
+		super.onSpawn();
+		_visibility.updateLimit();
+	}
+	
+	/**
+	 * Method onDespawn.
+	 */
+	@Override
+	protected void onDespawn()
+	{
+		super.onDespawn();
+		_visibility.stop();
+	}
+	
 	/**
 	 * Method onDelete.
 	 */
@@ -6081,6 +6174,12 @@ public final class Player extends Playable implements PlayerGroup
 			return;
 		}
 		
+		if (Config.BROADCAST_INFO_INTERVAL > 0)
+		{
+			getStatsRecorder().schedule(CharStatsChangeRecorder.PENDING_CHANGES);
+			return;
+		}
+		
 		super.sendChanges();
 	}
 	
@@ -6250,13 +6349,15 @@ public final class Player extends Playable implements PlayerGroup
 	}
 	
 	/**
-	 * Method restore.
+	 * Method restore.<br>
+	 * Lists, bookmarks, reuses and the warehouses are loaded on the database lane while this thread restores the stages depending on each other, the player is returned once all of them are done.
 	 * @param objectId int
 	 * @return Player
 	 */
 	public static Player restore(final int objectId)
 	{
 		Player player = null;
+		RestorePipeline pipeline = null;
 		Connection con = null;
 		Statement statement = null;
 		Statement statement2 = null;
@@ -6278,15 +6379,22 @@ public final class Player extends Playable implements PlayerGroup
 				final ClassId classId = ClassId.VALUES[rset2.getInt("class_id")];
 				final ClassId defaultClassId = ClassId.VALUES[rset2.getInt("default_class_id")];
 				final PlayerTemplate template = PlayerTemplateHolder.getInstance().getPlayerTemplate(defaultClassId.getRace(), classId, Sex.VALUES[rset.getInt("sex")]);
-				player = new Player(objectId, template);
-				player.loadVariables();
-				player.loadInstanceReuses();
-				player.loadPremiumItemList();
+				final Player restored = player = new Player(objectId, template);
+				pipeline = new RestorePipeline(objectId);
+				pipeline.submit("variables", restored::loadVariables);
+				pipeline.submit("instanceReuses", restored::loadInstanceReuses);
+				pipeline.submit("premiumItems", restored::loadPremiumItemList);
 				player.bookmarks.setCapacity(rset.getInt("bookmarks"));
-				player.bookmarks.restore();
-				player._friendList.restore();
-				player._postFriends = CharacterPostFriendDAO.getInstance().select(player);
-				CharacterGroupReuseDAO.getInstance().select(player);
+				pipeline.submit("bookmarks", restored.bookmarks::restore);
+				pipeline.submit("friends", restored._friendList::restore);
+				pipeline.submit("postFriends", () -> restored._postFriends = CharacterPostFriendDAO.getInstance().select(restored));
+				pipeline.submit("groupReuses", () -> CharacterGroupReuseDAO.getInstance().select(restored));
+				pipeline.submit("recipes", restored::restoreRecipeBook);
+				pipeline.submit("blockList", restored::restoreBlockList);
+				pipeline.submit("macros", restored._macroses::restore);
+				pipeline.submit("warehouse", restored.getWarehouse()::restore);
+				pipeline.submit("freight", restored.getFreight()::restore);
+				pipeline.await("variables");
 				player._login = rset.getString("account_name");
 				player.setName(rset.getString("char_name"));
 				player.setFace(rset.getInt("face"));
@@ -6386,7 +6494,6 @@ public final class Player extends Playable implements PlayerGroup
 				player.setKeyBindings(rset.getBytes("key_bindings"));
 				player.setPcBangPoints(rset.getInt("pcBangPoints"));
 				player.setFame(rset.getInt("fame"), null);
-				player.restoreRecipeBook();
 				
 				if (Config.ENABLE_OLYMPIAD)
 				{
@@ -6438,12 +6545,12 @@ public final class Player extends Playable implements PlayerGroup
 				
 				player.setReflection(reflection);
 				EventHolder.getInstance().findEvent(player);
-				Quest.restoreQuestStates(player);
-				player.getSubClassList().restore();
-				player.setActiveSubClass(player.getActiveClassId(), false, 0);
+				pipeline.run("quests", () -> Quest.restoreQuestStates(restored));
+				pipeline.run("subclasses", restored.getSubClassList()::restore);
+				pipeline.run("activeSubClass", () -> restored.setActiveSubClass(restored.getActiveClassId(), false, 0));
 				player.restoreVitality();
-				player.getInventory().restore();
-				player.getMentorSystem().restore();
+				pipeline.run("inventory", restored.getInventory()::restore);
+				pipeline.run("mentors", restored.getMentorSystem()::restore);
 				
 				try
 				{
@@ -6563,13 +6670,9 @@ public final class Player extends Playable implements PlayerGroup
 					
 					zones.clear();
 				}
-				player.restoreBlockList();
-				player._macroses.restore();
 				player.refreshExpertisePenalty();
 				player.refreshOverloaded();
-				player.getWarehouse().restore();
-				player.getFreight().restore();
-				player.restoreTradeList();
+				pipeline.run("tradeList", restored::restoreTradeList);
 				
 				if (player.getVar("storemode") != null)
 				{
@@ -6581,7 +6684,8 @@ public final class Player extends Playable implements PlayerGroup
 				player.updateRam();
 				player.checkRecom();
 				player.restoreVitality();
-				player.getSummonList().restore();
+				pipeline.run("summons", restored.getSummonList()::restore);
+				pipeline.awaitAll();
 			}
 		}
 		catch (final Exception e)
@@ -6590,6 +6694,11 @@ public final class Player extends Playable implements PlayerGroup
 		}
 		finally
 		{
+			if (pipeline != null)
+			{
+				pipeline.close();
+			}
+			
 			DbUtils.closeQuietly(statement2, rset2);
 			DbUtils.closeQuietly(statement3, rset3);
 			DbUtils.closeQuietly(con, statement, rset);
@@ -6747,61 +6856,21 @@ public final class Player extends Playable implements PlayerGroup
 		
 		try
 		{
+			LeaderboardManager.getInstance().update(this);
 			Connection con = null;
 			PreparedStatement statement = null;
 			
 			try
 			{
 				con = DatabaseFactory.getInstance().getConnection();
-				statement = con.prepareStatement("UPDATE characters SET face=?,hairStyle=?,hairColor=?,sex=?,x=?,y=?,z=?,karma=?,pvpkills=?,pkkills=?,rec_have=?,rec_left=?,rec_bonus_time=?,clanid=?,deletetime=?,title=?,accesslevel=?,online=?,leaveclan=?,deleteclan=?,nochannel=?,onlinetime=?,pledge_type=?,pledge_rank=?,lvl_joined_academy=?,apprentice=?,key_bindings=?,pcBangPoints=?,char_name=?,fame=?,bookmarks=?,faceB=?,hairStyleB=?,hairColorB=? WHERE obj_Id=? LIMIT 1");
-				statement.setInt(1, getOriginalFace());
-				statement.setInt(2, getOriginalHairStyle());
-				statement.setInt(3, getOriginalHairColor());
-				statement.setInt(4, getSex());
 				
-				if (_stablePoint == null)
+				if (!_batchStore)
 				{
-					statement.setInt(5, getX());
-					statement.setInt(6, getY());
-					statement.setInt(7, getZ());
+					statement = con.prepareStatement(UPDATE_CHARACTER);
+					setCharacterParams(statement);
+					statement.executeUpdate();
+					GameStats.increaseUpdatePlayerBase();
 				}
-				else
-				{
-					statement.setInt(5, _stablePoint.getX());
-					statement.setInt(6, _stablePoint.getY());
-					statement.setInt(7, _stablePoint.getZ());
-				}
-				
-				statement.setInt(8, getKarma());
-				statement.setInt(9, getPvpKills());
-				statement.setInt(10, getPkKills());
-				statement.setInt(11, getRecomHave());
-				statement.setInt(12, getRecomLeft());
-				statement.setInt(13, getRecomBonusTime());
-				statement.setInt(14, getClanId());
-				statement.setInt(15, getDeleteTimer());
-				statement.setString(16, _title);
-				statement.setInt(17, _accessLevel);
-				statement.setInt(18, isOnline() && !isInOfflineMode() ? 1 : 0);
-				statement.setLong(19, getLeaveClanTime() / 1000L);
-				statement.setLong(20, getDeleteClanTime() / 1000L);
-				statement.setLong(21, _NoChannel > 0 ? getNoChannelRemained() / 1000 : _NoChannel);
-				statement.setInt(22, (int) (_onlineBeginTime > 0 ? ((_onlineTime + System.currentTimeMillis()) - _onlineBeginTime) / 1000L : _onlineTime / 1000L));
-				statement.setInt(23, getPledgeType());
-				statement.setInt(24, getPowerGrade());
-				statement.setInt(25, getLvlJoinedAcademy());
-				statement.setInt(26, getApprentice());
-				statement.setBytes(27, getKeyBindings());
-				statement.setInt(28, getPcBangPoints());
-				statement.setString(29, getName());
-				statement.setInt(30, getFame());
-				statement.setInt(31, bookmarks.getCapacity());
-				statement.setInt(32, getNewFace());
-				statement.setInt(33, getNewHairStyle());
-				statement.setInt(34, getNewHairColor());
-				statement.setInt(35, getObjectId());
-				statement.executeUpdate();
-				GameStats.increaseUpdatePlayerBase();
 				
 				if (!fast)
 				{
@@ -6813,12 +6882,14 @@ public final class Player extends Playable implements PlayerGroup
 				
 				storeCharSubClasses();
 				bookmarks.store();
-				DbUtils.closeQuietly(con, statement);
-				con = DatabaseFactory.getInstance().getConnection();
-				statement = con.prepareStatement("UPDATE `vitality_points` SET `points`=? WHERE `account_name`=?");
-				statement.setInt(1, getVitality());
-				statement.setString(2, getAccountName());
-				statement.execute();
+				
+				if (!_batchStore)
+				{
+					DbUtils.closeQuietly(statement);
+					statement = con.prepareStatement(UPDATE_VITALITY);
+					setVitalityParams(statement);
+					statement.execute();
+				}
 			}
 			catch (Exception e)
 			{
@@ -6835,6 +6906,81 @@ public final class Player extends Playable implements PlayerGroup
 		}
 	}
 	
+	/**
+	 * Method setBatchStore.
+	 * @param batchStore boolean if true, store() leaves the characters and vitality_points rows to CharacterDAO.storeBatch
+	 */
+	public void setBatchStore(boolean batchStore)
+	{
+		_batchStore = batchStore;
+	}
+	
+	/**
+	 * Method setCharacterParams.
+	 * @param statement PreparedStatement prepared with UPDATE_CHARACTER
+	 * @throws SQLException
+	 */
+	public void setCharacterParams(PreparedStatement statement) throws SQLException
+	{
+		statement.setInt(1, getOriginalFace());
+		statement.setInt(2, getOriginalHairStyle());
+		statement.setInt(3, getOriginalHairColor());
+		statement.setInt(4, getSex());
+		
+		if (_stablePoint == null)
+		{
+			statement.setInt(5, getX());
+			statement.setInt(6, getY());
+			statement.setInt(7, getZ());
+		}
+		else
+		{
+			statement.setInt(5, _stablePoint.getX());
+			statement.setInt(6, _stablePoint.getY());
+			statement.setInt(7, _stablePoint.getZ());
+		}
+		
+		statement.setInt(8, getKarma());
+		statement.setInt(9, getPvpKills());
+		statement.setInt(10, getPkKills());
+		statement.setInt(11, getRecomHave());
+		statement.setInt(12, getRecomLeft());
+		statement.setInt(13, getRecomBonusTime());
+		statement.setInt(14, getClanId());
+		statement.setInt(15, getDeleteTimer());
+		statement.setString(16, _title);
+		statement.setInt(17, _accessLevel);
+		statement.setInt(18, isOnline() && !isInOfflineMode() ? 1 : 0);
+		statement.setLong(19, getLeaveClanTime() / 1000L);
+		statement.setLong(20, getDeleteClanTime() / 1000L);
+		statement.setLong(21, _NoChannel > 0 ? getNoChannelRemained() / 1000 : _NoChannel);
+		statement.setInt(22, getStoredOnlineTime());
+		statement.setInt(23, getPledgeType());
+		statement.setInt(24, getPowerGrade());
+		statement.setInt(25, getLvlJoinedAcademy());
+		statement.setInt(26, getApprentice());
+		statement.setBytes(27, getKeyBindings());
+		statement.setInt(28, getPcBangPoints());
+		statement.setString(29, getName());
+		statement.setInt(30, getFame());
+		statement.setInt(31, bookmarks.getCapacity());
+		statement.setInt(32, getNewFace());
+		statement.setInt(33, getNewHairStyle());
+		statement.setInt(34, getNewHairColor());
+		statement.setInt(35, getObjectId());
+	}
+	
+	/**
+	 * Method setVitalityParams.
+	 * @param statement PreparedStatement prepared with UPDATE_VITALITY
+	 * @throws SQLException
+	 */
+	public void setVitalityParams(PreparedStatement statement) throws SQLException
+	{
+		statement.setInt(1, getVitality());
+		statement.setString(2, getAccountName());
+	}
+	
 	/**
 	 * Method addCertSkill.
 	 * @param newSkill Skill
@@ -11644,6 +11790,8 @@ public final class Player extends Playable implements PlayerGroup
 		{
 			stopWaterTask();
 		}
+		
+		_visibility.updateLimit();
 	}
 	
 	/**
@@ -13745,6 +13893,15 @@ public final class Player extends Playable implements PlayerGroup
 		return (PlayerListenerList) listeners;
 	}
 	
+	/**
+	 * Method getVisibility.
+	 * @return PlayerVisibility
+	 */
+	public PlayerVisibility getVisibility()
+	{
+		return _visibility;
+	}
+	
 	/**
 	 * Method getStatsRecorder.
 	 * @return PlayerStatsChangeRecorder
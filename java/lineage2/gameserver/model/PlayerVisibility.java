@@ -0,0 +1,501 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.gameserver.model;
+
+import gnu.trove.set.hash.TIntHashSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import lineage2.commons.threading.RunnableImpl;
+import lineage2.gameserver.Config;
+import lineage2.gameserver.taskmanager.LazyPrecisionTaskManager;
+
+/**
+ * Limits the number of other players a character is shown at once.<br>
+ * Once the limit is reached, players are ranked by priority and then by distance; a shown player is only hidden after falling behind the limit by more than the hysteresis band.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public final class PlayerVisibility
+{
+	/**
+	 * @author Mobius
+	 */
+	public static enum Priority
+	{
+		PARTY
+		{
+			@Override
+			boolean test(Player viewer, Player other)
+			{
+				Party party = viewer.getParty();
+				return (party != null) && (party == other.getParty());
+			}
+		},
+		CLAN
+		{
+			@Override
+			boolean test(Player viewer, Player other)
+			{
+				return (viewer.getClanId() != 0) && (viewer.getClanId() == other.getClanId());
+			}
+		},
+		TARGET
+		{
+			@Override
+			boolean test(Player viewer, Player other)
+			{
+				return viewer.getTarget() == other;
+			}
+		},
+		ATTACKER
+		{
+			@Override
+			boolean test(Player viewer, Player other)
+			{
+				return (other.getTarget() == viewer) && other.isInCombat();
+			}
+		};
+		
+		/**
+		 * Method test.
+		 * @param viewer Player
+		 * @param other Player
+		 * @return boolean
+		 */
+		abstract boolean test(Player viewer, Player other);
+		
+		/**
+		 * Method parse.
+		 * @param value String
+		 * @return Priority[]
+		 */
+		public static Priority[] parse(String value)
+		{
+			List<Priority> result = new ArrayList<>();
+			
+			for (String name : value.trim().split("[\\s,;]+"))
+			{
+				if (!name.isEmpty())
+				{
+					result.add(valueOf(name.toUpperCase()));
+				}
+			}
+			
+			return result.toArray(new Priority[result.size()]);
+		}
+	}
+	
+	/**
+	 * @author Mobius
+	 */
+	private static class Candidate implements Comparable<Candidate>
+	{
+		final Player player;
+		final int rank;
+		final long distance;
+		
+		/**
+		 * Constructor for Candidate.
+		 * @param player Player
+		 * @param rank int
+		 * @param distance long
+		 */
+		Candidate(Player player, int rank, long distance)
+		{
+			this.player = player;
+			this.rank = rank;
+			this.distance = distance;
+		}
+		
+		/**
+		 * Method compareTo.
+		 * @param o Candidate
+		 * @return int
+		 */
+		@Override
+		public int compareTo(Candidate o)
+		{
+			if (rank != o.rank)
+			{
+				return rank < o.rank ? -1 : 1;
+			}
+			
+			return Long.compare(distance, o.distance);
+		}
+	}
+	
+	private static Priority[] _defaultPriorities;
+	private final Player _owner;
+	private final TIntHashSet _shown = new TIntHashSet();
+	private volatile int _limit;
+	private Priority[] _priorities;
+	private Future<?> _updateTask;
+	
+	/**
+	 * Constructor for PlayerVisibility.
+	 * @param owner Player
+	 */
+	PlayerVisibility(Player owner)
+	{
+		_owner = owner;
+		_limit = Config.VISIBLE_PLAYERS_LIMIT;
+		_priorities = getDefaultPriorities();
+	}
+	
+	/**
+	 * Method getDefaultPriorities.
+	 * @return Priority[]
+	 */
+	private static Priority[] getDefaultPriorities()
+	{
+		if (_defaultPriorities == null)
+		{
+			_defaultPriorities = Priority.parse(Config.VISIBLE_PLAYERS_PRIORITY);
+		}
+		
+		return _defaultPriorities;
+	}
+	
+	/**
+	 * Method getLimit.
+	 * @return int 0 if every player around is shown
+	 */
+	public int getLimit()
+	{
+		return _limit;
+	}
+	
+	/**
+	 * Method isShown.
+	 * @param other Player
+	 * @return boolean
+	 */
+	public boolean isShown(Player other)
+	{
+		if (_limit <= 0)
+		{
+			return true;
+		}
+		
+		synchronized (this)
+		{
+			return _shown.contains(other.getObjectId());
+		}
+	}
+	
+	/**
+	 * Called before the other player is shown to the owner.<br>
+	 * Past the limit, a priority player is only shown if update() would keep it, so that it is not hidden again on the next pass.
+	 * @param other Player
+	 * @return boolean false if there is no free slot for the other player
+	 */
+	boolean canShow(Player other)
+	{
+		int limit = _limit;
+		
+		if (limit <= 0)
+		{
+			return true;
+		}
+		
+		int objectId = other.getObjectId();
+		
+		synchronized (this)
+		{
+			if (_shown.contains(objectId))
+			{
+				return true;
+			}
+			
+			if (_shown.size() < limit)
+			{
+				_shown.add(objectId);
+				return true;
+			}
+		}
+		
+		int rank = getRank(other);
+		int keep = getKeep(limit);
+		
+		if ((rank == _priorities.length) || (getIndex(new Candidate(other, rank, _owner.getSqDistance(other)), keep) >= keep))
+		{
+			return false;
+		}
+		
+		synchronized (this)
+		{
+			if (_shown.contains(objectId) || (_shown.size() < keep))
+			{
+				_shown.add(objectId);
+				return true;
+			}
+			
+			return false;
+		}
+	}
+	
+	/**
+	 * Method getKeep.
+	 * @param limit int
+	 * @return int the number of ranked players a shown player may fall behind before it is hidden
+	 */
+	private static int getKeep(int limit)
+	{
+		return limit + Math.max(0, Config.VISIBLE_PLAYERS_HYSTERESIS);
+	}
+	
+	/**
+	 * Ranks the candidate among the players around the owner the way update() does.
+	 * @param candidate Candidate
+	 * @param max int the counting stops there
+	 * @return int the number of players ranked before the candidate, at most max
+	 */
+	private int getIndex(Candidate candidate, int max)
+	{
+		int index = 0;
+		
+		for (Player player : World.getAroundPlayers(_owner))
+		{
+			if ((player == candidate.player) || player.isInvisible())
+			{
+				continue;
+			}
+			
+			if ((new Candidate(player, getRank(player), _owner.getSqDistance(player)).compareTo(candidate) < 0) && (++index >= max))
+			{
+				break;
+			}
+		}
+		
+		return index;
+	}
+	
+	/**
+	 * Called when the other player is removed from the owner's view.
+	 * @param other Player
+	 */
+	void onRemove(Player other)
+	{
+		if (_limit <= 0)
+		{
+			return;
+		}
+		
+		synchronized (this)
+		{
+			_shown.remove(other.getObjectId());
+		}
+	}
+	
+	/**
+	 * Method getRank.
+	 * @param other Player
+	 * @return int index of the first matching priority, or the number of priorities if none matches
+	 */
+	private int getRank(Player other)
+	{
+		Priority[] priorities = _priorities;
+		
+		for (int i = 0; i < priorities.length; i++)
+		{
+			if (priorities[i].test(_owner, other))
+			{
+				return i;
+			}
+		}
+		
+		return priorities.length;
+	}
+	
+	/**
+	 * Re-reads the limit and the priorities from the zones of the owner.
+	 */
+	public void updateLimit()
+	{
+		Zone zone = _owner.getVisibilityZone();
+		int limit = zone == null ? Config.VISIBLE_PLAYERS_LIMIT : zone.getTemplate().getVisiblePlayersLimit();
+		Priority[] priorities = (zone == null) || (zone.getTemplate().getVisiblePlayersPriority() == null) ? getDefaultPriorities() : zone.getTemplate().getVisiblePlayersPriority();
+		List<Player> hidden = null;
+		
+		synchronized (this)
+		{
+			_priorities = priorities;
+			
+			if (limit == _limit)
+			{
+				if ((limit > 0) && (_updateTask == null) && _owner.isVisible())
+				{
+					startUpdateTask();
+				}
+				
+				return;
+			}
+			
+			if ((_limit <= 0) && _owner.isVisible())
+			{
+				for (Player player : World.getAroundPlayers(_owner))
+				{
+					_shown.add(player.getObjectId());
+				}
+			}
+			else if (limit <= 0)
+			{
+				hidden = new ArrayList<>();
+				
+				for (Player player : World.getAroundPlayers(_owner))
+				{
+					if (!_shown.contains(player.getObjectId()))
+					{
+						hidden.add(player);
+					}
+				}
+				
+				_shown.clear();
+			}
+			
+			_limit = limit;
+			
+			if (limit <= 0)
+			{
+				stopUpdateTask();
+			}
+			else if ((_updateTask == null) && _owner.isVisible())
+			{
+				startUpdateTask();
+			}
+		}
+		
+		if (hidden != null)
+		{
+			for (Player player : hidden)
+			{
+				_owner.sendPacket(_owner.addVisibleObject(player, null));
+			}
+		}
+		else if (limit > 0)
+		{
+			update();
+		}
+	}
+	
+	/**
+	 * Method startUpdateTask.
+	 */
+	private void startUpdateTask()
+	{
+		_updateTask = LazyPrecisionTaskManager.getInstance().scheduleAtFixedRate(new RunnableImpl()
+		{
+			@Override
+			public void runImpl()
+			{
+				update();
+			}
+		}, Config.VISIBLE_PLAYERS_UPDATE_INTERVAL, Config.VISIBLE_PLAYERS_UPDATE_INTERVAL);
+	}
+	
+	/**
+	 * Method stopUpdateTask.
+	 */
+	private void stopUpdateTask()
+	{
+		if (_updateTask != null)
+		{
+			_updateTask.cancel(false);
+			_updateTask = null;
+		}
+	}
+	
+	/**
+	 * Called when the owner leaves the world, the shown players are forgotten together with the client side objects.
+	 */
+	public void stop()
+	{
+		synchronized (this)
+		{
+			stopUpdateTask();
+			_shown.clear();
+		}
+	}
+	
+	/**
+	 * Ranks the players around the owner and sends the difference to the shown set.
+	 */
+	public void update()
+	{
+		int limit = _limit;
+		
+		if ((limit <= 0) || !_owner.isVisible() || _owner.isLogoutStarted())
+		{
+			return;
+		}
+		
+		List<Player> around = World.getAroundPlayers(_owner);
+		Candidate[] candidates = new Candidate[around.size()];
+		int size = 0;
+		
+		for (Player player : around)
+		{
+			if (!player.isInvisible())
+			{
+				candidates[size++] = new Candidate(player, getRank(player), _owner.getSqDistance(player));
+			}
+		}
+		
+		Arrays.sort(candidates, 0, size);
+		List<Player> toShow = new ArrayList<>();
+		List<Player> toHide = new ArrayList<>();
+		
+		synchronized (this)
+		{
+			TIntHashSet shown = new TIntHashSet(_shown);
+			int keep = getKeep(limit);
+			
+			for (int i = 0; i < size; i++)
+			{
+				Player player = candidates[i].player;
+				int objectId = player.getObjectId();
+				
+				if (shown.remove(objectId))
+				{
+					if (i >= keep)
+					{
+						_shown.remove(objectId);
+						toHide.add(player);
+					}
+				}
+				else if (i < limit)
+				{
+					_shown.add(objectId);
+					toShow.add(player);
+				}
+			}
+			
+			// Left players have been removed from the client already, just forget them
+			_shown.removeAll(shown);
+		}
+		
+		for (Player player : toHide)
+		{
+			_owner.sendPacket(_owner.removeVisibleObject(player, null));
+		}
+		
+		for (Player player : toShow)
+		{
+			_owner.sendPacket(_owner.addVisibleObject(player, null));
+		}
+	}
+}
@@ -0,0 +1,231 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.gameserver.model;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import lineage2.commons.threading.LatencyHistogram;
+import lineage2.gameserver.ThreadPoolManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The stages of one character restore. Loads that no other stage reads are handed to the database lane and run while the restoring thread goes on with the stages depending on each other; the player is only returned once all of them are done.<br>
+ * Every stage is timed. The times of all restores are kept per stage, a slow restore logs the times of its own stages.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public final class RestorePipeline
+{
+	private static final Logger _log = LoggerFactory.getLogger(RestorePipeline.class);
+	/** A restore taking longer than this logs the times of its stages. */
+	private static final long SLOW_RESTORE = TimeUnit.SECONDS.toNanos(1);
+	private static final Map<String, LatencyHistogram> _stageTimes = new ConcurrentSkipListMap<>();
+	private static final LatencyHistogram _restoreTimes = new LatencyHistogram();
+	private final int _objectId;
+	private final long _start = System.nanoTime();
+	private final Map<String, Future<?>> _pending = new LinkedHashMap<>();
+	private final Map<String, Long> _times = new ConcurrentHashMap<>();
+	
+	/**
+	 * Constructor for RestorePipeline.
+	 * @param objectId int
+	 */
+	RestorePipeline(int objectId)
+	{
+		_objectId = objectId;
+	}
+	
+	/**
+	 * Starts the stage on the database lane.
+	 * @param stage String
+	 * @param load Runnable
+	 */
+	void submit(final String stage, final Runnable load)
+	{
+		_pending.put(stage, ThreadPoolManager.getInstance().submitDatabase(() -> run(stage, load)));
+	}
+	
+	/**
+	 * Runs the stage on the calling thread.
+	 * @param stage String
+	 * @param load Runnable
+	 */
+	void run(String stage, Runnable load)
+	{
+		long start = System.nanoTime();
+		
+		try
+		{
+			load.run();
+		}
+		finally
+		{
+			long time = System.nanoTime() - start;
+			_times.put(stage, time);
+			_stageTimes.computeIfAbsent(stage, k -> new LatencyHistogram()).record(time);
+		}
+	}
+	
+	/**
+	 * Waits for a submitted stage.
+	 * @param stage String
+	 * @throws Exception the failure of the stage
+	 */
+	void await(String stage) throws Exception
+	{
+		Future<?> future = _pending.remove(stage);
+		
+		if (future != null)
+		{
+			get(future);
+		}
+	}
+	
+	/**
+	 * Waits for all submitted stages, even when one of them failed.
+	 * @throws Exception the first failure
+	 */
+	void awaitAll() throws Exception
+	{
+		Exception failure = null;
+		
+		for (Iterator<Future<?>> iterator = _pending.values().iterator(); iterator.hasNext();)
+		{
+			Future<?> future = iterator.next();
+			iterator.remove();
+			
+			try
+			{
+				get(future);
+			}
+			catch (Exception e)
+			{
+				if (failure == null)
+				{
+					failure = e;
+				}
+			}
+		}
+		
+		if (failure != null)
+		{
+			throw failure;
+		}
+	}
+	
+	/**
+	 * Waits for the stages still running after a failed restore, so none of them writes into the player once it is returned, and records the restore.
+	 */
+	void close()
+	{
+		try
+		{
+			awaitAll();
+		}
+		catch (Exception e)
+		{
+			_log.error("RestorePipeline: stage of character " + _objectId + " failed", e);
+		}
+		
+		long time = System.nanoTime() - _start;
+		_restoreTimes.record(time);
+		
+		if (time > SLOW_RESTORE)
+		{
+			StringBuilder sb = new StringBuilder("RestorePipeline: character ").append(_objectId).append(" restored in ").append(TimeUnit.NANOSECONDS.toMillis(time)).append(" ms:");
+			
+			for (Map.Entry<String, Long> entry : _times.entrySet())
+			{
+				sb.append(' ').append(entry.getKey()).append('=').append(TimeUnit.NANOSECONDS.toMillis(entry.getValue())).append("ms");
+			}
+			
+			_log.warn(sb.toString());
+		}
+	}
+	
+	/**
+	 * Method get.
+	 * @param future Future<?>
+	 * @throws Exception
+	 */
+	private static void get(Future<?> future) throws Exception
+	{
+		try
+		{
+			future.get();
+		}
+		catch (ExecutionException e)
+		{
+			Throwable cause = e.getCause();
+			
+			if (cause instanceof Exception)
+			{
+				throw (Exception) cause;
+			}
+			
+			throw e;
+		}
+	}
+	
+	/**
+	 * Method getStats.
+	 * @return CharSequence the times of the whole restore and of every stage
+	 */
+	public static CharSequence getStats()
+	{
+		StringBuilder list = new StringBuilder();
+		list.append("Character restore\n");
+		list.append("=================================================\n");
+		list.append("\tCount: ").append(_restoreTimes.getCount()).append('\n');
+		appendHistogram(list, "total", _restoreTimes);
+		
+		for (Map.Entry<String, LatencyHistogram> entry : _stageTimes.entrySet())
+		{
+			appendHistogram(list, entry.getKey(), entry.getValue());
+		}
+		
+		return list;
+	}
+	
+	/**
+	 * Method appendHistogram.
+	 * @param list StringBuilder
+	 * @param name String
+	 * @param histogram LatencyHistogram
+	 */
+	private static void appendHistogram(StringBuilder list, String name, LatencyHistogram histogram)
+	{
+		if (histogram.getCount() == 0)
+		{
+			return;
+		}
+		
+		long[] percentiles = histogram.getPercentiles(50, 99, 99.9);
+		list.append('\t').append(name).append(" (us): ");
+		list.append("min=").append(TimeUnit.NANOSECONDS.toMicros(histogram.getMin()));
+		list.append(" avg=").append(TimeUnit.NANOSECONDS.toMicros(histogram.getAverage()));
+		list.append(" p50=").append(TimeUnit.NANOSECONDS.toMicros(percentiles[0]));
+		list.append(" p99=").append(TimeUnit.NANOSECONDS.toMicros(percentiles[1]));
+		list.append(" p999=").append(TimeUnit.NANOSECONDS.toMicros(percentiles[2]));
+		list.append(" max=").append(TimeUnit.NANOSECONDS.toMicros(histogram.getMax())).append('\n');
+	}
+}
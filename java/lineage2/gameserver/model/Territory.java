@@ -155,6 +155,37 @@ public class Territory implements Shape, SpawnRange
 		return false;
 	}
 	
+	/**
+	 * Method crosses.
+	 * @param xmin int
+	 * @param ymin int
+	 * @param xmax int
+	 * @param ymax int
+	 * @return boolean
+	 * @see lineage2.commons.geometry.Shape#crosses(int, int, int, int)
+	 */
+	@Override
+	public boolean crosses(int xmin, int ymin, int xmax, int ymax)
+	{
+		for (int i = 0; i < include.size(); i++)
+		{
+			if (include.get(i).crosses(xmin, ymin, xmax, ymax))
+			{
+				return true;
+			}
+		}
+		
+		for (int i = 0; i < exclude.size(); i++)
+		{
+			if (exclude.get(i).crosses(xmin, ymin, xmax, ymax))
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
 	/**
 	 * Method isExcluded.
 	 * @param x int
@@ -183,6 +183,35 @@ public class World
 		return z;
 	}
 	
+	/**
+	 * Method getRegionMinX.
+	 * @param region WorldRegion
+	 * @return int the smallest x of the region
+	 */
+	static int getRegionMinX(WorldRegion region)
+	{
+		return (region.getX() - OFFSET_X) << SHIFT_BY;
+	}
+	
+	/**
+	 * Method getRegionMinY.
+	 * @param region WorldRegion
+	 * @return int the smallest y of the region
+	 */
+	static int getRegionMinY(WorldRegion region)
+	{
+		return (region.getY() - OFFSET_Y) << SHIFT_BY;
+	}
+	
+	/**
+	 * Method getRegionSize.
+	 * @return int the side of a region
+	 */
+	static int getRegionSize()
+	{
+		return 1 << SHIFT_BY;
+	}
+	
 	/**
 	 * Method regionX.
 	 * @param x int
@@ -228,6 +257,25 @@ public class World
 		return (x1 <= (x2 + 1)) && (x1 >= (x2 - 1)) && (y1 <= (y2 + 1)) && (y1 >= (y2 - 1)) && (z1 <= (z2 + 1)) && (z1 >= (z2 - 1));
 	}
 	
+	/**
+	 * Method isAround.
+	 * @param object GameObject
+	 * @param other GameObject
+	 * @return boolean true if the other object is in the regions returned by the getAround methods for the object
+	 */
+	public static boolean isAround(GameObject object, GameObject other)
+	{
+		WorldRegion currentRegion = object.getCurrentRegion();
+		WorldRegion otherRegion = other.getCurrentRegion();
+		
+		if ((currentRegion == null) || (otherRegion == null) || (object == other) || (object.getReflectionId() != other.getReflectionId()))
+		{
+			return false;
+		}
+		
+		return isNeighbour(currentRegion.getX(), currentRegion.getY(), currentRegion.getZ(), otherRegion.getX(), otherRegion.getY(), otherRegion.getZ());
+	}
+	
 	/**
 	 * Method getRegion.
 	 * @param loc Location
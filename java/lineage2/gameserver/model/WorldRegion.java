@@ -77,6 +77,9 @@ public final class WorldRegion implements Iterable<GameObject>
 	private volatile GameObject[] _objects = GameObject.EMPTY_L2OBJECT_ARRAY;
 	private int _objectsCount = 0;
 	private volatile Zone[] _zones = Zone.EMPTY_L2ZONE_ARRAY;
+	/** Zone cells of the region, built on the first lookup after the zones changed. */
+	private volatile ZoneCell[] _zoneCells;
+	private volatile ZoneCell _exactZoneCell = ZoneCell.EMPTY;
 	private int _playersCount = 0;
 	private final AtomicBoolean _isActive = new AtomicBoolean();
 	private Future<?> _activateTask;
@@ -393,6 +396,7 @@ public final class WorldRegion implements Iterable<GameObject>
 		try
 		{
 			_zones = ArrayUtils.add(_zones, zone);
+			_zoneCells = null;
 		}
 		finally
 		{
@@ -411,6 +415,7 @@ public final class WorldRegion implements Iterable<GameObject>
 		try
 		{
 			_zones = ArrayUtils.remove(_zones, zone);
+			_zoneCells = null;
 		}
 		finally
 		{
@@ -427,6 +432,52 @@ public final class WorldRegion implements Iterable<GameObject>
 		return _zones;
 	}
 	
+	/**
+	 * Method getZoneCell.
+	 * @param x int
+	 * @param y int
+	 * @return ZoneCell the zones that may hold the point
+	 */
+	ZoneCell getZoneCell(int x, int y)
+	{
+		ZoneCell[] cells = _zoneCells;
+		
+		if (cells == null)
+		{
+			lock.lock();
+			
+			try
+			{
+				if ((cells = _zoneCells) == null)
+				{
+					Zone[] zones = _zones;
+					_exactZoneCell = ZoneCell.exact(zones);
+					_zoneCells = cells = zones.length == 0 ? new ZoneCell[0] : ZoneCell.build(zones, World.getRegionMinX(this), World.getRegionMinY(this), World.getRegionSize());
+				}
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+		
+		if (cells.length == 0)
+		{
+			return ZoneCell.EMPTY;
+		}
+		
+		int size = World.getRegionSize();
+		int cx = x - World.getRegionMinX(this);
+		int cy = y - World.getRegionMinY(this);
+		
+		if ((cx < 0) || (cy < 0) || (cx >= size) || (cy >= size))
+		{
+			return _exactZoneCell;
+		}
+		
+		return cells[((cy >> ZoneCell.CELL_SHIFT) * Math.max(1, size >> ZoneCell.CELL_SHIFT)) + (cx >> ZoneCell.CELL_SHIFT)];
+	}
+	
 	/**
 	 * Method toString.
 	 * @return String
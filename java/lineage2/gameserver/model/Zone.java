@@ -12,10 +12,9 @@
  */
 package lineage2.gameserver.model;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -24,7 +23,6 @@ import lineage2.commons.collections.LazyArrayList;
 import lineage2.commons.collections.MultiValueSet;
 import lineage2.commons.listener.Listener;
 import lineage2.commons.listener.ListenerList;
-import lineage2.commons.threading.RunnableImpl;
 import lineage2.commons.util.Rnd;
 import lineage2.gameserver.listener.zone.OnZoneEnterLeaveListener;
 import lineage2.gameserver.model.base.Race;
@@ -34,11 +32,14 @@ import lineage2.gameserver.network.serverpackets.L2GameServerPacket;
 import lineage2.gameserver.network.serverpackets.SystemMessage;
 import lineage2.gameserver.stats.Stats;
 import lineage2.gameserver.stats.funcs.FuncAdd;
-import lineage2.gameserver.taskmanager.EffectTaskManager;
+import lineage2.gameserver.taskmanager.ZoneEffectManager;
 import lineage2.gameserver.templates.ZoneTemplate;
 import lineage2.gameserver.utils.Location;
 import lineage2.gameserver.utils.PositionUtils;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 /**
  * @author Mobius
  * @version $Revision: 1.0 $
@@ -46,6 +47,8 @@ import lineage2.gameserver.utils.PositionUtils;
 public class Zone
 {
 	static final Zone[] EMPTY_L2ZONE_ARRAY = new Zone[0];
+	private static final Logger _log = LoggerFactory.getLogger(Zone.class);
+	private static final AtomicInteger _nextIndex = new AtomicInteger();
 	
 	/**
 	 * @author Mobius
@@ -95,155 +98,90 @@ public class Zone
 	public static final String BLOCKED_ACTION_MINIMAP = "open_minimap";
 	
 	/**
+	 * Skill or damage applied to one creature inside the zone, run by the ZoneEffectManager when due.
 	 * @author Mobius
 	 */
-	private abstract class ZoneTimer extends RunnableImpl
+	private class ZoneEffect
 	{
-		protected Creature cha;
-		protected Future<?> future;
-		protected boolean active;
+		final Creature cha;
+		private final boolean skill;
+		volatile long next;
 		
 		/**
-		 * Constructor for ZoneTimer.
+		 * Constructor for ZoneEffect.
 		 * @param cha Creature
+		 * @param skill boolean
 		 */
-		public ZoneTimer(Creature cha)
+		ZoneEffect(Creature cha, boolean skill)
 		{
 			this.cha = cha;
-		}
-		
-		/**
-		 * Method start.
-		 */
-		public void start()
-		{
-			active = true;
-			future = EffectTaskManager.getInstance().schedule(this, getTemplate().getInitialDelay() * 1000L);
+			this.skill = skill;
+			next = System.currentTimeMillis() + (getTemplate().getInitialDelay() * 1000L);
 		}
 		
 		/**
 		 * Method stop.
 		 */
-		public void stop()
+		void stop()
 		{
-			active = false;
-			
-			if (future != null)
-			{
-				future.cancel(false);
-				future = null;
-			}
+			next = Long.MAX_VALUE;
 		}
 		
 		/**
-		 * Method next.
+		 * Applies the effect, then sets the next run or stops for good as the former timers did.
+		 * @param now long
 		 */
-		public void next()
+		void run(long now)
 		{
-			if (!active)
+			if (!isActive() || !checkTarget(cha) || !(skill ? applySkill() : applyDamage()))
 			{
+				stop();
 				return;
 			}
 			
 			if ((getTemplate().getUnitTick() == 0) && (getTemplate().getRandomTick() == 0))
 			{
+				stop();
 				return;
 			}
 			
-			future = EffectTaskManager.getInstance().schedule(this, (getTemplate().getUnitTick() + Rnd.get(0, getTemplate().getRandomTick())) * 1000L);
-		}
-		
-		/**
-		 * Method runImpl.
-		 * @throws Exception
-		 */
-		@Override
-		public abstract void runImpl() throws Exception;
-	}
-	
-	/**
-	 * @author Mobius
-	 */
-	private class SkillTimer extends ZoneTimer
-	{
-		/**
-		 * Constructor for SkillTimer.
-		 * @param cha Creature
-		 */
-		public SkillTimer(Creature cha)
-		{
-			super(cha);
+			next = now + ((getTemplate().getUnitTick() + Rnd.get(0, getTemplate().getRandomTick())) * 1000L);
 		}
 		
 		/**
-		 * Method runImpl.
+		 * Method applySkill.
+		 * @return boolean false when the zone has no skill
 		 */
-		@Override
-		public void runImpl()
+		private boolean applySkill()
 		{
-			if (!isActive())
-			{
-				return;
-			}
-			
-			if (!checkTarget(cha))
-			{
-				return;
-			}
+			Skill zoneSkill = getZoneSkill();
 			
-			Skill skill = getZoneSkill();
-			
-			if (skill == null)
+			if (zoneSkill == null)
 			{
-				return;
+				return false;
 			}
 			
 			if (Rnd.chance(getTemplate().getSkillProb()) && !cha.isDead())
 			{
-				skill.getEffects(cha, cha, false, false);
+				zoneSkill.getEffects(cha, cha, false, false);
 			}
 			
-			next();
-		}
-	}
-	
-	/**
-	 * @author Mobius
-	 */
-	private class DamageTimer extends ZoneTimer
-	{
-		/**
-		 * Constructor for DamageTimer.
-		 * @param cha Creature
-		 */
-		public DamageTimer(Creature cha)
-		{
-			super(cha);
+			return true;
 		}
 		
 		/**
-		 * Method runImpl.
+		 * Method applyDamage.
+		 * @return boolean false when the zone does no damage
 		 */
-		@Override
-		public void runImpl()
+		private boolean applyDamage()
 		{
-			if (!isActive())
-			{
-				return;
-			}
-			
-			if (!checkTarget(cha))
-			{
-				return;
-			}
-			
 			int hp = getDamageOnHP();
 			int mp = getDamageOnMP();
 			int message = getDamageMessageId();
 			
 			if ((hp == 0) && (mp == 0))
 			{
-				return;
+				return false;
 			}
 			
 			if (hp > 0)
@@ -266,7 +204,7 @@ public class Zone
 				}
 			}
 			
-			next();
+			return true;
 		}
 	}
 	
@@ -320,8 +258,10 @@ public class Zone
 	private final Lock readLock = lock.readLock();
 	private final Lock writeLock = lock.writeLock();
 	private final List<Creature> _objects = new LazyArrayList<>(32);
-	private final Map<Creature, ZoneTimer> _zoneTimers = new ConcurrentHashMap<>();
+	/** Effects of the affected creatures inside, replaced on enter and leave so the ticks read it without copying. */
+	private volatile ZoneEffect[] _effects = new ZoneEffect[0];
 	private final static int ZONE_STATS_ORDER = 0x40;
+	private final int _index = _nextIndex.getAndIncrement();
 	
 	/**
 	 * Constructor for Zone.
@@ -344,6 +284,15 @@ public class Zone
 		_params = template.getParams();
 	}
 	
+	/**
+	 * Method getIndex.
+	 * @return int the creation order of the zone, zone arrays of regions and creatures are sorted by it
+	 */
+	int getIndex()
+	{
+		return _index;
+	}
+	
 	/**
 	 * Method getTemplate.
 	 * @return ZoneTemplate
@@ -794,25 +743,16 @@ public class Zone
 			{
 				if (getZoneSkill() != null)
 				{
-					ZoneTimer timer = new SkillTimer(cha);
-					_zoneTimers.put(cha, timer);
-					timer.start();
+					addEffect(new ZoneEffect(cha, true));
 				}
 				else if ((getDamageOnHP() > 0) || (getDamageOnHP() > 0))
 				{
-					ZoneTimer timer = new DamageTimer(cha);
-					_zoneTimers.put(cha, timer);
-					timer.start();
+					addEffect(new ZoneEffect(cha, false));
 				}
 			}
 			else
 			{
-				ZoneTimer timer = _zoneTimers.remove(cha);
-				
-				if (timer != null)
-				{
-					timer.stop();
-				}
+				removeEffect(cha);
 				
 				if (getZoneSkill() != null)
 				{
@@ -822,6 +762,106 @@ public class Zone
 		}
 	}
 	
+	/**
+	 * Method addEffect.
+	 * @param effect ZoneEffect
+	 */
+	private void addEffect(ZoneEffect effect)
+	{
+		writeLock.lock();
+		
+		try
+		{
+			ZoneEffect[] effects = _effects;
+			
+			for (int i = 0; i < effects.length; i++)
+			{
+				if (effects[i].cha == effect.cha)
+				{
+					effects[i].stop();
+					effects = effects.clone();
+					effects[i] = effect;
+					_effects = effects;
+					return;
+				}
+			}
+			
+			effects = Arrays.copyOf(effects, effects.length + 1);
+			effects[effects.length - 1] = effect;
+			_effects = effects;
+			
+			if (effects.length == 1)
+			{
+				ZoneEffectManager.getInstance().add(this);
+			}
+		}
+		finally
+		{
+			writeLock.unlock();
+		}
+	}
+	
+	/**
+	 * Method removeEffect.
+	 * @param cha Creature
+	 */
+	private void removeEffect(Creature cha)
+	{
+		writeLock.lock();
+		
+		try
+		{
+			ZoneEffect[] effects = _effects;
+			
+			for (int i = 0; i < effects.length; i++)
+			{
+				if (effects[i].cha == cha)
+				{
+					effects[i].stop();
+					ZoneEffect[] result = new ZoneEffect[effects.length - 1];
+					System.arraycopy(effects, 0, result, 0, i);
+					System.arraycopy(effects, i + 1, result, i, result.length - i);
+					_effects = result;
+					
+					if (result.length == 0)
+					{
+						ZoneEffectManager.getInstance().remove(this);
+					}
+					
+					return;
+				}
+			}
+		}
+		finally
+		{
+			writeLock.unlock();
+		}
+	}
+	
+	/**
+	 * Runs the due effects of the creatures inside, called by the ZoneEffectManager on every tick while one is inside.
+	 * @param now long
+	 */
+	public void runEffects(long now)
+	{
+		for (ZoneEffect effect : _effects)
+		{
+			if (now >= effect.next)
+			{
+				try
+				{
+					effect.run(now);
+				}
+				catch (Exception e)
+				{
+					// a failing effect would throw again on every tick and keep the others of the zone from running
+					effect.stop();
+					_log.error("Zone: error in effect of zone " + getName() + " on " + effect.cha, e);
+				}
+			}
+		}
+	}
+	
 	/**
 	 * Method checkTarget.
 	 * @param cha Creature
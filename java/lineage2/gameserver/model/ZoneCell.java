@@ -0,0 +1,226 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.gameserver.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import lineage2.commons.geometry.Shape;
+import lineage2.gameserver.model.entity.Reflection;
+
+/**
+ * The zones of a square of a world region. Each zone is precomputed as covering the whole square, needing only its z range, or as crossing its border, needing the exact territory test; zones missing the square are not listed.<br>
+ * The zones are sorted by index, so the zones of a creature can be compared against them in one pass.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+final class ZoneCell
+{
+	/** Side of the square, 256 units. */
+	static final int CELL_SHIFT = 8;
+	static final ZoneCell EMPTY = new ZoneCell(Zone.EMPTY_L2ZONE_ARRAY, new int[0], new int[0]);
+	private final Zone[] _zones;
+	/** Z range of a covering zone; a border zone has zmin above zmax. */
+	private final int[] _zmin;
+	private final int[] _zmax;
+	
+	/**
+	 * Constructor for ZoneCell.
+	 * @param zones Zone[]
+	 * @param zmin int[]
+	 * @param zmax int[]
+	 */
+	private ZoneCell(Zone[] zones, int[] zmin, int[] zmax)
+	{
+		_zones = zones;
+		_zmin = zmin;
+		_zmax = zmax;
+	}
+	
+	/**
+	 * Method getZones.
+	 * @return Zone[] sorted by index
+	 */
+	Zone[] getZones()
+	{
+		return _zones;
+	}
+	
+	/**
+	 * Tells whether the point is in the zone of the given position, with the same answer as Zone.checkIfInZone.
+	 * @param i int position in getZones()
+	 * @param x int
+	 * @param y int
+	 * @param z int
+	 * @param reflection Reflection
+	 * @return boolean
+	 */
+	boolean isInside(int i, int x, int y, int z, Reflection reflection)
+	{
+		Zone zone = _zones[i];
+		
+		if (_zmin[i] > _zmax[i])
+		{
+			return zone.checkIfInZone(x, y, z, reflection);
+		}
+		
+		return zone.isActive() && (zone.getReflection() == reflection) && (z >= _zmin[i]) && (z <= _zmax[i]);
+	}
+	
+	/**
+	 * Builds the cells of a region, row after row.
+	 * @param zones Zone[] the zones of the region
+	 * @param xmin int
+	 * @param ymin int
+	 * @param size int side of the region
+	 * @return ZoneCell[]
+	 */
+	static ZoneCell[] build(Zone[] zones, int xmin, int ymin, int size)
+	{
+		Zone[] sorted = sort(zones);
+		int count = Math.max(1, size >> CELL_SHIFT);
+		ZoneCell[] cells = new ZoneCell[count * count];
+		List<Zone> cellZones = new ArrayList<>(sorted.length);
+		int[] zmin = new int[sorted.length];
+		int[] zmax = new int[sorted.length];
+		int[] bounds = new int[2];
+		
+		for (int cy = 0; cy < count; cy++)
+		{
+			for (int cx = 0; cx < count; cx++)
+			{
+				int x1 = xmin + (cx << CELL_SHIFT);
+				int y1 = ymin + (cy << CELL_SHIFT);
+				int x2 = (x1 + (1 << CELL_SHIFT)) - 1;
+				int y2 = (y1 + (1 << CELL_SHIFT)) - 1;
+				cellZones.clear();
+				
+				for (Zone zone : sorted)
+				{
+					if (classify(zone.getTerritory(), x1, y1, x2, y2, bounds))
+					{
+						zmin[cellZones.size()] = bounds[0];
+						zmax[cellZones.size()] = bounds[1];
+						cellZones.add(zone);
+					}
+				}
+				
+				cells[(cy * count) + cx] = cellZones.isEmpty() ? EMPTY : new ZoneCell(cellZones.toArray(new Zone[cellZones.size()]), Arrays.copyOf(zmin, cellZones.size()), Arrays.copyOf(zmax, cellZones.size()));
+			}
+		}
+		
+		return cells;
+	}
+	
+	/**
+	 * Builds a cell checking every zone exactly, for the points outside the nominal bounds of a region.
+	 * @param zones Zone[]
+	 * @return ZoneCell
+	 */
+	static ZoneCell exact(Zone[] zones)
+	{
+		if (zones.length == 0)
+		{
+			return EMPTY;
+		}
+		
+		int[] zmin = new int[zones.length];
+		int[] zmax = new int[zones.length];
+		Arrays.fill(zmin, Integer.MAX_VALUE);
+		Arrays.fill(zmax, Integer.MIN_VALUE);
+		return new ZoneCell(sort(zones), zmin, zmax);
+	}
+	
+	/**
+	 * Method sort.
+	 * @param zones Zone[]
+	 * @return Zone[] a copy sorted by index
+	 */
+	private static Zone[] sort(Zone[] zones)
+	{
+		Zone[] sorted = zones.clone();
+		Arrays.sort(sorted, (z1, z2) -> Integer.compare(z1.getIndex(), z2.getIndex()));
+		return sorted;
+	}
+	
+	/**
+	 * Places the territory against the square. The square is widened by one unit, so no point of it lies on a border left out.
+	 * @param territory Territory
+	 * @param x1 int
+	 * @param y1 int
+	 * @param x2 int
+	 * @param y2 int
+	 * @param bounds int[] receives the z range when the territory covers the square, or zmin above zmax when it crosses it
+	 * @return boolean false when the territory misses the square
+	 */
+	private static boolean classify(Territory territory, int x1, int y1, int x2, int y2, int[] bounds)
+	{
+		int cx = (x1 + x2) >> 1;
+		int cy = (y1 + y2) >> 1;
+		x1--;
+		y1--;
+		x2++;
+		y2++;
+		
+		if ((territory == null) || (x2 < territory.getXmin()) || (x1 > territory.getXmax()) || (y2 < territory.getYmin()) || (y1 > territory.getYmax()))
+		{
+			return false;
+		}
+		
+		bounds[0] = Integer.MAX_VALUE;
+		bounds[1] = Integer.MIN_VALUE;
+		
+		if ((x1 < territory.getXmin()) || (x2 > territory.getXmax()) || (y1 < territory.getYmin()) || (y2 > territory.getYmax()))
+		{
+			return true;
+		}
+		
+		for (Shape shape : territory.getBannedTerritories())
+		{
+			if (shape.crosses(x1, y1, x2, y2) || shape.isInside(cx, cy))
+			{
+				return true;
+			}
+		}
+		
+		Shape covering = null;
+		
+		for (Shape shape : territory.getTerritories())
+		{
+			if (shape.crosses(x1, y1, x2, y2))
+			{
+				return true;
+			}
+			
+			if (shape.isInside(cx, cy))
+			{
+				if (covering != null)
+				{
+					return true;
+				}
+				
+				covering = shape;
+			}
+		}
+		
+		if (covering == null)
+		{
+			return false;
+		}
+		
+		bounds[0] = covering.getZmin();
+		bounds[1] = covering.getZmax();
+		return true;
+	}
+}
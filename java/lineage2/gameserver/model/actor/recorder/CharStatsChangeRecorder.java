@@ -12,7 +12,12 @@
  */
 package lineage2.gameserver.model.actor.recorder;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import javolution.util.FastList;
+import lineage2.commons.threading.RunnableImpl;
+import lineage2.gameserver.Config;
+import lineage2.gameserver.ThreadPoolManager;
 import lineage2.gameserver.model.Creature;
 import lineage2.gameserver.model.base.TeamType;
 import gnu.trove.list.array.TIntArrayList;
@@ -27,6 +32,10 @@ public class CharStatsChangeRecorder<T extends Creature>
 	static final int BROADCAST_CHAR_INFO = 1 << 0;
 	static final int SEND_CHAR_INFO = 1 << 1;
 	static final int SEND_STATUS_INFO = 1 << 2;
+	public static final int PENDING_CHANGES = 1 << 0;
+	public static final int PENDING_STATUS_UPDATE = 1 << 1;
+	public static final int PENDING_CHAR_INFO = 1 << 2;
+	private static final int PENDING_FLUSH = 1 << 31;
 	protected final T _activeChar;
 	private int _level;
 	private int _accuracy;
@@ -45,6 +54,15 @@ public class CharStatsChangeRecorder<T extends Creature>
 	protected int _changes;
 	protected final TIntArrayList _abnormalEffects = new TIntArrayList();
 	protected final FastList<Integer> _aveList = new FastList<>();
+	private final AtomicInteger _pending = new AtomicInteger();
+	private final Runnable _flushTask = new RunnableImpl()
+	{
+		@Override
+		public void runImpl()
+		{
+			flush();
+		}
+	};
 	
 	/**
 	 * Constructor for CharStatsChangeRecorder.
@@ -174,6 +192,66 @@ public class CharStatsChangeRecorder<T extends Creature>
 		_changes = 0;
 	}
 	
+	/**
+	 * Method schedule.<br>
+	 * Marks the given PENDING_* parts as dirty. All parts marked within {@link Config#BROADCAST_INFO_INTERVAL} are sent together by one flush.
+	 * @param mask int
+	 */
+	public final void schedule(int mask)
+	{
+		int old = _pending.getAndUpdate(pending -> pending | mask);
+		
+		if (old == 0)
+		{
+			ThreadPoolManager.getInstance().schedule(_flushTask, Config.BROADCAST_INFO_INTERVAL);
+		}
+	}
+	
+	/**
+	 * Method flush.
+	 */
+	void flush()
+	{
+		try
+		{
+			int mask = _pending.getAndSet(PENDING_FLUSH);
+			
+			if ((mask & PENDING_CHANGES) == PENDING_CHANGES)
+			{
+				onFlushChanges();
+			}
+			
+			// stat changes may have requested broadcasts, merge them in this flush
+			mask |= _pending.getAndSet(PENDING_FLUSH);
+			onFlushBroadcast(mask & ~PENDING_FLUSH);
+		}
+		finally
+		{
+			int rest = _pending.getAndSet(0) & ~PENDING_FLUSH;
+			
+			if (rest != 0)
+			{
+				schedule(rest);
+			}
+		}
+	}
+	
+	/**
+	 * Method onFlushChanges.
+	 */
+	protected void onFlushChanges()
+	{
+		sendChanges();
+	}
+	
+	/**
+	 * Method onFlushBroadcast.
+	 * @param mask int
+	 */
+	protected void onFlushBroadcast(int mask)
+	{
+	}
+	
 	/**
 	 * Method onSendChanges.
 	 */
@@ -146,4 +146,39 @@ public final class PlayerStatsChangeRecorder extends CharStatsChangeRecorder<Pla
 			_activeChar.sendPacket(new ExStorageMaxCount(_activeChar));
 		}
 	}
+	
+	/**
+	 * Method onFlushChanges.
+	 */
+	@Override
+	protected void onFlushChanges()
+	{
+		if (_activeChar.entering || _activeChar.isLogoutStarted())
+		{
+			return;
+		}
+		
+		sendChanges();
+	}
+	
+	/**
+	 * Method onFlushBroadcast.
+	 * @param mask int
+	 */
+	@Override
+	protected void onFlushBroadcast(int mask)
+	{
+		boolean userInfo = (mask & PENDING_CHAR_INFO) == PENDING_CHAR_INFO;
+		
+		if (userInfo)
+		{
+			_activeChar.broadcastUserInfoImpl();
+		}
+		
+		if ((mask & PENDING_STATUS_UPDATE) == PENDING_STATUS_UPDATE)
+		{
+			// UserInfo already carries the current HP/MP/CP of the player
+			_activeChar.broadcastStatusUpdateImpl(!userInfo);
+		}
+	}
 }
@@ -25,6 +25,7 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import lineage2.commons.dbutils.DbUtils;
 import lineage2.gameserver.Config;
+import lineage2.gameserver.dao.OlympiadJournalDAO;
 import lineage2.gameserver.database.DatabaseFactory;
 import lineage2.gameserver.database.mysql;
 import lineage2.gameserver.model.Player;
@@ -551,44 +552,13 @@ public class Hero
 	 */
 	public void addHeroDiary(int playerId, int id, int param)
 	{
-		insertHeroDiary(playerId, id, param);
+		long time = System.currentTimeMillis();
+		OlympiadJournalDAO.getInstance().addDiary(playerId, time, id, param);
 		List<HeroDiary> list = _herodiary.get(playerId);
 		
 		if (list != null)
 		{
-			list.add(new HeroDiary(id, System.currentTimeMillis(), param));
-		}
-	}
-	
-	/**
-	 * Method insertHeroDiary.
-	 * @param charId int
-	 * @param action int
-	 * @param param int
-	 */
-	private void insertHeroDiary(int charId, int action, int param)
-	{
-		Connection con = null;
-		PreparedStatement statement = null;
-		
-		try
-		{
-			con = DatabaseFactory.getInstance().getConnection();
-			statement = con.prepareStatement("INSERT INTO heroes_diary (charId, time, action, param) values(?,?,?,?)");
-			statement.setInt(1, charId);
-			statement.setLong(2, System.currentTimeMillis());
-			statement.setInt(3, action);
-			statement.setInt(4, param);
-			statement.execute();
-			statement.close();
-		}
-		catch (SQLException e)
-		{
-			_log.error("SQL exception while saving DiaryData.", e);
-		}
-		finally
-		{
-			DbUtils.closeQuietly(con, statement);
+			list.add(new HeroDiary(id, time, param));
 		}
 	}
 	
@@ -675,6 +645,8 @@ public class Hero
 		{
 			saveHeroMessage(charId);
 		}
+		
+		OlympiadJournalDAO.getInstance().flush();
 	}
 	
 	/**
@@ -999,6 +999,7 @@ public class Olympiad
 		
 		noble.set(CHAR_NAME, newName);
 		OlympiadDatabase.saveNobleData(objId);
+		OlympiadDatabase.clearClassLeaderBoards();
 	}
 	
 	/**
@@ -1102,5 +1103,6 @@ public class Olympiad
 	{
 		_nobles.remove(noble.getObjectId());
 		OlympiadDatabase.saveNobleData();
+		OlympiadDatabase.clearClassLeaderBoards();
 	}
 }
@@ -17,6 +17,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +26,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import lineage2.commons.dbutils.DbUtils;
 import lineage2.gameserver.Announcements;
 import lineage2.gameserver.Config;
+import lineage2.gameserver.dao.OlympiadJournalDAO;
 import lineage2.gameserver.dao.OlympiadNobleDAO;
 import lineage2.gameserver.database.DatabaseFactory;
 import lineage2.gameserver.instancemanager.ServerVariables;
@@ -42,6 +44,8 @@ import org.slf4j.LoggerFactory;
 public class OlympiadDatabase
 {
 	private static final Logger _log = LoggerFactory.getLogger(OlympiadDatabase.class);
+	private static final int CLASS_LEADERS_COUNT = 10;
+	private static final Map<Integer, List<String>> _classLeaders = new ConcurrentHashMap<>();
 	
 	/**
 	 * Method loadNoblesRank.
@@ -113,34 +117,47 @@ public class OlympiadDatabase
 	}
 	
 	/**
-	 * Method cleanupNobles.
+	 * Closes the period of all nobles with one update. The journal is flushed first and kept locked, so the update starts from the latest points and no queued write lands between the update and the nobles in memory.
 	 */
 	public static synchronized void cleanupNobles()
 	{
 		_log.info("Olympiad: Calculating last period...");
-		Connection con = null;
-		PreparedStatement statement = null;
+		OlympiadJournalDAO journal = OlympiadJournalDAO.getInstance();
 		
-		try
-		{
-			con = DatabaseFactory.getInstance().getConnection();
-			statement = con.prepareStatement(OlympiadNobleDAO.OLYMPIAD_CALCULATE_LAST_PERIOD);
-			statement.setInt(1, Config.OLYMPIAD_BATTLES_FOR_REWARD);
-			statement.execute();
-			DbUtils.close(statement);
-			statement = con.prepareStatement(OlympiadNobleDAO.OLYMPIAD_CLEANUP_NOBLES);
-			statement.setInt(1, Config.OLYMPIAD_POINTS_DEFAULT);
-			statement.execute();
-		}
-		catch (Exception e)
+		synchronized (journal)
 		{
-			_log.error("Olympiad System: Couldn't calculate last period!", e);
-		}
-		finally
-		{
-			DbUtils.closeQuietly(con, statement);
+			journal.flush();
+			Connection con = null;
+			PreparedStatement statement = null;
+			
+			try
+			{
+				con = DatabaseFactory.getInstance().getConnection();
+				statement = con.prepareStatement(OlympiadNobleDAO.OLYMPIAD_CLEANUP_NOBLES);
+				statement.setInt(1, Config.OLYMPIAD_BATTLES_FOR_REWARD);
+				statement.setInt(2, Config.OLYMPIAD_POINTS_DEFAULT);
+				statement.execute();
+			}
+			catch (Exception e)
+			{
+				_log.error("Olympiad System: Couldn't calculate last period!", e);
+			}
+			finally
+			{
+				DbUtils.closeQuietly(con, statement);
+			}
+			
+			resetNobles();
 		}
 		
+		clearClassLeaderBoards();
+	}
+	
+	/**
+	 * Applies the end of the period to the nobles in memory, the same way as OLYMPIAD_CLEANUP_NOBLES.
+	 */
+	private static void resetNobles()
+	{
 		for (Integer nobleId : Olympiad._nobles.keySet())
 		{
 			StatsSet nobleInfo = Olympiad._nobles.get(nobleId);
@@ -170,40 +187,50 @@ public class OlympiadDatabase
 	/**
 	 * Method getClassLeaderBoard.
 	 * @param classId int
-	 * @return List<String>
+	 * @return List<String> names of the best nobles of the class in the last period, built from the nobles in memory
 	 */
 	public static List<String> getClassLeaderBoard(int classId)
 	{
-		List<String> names = new ArrayList<>();
-		Connection con = null;
-		PreparedStatement statement = null;
-		ResultSet rset = null;
+		List<String> names = _classLeaders.get(classId);
 		
-		try
+		if (names != null)
 		{
-			con = DatabaseFactory.getInstance().getConnection();
-			statement = con.prepareStatement(OlympiadNobleDAO.GET_EACH_CLASS_LEADER);
-			statement.setInt(1, classId);
-			rset = statement.executeQuery();
-			
-			while (rset.next())
-			{
-				names.add(rset.getString(Olympiad.CHAR_NAME));
-			}
+			return names;
 		}
-		catch (Exception e)
+		
+		List<StatsSet> leaders = new ArrayList<>();
+		
+		for (StatsSet nobleInfo : Olympiad._nobles.values())
 		{
-			_log.error("Olympiad System: Couldnt get heros from db!", e);
+			if ((nobleInfo.getInteger(Olympiad.CLASS_ID) == classId) && (nobleInfo.getInteger(Olympiad.POINTS_PAST_STATIC) != 0))
+			{
+				leaders.add(nobleInfo);
+			}
 		}
-		finally
+		
+		Collections.sort(leaders, (s1, s2) -> Integer.compare(s2.getInteger(Olympiad.POINTS_PAST_STATIC), s1.getInteger(Olympiad.POINTS_PAST_STATIC)));
+		names = new ArrayList<>(CLASS_LEADERS_COUNT);
+		
+		for (int i = 0; (i < leaders.size()) && (i < CLASS_LEADERS_COUNT); i++)
 		{
-			DbUtils.closeQuietly(con, statement, rset);
+			names.add(leaders.get(i).getString(Olympiad.CHAR_NAME));
 		}
+		
+		names = Collections.unmodifiableList(names);
+		_classLeaders.put(classId, names);
 		return names;
 	}
 	
 	/**
-	 * Method sortHerosToBe.
+	 * Method clearClassLeaderBoards.
+	 */
+	static void clearClassLeaderBoards()
+	{
+		_classLeaders.clear();
+	}
+	
+	/**
+	 * Picks the hero of every class with one query, ordered by class; the first row of each class is its best noble.
 	 */
 	public static synchronized void sortHerosToBe()
 	{
@@ -212,7 +239,9 @@ public class OlympiadDatabase
 			return;
 		}
 		
+		OlympiadJournalDAO.getInstance().flush();
 		Olympiad._heroesToBe = new ArrayList<>();
+		Map<Integer, StatsSet> heroes = new HashMap<>();
 		Connection con = null;
 		PreparedStatement statement = null;
 		ResultSet rset = null;
@@ -220,27 +249,32 @@ public class OlympiadDatabase
 		try
 		{
 			con = DatabaseFactory.getInstance().getConnection();
-			StatsSet hero;
+			statement = con.prepareStatement(OlympiadNobleDAO.OLYMPIAD_GET_HEROS);
+			statement.setInt(1, 138);
+			statement.setInt(2, Config.OLYMPIAD_BATTLES_FOR_REWARD);
+			rset = statement.executeQuery();
+			
+			while (rset.next())
+			{
+				int classId = rset.getInt(Olympiad.CLASS_ID);
+				
+				if (!heroes.containsKey(classId))
+				{
+					StatsSet hero = new StatsSet();
+					hero.set(Olympiad.CLASS_ID, classId);
+					hero.set(Olympiad.CHAR_ID, rset.getInt(Olympiad.CHAR_ID));
+					hero.set(Olympiad.CHAR_NAME, rset.getString(Olympiad.CHAR_NAME));
+					heroes.put(classId, hero);
+				}
+			}
 			
 			for (ClassId id : ClassId.VALUES)
 			{
-				if (id.getId() > 138)
+				StatsSet hero = heroes.get(id.getId());
+				
+				if (hero != null)
 				{
-					statement = con.prepareStatement(OlympiadNobleDAO.OLYMPIAD_GET_HEROS);
-					statement.setInt(1, id.getId());
-					statement.setInt(2, Config.OLYMPIAD_BATTLES_FOR_REWARD);
-					rset = statement.executeQuery();
-					
-					if (rset.next())
-					{
-						hero = new StatsSet();
-						hero.set(Olympiad.CLASS_ID, id.getId());
-						hero.set(Olympiad.CHAR_ID, rset.getInt(Olympiad.CHAR_ID));
-						hero.set(Olympiad.CHAR_NAME, rset.getString(Olympiad.CHAR_NAME));
-						Olympiad._heroesToBe.add(hero);
-					}
-					
-					DbUtils.close(statement, rset);
+					Olympiad._heroesToBe.add(hero);
 				}
 			}
 		}
@@ -255,28 +289,32 @@ public class OlympiadDatabase
 	}
 	
 	/**
-	 * Method saveNobleData.
+	 * Queues the noble for the next write of the journal.
 	 * @param nobleId int
 	 */
-	public static synchronized void saveNobleData(int nobleId)
+	public static void saveNobleData(int nobleId)
 	{
-		OlympiadNobleDAO.getInstance().replace(nobleId);
+		OlympiadJournalDAO.getInstance().markNoble(nobleId);
 	}
 	
 	/**
-	 * Method saveNobleData.
+	 * Writes all nobles and everything else queued in the journal.
 	 */
-	public static synchronized void saveNobleData()
+	public static void saveNobleData()
 	{
 		if (Olympiad._nobles == null)
 		{
 			return;
 		}
 		
+		OlympiadJournalDAO journal = OlympiadJournalDAO.getInstance();
+		
 		for (Integer nobleId : Olympiad._nobles.keySet())
 		{
-			saveNobleData(nobleId);
+			journal.markNoble(nobleId);
 		}
+		
+		journal.flush();
 	}
 	
 	/**
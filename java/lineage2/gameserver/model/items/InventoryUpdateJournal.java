@@ -0,0 +1,210 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.gameserver.model.items;
+
+import gnu.trove.map.hash.TIntObjectHashMap;
+import lineage2.commons.threading.RunnableImpl;
+import lineage2.gameserver.Config;
+import lineage2.gameserver.ThreadPoolManager;
+import lineage2.gameserver.model.Player;
+import lineage2.gameserver.network.serverpackets.InventoryUpdate;
+
+/**
+ * Inventory changes of a player not sent yet, merged by object id.<br>
+ * The first change schedules one InventoryUpdate after {@link Config#INVENTORY_UPDATE_INTERVAL} carrying the state of every changed item at that time. GameClient.sendPacket flushes the journal before any packet depending on the inventory, so the client never sees a trade, warehouse or item list before the changes preceding it.<br>
+ * An added item removed again is dropped from the update. A change the client must see in order, such as an item added again after its removal, sends the pending changes first.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+final class InventoryUpdateJournal
+{
+	private final Player _owner;
+	private final TIntObjectHashMap<Change> _changes = new TIntObjectHashMap<>();
+	private volatile boolean _pending;
+	private final Runnable _flushTask = new RunnableImpl()
+	{
+		@Override
+		public void runImpl()
+		{
+			flush();
+		}
+	};
+	
+	/**
+	 * Constructor for InventoryUpdateJournal.
+	 * @param owner Player
+	 */
+	InventoryUpdateJournal(Player owner)
+	{
+		_owner = owner;
+	}
+	
+	/**
+	 * Method record.
+	 * @param item ItemInstance
+	 * @param type int InventoryUpdate.ADDED, MODIFIED or REMOVED
+	 */
+	synchronized void record(ItemInstance item, int type)
+	{
+		int objectId = item.getObjectId();
+		Change change = _changes.get(objectId);
+		
+		if (change != null)
+		{
+			if (merge(change, item, type))
+			{
+				return;
+			}
+			
+			// the client must see the pending state first
+			flush();
+		}
+		
+		_changes.put(objectId, new Change(item, type));
+		
+		if (!_pending)
+		{
+			_pending = true;
+			ThreadPoolManager.getInstance().schedule(_flushTask, Config.INVENTORY_UPDATE_INTERVAL);
+		}
+	}
+	
+	/**
+	 * Merges a change into the pending change of the same object id.
+	 * @param change Change
+	 * @param item ItemInstance
+	 * @param type int
+	 * @return boolean false when the changes cannot be merged
+	 */
+	private boolean merge(Change change, ItemInstance item, int type)
+	{
+		if ((change._type == InventoryUpdate.REMOVED) || (change._item != item))
+		{
+			return false;
+		}
+		
+		switch (type)
+		{
+			case InventoryUpdate.MODIFIED:
+				// an added item is sent as added with its current state
+				return true;
+			
+			case InventoryUpdate.REMOVED:
+				if (change._type == InventoryUpdate.ADDED)
+				{
+					// the client never saw it
+					_changes.remove(item.getObjectId());
+				}
+				else
+				{
+					change.remove(item);
+				}
+				
+				return true;
+			
+			default:
+				return false;
+		}
+	}
+	
+	/**
+	 * Sends the pending changes in one InventoryUpdate.
+	 */
+	synchronized void flush()
+	{
+		if (!_pending)
+		{
+			return;
+		}
+		
+		_pending = false;
+		
+		if (_changes.isEmpty())
+		{
+			return;
+		}
+		
+		InventoryUpdate iu = new InventoryUpdate();
+		
+		for (Change change : _changes.valueCollection())
+		{
+			switch (change._type)
+			{
+				case InventoryUpdate.ADDED:
+					iu.addNewItem(change._item);
+					break;
+				
+				case InventoryUpdate.MODIFIED:
+					iu.addModifiedItem(change._item);
+					break;
+				
+				default:
+					iu.addRemovedItem(change._removed);
+					break;
+			}
+		}
+		
+		_changes.clear();
+		// the journal is empty again, the flush of GameClient.sendPacket returns at once
+		_owner.sendPacket(iu);
+	}
+	
+	/**
+	 * Method isPending.
+	 * @return boolean
+	 */
+	boolean isPending()
+	{
+		return _pending;
+	}
+	
+	/**
+	 * The pending change of one item.
+	 * @author Mobius
+	 */
+	private static final class Change
+	{
+		final ItemInstance _item;
+		int _type;
+		ItemInfo _removed;
+		
+		/**
+		 * Constructor for Change.
+		 * @param item ItemInstance
+		 * @param type int
+		 */
+		Change(ItemInstance item, int type)
+		{
+			_item = item;
+			
+			if (type == InventoryUpdate.REMOVED)
+			{
+				remove(item);
+			}
+			else
+			{
+				_type = type;
+			}
+		}
+		
+		/**
+		 * Keeps the item as it was when removed, its owner and count change once it goes elsewhere.
+		 * @param item ItemInstance
+		 */
+		void remove(ItemInstance item)
+		{
+			_type = InventoryUpdate.REMOVED;
+			_removed = new ItemInfo(item);
+		}
+	}
+}
@@ -13,16 +13,19 @@
 package lineage2.gameserver.model.items;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import lineage2.commons.collections.CollectionUtils;
 import lineage2.commons.math.SafeMath;
 import lineage2.gameserver.dao.ItemsDAO;
 import lineage2.gameserver.idfactory.IdFactory;
 import lineage2.gameserver.utils.ItemFunctions;
 
+import gnu.trove.map.hash.TIntObjectHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,7 +38,11 @@ public abstract class ItemContainer
 	@SuppressWarnings("unused")
 	private static final Logger _log = LoggerFactory.getLogger(ItemContainer.class);
 	protected static final ItemsDAO _itemsDAO = ItemsDAO.getInstance();
+	/** Changed only through putItem, takeItem and sortItems, which keep the indexes below in step. */
 	protected final List<ItemInstance> _items = new ArrayList<>();
+	private final TIntObjectHashMap<ItemInstance> _itemsByObjectId = new TIntObjectHashMap<>();
+	/** Items of every item id, in the order of _items. */
+	private final TIntObjectHashMap<List<ItemInstance>> _itemsByItemId = new TIntObjectHashMap<>();
 	private final ReadWriteLock lock = new ReentrantReadWriteLock();
 	private final Lock readLock = lock.readLock();
 	private final Lock writeLock = lock.writeLock();
@@ -83,7 +90,7 @@ public abstract class ItemContainer
 		
 		try
 		{
-			_items.clear();
+			clearItems();
 		}
 		finally
 		{
@@ -134,23 +141,12 @@ public abstract class ItemContainer
 		
 		try
 		{
-			ItemInstance item;
-			
-			for (int i = 0; i < _items.size(); i++)
-			{
-				item = _items.get(i);
-				
-				if (item.getObjectId() == objectId)
-				{
-					return item;
-				}
-			}
+			return _itemsByObjectId.get(objectId);
 		}
 		finally
 		{
 			readUnlock();
 		}
-		return null;
 	}
 	
 	/**
@@ -164,23 +160,13 @@ public abstract class ItemContainer
 		
 		try
 		{
-			ItemInstance item;
-			
-			for (int i = 0; i < _items.size(); i++)
-			{
-				item = _items.get(i);
-				
-				if (item.getId() == itemId)
-				{
-					return item;
-				}
-			}
+			List<ItemInstance> items = _itemsByItemId.get(itemId);
+			return items == null ? null : items.get(0);
 		}
 		finally
 		{
 			readUnlock();
 		}
-		return null;
 	}
 	
 	/**
@@ -190,28 +176,17 @@ public abstract class ItemContainer
 	 */
 	public List<ItemInstance> getItemsByItemId(int itemId)
 	{
-		List<ItemInstance> result = new ArrayList<>();
 		readLock();
 		
 		try
 		{
-			ItemInstance item;
-			
-			for (int i = 0; i < _items.size(); i++)
-			{
-				item = _items.get(i);
-				
-				if (item.getId() == itemId)
-				{
-					result.add(item);
-				}
-			}
+			List<ItemInstance> items = _itemsByItemId.get(itemId);
+			return items == null ? new ArrayList<>() : new ArrayList<>(items);
 		}
 		finally
 		{
 			readUnlock();
 		}
-		return result;
 	}
 	
 	/**
@@ -226,15 +201,13 @@ public abstract class ItemContainer
 		
 		try
 		{
-			ItemInstance item;
+			List<ItemInstance> items = _itemsByItemId.get(itemId);
 			
-			for (int i = 0; i < _items.size(); i++)
+			if (items != null)
 			{
-				item = _items.get(i);
-				
-				if (item.getId() == itemId)
+				for (int i = 0; i < items.size(); i++)
 				{
-					count = SafeMath.addAndLimit(count, item.getCount());
+					count = SafeMath.addAndLimit(count, items.get(i).getCount());
 				}
 			}
 		}
@@ -277,7 +250,7 @@ public abstract class ItemContainer
 			{
 				item = ItemFunctions.createItem(itemId);
 				item.setCount(count);
-				_items.add(item);
+				putItem(item);
 				onAddItem(item);
 			}
 		}
@@ -333,7 +306,7 @@ public abstract class ItemContainer
 			
 			if (result == null)
 			{
-				_items.add(item);
+				putItem(item);
 				result = item;
 				onAddItem(result);
 			}
@@ -446,7 +419,7 @@ public abstract class ItemContainer
 		
 		try
 		{
-			if (!_items.contains(item))
+			if (!containsItem(item))
 			{
 				return null;
 			}
@@ -484,7 +457,7 @@ public abstract class ItemContainer
 		
 		try
 		{
-			if (!_items.remove(item))
+			if (!takeItem(item))
 			{
 				return null;
 			}
@@ -585,7 +558,7 @@ public abstract class ItemContainer
 		
 		try
 		{
-			if (!_items.contains(item))
+			if (!containsItem(item))
 			{
 				return false;
 			}
@@ -621,7 +594,7 @@ public abstract class ItemContainer
 		
 		try
 		{
-			if (!_items.remove(item))
+			if (!takeItem(item))
 			{
 				return false;
 			}
@@ -636,6 +609,89 @@ public abstract class ItemContainer
 		}
 	}
 	
+	/**
+	 * Method containsItem.
+	 * @param item ItemInstance
+	 * @return boolean
+	 */
+	protected final boolean containsItem(ItemInstance item)
+	{
+		return _itemsByObjectId.get(item.getObjectId()) == item;
+	}
+	
+	/**
+	 * Adds the item to the list and the indexes, without any notification. Called under the write lock.
+	 * @param item ItemInstance
+	 */
+	protected final void putItem(ItemInstance item)
+	{
+		_items.add(item);
+		_itemsByObjectId.put(item.getObjectId(), item);
+		List<ItemInstance> items = _itemsByItemId.get(item.getId());
+		
+		if (items == null)
+		{
+			_itemsByItemId.put(item.getId(), items = new ArrayList<>(1));
+		}
+		
+		items.add(item);
+	}
+	
+	/**
+	 * Removes the item from the list and the indexes, without any notification. Called under the write lock.
+	 * @param item ItemInstance
+	 * @return boolean false if the item is not in this container
+	 */
+	protected final boolean takeItem(ItemInstance item)
+	{
+		if (!containsItem(item))
+		{
+			return false;
+		}
+		
+		_items.remove(item);
+		_itemsByObjectId.remove(item.getObjectId());
+		List<ItemInstance> items = _itemsByItemId.get(item.getId());
+		items.remove(item);
+		
+		if (items.isEmpty())
+		{
+			_itemsByItemId.remove(item.getId());
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Empties the list and the indexes, without any notification. Called under the write lock.
+	 */
+	protected final void clearItems()
+	{
+		_items.clear();
+		_itemsByObjectId.clear();
+		_itemsByItemId.clear();
+	}
+	
+	/**
+	 * Sorts the list, then puts the items of every item id back in the new order. Called under the write lock.
+	 * @param comparator Comparator<ItemInstance>
+	 */
+	protected final void sortItems(Comparator<ItemInstance> comparator)
+	{
+		CollectionUtils.eqSort(_items, comparator);
+		
+		for (List<ItemInstance> items : _itemsByItemId.valueCollection())
+		{
+			items.clear();
+		}
+		
+		for (int i = 0; i < _items.size(); i++)
+		{
+			ItemInstance item = _items.get(i);
+			_itemsByItemId.get(item.getId()).add(item);
+		}
+	}
+	
 	/**
 	 * Method onAddItem.
 	 * @param item ItemInstance
@@ -14,7 +14,6 @@ package lineage2.gameserver.model.items;
 
 import java.util.Collection;
 
-import lineage2.commons.collections.CollectionUtils;
 import lineage2.commons.dao.JdbcEntityState;
 import lineage2.commons.threading.RunnableImpl;
 import lineage2.gameserver.Config;
@@ -47,6 +46,7 @@ public class PcInventory extends Inventory
 	private final Player _owner;
 	private LockType _lockType = LockType.NONE;
 	private int[] _lockItems = ArrayUtils.EMPTY_INT_ARRAY;
+	private final InventoryUpdateJournal _updates;
 	
 	/**
 	 * Constructor for PcInventory.
@@ -56,6 +56,7 @@ public class PcInventory extends Inventory
 	{
 		super(owner.getObjectId());
 		_owner = owner;
+		_updates = new InventoryUpdateJournal(owner);
 		addListener(ItemSkillsListener.getInstance());
 		addListener(ItemAugmentationListener.getInstance());
 		addListener(ItemEnchantOptionsListener.getInstance());
@@ -335,7 +336,7 @@ public class PcInventory extends Inventory
 		
 		if (needSort)
 		{
-			CollectionUtils.eqSort(_items, ItemOrderComparator.getInstance());
+			sortItems(ItemOrderComparator.getInstance());
 		}
 	}
 	
@@ -461,32 +462,22 @@ public class PcInventory extends Inventory
 	 */
 	public ItemInstance findEquippedLure()
 	{
-		ItemInstance res = null;
-		int last_lure = 0;
-		Player owner = getActor();
-		String LastLure = owner.getVar("LastLure");
+		ItemInstance lure = getPaperdollItem(PAPERDOLL_LHAND);
 		
-		if ((LastLure != null) && !LastLure.isEmpty())
+		if ((lure != null) && (lure.getItemType() == EtcItemType.BAIT))
 		{
-			last_lure = Integer.valueOf(LastLure);
+			return lure;
 		}
 		
-		for (ItemInstance temp : getItems())
+		String LastLure = getActor().getVar("LastLure");
+		
+		if ((LastLure == null) || LastLure.isEmpty())
 		{
-			if (temp.getItemType() == EtcItemType.BAIT)
-			{
-				if ((temp.getLocation() == ItemLocation.PAPERDOLL) && (temp.getEquipSlot() == PAPERDOLL_LHAND))
-				{
-					return temp;
-				}
-				else if ((last_lure > 0) && (res == null) && (temp.getObjectId() == last_lure))
-				{
-					res = temp;
-				}
-			}
+			return null;
 		}
 		
-		return res;
+		lure = getItemByObjectId(Integer.parseInt(LastLure));
+		return (lure != null) && (lure.getItemType() == EtcItemType.BAIT) ? lure : null;
 	}
 	
 	/**
@@ -677,16 +668,16 @@ public class PcInventory extends Inventory
 			
 			for (ItemInstance item : items)
 			{
-				_items.add(item);
+				putItem(item);
 				onRestoreItem(item);
 			}
 			
-			CollectionUtils.eqSort(_items, ItemOrderComparator.getInstance());
+			sortItems(ItemOrderComparator.getInstance());
 			items = _itemsDAO.getItemsByOwnerIdAndLoc(ownerId, getEquipLocation());
 			
 			for (ItemInstance item : items)
 			{
-				_items.add(item);
+				putItem(item);
 				onRestoreItem(item);
 				
 				if (item.getEquipSlot() >= PAPERDOLL_MAX)
@@ -734,7 +725,15 @@ public class PcInventory extends Inventory
 	protected void sendAddItem(ItemInstance item)
 	{
 		Player actor = getActor();
-		actor.sendPacket(new InventoryUpdate().addNewItem(item));
+		
+		if (Config.INVENTORY_UPDATE_INTERVAL > 0)
+		{
+			_updates.record(item, InventoryUpdate.ADDED);
+		}
+		else
+		{
+			actor.sendPacket(new InventoryUpdate().addNewItem(item));
+		}
 		
 		if (item.getTemplate().getAgathionEnergy() > 0)
 		{
@@ -750,7 +749,15 @@ public class PcInventory extends Inventory
 	protected void sendModifyItem(ItemInstance item)
 	{
 		Player actor = getActor();
-		actor.sendPacket(new InventoryUpdate().addModifiedItem(item));
+		
+		if (Config.INVENTORY_UPDATE_INTERVAL > 0)
+		{
+			_updates.record(item, InventoryUpdate.MODIFIED);
+		}
+		else
+		{
+			actor.sendPacket(new InventoryUpdate().addModifiedItem(item));
+		}
 		
 		if (item.getTemplate().getAgathionEnergy() > 0)
 		{
@@ -765,7 +772,25 @@ public class PcInventory extends Inventory
 	@Override
 	protected void sendRemoveItem(ItemInstance item)
 	{
-		getActor().sendPacket(new InventoryUpdate().addRemovedItem(item));
+		if (Config.INVENTORY_UPDATE_INTERVAL > 0)
+		{
+			_updates.record(item, InventoryUpdate.REMOVED);
+		}
+		else
+		{
+			getActor().sendPacket(new InventoryUpdate().addRemovedItem(item));
+		}
+	}
+	
+	/**
+	 * Sends the inventory changes collected for the next InventoryUpdate now.
+	 */
+	public void flushUpdates()
+	{
+		if (_updates.isPending())
+		{
+			_updates.flush();
+		}
 	}
 	
 	/**
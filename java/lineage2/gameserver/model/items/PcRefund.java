@@ -46,7 +46,7 @@ public class PcRefund extends ItemContainer
 		
 		if (_items.size() > 12)
 		{
-			destroyItem(_items.remove(0));
+			destroyItem(_items.get(0));
 		}
 	}
 	
@@ -90,7 +90,7 @@ public class PcRefund extends ItemContainer
 		try
 		{
 			_itemsDAO.delete(_items);
-			_items.clear();
+			clearItems();
 		}
 		finally
 		{
@@ -131,7 +131,7 @@ public class PetInventory extends Inventory
 			
 			for (ItemInstance item : items)
 			{
-				_items.add(item);
+				putItem(item);
 				onRestoreItem(item);
 			}
 			
@@ -139,7 +139,7 @@ public class PetInventory extends Inventory
 			
 			for (ItemInstance item : items)
 			{
-				_items.add(item);
+				putItem(item);
 				onRestoreItem(item);
 				
 				if (ItemFunctions.checkIfCanEquip(getActor(), item) == null)
@@ -228,7 +228,7 @@ public abstract class Warehouse extends ItemContainer
 			
 			for (ItemInstance item : items)
 			{
-				_items.add(item);
+				putItem(item);
 			}
 		}
 		finally
@@ -15,6 +15,7 @@ package lineage2.gameserver.model.quest;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -29,7 +30,7 @@ import lineage2.gameserver.Config;
 import lineage2.gameserver.ThreadPoolManager;
 import lineage2.gameserver.data.xml.holder.ItemHolder;
 import lineage2.gameserver.data.xml.holder.NpcHolder;
-import lineage2.gameserver.database.DatabaseFactory;
+import lineage2.gameserver.database.DatabaseExecutor;
 import lineage2.gameserver.instancemanager.QuestManager;
 import lineage2.gameserver.instancemanager.ReflectionManager;
 import lineage2.gameserver.model.Creature;
@@ -173,27 +174,19 @@ public class Quest
 			return;
 		}
 		
-		Connection con = null;
-		PreparedStatement statement = null;
-		
-		try
-		{
-			con = DatabaseFactory.getInstance().getConnection();
-			statement = con.prepareStatement("REPLACE INTO character_quests (char_id,name,var,value) VALUES (?,?,?,?)");
-			statement.setInt(1, qs.getPlayer().getObjectId());
-			statement.setString(2, qs.getQuest().getName());
-			statement.setString(3, var);
-			statement.setString(4, value);
-			statement.executeUpdate();
-		}
-		catch (Exception e)
+		final int objectId = player.getObjectId();
+		final String name = qs.getQuest().getName();
+		DatabaseExecutor.getInstance().execute(objectId, con ->
 		{
-			_log.error("could not insert char quest:", e);
-		}
-		finally
-		{
-			DbUtils.closeQuietly(con, statement);
-		}
+			try (PreparedStatement statement = con.prepareStatement("REPLACE INTO character_quests (char_id,name,var,value) VALUES (?,?,?,?)"))
+			{
+				statement.setInt(1, objectId);
+				statement.setString(2, name);
+				statement.setString(3, var);
+				statement.setString(4, value);
+				statement.executeUpdate();
+			}
+		});
 	}
 	
 	/**
@@ -202,25 +195,17 @@ public class Quest
 	 */
 	public static void deleteQuestInDb(QuestState qs)
 	{
-		Connection con = null;
-		PreparedStatement statement = null;
-		
-		try
+		final int objectId = qs.getPlayer().getObjectId();
+		final String name = qs.getQuest().getName();
+		DatabaseExecutor.getInstance().execute(objectId, con ->
 		{
-			con = DatabaseFactory.getInstance().getConnection();
-			statement = con.prepareStatement("DELETE FROM character_quests WHERE char_id=? AND name=?");
-			statement.setInt(1, qs.getPlayer().getObjectId());
-			statement.setString(2, qs.getQuest().getName());
-			statement.executeUpdate();
-		}
-		catch (Exception e)
-		{
-			_log.error("could not delete char quest:", e);
-		}
-		finally
-		{
-			DbUtils.closeQuietly(con, statement);
-		}
+			try (PreparedStatement statement = con.prepareStatement("DELETE FROM character_quests WHERE char_id=? AND name=?"))
+			{
+				statement.setInt(1, objectId);
+				statement.setString(2, name);
+				statement.executeUpdate();
+			}
+		});
 	}
 	
 	/**
@@ -230,42 +215,55 @@ public class Quest
 	 */
 	public static void deleteQuestVarInDb(QuestState qs, String var)
 	{
-		Connection con = null;
-		PreparedStatement statement = null;
-		
+		final int objectId = qs.getPlayer().getObjectId();
+		final String name = qs.getQuest().getName();
+		DatabaseExecutor.getInstance().execute(objectId, con ->
+		{
+			try (PreparedStatement statement = con.prepareStatement("DELETE FROM character_quests WHERE char_id=? AND name=? AND var=?"))
+			{
+				statement.setInt(1, objectId);
+				statement.setString(2, name);
+				statement.setString(3, var);
+				statement.executeUpdate();
+			}
+		});
+	}
+	
+	/**
+	 * Method restoreQuestStates.
+	 * @param player Player
+	 */
+	public static void restoreQuestStates(final Player player)
+	{
 		try
 		{
-			con = DatabaseFactory.getInstance().getConnection();
-			statement = con.prepareStatement("DELETE FROM character_quests WHERE char_id=? AND name=? AND var=?");
-			statement.setInt(1, qs.getPlayer().getObjectId());
-			statement.setString(2, qs.getQuest().getName());
-			statement.setString(3, var);
-			statement.executeUpdate();
+			// on the lane of the character, after the quest writes of its previous session
+			DatabaseExecutor.getInstance().submit(player.getObjectId(), con ->
+			{
+				restoreQuestStates(player, con);
+				return null;
+			}).get();
 		}
 		catch (Exception e)
 		{
-			_log.error("could not delete char quest:", e);
-		}
-		finally
-		{
-			DbUtils.closeQuietly(con, statement);
+			_log.error("could not restore char quests: " + player, e);
 		}
 	}
 	
 	/**
 	 * Method restoreQuestStates.
 	 * @param player Player
+	 * @param con Connection
+	 * @throws SQLException
 	 */
-	public static void restoreQuestStates(Player player)
+	private static void restoreQuestStates(Player player, Connection con) throws SQLException
 	{
-		Connection con = null;
 		PreparedStatement statement = null;
 		PreparedStatement invalidQuestData = null;
 		ResultSet rset = null;
 		
 		try
 		{
-			con = DatabaseFactory.getInstance().getConnection();
 			invalidQuestData = con.prepareStatement("DELETE FROM character_quests WHERE char_id=? and name=?");
 			statement = con.prepareStatement("SELECT name,value FROM character_quests WHERE char_id=? AND var=?");
 			statement.setInt(1, player.getObjectId());
@@ -332,14 +330,10 @@ public class Quest
 				qs.set(var, value, false);
 			}
 		}
-		catch (Exception e)
-		{
-			_log.error("could not insert char quest:", e);
-		}
 		finally
 		{
 			DbUtils.closeQuietly(invalidQuestData);
-			DbUtils.closeQuietly(con, statement, rset);
+			DbUtils.closeQuietly(statement, rset);
 		}
 	}
 	
@@ -432,6 +432,7 @@ public final class GameClient extends MMOClient<MMOConnection<GameClient>>
 	{
 		if (isConnected())
 		{
+			flushInventory(gsp);
 			getConnection().sendPacket(gsp);
 		}
 	}
@@ -444,6 +445,11 @@ public final class GameClient extends MMOClient<MMOConnection<GameClient>>
 	{
 		if (isConnected())
 		{
+			for (L2GameServerPacket packet : gsp)
+			{
+				flushInventory(packet);
+			}
+			
 			getConnection().sendPacket(gsp);
 		}
 	}
@@ -456,10 +462,29 @@ public final class GameClient extends MMOClient<MMOConnection<GameClient>>
 	{
 		if (isConnected())
 		{
+			for (L2GameServerPacket packet : gsp)
+			{
+				flushInventory(packet);
+			}
+			
 			getConnection().sendPackets(gsp);
 		}
 	}
 	
+	/**
+	 * Sends the pending inventory changes of the active char before a packet depending on its inventory, whether the packet comes through the player or straight from a client packet.
+	 * @param gsp L2GameServerPacket
+	 */
+	private void flushInventory(L2GameServerPacket gsp)
+	{
+		Player player = _activeChar;
+		
+		if ((player != null) && (gsp != null) && gsp.isInventoryDependent())
+		{
+			player.getInventory().flushUpdates();
+		}
+	}
+	
 	/**
 	 * Method close.
 	 * @param gsp L2GameServerPacket
@@ -548,6 +573,7 @@ public final class GameClient extends MMOClient<MMOConnection<GameClient>>
 	
 	private int _failedPackets = 0;
 	private int _unknownPackets = 0;
+	private int _overflowedPackets = 0;
 	
 	/**
 	 * Method onPacketReadFail.
@@ -581,6 +607,24 @@ public final class GameClient extends MMOClient<MMOConnection<GameClient>>
 		}
 	}
 	
+	/**
+	 * Method onRecvQueueOverflow.
+	 * @see lineage2.commons.net.nio.impl.MMOClient#onRecvQueueOverflow()
+	 */
+	@Override
+	protected void onRecvQueueOverflow()
+	{
+		if (_overflowedPackets++ >= 10)
+		{
+			_log.warn("Too many client packets dropped on a full queue, connection closed : " + this);
+			
+			if (!Config.ALLOW_PACKET_FAIL)
+			{
+				closeNow(true);
+			}
+		}
+	}
+	
 	/**
 	 * Method toString.
 	 * @return String
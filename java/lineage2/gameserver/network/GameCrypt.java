@@ -48,7 +48,7 @@ public class GameCrypt
 	 * @param size int
 	 * @return boolean
 	 */
-	boolean decrypt(byte[] raw, final int offset, final int size)
+	public boolean decrypt(byte[] raw, final int offset, final int size)
 	{
 		if (!_isEnabled)
 		{
@@ -82,7 +82,7 @@ public class GameCrypt
 	 * @param offset int
 	 * @param size int
 	 */
-	void encrypt(byte[] raw, final int offset, final int size)
+	public void encrypt(byte[] raw, final int offset, final int size)
 	{
 		if (!_isEnabled)
 		{
@@ -2123,6 +2123,17 @@ public final class GamePacketHandler implements IPacketHandler<GameClient>, ICli
 	@Override
 	public void execute(Runnable r)
 	{
-		ThreadPoolManager.getInstance().execute(r);
+		ThreadPoolManager.getInstance().executePacket(r);
+	}
+	
+	/**
+	 * Method executeUrgent.
+	 * @param r Runnable
+	 * @see lineage2.commons.net.nio.impl.IMMOExecutor#executeUrgent(Runnable)
+	 */
+	@Override
+	public void executeUrgent(Runnable r)
+	{
+		ThreadPoolManager.getInstance().executeUrgentPacket(r);
 	}
 }
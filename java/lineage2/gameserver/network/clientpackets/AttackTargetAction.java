@@ -19,4 +19,10 @@ public class AttackTargetAction extends AbstractTargetAction
 	{
 		return true;
 	}
+	
+	@Override
+	public boolean isUrgent()
+	{
+		return true;
+	}
 }
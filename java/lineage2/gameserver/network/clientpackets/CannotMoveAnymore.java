@@ -51,4 +51,15 @@ public class CannotMoveAnymore extends L2GameClientPacket
 		
 		activeChar.getAI().notifyEvent(CtrlEvent.EVT_ARRIVED_BLOCKED, _loc, null);
 	}
+	
+	/**
+	 * Method isUrgent.
+	 * @return boolean
+	 * @see lineage2.commons.net.nio.impl.ReceivablePacket#isUrgent()
+	 */
+	@Override
+	public boolean isUrgent()
+	{
+		return true;
+	}
 }
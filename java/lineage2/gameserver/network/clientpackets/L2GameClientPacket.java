@@ -16,6 +16,7 @@ import java.nio.BufferUnderflowException;
 import java.util.List;
 
 import lineage2.commons.net.nio.impl.ReceivablePacket;
+import lineage2.commons.threading.RunnableStatsManager;
 import lineage2.gameserver.model.Player;
 import lineage2.gameserver.network.GameClient;
 import lineage2.gameserver.network.serverpackets.L2GameServerPacket;
@@ -70,6 +71,8 @@ public abstract class L2GameClientPacket extends ReceivablePacket<GameClient>
 	public final void run()
 	{
 		GameClient client = getClient();
+		final boolean stats = RunnableStatsManager.getInstance().isEnabled();
+		final long begin = stats ? System.nanoTime() : 0;
 		
 		try
 		{
@@ -79,6 +82,20 @@ public abstract class L2GameClientPacket extends ReceivablePacket<GameClient>
 		{
 			_log.error("Client: " + client + " - Failed running: " + getType(), e);
 		}
+		finally
+		{
+			if (stats)
+			{
+				if (getReceiveTime() > 0)
+				{
+					RunnableStatsManager.getInstance().handleStats(getClass(), begin - getReceiveTime(), System.nanoTime() - begin);
+				}
+				else
+				{
+					RunnableStatsManager.getInstance().handleStats(getClass(), System.nanoTime() - begin);
+				}
+			}
+		}
 	}
 	
 	/**
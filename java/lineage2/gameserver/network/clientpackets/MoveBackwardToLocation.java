@@ -122,4 +122,15 @@ public class MoveBackwardToLocation extends L2GameClientPacket
 		
 		activeChar.moveToLocation(_targetLoc, 0, (_moveMovement != 0) && !activeChar.getVarB("no_pf"));
 	}
+	
+	/**
+	 * Method isUrgent.
+	 * @return boolean
+	 * @see lineage2.commons.net.nio.impl.ReceivablePacket#isUrgent()
+	 */
+	@Override
+	public boolean isUrgent()
+	{
+		return true;
+	}
 }
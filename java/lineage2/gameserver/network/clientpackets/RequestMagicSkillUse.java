@@ -137,4 +137,15 @@ public class RequestMagicSkillUse extends L2GameClientPacket
 			activeChar.sendActionFailed();
 		}
 	}
+	
+	/**
+	 * Method isUrgent.
+	 * @return boolean
+	 * @see lineage2.commons.net.nio.impl.ReceivablePacket#isUrgent()
+	 */
+	@Override
+	public boolean isUrgent()
+	{
+		return true;
+	}
 }
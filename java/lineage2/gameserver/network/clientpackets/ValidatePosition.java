@@ -219,4 +219,15 @@ public class ValidatePosition extends L2GameClientPacket
 			activeChar.teleToClosestTown();
 		}
 	}
+	
+	/**
+	 * Method isUrgent.
+	 * @return boolean
+	 * @see lineage2.commons.net.nio.impl.ReceivablePacket#isUrgent()
+	 */
+	@Override
+	public boolean isUrgent()
+	{
+		return true;
+	}
 }
\ No newline at end of file
@@ -106,6 +106,12 @@ public abstract class ExBuySellList extends L2GameServerPacket
 			}
 		}
 		
+		@Override
+		public boolean isInventoryDependent()
+		{
+			return true;
+		}
+		
 		@Override
 		protected void writeImpl()
 		{
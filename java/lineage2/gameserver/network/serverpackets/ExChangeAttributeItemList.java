@@ -25,6 +25,12 @@ public class ExChangeAttributeItemList extends L2GameServerPacket
 		_itemsList = itemsList;
 	}
 	
+	@Override
+	public boolean isInventoryDependent()
+	{
+		return true;
+	}
+	
 	@Override
 	protected void writeImpl()
 	{
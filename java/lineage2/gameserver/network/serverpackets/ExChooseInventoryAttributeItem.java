@@ -51,6 +51,12 @@ public class ExChooseInventoryAttributeItem extends L2GameServerPacket
 		_stoneLvl = asi.getStoneLevel();
 	}
 	
+	@Override
+	public boolean isInventoryDependent()
+	{
+		return true;
+	}
+	
 	@Override
 	protected final void writeImpl()
 	{
@@ -34,6 +34,12 @@ public class ExQuestItemList extends L2GameServerPacket
 		_lockItems = lockItems;
 	}
 	
+	@Override
+	public boolean isInventoryDependent()
+	{
+		return true;
+	}
+	
 	@Override
 	protected void writeImpl()
 	{
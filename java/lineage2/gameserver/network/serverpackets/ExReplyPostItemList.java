@@ -36,6 +36,12 @@ public class ExReplyPostItemList extends L2GameServerPacket
 		}
 	}
 	
+	@Override
+	public boolean isInventoryDependent()
+	{
+		return true;
+	}
+	
 	@Override
 	protected void writeImpl()
 	{
@@ -40,6 +40,12 @@ public class ExShowBaseAttributeCancelWindow extends L2GameServerPacket
 		}
 	}
 	
+	@Override
+	public boolean isInventoryDependent()
+	{
+		return true;
+	}
+	
 	@Override
 	protected final void writeImpl()
 	{
@@ -56,6 +56,12 @@ public class ExShowSellCropList extends L2GameServerPacket
 		}
 	}
 	
+	@Override
+	public boolean isInventoryDependent()
+	{
+		return true;
+	}
+	
 	@Override
 	public void writeImpl()
 	{
@@ -44,6 +44,13 @@ public class InventoryUpdate extends L2GameServerPacket
 		return this;
 	}
 	
+	public InventoryUpdate addRemovedItem(ItemInfo info)
+	{
+		info.setLastChange(REMOVED);
+		_items.add(info);
+		return this;
+	}
+	
 	private ItemInfo addItem(ItemInstance item)
 	{
 		ItemInfo info;
@@ -51,6 +58,12 @@ public class InventoryUpdate extends L2GameServerPacket
 		return info;
 	}
 	
+	@Override
+	public boolean isInventoryDependent()
+	{
+		return true;
+	}
+	
 	@Override
 	protected final void writeImpl()
 	{
@@ -32,6 +32,12 @@ public class ItemList extends L2GameServerPacket
 		_lockItems = lockItems;
 	}
 	
+	@Override
+	public boolean isInventoryDependent()
+	{
+		return true;
+	}
+	
 	@Override
 	protected final void writeImpl()
 	{
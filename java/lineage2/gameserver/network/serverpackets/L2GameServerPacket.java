@@ -222,6 +222,15 @@ public abstract class L2GameServerPacket extends SendablePacket<GameClient> impl
 		writeH(0x00);
 	}
 	
+	/**
+	 * Method isInventoryDependent.
+	 * @return boolean true if the packet refers to the items of the player's inventory, the pending inventory changes are sent before it
+	 */
+	public boolean isInventoryDependent()
+	{
+		return false;
+	}
+	
 	public String getType()
 	{
 		return "[S] " + getClass().getSimpleName();
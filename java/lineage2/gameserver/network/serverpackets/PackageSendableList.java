@@ -48,6 +48,12 @@ public class PackageSendableList extends L2GameServerPacket
 		}
 	}
 	
+	@Override
+	public boolean isInventoryDependent()
+	{
+		return true;
+	}
+	
 	@Override
 	protected final void writeImpl()
 	{
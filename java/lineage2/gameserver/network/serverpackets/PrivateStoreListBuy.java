@@ -61,6 +61,12 @@ public class PrivateStoreListBuy extends L2GameServerPacket
 		}
 	}
 	
+	@Override
+	public boolean isInventoryDependent()
+	{
+		return true;
+	}
+	
 	@Override
 	protected final void writeImpl()
 	{
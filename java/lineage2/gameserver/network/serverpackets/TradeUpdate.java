@@ -25,6 +25,12 @@ public class TradeUpdate extends L2GameServerPacket
 		_amount = amount;
 	}
 	
+	@Override
+	public boolean isInventoryDependent()
+	{
+		return true;
+	}
+	
 	@Override
 	protected final void writeImpl()
 	{
@@ -72,6 +72,12 @@ public class WareHouseWithdrawList extends L2GameServerPacket
 		_inventoryUsedSlots = player.getInventory().getSize();
 	}
 	
+	@Override
+	public boolean isInventoryDependent()
+	{
+		return true;
+	}
+	
 	@Override
 	protected final void writeImpl()
 	{
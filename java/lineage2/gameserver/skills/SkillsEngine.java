@@ -13,11 +13,14 @@
 package lineage2.gameserver.skills;
 
 import java.io.File;
-import java.util.Collection;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import lineage2.gameserver.Config;
 import lineage2.gameserver.model.Skill;
@@ -72,7 +75,8 @@ public class SkillsEngine
 	}
 	
 	/**
-	 * Method loadAllSkills.
+	 * Method loadAllSkills.<br>
+	 * Every file is a self-contained document, the files are parsed on the fork-join pool and merged in file order.
 	 * @return Map<Integer,Skill>
 	 */
 	public Map<Integer, Skill> loadAllSkills()
@@ -85,13 +89,29 @@ public class SkillsEngine
 			return Collections.emptyMap();
 		}
 		
-		Collection<File> files = FileUtils.listFiles(dir, FileFilterUtils.suffixFileFilter(".xml"), FileFilterUtils.directoryFileFilter());
+		List<Future<List<Skill>>> loads = new ArrayList<>();
+		
+		for (final File file : FileUtils.listFiles(dir, FileFilterUtils.suffixFileFilter(".xml"), FileFilterUtils.directoryFileFilter()))
+		{
+			loads.add(ForkJoinPool.commonPool().submit(() -> loadSkills(file)));
+		}
+		
 		Map<Integer, Skill> result = new HashMap<>();
 		int maxId = 0, maxLvl = 0;
 		
-		for (File file : files)
+		for (Future<List<Skill>> load : loads)
 		{
-			List<Skill> s = loadSkills(file);
+			List<Skill> s;
+			
+			try
+			{
+				s = load.get();
+			}
+			catch (InterruptedException | ExecutionException e)
+			{
+				_log.error("SkillsEngine: Error loading skills", e);
+				continue;
+			}
 			
 			if (s == null)
 			{
@@ -67,10 +67,10 @@ public class EffectRandomHate extends Effect
 		
 		if (!hateList.isEmpty())
 		{
-			AggroList.AggroInfo newAggroInfo = monster.getAggroList().get(hateList.get(Rnd.get(hateList.size())));
-			final int oldHate = newAggroInfo.hate;
-			newAggroInfo.hate = mostAggroInfo.hate;
-			mostAggroInfo.hate = oldHate;
+			Creature newHated = hateList.get(Rnd.get(hateList.size()));
+			AggroList.AggroInfo newAggroInfo = monster.getAggroList().get(newHated);
+			monster.getAggroList().setHate(newHated, mostAggroInfo.hate);
+			monster.getAggroList().setHate(mostHated, newAggroInfo.hate);
 		}
 	}
 	
@@ -17,18 +17,19 @@ import java.util.Map;
 
 import lineage2.gameserver.model.Skill;
 import lineage2.gameserver.skills.SkillsEngine;
-import gnu.trove.map.hash.TIntIntHashMap;
 
 /**
  * @author Mobius
  */
 public class SkillTable
 {
+	private static final Skill[][] EMPTY_SKILLS = new Skill[0][];
 	private static final SkillTable _instance = new SkillTable();
 	public final Map<Integer, Integer> identifySkills = new HashMap<>();
-	private Map<Integer, Skill> _skills;
-	private TIntIntHashMap _maxLevelsTable;
-	private TIntIntHashMap _baseLevelsTable;
+	/** Skills by id, then by level; enchanted levels (route * 100 + level) share the level array. Replaced as a whole on reload. */
+	private volatile Skill[][] _skills = EMPTY_SKILLS;
+	private volatile int[] _maxLevels = new int[0];
+	private volatile int[] _baseLevels = new int[0];
 	
 	/**
 	 * Method getInstance.
@@ -44,8 +45,7 @@ public class SkillTable
 	 */
 	public void load()
 	{
-		_skills = SkillsEngine.getInstance().loadAllSkills();
-		makeLevelsTable();
+		makeTables(SkillsEngine.getInstance().loadAllSkills());
 	}
 	
 	/**
@@ -64,7 +64,21 @@ public class SkillTable
 	 */
 	public Skill getInfo(int skillId, int level)
 	{
-		return _skills.get(getSkillHashCode(skillId, level));
+		Skill[][] skills = _skills;
+		
+		if ((skillId < 0) || (skillId >= skills.length))
+		{
+			return null;
+		}
+		
+		Skill[] levels = skills[skillId];
+		
+		if ((levels == null) || (level < 0) || (level >= levels.length))
+		{
+			return null;
+		}
+		
+		return levels[level];
 	}
 	
 	/**
@@ -74,7 +88,8 @@ public class SkillTable
 	 */
 	public int getMaxLevel(int skillId)
 	{
-		return _maxLevelsTable.get(skillId);
+		int[] maxLevels = _maxLevels;
+		return (skillId >= 0) && (skillId < maxLevels.length) ? maxLevels[skillId] : 0;
 	}
 	
 	/**
@@ -84,7 +99,8 @@ public class SkillTable
 	 */
 	public int getBaseLevel(int skillId)
 	{
-		return _baseLevelsTable.get(skillId);
+		int[] baseLevels = _baseLevels;
+		return (skillId >= 0) && (skillId < baseLevels.length) ? baseLevels[skillId] : 0;
 	}
 	
 	/**
@@ -109,28 +125,55 @@ public class SkillTable
 	}
 	
 	/**
-	 * Method makeLevelsTable.
+	 * Builds the dense tables from the loaded skills, sized by the highest id and by the highest level of every id.
+	 * @param loaded Map<Integer, Skill>
 	 */
-	private void makeLevelsTable()
+	private void makeTables(Map<Integer, Skill> loaded)
 	{
-		_maxLevelsTable = new TIntIntHashMap();
-		_baseLevelsTable = new TIntIntHashMap();
+		int highestId = -1;
 		
-		for (Skill s : _skills.values())
+		for (Skill s : loaded.values())
+		{
+			highestId = Math.max(highestId, s.getId());
+		}
+		
+		int[] maxLevels = new int[highestId + 1];
+		int[] baseLevels = new int[highestId + 1];
+		int[] highestLevels = new int[highestId + 1];
+		
+		for (Skill s : loaded.values())
 		{
 			int skillId = s.getId();
 			int level = s.getLevel();
-			int maxLevel = _maxLevelsTable.get(skillId);
+			highestLevels[skillId] = Math.max(highestLevels[skillId], level + 1);
 			
-			if (level > maxLevel)
+			if (level > maxLevels[skillId])
 			{
-				_maxLevelsTable.put(skillId, level);
+				maxLevels[skillId] = level;
 			}
 			
-			if (_baseLevelsTable.get(skillId) == 0)
+			if (baseLevels[skillId] == 0)
+			{
+				baseLevels[skillId] = s.getBaseLevel();
+			}
+		}
+		
+		Skill[][] skills = new Skill[highestId + 1][];
+		
+		for (Skill s : loaded.values())
+		{
+			Skill[] levels = skills[s.getId()];
+			
+			if (levels == null)
 			{
-				_baseLevelsTable.put(skillId, s.getBaseLevel());
+				levels = skills[s.getId()] = new Skill[highestLevels[s.getId()]];
 			}
+			
+			levels[s.getLevel()] = s;
 		}
+		
+		_maxLevels = maxLevels;
+		_baseLevels = baseLevels;
+		_skills = skills;
 	}
 }
@@ -17,6 +17,7 @@ import lineage2.commons.threading.SteppingRunnableQueueManager;
 import lineage2.commons.util.Rnd;
 import lineage2.gameserver.Config;
 import lineage2.gameserver.ThreadPoolManager;
+import lineage2.gameserver.database.DatabaseGuard;
 
 /**
  * @author Mobius
@@ -61,6 +62,31 @@ public class AiTaskManager extends SteppingRunnableQueueManager
 		}, 60000L, 60000L);
 	}
 	
+	/**
+	 * Method run.
+	 * @see java.lang.Runnable#run()
+	 */
+	@Override
+	public void run()
+	{
+		if (!Config.DATABASE_GUARD)
+		{
+			super.run();
+			return;
+		}
+		
+		DatabaseGuard.enter(DatabaseGuard.AI);
+		
+		try
+		{
+			super.run();
+		}
+		finally
+		{
+			DatabaseGuard.exit();
+		}
+	}
+	
 	/**
 	 * Method getStats.
 	 * @param num int
@@ -12,8 +12,12 @@
  */
 package lineage2.gameserver.taskmanager;
 
-import java.util.ArrayList;
-import java.util.List;
+import gnu.trove.map.hash.TIntObjectHashMap;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import lineage2.commons.lang.reference.HardReference;
 import lineage2.commons.threading.RunnableImpl;
@@ -23,22 +27,35 @@ import lineage2.gameserver.model.instances.NpcInstance;
 import lineage2.gameserver.utils.Util;
 
 /**
+ * Respawns are kept in a heap ordered by deadline, indexed by npc object id, so adding and replacing a respawn is O(log n) and a tick only looks at the due ones.<br>
+ * A tick releases at most BATCH due respawns; the rest of a burst, such as a zone wipe, is left in the heap for the next ticks. Released respawns are handed to lanes on the executor by spawner, so the respawns of one spawner run one after another while different spawners respawn in parallel.
  * @author Mobius
  * @version $Revision: 1.0 $
  */
-public class SpawnTaskManager
+public class SpawnTaskManager extends RunnableImpl
 {
-	SpawnTask[] _spawnTasks = new SpawnTask[500];
-	int _spawnTasksSize = 0;
-	final Object spawnTasks_lock = new Object();
-	private static SpawnTaskManager _instance;
+	private static final long TICK = 250L;
+	/** Respawns released per tick, 1600 per second. */
+	private static final int BATCH = 400;
+	private static final int LANES = Math.max(2, Runtime.getRuntime().availableProcessors());
+	private static final SpawnTaskManager _instance = new SpawnTaskManager();
+	private final Object _lock = new Object();
+	private SpawnTask[] _heap = new SpawnTask[512];
+	private int _size;
+	private final TIntObjectHashMap<SpawnTask> _tasks = new TIntObjectHashMap<>();
+	private final SpawnLane[] _lanes = new SpawnLane[LANES];
 	
 	/**
 	 * Constructor for SpawnTaskManager.
 	 */
-	public SpawnTaskManager()
+	private SpawnTaskManager()
 	{
-		ThreadPoolManager.getInstance().scheduleAtFixedRate(new SpawnScheduler(), 2000, 2000);
+		for (int i = 0; i < _lanes.length; i++)
+		{
+			_lanes[i] = new SpawnLane();
+		}
+		
+		ThreadPoolManager.getInstance().scheduleAtFixedRate(this, TICK, TICK);
 	}
 	
 	/**
@@ -47,11 +64,6 @@ public class SpawnTaskManager
 	 */
 	public static SpawnTaskManager getInstance()
 	{
-		if (_instance == null)
-		{
-			_instance = new SpawnTaskManager();
-		}
-		
 		return _instance;
 	}
 	
@@ -62,100 +74,169 @@ public class SpawnTaskManager
 	 */
 	public void addSpawnTask(NpcInstance actor, long interval)
 	{
-		removeObject(actor);
-		addObject(new SpawnTask(actor, System.currentTimeMillis() + interval));
+		long endtime = System.currentTimeMillis() + interval;
+		
+		synchronized (_lock)
+		{
+			SpawnTask task = _tasks.get(actor.getObjectId());
+			
+			if (task != null)
+			{
+				task._npcRef = actor.getRef();
+				long old = task._endtime;
+				task._endtime = endtime;
+				
+				if (endtime < old)
+				{
+					siftUp(task._index);
+				}
+				else
+				{
+					siftDown(task._index);
+				}
+				
+				return;
+			}
+			
+			task = new SpawnTask(actor, endtime);
+			_tasks.put(actor.getObjectId(), task);
+			
+			if (_size == _heap.length)
+			{
+				_heap = Arrays.copyOf(_heap, _size * 2);
+			}
+			
+			task._index = _size;
+			_heap[_size++] = task;
+			siftUp(task._index);
+		}
 	}
 	
 	/**
-	 * @author Mobius
+	 * Method runImpl.
 	 */
-	private class SpawnScheduler extends RunnableImpl
+	@Override
+	public void runImpl()
 	{
-		public SpawnScheduler()
-		{
-		}
+		long current = System.currentTimeMillis();
 		
-		/**
-		 * Method runImpl.
-		 */
-		@Override
-		public void runImpl()
+		for (int released = 0; released < BATCH; released++)
 		{
-			if (_spawnTasksSize > 0)
+			NpcInstance actor;
+			
+			synchronized (_lock)
 			{
-				try
-				{
-					List<NpcInstance> works = new ArrayList<>();
-					synchronized (spawnTasks_lock)
-					{
-						long current = System.currentTimeMillis();
-						int size = _spawnTasksSize;
-						
-						for (int i = size - 1; i >= 0; i--)
-						{
-							try
-							{
-								SpawnTask container = _spawnTasks[i];
-								
-								if ((container != null) && (container.endtime > 0) && (current > container.endtime))
-								{
-									NpcInstance actor = container.getActor();
-									
-									if ((actor != null) && (actor.getSpawn() != null))
-									{
-										works.add(actor);
-									}
-									
-									container.endtime = -1;
-								}
-								
-								if ((container == null) || (container.getActor() == null) || (container.endtime < 0))
-								{
-									if (i == (_spawnTasksSize - 1))
-									{
-										_spawnTasks[i] = null;
-									}
-									else
-									{
-										_spawnTasks[i] = _spawnTasks[_spawnTasksSize - 1];
-										_spawnTasks[_spawnTasksSize - 1] = null;
-									}
-									
-									if (_spawnTasksSize > 0)
-									{
-										_spawnTasksSize--;
-									}
-								}
-							}
-							catch (Exception e)
-							{
-								_log.error("", e);
-							}
-						}
-					}
-					
-					for (NpcInstance work : works)
-					{
-						Spawner spawn = work.getSpawn();
-						
-						if (spawn == null)
-						{
-							continue;
-						}
-						
-						spawn.decreaseScheduledCount();
-						
-						if (spawn.isDoRespawn())
-						{
-							spawn.respawnNpc(work);
-						}
-					}
-				}
-				catch (Exception e)
+				if ((_size == 0) || (_heap[0]._endtime > current))
 				{
-					_log.error("", e);
+					return;
 				}
+				
+				SpawnTask task = _heap[0];
+				removeAt(0);
+				_tasks.remove(task._objectId);
+				actor = task._npcRef.get();
+			}
+			
+			Spawner spawn = actor == null ? null : actor.getSpawn();
+			
+			if (spawn != null)
+			{
+				_lanes[(System.identityHashCode(spawn) & Integer.MAX_VALUE) % _lanes.length].add(actor);
+			}
+		}
+	}
+	
+	/**
+	 * Method removeAt.
+	 * @param index int
+	 */
+	private void removeAt(int index)
+	{
+		SpawnTask last = _heap[--_size];
+		_heap[_size] = null;
+		
+		if (index == _size)
+		{
+			return;
+		}
+		
+		_heap[index] = last;
+		last._index = index;
+		siftDown(index);
+		siftUp(last._index);
+	}
+	
+	/**
+	 * Method siftUp.
+	 * @param index int
+	 */
+	private void siftUp(int index)
+	{
+		SpawnTask task = _heap[index];
+		
+		while (index > 0)
+		{
+			int parent = (index - 1) >>> 1;
+			SpawnTask p = _heap[parent];
+			
+			if (p._endtime <= task._endtime)
+			{
+				break;
 			}
+			
+			_heap[index] = p;
+			p._index = index;
+			index = parent;
+		}
+		
+		_heap[index] = task;
+		task._index = index;
+	}
+	
+	/**
+	 * Method siftDown.
+	 * @param index int
+	 */
+	private void siftDown(int index)
+	{
+		SpawnTask task = _heap[index];
+		int half = _size >>> 1;
+		
+		while (index < half)
+		{
+			int child = (index << 1) + 1;
+			int right = child + 1;
+			
+			if ((right < _size) && (_heap[right]._endtime < _heap[child]._endtime))
+			{
+				child = right;
+			}
+			
+			SpawnTask c = _heap[child];
+			
+			if (task._endtime <= c._endtime)
+			{
+				break;
+			}
+			
+			_heap[index] = c;
+			c._index = index;
+			index = child;
+		}
+		
+		_heap[index] = task;
+		task._index = index;
+	}
+	
+	/**
+	 * Method getTaskCount.
+	 * @return int
+	 */
+	public int getTaskCount()
+	{
+		synchronized (_lock)
+		{
+			return _size;
 		}
 	}
 	
@@ -167,14 +248,18 @@ public class SpawnTaskManager
 	public String toString()
 	{
 		StringBuilder sb = new StringBuilder("============= SpawnTask Manager Report ============\n\r");
-		sb.append("Tasks count: ").append(_spawnTasksSize).append("\n\r");
-		sb.append("Tasks dump:\n\r");
 		long current = System.currentTimeMillis();
 		
-		for (SpawnTask container : _spawnTasks)
+		synchronized (_lock)
 		{
-			sb.append("Class/Name: ").append(container.getClass().getSimpleName()).append('/').append(container.getActor());
-			sb.append(" spawn timer: ").append(Util.formatTime((int) (container.endtime - current))).append("\n\r");
+			sb.append("Tasks count: ").append(_size).append("\n\r");
+			sb.append("Tasks dump:\n\r");
+			
+			for (int i = 0; i < _size; i++)
+			{
+				sb.append("Class/Name: ").append(_heap[i].getClass().getSimpleName()).append('/').append(_heap[i]._npcRef.get());
+				sb.append(" spawn timer: ").append(Util.formatTime((int) ((_heap[i]._endtime - current) / 1000L))).append("\n\r");
+			}
 		}
 		
 		return sb.toString();
@@ -183,83 +268,94 @@ public class SpawnTaskManager
 	/**
 	 * @author Mobius
 	 */
-	private class SpawnTask
+	private static class SpawnTask
 	{
-		private final HardReference<NpcInstance> _npcRef;
-		public long endtime;
+		final int _objectId;
+		HardReference<NpcInstance> _npcRef;
+		long _endtime;
+		/** Position in the heap. */
+		int _index;
 		
 		/**
 		 * Constructor for SpawnTask.
 		 * @param cha NpcInstance
-		 * @param delay long
+		 * @param endtime long
 		 */
-		SpawnTask(NpcInstance cha, long delay)
+		SpawnTask(NpcInstance cha, long endtime)
 		{
+			_objectId = cha.getObjectId();
 			_npcRef = cha.getRef();
-			endtime = delay;
-		}
-		
-		/**
-		 * Method getActor.
-		 * @return NpcInstance
-		 */
-		public NpcInstance getActor()
-		{
-			return _npcRef.get();
+			_endtime = endtime;
 		}
 	}
 	
 	/**
-	 * Method addObject.
-	 * @param decay SpawnTask
+	 * Respawns handed over by the ticks, run in order by at most one executor thread at a time.
+	 * @author Mobius
 	 */
-	private void addObject(SpawnTask decay)
+	private static class SpawnLane extends RunnableImpl
 	{
-		synchronized (spawnTasks_lock)
+		private final Queue<NpcInstance> _queue = new ConcurrentLinkedQueue<>();
+		private final AtomicBoolean _scheduled = new AtomicBoolean();
+		
+		/**
+		 * Constructor for SpawnLane.
+		 */
+		SpawnLane()
 		{
-			if (_spawnTasksSize >= _spawnTasks.length)
+		}
+		
+		/**
+		 * Method add.
+		 * @param actor NpcInstance
+		 */
+		void add(NpcInstance actor)
+		{
+			_queue.add(actor);
+			
+			if (_scheduled.compareAndSet(false, true))
 			{
-				SpawnTask[] temp = new SpawnTask[_spawnTasks.length * 2];
-				System.arraycopy(_spawnTasks, 0, temp, 0, _spawnTasksSize);
-				_spawnTasks = temp;
+				ThreadPoolManager.getInstance().execute(this);
 			}
-			
-			_spawnTasks[_spawnTasksSize] = decay;
-			_spawnTasksSize++;
 		}
-	}
-	
-	/**
-	 * Method removeObject.
-	 * @param actor NpcInstance
-	 */
-	private void removeObject(NpcInstance actor)
-	{
-		synchronized (spawnTasks_lock)
+		
+		/**
+		 * Method runImpl.
+		 */
+		@Override
+		public void runImpl()
 		{
-			if (_spawnTasksSize > 1)
+			NpcInstance actor;
+			
+			while ((actor = _queue.poll()) != null)
 			{
-				int k = -1;
-				
-				for (int i = 0; i < _spawnTasksSize; i++)
+				try
 				{
-					if (_spawnTasks[i].getActor() == actor)
+					Spawner spawn = actor.getSpawn();
+					
+					if (spawn == null)
 					{
-						k = i;
+						continue;
+					}
+					
+					spawn.decreaseScheduledCount();
+					
+					if (spawn.isDoRespawn())
+					{
+						spawn.respawnNpc(actor);
 					}
 				}
-				
-				if (k > -1)
+				catch (Exception e)
 				{
-					_spawnTasks[k] = _spawnTasks[_spawnTasksSize - 1];
-					_spawnTasks[_spawnTasksSize - 1] = null;
-					_spawnTasksSize--;
+					_log.error("", e);
 				}
 			}
-			else if ((_spawnTasksSize == 1) && (_spawnTasks[0].getActor() == actor))
+			
+			_scheduled.set(false);
+			
+			if (!_queue.isEmpty() && _scheduled.compareAndSet(false, true))
 			{
-				_spawnTasks[0] = null;
-				_spawnTasksSize = 0;
+				ThreadPoolManager.getInstance().execute(this);
 			}
 		}
 	}
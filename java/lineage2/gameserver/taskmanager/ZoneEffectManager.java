@@ -0,0 +1,92 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.gameserver.taskmanager;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lineage2.commons.threading.RunnableImpl;
+import lineage2.gameserver.ThreadPoolManager;
+import lineage2.gameserver.model.Zone;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Ticks the skill and damage effects of all occupied zones in one pass. A zone is only held here while a creature it affects is inside.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class ZoneEffectManager extends RunnableImpl
+{
+	private static final Logger _log = LoggerFactory.getLogger(ZoneEffectManager.class);
+	private static final long TICK = 250L;
+	private static final ZoneEffectManager _instance = new ZoneEffectManager();
+	private final Set<Zone> _zones = ConcurrentHashMap.newKeySet();
+	
+	/**
+	 * Method getInstance.
+	 * @return ZoneEffectManager
+	 */
+	public static ZoneEffectManager getInstance()
+	{
+		return _instance;
+	}
+	
+	/**
+	 * Constructor for ZoneEffectManager.
+	 */
+	private ZoneEffectManager()
+	{
+		ThreadPoolManager.getInstance().scheduleAtFixedRate(this, TICK, TICK);
+	}
+	
+	/**
+	 * Method add.
+	 * @param zone Zone got its first affected creature
+	 */
+	public void add(Zone zone)
+	{
+		_zones.add(zone);
+	}
+	
+	/**
+	 * Method remove.
+	 * @param zone Zone lost its last affected creature
+	 */
+	public void remove(Zone zone)
+	{
+		_zones.remove(zone);
+	}
+	
+	/**
+	 * Method runImpl.
+	 */
+	@Override
+	public void runImpl()
+	{
+		long now = System.currentTimeMillis();
+		
+		for (Zone zone : _zones)
+		{
+			try
+			{
+				zone.runEffects(now);
+			}
+			catch (Exception e)
+			{
+				_log.error("ZoneEffectManager: error in zone " + zone.getName(), e);
+			}
+		}
+	}
+}
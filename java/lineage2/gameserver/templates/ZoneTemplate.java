@@ -16,6 +16,7 @@ import java.util.List;
 
 import lineage2.commons.collections.MultiValueSet;
 import lineage2.commons.configuration.ExProperties;
+import lineage2.gameserver.model.PlayerVisibility;
 import lineage2.gameserver.model.Skill;
 import lineage2.gameserver.model.Territory;
 import lineage2.gameserver.model.Zone.ZoneTarget;
@@ -58,6 +59,8 @@ public class ZoneTemplate
 	private final int _taxById;
 	private final StatsSet _params;
 	private final int _jumpingTrackId;
+	private final int _visiblePlayersLimit;
+	private final PlayerVisibility.Priority[] _visiblePlayersPriority;
 	
 	/**
 	 * Constructor for ZoneTemplate.
@@ -112,6 +115,9 @@ public class ZoneTemplate
 		_index = set.getInteger("index", 0);
 		_taxById = set.getInteger("taxById", 0);
 		_jumpingTrackId = set.getInteger("jumping_track", -1);
+		_visiblePlayersLimit = set.getInteger("visible_players_limit", 0);
+		s = set.getString("visible_players_priority", null);
+		_visiblePlayersPriority = s == null ? null : PlayerVisibility.Priority.parse(s);
 		_params = set;
 	}
 	
@@ -358,6 +364,24 @@ public class ZoneTemplate
 		return _jumpingTrackId;
 	}
 	
+	/**
+	 * Method getVisiblePlayersLimit.
+	 * @return int 0 if the zone does not limit the visible players
+	 */
+	public int getVisiblePlayersLimit()
+	{
+		return _visiblePlayersLimit;
+	}
+	
+	/**
+	 * Method getVisiblePlayersPriority.
+	 * @return PlayerVisibility.Priority[] null to use the default priorities
+	 */
+	public PlayerVisibility.Priority[] getVisiblePlayersPriority()
+	{
+		return _visiblePlayersPriority;
+	}
+	
 	/**
 	 * Method getParams.
 	 * @return MultiValueSet<String>
@@ -0,0 +1,646 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.loadtest;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import lineage2.commons.net.nio.impl.MMOClient;
+import lineage2.commons.net.nio.impl.MMOConnection;
+import lineage2.commons.util.Rnd;
+import lineage2.gameserver.network.GameCrypt;
+import lineage2.loadtest.BotStats.Request;
+import lineage2.loadtest.clientpackets.AttackTargetAction;
+import lineage2.loadtest.clientpackets.AuthLogin;
+import lineage2.loadtest.clientpackets.BotClientPacket;
+import lineage2.loadtest.clientpackets.CharacterCreate;
+import lineage2.loadtest.clientpackets.CharacterSelected;
+import lineage2.loadtest.clientpackets.EnterWorld;
+import lineage2.loadtest.clientpackets.GotoLobby;
+import lineage2.loadtest.clientpackets.Logout;
+import lineage2.loadtest.clientpackets.MoveBackwardToLocation;
+import lineage2.loadtest.clientpackets.NetPing;
+import lineage2.loadtest.clientpackets.ProtocolVersion;
+import lineage2.loadtest.clientpackets.RequestCommissionList;
+import lineage2.loadtest.clientpackets.RequestRestartPoint;
+import lineage2.loadtest.clientpackets.Say2C;
+import lineage2.loadtest.clientpackets.SelectTargetAction;
+import lineage2.loginserver.loadtest.LoginHandshake;
+
+/**
+ * One scripted client on the game connection.<br>
+ * Once in the world the bot acts at a fixed interval: it moves around its spawn, attacks and talks to the NPCs it sees, chats, browses the commission shop and probes the server tick lag with the .ping command.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public final class BotClient extends MMOClient<MMOConnection<BotClient>>
+{
+	/** Time after which an unanswered request is counted as a timeout. */
+	private static final long REQUEST_TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+	/** Delay of the answer of the .ping command, see handlers.voicedcommands.Ping. */
+	private static final long PING_ANSWER_DELAY = TimeUnit.SECONDS.toNanos(3);
+	private static final int PING_IDLE = 0;
+	private static final int PING_SENT = 1;
+	private static final int PING_ECHOED = 2;
+	private final GameLoadTest _test;
+	private final BotStats _stats;
+	private final GameCrypt _crypt = new GameCrypt();
+	private boolean _keyReceived;
+	private String _login;
+	private LoginHandshake _session;
+	private boolean _characterCreated;
+	private boolean _inGame;
+	private int _objectId;
+	private int _spawnX;
+	private int _spawnY;
+	private int _spawnZ;
+	private int _x;
+	private int _y;
+	private int _z;
+	private int _targetId;
+	private int _dialogNpcId;
+	private final Map<Integer, int[]> _npcs = new HashMap<>();
+	private final long[] _pending = new long[Request.values().length];
+	private int _pingState = PING_IDLE;
+	private long _pingTime;
+	private int _chatCount;
+	private volatile ScheduledFuture<?> _actionTask;
+	
+	/**
+	 * Constructor for BotClient.
+	 * @param con MMOConnection<BotClient>
+	 * @param test GameLoadTest
+	 */
+	public BotClient(MMOConnection<BotClient> con, GameLoadTest test)
+	{
+		super(con);
+		_test = test;
+		_stats = test.getStats();
+	}
+	
+	/**
+	 * Starts the game login with the session keys of the login server.
+	 * @param login String
+	 * @param session LoginHandshake
+	 */
+	public synchronized void start(String login, LoginHandshake session)
+	{
+		_login = login;
+		_session = session;
+		_stats.connected();
+		sendPacket(new ProtocolVersion(_test.getRevision()));
+	}
+	
+	/**
+	 * Sends Logout and closes the connection once it is written.
+	 */
+	public synchronized void logout()
+	{
+		cancelActions();
+		
+		if (isConnected())
+		{
+			getConnection().close(new Logout());
+		}
+	}
+	
+	/**
+	 * Method setKey.
+	 * @param key byte[]
+	 */
+	public void setKey(byte[] key)
+	{
+		_crypt.setKey(key);
+		_keyReceived = true;
+	}
+	
+	/**
+	 * Method decrypt.
+	 * @param buf ByteBuffer
+	 * @param size int
+	 * @return boolean
+	 */
+	@Override
+	public boolean decrypt(ByteBuffer buf, int size)
+	{
+		_stats.packetReceived(size + 2);
+		
+		if (!_keyReceived)
+		{
+			return true;
+		}
+		
+		return _crypt.decrypt(buf.array(), buf.position(), size);
+	}
+	
+	/**
+	 * Method encrypt.
+	 * @param buf ByteBuffer
+	 * @param size int
+	 * @return boolean
+	 */
+	@Override
+	public boolean encrypt(ByteBuffer buf, int size)
+	{
+		_stats.packetSent(size + 2);
+		_crypt.encrypt(buf.array(), buf.position(), size);
+		buf.position(buf.position() + size);
+		return true;
+	}
+	
+	/**
+	 * Method sendPacket.
+	 * @param packet BotClientPacket
+	 */
+	private void sendPacket(BotClientPacket packet)
+	{
+		if (isConnected())
+		{
+			getConnection().sendPacket(packet);
+		}
+	}
+	
+	/**
+	 * Sends the packet and starts the timer of the request, unless one is already running.
+	 * @param request Request
+	 * @param packet BotClientPacket
+	 */
+	private void sendRequest(Request request, BotClientPacket packet)
+	{
+		if (_pending[request.ordinal()] == 0)
+		{
+			_pending[request.ordinal()] = System.nanoTime();
+		}
+		
+		sendPacket(packet);
+	}
+	
+	/**
+	 * Stops the timer of the request.
+	 * @param request Request
+	 */
+	private void answered(Request request)
+	{
+		long sent = _pending[request.ordinal()];
+		
+		if (sent != 0)
+		{
+			_pending[request.ordinal()] = 0;
+			_stats.record(request, System.nanoTime() - sent);
+		}
+	}
+	
+	/**
+	 * Method fail.
+	 * @param error String
+	 */
+	private void fail(String error)
+	{
+		_stats.error(error);
+		closeNow(true);
+	}
+	
+	/**
+	 * Method onKey.
+	 * @param accepted boolean
+	 */
+	public synchronized void onKey(boolean accepted)
+	{
+		if (!accepted)
+		{
+			fail("Protocol revision " + _test.getRevision() + " refused");
+			return;
+		}
+		
+		sendRequest(Request.LOGIN, new AuthLogin(_login, _session.getPlayOk1(), _session.getPlayOk2(), _session.getLoginOk1(), _session.getLoginOk2()));
+	}
+	
+	/**
+	 * Method onCharacterList.
+	 * @param size int
+	 */
+	public synchronized void onCharacterList(int size)
+	{
+		answered(Request.LOGIN);
+		
+		if (size > 0)
+		{
+			sendPacket(new CharacterSelected(0));
+		}
+		else if (!_characterCreated)
+		{
+			_characterCreated = true;
+			sendPacket(new CharacterCreate(_login));
+		}
+		else
+		{
+			fail("No character after creation");
+		}
+	}
+	
+	/**
+	 * Method onCharacterCreate.
+	 * @param reason int 0 on success
+	 */
+	public synchronized void onCharacterCreate(int reason)
+	{
+		if (reason != 0)
+		{
+			fail("CharacterCreateFail " + reason);
+			return;
+		}
+		
+		sendPacket(new GotoLobby());
+	}
+	
+	/**
+	 * Method onCharSelected.
+	 * @param objectId int
+	 */
+	public synchronized void onCharSelected(int objectId)
+	{
+		_objectId = objectId;
+		sendRequest(Request.ENTER_WORLD, new EnterWorld());
+	}
+	
+	/**
+	 * Method onUserInfo.
+	 * @param objectId int
+	 * @param x int
+	 * @param y int
+	 * @param z int
+	 */
+	public synchronized void onUserInfo(int objectId, int x, int y, int z)
+	{
+		_x = x;
+		_y = y;
+		_z = z;
+		
+		if (_inGame)
+		{
+			return;
+		}
+		
+		_inGame = true;
+		_objectId = objectId;
+		_spawnX = x;
+		_spawnY = y;
+		_spawnZ = z;
+		answered(Request.ENTER_WORLD);
+		_stats.entered();
+		long interval = _test.getActionInterval();
+		_actionTask = _test.getScheduler().scheduleAtFixedRate(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				act();
+			}
+		}, Rnd.get(interval), interval, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Method onNpcInfo.
+	 * @param objectId int
+	 * @param npcId int
+	 * @param attackable boolean
+	 * @param x int
+	 * @param y int
+	 * @param z int
+	 */
+	public synchronized void onNpcInfo(int objectId, int npcId, boolean attackable, int x, int y, int z)
+	{
+		_npcs.put(objectId, new int[]
+		{
+			x,
+			y,
+			z,
+			attackable ? 1 : 0
+		});
+	}
+	
+	/**
+	 * Method onDeleteObject.
+	 * @param objectId int
+	 */
+	public synchronized void onDeleteObject(int objectId)
+	{
+		_npcs.remove(objectId);
+		
+		if (_targetId == objectId)
+		{
+			_targetId = 0;
+		}
+	}
+	
+	/**
+	 * Method onDie.
+	 * @param objectId int
+	 */
+	public synchronized void onDie(int objectId)
+	{
+		if (objectId == _objectId)
+		{
+			_targetId = 0;
+			sendPacket(new RequestRestartPoint());
+		}
+		else
+		{
+			onDeleteObject(objectId);
+		}
+	}
+	
+	/**
+	 * Method onMove.
+	 * @param objectId int
+	 * @param x int
+	 * @param y int
+	 * @param z int
+	 */
+	public synchronized void onMove(int objectId, int x, int y, int z)
+	{
+		if (objectId == _objectId)
+		{
+			_x = x;
+			_y = y;
+			_z = z;
+			answered(Request.MOVE);
+		}
+		else
+		{
+			int[] npc = _npcs.get(objectId);
+			
+			if (npc != null)
+			{
+				npc[0] = x;
+				npc[1] = y;
+				npc[2] = z;
+			}
+		}
+	}
+	
+	/**
+	 * Method onTargetSelected.
+	 * @param objectId int
+	 */
+	public synchronized void onTargetSelected(int objectId)
+	{
+		_targetId = objectId;
+		answered(Request.TARGET);
+	}
+	
+	/**
+	 * Method onAttack.
+	 * @param attackerId int
+	 * @param targetId int
+	 */
+	public synchronized void onAttack(int attackerId, int targetId)
+	{
+		if (attackerId == _objectId)
+		{
+			answered(Request.ATTACK);
+		}
+	}
+	
+	/**
+	 * Method onSay.
+	 * @param objectId int
+	 */
+	public synchronized void onSay(int objectId)
+	{
+		if (objectId == _objectId)
+		{
+			answered(Request.CHAT);
+		}
+	}
+	
+	/**
+	 * Method onNpcHtml.
+	 * @param npcObjectId int
+	 */
+	public synchronized void onNpcHtml(int npcObjectId)
+	{
+		_dialogNpcId = npcObjectId;
+		answered(Request.NPC_DIALOG);
+	}
+	
+	/**
+	 * Method onCommissionList.
+	 * @param type int
+	 */
+	public synchronized void onCommissionList(int type)
+	{
+		answered(Request.COMMISSION);
+	}
+	
+	/**
+	 * The server sends NetPingPacket right away and answers the .ping command from its scheduler 3 seconds later, any delay beyond those 3 seconds is tick lag.
+	 * @param clientId int
+	 */
+	public synchronized void onNetPing(int clientId)
+	{
+		sendPacket(new NetPing(clientId, 0));
+		
+		if (_pingState == PING_SENT)
+		{
+			_pingState = PING_ECHOED;
+			_pingTime = System.nanoTime();
+		}
+	}
+	
+	/**
+	 * Method onSystemMessage.
+	 * @param text String
+	 */
+	public synchronized void onSystemMessage(String text)
+	{
+		if ((_pingState == PING_ECHOED) && (text != null) && (text.startsWith("Current ping") || text.startsWith("The data from the client")))
+		{
+			_pingState = PING_IDLE;
+			_stats.recordTickLag(System.nanoTime() - _pingTime - PING_ANSWER_DELAY);
+		}
+	}
+	
+	/**
+	 * Runs one step of the script.
+	 */
+	synchronized void act()
+	{
+		if (!isConnected())
+		{
+			cancelActions();
+			return;
+		}
+		
+		long now = System.nanoTime();
+		
+		for (Request request : Request.values())
+		{
+			long sent = _pending[request.ordinal()];
+			
+			if ((sent != 0) && ((now - sent) > REQUEST_TIMEOUT))
+			{
+				_pending[request.ordinal()] = 0;
+				_stats.timeout(request);
+			}
+		}
+		
+		if ((_pingState != PING_IDLE) && ((now - _pingTime) > (REQUEST_TIMEOUT + PING_ANSWER_DELAY)))
+		{
+			_pingState = PING_IDLE;
+		}
+		
+		int roll = Rnd.get(100);
+		
+		if (roll < 40)
+		{
+			move();
+		}
+		else if (roll < 60)
+		{
+			useNpc(true, Request.ATTACK);
+		}
+		else if (roll < 75)
+		{
+			sendRequest(Request.CHAT, new Say2C("load test " + (++_chatCount)));
+		}
+		else if (roll < 90)
+		{
+			useNpc(false, Request.NPC_DIALOG);
+		}
+		else if (roll < 95)
+		{
+			if (_dialogNpcId != 0)
+			{
+				sendRequest(Request.COMMISSION, new RequestCommissionList());
+			}
+			else
+			{
+				useNpc(false, Request.NPC_DIALOG);
+			}
+		}
+		else if (_pingState == PING_IDLE)
+		{
+			_pingState = PING_SENT;
+			_pingTime = now;
+			sendPacket(new Say2C(".ping"));
+		}
+	}
+	
+	/**
+	 * Moves to a random point around the spawn.
+	 */
+	private void move()
+	{
+		int radius = _test.getMoveRadius();
+		int x = _spawnX + Rnd.get(-radius, radius);
+		int y = _spawnY + Rnd.get(-radius, radius);
+		sendRequest(Request.MOVE, new MoveBackwardToLocation(x, y, _spawnZ, _x, _y, _z));
+	}
+	
+	/**
+	 * Selects the nearest NPC of the kind, or uses it once selected: the second click attacks a monster and opens the dialog of any other NPC.
+	 * @param attackable boolean
+	 * @param request Request
+	 */
+	private void useNpc(boolean attackable, Request request)
+	{
+		int nearestId = 0;
+		int[] nearest = null;
+		long nearestDistance = Long.MAX_VALUE;
+		
+		for (Map.Entry<Integer, int[]> entry : _npcs.entrySet())
+		{
+			int[] npc = entry.getValue();
+			
+			if ((npc[3] == 1) != attackable)
+			{
+				continue;
+			}
+			
+			long dx = npc[0] - _x;
+			long dy = npc[1] - _y;
+			long distance = (dx * dx) + (dy * dy);
+			
+			if (distance < nearestDistance)
+			{
+				nearestId = entry.getKey();
+				nearest = npc;
+				nearestDistance = distance;
+			}
+		}
+		
+		if (nearest == null)
+		{
+			move();
+		}
+		else if (_targetId != nearestId)
+		{
+			sendRequest(Request.TARGET, new SelectTargetAction(nearestId, _x, _y, _z));
+		}
+		else if (attackable)
+		{
+			sendRequest(request, new AttackTargetAction(nearestId, _x, _y, _z));
+		}
+		else
+		{
+			sendRequest(request, new SelectTargetAction(nearestId, _x, _y, _z));
+		}
+	}
+	
+	/**
+	 * Method cancelActions.
+	 */
+	private void cancelActions()
+	{
+		ScheduledFuture<?> actionTask = _actionTask;
+		
+		if (actionTask != null)
+		{
+			actionTask.cancel(false);
+			_actionTask = null;
+		}
+	}
+	
+	/**
+	 * Method onDisconnection.
+	 */
+	@Override
+	protected void onDisconnection()
+	{
+		cancelActions();
+		_stats.disconnected();
+	}
+	
+	/**
+	 * Method onForcedDisconnection.
+	 */
+	@Override
+	protected void onForcedDisconnection()
+	{
+		_stats.error("Connection lost");
+	}
+	
+	/**
+	 * Method toString.
+	 * @return String
+	 */
+	@Override
+	public String toString()
+	{
+		return "BotClient[" + _login + "]";
+	}
+}
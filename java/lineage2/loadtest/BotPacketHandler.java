@@ -0,0 +1,171 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.loadtest;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+
+import lineage2.commons.net.nio.impl.IClientFactory;
+import lineage2.commons.net.nio.impl.IMMOExecutor;
+import lineage2.commons.net.nio.impl.IPacketHandler;
+import lineage2.commons.net.nio.impl.MMOConnection;
+import lineage2.commons.net.nio.impl.ReceivablePacket;
+import lineage2.loadtest.serverpackets.Attack;
+import lineage2.loadtest.serverpackets.CharMoveToLocation;
+import lineage2.loadtest.serverpackets.CharSelected;
+import lineage2.loadtest.serverpackets.CharacterCreateFail;
+import lineage2.loadtest.serverpackets.CharacterCreateSuccess;
+import lineage2.loadtest.serverpackets.CharacterSelectionInfo;
+import lineage2.loadtest.serverpackets.DeleteObject;
+import lineage2.loadtest.serverpackets.Die;
+import lineage2.loadtest.serverpackets.ExResponseCommissionList;
+import lineage2.loadtest.serverpackets.KeyPacket;
+import lineage2.loadtest.serverpackets.MyTargetSelected;
+import lineage2.loadtest.serverpackets.NetPingPacket;
+import lineage2.loadtest.serverpackets.NpcHtmlMessage;
+import lineage2.loadtest.serverpackets.NpcInfo;
+import lineage2.loadtest.serverpackets.Say2;
+import lineage2.loadtest.serverpackets.SystemMessage;
+import lineage2.loadtest.serverpackets.UserInfo;
+
+/**
+ * Maps the server packets the bots act on, every other packet is only counted.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public final class BotPacketHandler implements IPacketHandler<BotClient>, IClientFactory<BotClient>, IMMOExecutor<BotClient>
+{
+	private final GameLoadTest _test;
+	private final ExecutorService _executor;
+	
+	/**
+	 * Constructor for BotPacketHandler.
+	 * @param test GameLoadTest
+	 * @param executor ExecutorService
+	 */
+	public BotPacketHandler(GameLoadTest test, ExecutorService executor)
+	{
+		_test = test;
+		_executor = executor;
+	}
+	
+	/**
+	 * Method handlePacket.
+	 * @param buf ByteBuffer
+	 * @param client BotClient
+	 * @return ReceivablePacket<BotClient>
+	 */
+	@Override
+	public ReceivablePacket<BotClient> handlePacket(ByteBuffer buf, BotClient client)
+	{
+		int id = buf.get() & 0xFF;
+		
+		switch (id)
+		{
+			case 0x00:
+				return new Die();
+			
+			case 0x08:
+				return new DeleteObject();
+			
+			case 0x09:
+				return new CharacterSelectionInfo();
+			
+			case 0x0b:
+				return new CharSelected();
+			
+			case 0x0c:
+				return new NpcInfo();
+			
+			case 0x0f:
+				return new CharacterCreateSuccess();
+			
+			case 0x10:
+				return new CharacterCreateFail();
+			
+			case 0x19:
+				return new NpcHtmlMessage();
+			
+			case 0x2e:
+				return new KeyPacket();
+			
+			case 0x2f:
+				return new CharMoveToLocation();
+			
+			case 0x32:
+				return new UserInfo();
+			
+			case 0x33:
+				return new Attack();
+			
+			case 0x4a:
+				return new Say2();
+			
+			case 0x62:
+				return new SystemMessage();
+			
+			case 0xb9:
+				return new MyTargetSelected();
+			
+			case 0xd9:
+				return new NetPingPacket();
+			
+			case 0xfe:
+				if (buf.remaining() < 2)
+				{
+					return null;
+				}
+				
+				switch (buf.getShort() & 0xffff)
+				{
+					case 0xf7:
+						return new ExResponseCommissionList();
+				}
+				
+				return null;
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Method create.
+	 * @param con MMOConnection<BotClient>
+	 * @return BotClient
+	 */
+	@Override
+	public BotClient create(MMOConnection<BotClient> con)
+	{
+		return new BotClient(con, _test);
+	}
+	
+	/**
+	 * Method execute.
+	 * @param r Runnable
+	 */
+	@Override
+	public void execute(Runnable r)
+	{
+		_executor.execute(r);
+	}
+	
+	/**
+	 * Method executeUrgent.
+	 * @param r Runnable
+	 */
+	@Override
+	public void executeUrgent(Runnable r)
+	{
+		_executor.execute(r);
+	}
+}
@@ -0,0 +1,272 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.loadtest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lineage2.commons.threading.LatencyHistogram;
+
+/**
+ * Counters shared by all the bots of a run.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class BotStats
+{
+	/**
+	 * Client requests timed from the send to the first matching answer of the server.
+	 * @author Mobius
+	 */
+	public static enum Request
+	{
+		LOGIN,
+		ENTER_WORLD,
+		MOVE,
+		TARGET,
+		ATTACK,
+		CHAT,
+		NPC_DIALOG,
+		COMMISSION
+	}
+	
+	private final LatencyHistogram[] _latencies = new LatencyHistogram[Request.values().length];
+	private final AtomicIntegerArray _timeouts = new AtomicIntegerArray(Request.values().length);
+	private final LatencyHistogram _tickLag = new LatencyHistogram();
+	private final AtomicLong _sentPackets = new AtomicLong();
+	private final AtomicLong _sentBytes = new AtomicLong();
+	private final AtomicLong _receivedPackets = new AtomicLong();
+	private final AtomicLong _receivedBytes = new AtomicLong();
+	private final AtomicInteger _online = new AtomicInteger();
+	private final AtomicInteger _entered = new AtomicInteger();
+	private final Map<String, AtomicInteger> _errors = new ConcurrentHashMap<>();
+	
+	/**
+	 * Constructor for BotStats.
+	 */
+	public BotStats()
+	{
+		for (int i = 0; i < _latencies.length; i++)
+		{
+			_latencies[i] = new LatencyHistogram();
+		}
+	}
+	
+	/**
+	 * Method record.
+	 * @param request Request
+	 * @param nanos long
+	 */
+	public void record(Request request, long nanos)
+	{
+		_latencies[request.ordinal()].record(nanos);
+	}
+	
+	/**
+	 * Method timeout.
+	 * @param request Request
+	 */
+	public void timeout(Request request)
+	{
+		_timeouts.incrementAndGet(request.ordinal());
+	}
+	
+	/**
+	 * Method recordTickLag.
+	 * @param nanos long
+	 */
+	public void recordTickLag(long nanos)
+	{
+		_tickLag.record(Math.max(0, nanos));
+	}
+	
+	/**
+	 * Method packetSent.
+	 * @param size int
+	 */
+	public void packetSent(int size)
+	{
+		_sentPackets.incrementAndGet();
+		_sentBytes.addAndGet(size);
+	}
+	
+	/**
+	 * Method packetReceived.
+	 * @param size int
+	 */
+	public void packetReceived(int size)
+	{
+		_receivedPackets.incrementAndGet();
+		_receivedBytes.addAndGet(size);
+	}
+	
+	/**
+	 * Method connected.
+	 */
+	public void connected()
+	{
+		_online.incrementAndGet();
+	}
+	
+	/**
+	 * Method disconnected.
+	 */
+	public void disconnected()
+	{
+		_online.decrementAndGet();
+	}
+	
+	/**
+	 * Method entered.
+	 */
+	public void entered()
+	{
+		_entered.incrementAndGet();
+	}
+	
+	/**
+	 * Method error.
+	 * @param error String
+	 */
+	public void error(String error)
+	{
+		AtomicInteger count = _errors.get(error);
+		
+		if (count == null)
+		{
+			AtomicInteger newCount = new AtomicInteger();
+			count = _errors.putIfAbsent(error, newCount);
+			
+			if (count == null)
+			{
+				count = newCount;
+			}
+		}
+		
+		count.incrementAndGet();
+	}
+	
+	/**
+	 * Method getOnline.
+	 * @return int
+	 */
+	public int getOnline()
+	{
+		return _online.get();
+	}
+	
+	/**
+	 * Method getEntered.
+	 * @return int
+	 */
+	public int getEntered()
+	{
+		return _entered.get();
+	}
+	
+	/**
+	 * Method getSentPackets.
+	 * @return long
+	 */
+	public long getSentPackets()
+	{
+		return _sentPackets.get();
+	}
+	
+	/**
+	 * Method getReceivedPackets.
+	 * @return long
+	 */
+	public long getReceivedPackets()
+	{
+		return _receivedPackets.get();
+	}
+	
+	/**
+	 * Method getSentBytes.
+	 * @return long
+	 */
+	public long getSentBytes()
+	{
+		return _sentBytes.get();
+	}
+	
+	/**
+	 * Method getReceivedBytes.
+	 * @return long
+	 */
+	public long getReceivedBytes()
+	{
+		return _receivedBytes.get();
+	}
+	
+	/**
+	 * Method getLatency.
+	 * @param request Request
+	 * @return LatencyHistogram
+	 */
+	public LatencyHistogram getLatency(Request request)
+	{
+		return _latencies[request.ordinal()];
+	}
+	
+	/**
+	 * Method printSummary.
+	 * @param seconds double
+	 */
+	public void printSummary(double seconds)
+	{
+		System.out.println("=================================================");
+		System.out.println("Bots entered: " + getEntered() + ", still online: " + getOnline());
+		System.out.println(String.format("Sent: %d packets (%.1f/s, %.1f KB/s), received: %d packets (%.1f/s, %.1f KB/s)", getSentPackets(), getSentPackets() / seconds, getSentBytes() / seconds / 1024, getReceivedPackets(), getReceivedPackets() / seconds, getReceivedBytes() / seconds / 1024));
+		
+		for (Request request : Request.values())
+		{
+			print(request.name(), _latencies[request.ordinal()], _timeouts.get(request.ordinal()));
+		}
+		
+		print("TICK_LAG", _tickLag, 0);
+		
+		for (Map.Entry<String, AtomicInteger> entry : new TreeMap<>(_errors).entrySet())
+		{
+			System.out.println("Error: " + entry.getKey() + " x" + entry.getValue().get());
+		}
+	}
+	
+	/**
+	 * Method print.
+	 * @param name String
+	 * @param histogram LatencyHistogram
+	 * @param timeouts int
+	 */
+	private static void print(String name, LatencyHistogram histogram, int timeouts)
+	{
+		long[] percentiles = histogram.getPercentiles(50, 90, 99, 99.9);
+		System.out.println(String.format("%-11s (ms): count=%d timeouts=%d avg=%d p50=%d p90=%d p99=%d p999=%d max=%d", name, histogram.getCount(), timeouts, toMillis(histogram.getAverage()), toMillis(percentiles[0]), toMillis(percentiles[1]), toMillis(percentiles[2]), toMillis(percentiles[3]), toMillis(histogram.getMax())));
+	}
+	
+	/**
+	 * Method toMillis.
+	 * @param nanos long
+	 * @return long
+	 */
+	static long toMillis(long nanos)
+	{
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+}
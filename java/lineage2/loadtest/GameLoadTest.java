@@ -0,0 +1,285 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.loadtest;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import lineage2.commons.net.nio.impl.SelectorConfig;
+import lineage2.commons.net.nio.impl.SelectorThread;
+import lineage2.commons.threading.PriorityThreadFactory;
+import lineage2.loadtest.BotStats.Request;
+import lineage2.loginserver.loadtest.LoginHandshake;
+
+/**
+ * Drives thousands of scripted clients through the real login and game network path.<br>
+ * Usage: GameLoadTest [-loginHost 127.0.0.1] [-loginPort 2106] [-host 127.0.0.1] [-port 7777] [-count 1000] [-rate 50] [-duration 300] [-interval 1000] [-radius 500] [-revision 448] [-prefix bot] [-password bot123] [-server 1] [-selectors 4] [-threads 8] [-loginThreads 32]<br>
+ * The bots log in at the given rate, create a character on their first run, and then act every interval for the duration. The server under test needs AutoCreateAccounts and LoginTryTimeout = 0 on the login server, and the .ping voiced command for the tick lag.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class GameLoadTest
+{
+	private final String _loginHost;
+	private final int _loginPort;
+	private final InetSocketAddress _gameAddress;
+	private final int _count;
+	private final int _rate;
+	private final int _duration;
+	private final int _actionInterval;
+	private final int _moveRadius;
+	private final int _revision;
+	private final String _prefix;
+	private final String _password;
+	private final int _serverId;
+	private final BotStats _stats = new BotStats();
+	private final SelectorThread<BotClient>[] _selectors;
+	private final ExecutorService _packetExecutor;
+	private final ExecutorService _loginExecutor;
+	private final ScheduledExecutorService _scheduler;
+	private final Queue<BotClient> _clients = new ConcurrentLinkedQueue<>();
+	private long _lastReportTime;
+	private long _lastSent;
+	private long _lastReceived;
+	
+	/**
+	 * Constructor for GameLoadTest.
+	 * @param args Map<String, String>
+	 * @throws Exception
+	 */
+	@SuppressWarnings("unchecked")
+	private GameLoadTest(Map<String, String> args) throws Exception
+	{
+		_loginHost = get(args, "loginHost", "127.0.0.1");
+		_loginPort = Integer.parseInt(get(args, "loginPort", "2106"));
+		_gameAddress = new InetSocketAddress(get(args, "host", "127.0.0.1"), Integer.parseInt(get(args, "port", "7777")));
+		_count = Integer.parseInt(get(args, "count", "1000"));
+		_rate = Integer.parseInt(get(args, "rate", "50"));
+		_duration = Integer.parseInt(get(args, "duration", "300"));
+		_actionInterval = Integer.parseInt(get(args, "interval", "1000"));
+		_moveRadius = Integer.parseInt(get(args, "radius", "500"));
+		_revision = Integer.parseInt(get(args, "revision", "448"));
+		_prefix = get(args, "prefix", "bot");
+		_password = get(args, "password", "bot123");
+		_serverId = Integer.parseInt(get(args, "server", "1"));
+		_packetExecutor = Executors.newFixedThreadPool(Integer.parseInt(get(args, "threads", "8")), new PriorityThreadFactory("BotPacket", Thread.NORM_PRIORITY));
+		_loginExecutor = Executors.newFixedThreadPool(Integer.parseInt(get(args, "loginThreads", "32")), new PriorityThreadFactory("BotLogin", Thread.NORM_PRIORITY));
+		_scheduler = new ScheduledThreadPoolExecutor(Math.max(2, Runtime.getRuntime().availableProcessors() / 2), new PriorityThreadFactory("BotScript", Thread.NORM_PRIORITY));
+		BotPacketHandler handler = new BotPacketHandler(this, _packetExecutor);
+		SelectorConfig config = new SelectorConfig();
+		_selectors = new SelectorThread[Integer.parseInt(get(args, "selectors", "4"))];
+		
+		for (int i = 0; i < _selectors.length; i++)
+		{
+			_selectors[i] = new SelectorThread<>(config, handler, handler, handler, null);
+			_selectors[i].setName("BotSelector-" + i);
+			_selectors[i].start();
+		}
+	}
+	
+	/**
+	 * Method get.
+	 * @param args Map<String, String>
+	 * @param name String
+	 * @param defaultValue String
+	 * @return String
+	 */
+	private static String get(Map<String, String> args, String name, String defaultValue)
+	{
+		String value = args.get(name);
+		return value == null ? defaultValue : value;
+	}
+	
+	/**
+	 * Method getStats.
+	 * @return BotStats
+	 */
+	public BotStats getStats()
+	{
+		return _stats;
+	}
+	
+	/**
+	 * Method getScheduler.
+	 * @return ScheduledExecutorService
+	 */
+	public ScheduledExecutorService getScheduler()
+	{
+		return _scheduler;
+	}
+	
+	/**
+	 * Method getRevision.
+	 * @return int
+	 */
+	public int getRevision()
+	{
+		return _revision;
+	}
+	
+	/**
+	 * Method getActionInterval.
+	 * @return long
+	 */
+	public long getActionInterval()
+	{
+		return _actionInterval;
+	}
+	
+	/**
+	 * Method getMoveRadius.
+	 * @return int
+	 */
+	public int getMoveRadius()
+	{
+		return _moveRadius;
+	}
+	
+	/**
+	 * Logs the bot in on the login server, then opens its game connection.
+	 * @param index int
+	 */
+	void login(int index)
+	{
+		String login = _prefix + index;
+		LoginHandshake session = new LoginHandshake(_loginHost, _loginPort);
+		
+		try
+		{
+			session.run(login, _password, _serverId);
+			BotClient client = _selectors[index % _selectors.length].openConnection(_gameAddress);
+			_clients.add(client);
+			client.start(login, session);
+		}
+		catch (Exception e)
+		{
+			_stats.error(e.getClass().getSimpleName() + ": " + e.getMessage());
+		}
+	}
+	
+	/**
+	 * Starts the bots at the configured rate, lets them play for the duration and logs them out.
+	 * @throws InterruptedException
+	 */
+	private void run() throws InterruptedException
+	{
+		System.out.println("GameLoadTest: " + _count + " bots to " + _gameAddress + " at " + _rate + "/s, acting every " + _actionInterval + " ms for " + _duration + " s.");
+		long start = System.nanoTime();
+		long nextReport = start + TimeUnit.SECONDS.toNanos(1);
+		_lastReportTime = start;
+		
+		for (int i = 0; i < _count; i++)
+		{
+			long due = start + ((i * TimeUnit.SECONDS.toNanos(1)) / _rate);
+			long now;
+			
+			while ((now = System.nanoTime()) < due)
+			{
+				LockSupport.parkNanos(due - now);
+			}
+			
+			if (now >= nextReport)
+			{
+				report(start);
+				nextReport += TimeUnit.SECONDS.toNanos(1);
+			}
+			
+			final int index = i;
+			_loginExecutor.execute(() -> login(index));
+		}
+		
+		_loginExecutor.shutdown();
+		long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(_duration);
+		
+		while (System.nanoTime() < end)
+		{
+			Thread.sleep(1000L);
+			report(start);
+		}
+		
+		BotClient client;
+		
+		while ((client = _clients.poll()) != null)
+		{
+			client.logout();
+		}
+		
+		Thread.sleep(2000L);
+		_stats.printSummary((System.nanoTime() - start) / 1e9);
+		_scheduler.shutdownNow();
+		
+		for (SelectorThread<BotClient> selector : _selectors)
+		{
+			selector.shutdown();
+		}
+		
+		_packetExecutor.shutdown();
+	}
+	
+	/**
+	 * Prints the online bots, the packet rates of the last interval and the worst latencies.
+	 * @param start long
+	 */
+	private void report(long start)
+	{
+		long now = System.nanoTime();
+		double seconds = Math.max(1e-3, (now - _lastReportTime) / 1e9);
+		long sent = _stats.getSentPackets();
+		long received = _stats.getReceivedPackets();
+		StringBuilder sb = new StringBuilder();
+		sb.append('[').append(TimeUnit.NANOSECONDS.toSeconds(now - start)).append("s] online: ").append(_stats.getOnline());
+		sb.append(", entered: ").append(_stats.getEntered()).append('/').append(_count);
+		sb.append(String.format(", sent: %.0f/s, received: %.0f/s", (sent - _lastSent) / seconds, (received - _lastReceived) / seconds));
+		
+		for (Request request : new Request[]
+		{
+			Request.LOGIN,
+			Request.MOVE,
+			Request.CHAT
+		})
+		{
+			sb.append(", ").append(request.name().toLowerCase()).append(" p99: ").append(BotStats.toMillis(_stats.getLatency(request).getPercentiles(99)[0])).append(" ms");
+		}
+		
+		System.out.println(sb);
+		_lastReportTime = now;
+		_lastSent = sent;
+		_lastReceived = received;
+	}
+	
+	/**
+	 * Method main.
+	 * @param args String[] pairs of -name value
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		Map<String, String> parsed = new TreeMap<>();
+		
+		for (int i = 0; (i + 1) < args.length; i += 2)
+		{
+			parsed.put(args[i].replaceFirst("^-+", ""), args[i + 1]);
+		}
+		
+		new GameLoadTest(parsed).run();
+	}
+}
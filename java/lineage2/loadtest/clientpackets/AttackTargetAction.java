@@ -0,0 +1,55 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.loadtest.clientpackets;
+
+/**
+ * Opcode 0x01, a shift-less attack on the object.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class AttackTargetAction extends BotClientPacket
+{
+	private final int _objectId;
+	private final int _x;
+	private final int _y;
+	private final int _z;
+	
+	/**
+	 * Constructor for AttackTargetAction.
+	 * @param objectId int
+	 * @param x int
+	 * @param y int
+	 * @param z int
+	 */
+	public AttackTargetAction(int objectId, int x, int y, int z)
+	{
+		_objectId = objectId;
+		_x = x;
+		_y = y;
+		_z = z;
+	}
+	
+	/**
+	 * Method writeImpl.
+	 */
+	@Override
+	protected void writeImpl()
+	{
+		writeC(0x01);
+		writeD(_objectId);
+		writeD(_x);
+		writeD(_y);
+		writeD(_z);
+		writeC(0x00);
+	}
+}
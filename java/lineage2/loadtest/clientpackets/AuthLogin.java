@@ -0,0 +1,61 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.loadtest.clientpackets;
+
+/**
+ * Opcode 0x2b, the session keys received from the login server.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class AuthLogin extends BotClientPacket
+{
+	private final String _login;
+	private final int _playKey1;
+	private final int _playKey2;
+	private final int _loginKey1;
+	private final int _loginKey2;
+	
+	/**
+	 * Constructor for AuthLogin.
+	 * @param login String
+	 * @param playKey1 int
+	 * @param playKey2 int
+	 * @param loginKey1 int
+	 * @param loginKey2 int
+	 */
+	public AuthLogin(String login, int playKey1, int playKey2, int loginKey1, int loginKey2)
+	{
+		_login = login;
+		_playKey1 = playKey1;
+		_playKey2 = playKey2;
+		_loginKey1 = loginKey1;
+		_loginKey2 = loginKey2;
+	}
+	
+	/**
+	 * Method writeImpl.
+	 */
+	@Override
+	protected void writeImpl()
+	{
+		writeC(0x2b);
+		writeS(_login);
+		writeD(_playKey2);
+		writeD(_playKey1);
+		writeD(_loginKey1);
+		writeD(_loginKey2);
+		writeD(0x01);
+		writeD(0x00);
+		writeD(0x00);
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.loadtest.clientpackets;
+
+/**
+ * Opcode 0x0c, creates a human fighter.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class CharacterCreate extends BotClientPacket
+{
+	private final String _name;
+	
+	/**
+	 * Constructor for CharacterCreate.
+	 * @param name String
+	 */
+	public CharacterCreate(String name)
+	{
+		_name = name;
+	}
+	
+	/**
+	 * Method writeImpl.
+	 */
+	@Override
+	protected void writeImpl()
+	{
+		writeC(0x0c);
+		writeS(_name);
+		writeD(0x00); // race
+		writeD(0x00); // sex
+		writeD(0x00); // class id
+		writeD(0x00);
+		writeD(0x00);
+		writeD(0x00);
+		writeD(0x00);
+		writeD(0x00);
+		writeD(0x00);
+		writeD(0x00); // hair style
+		writeD(0x00); // hair color
+		writeD(0x00); // face
+	}
+}
@@ -0,0 +1,46 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.loadtest.clientpackets;
+
+/**
+ * Opcode 0x12.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class CharacterSelected extends BotClientPacket
+{
+	private final int _slot;
+	
+	/**
+	 * Constructor for CharacterSelected.
+	 * @param slot int
+	 */
+	public CharacterSelected(int slot)
+	{
+		_slot = slot;
+	}
+	
+	/**
+	 * Method writeImpl.
+	 */
+	@Override
+	protected void writeImpl()
+	{
+		writeC(0x12);
+		writeD(_slot);
+		writeH(0x00);
+		writeD(0x00);
+		writeD(0x00);
+		writeD(0x00);
+	}
+}
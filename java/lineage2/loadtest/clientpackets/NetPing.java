@@ -0,0 +1,46 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.loadtest.clientpackets;
+
+/**
+ * Opcode 0xb1, the answer to NetPingPacket.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class NetPing extends BotClientPacket
+{
+	private final int _clientId;
+	private final int _ping;
+	
+	/**
+	 * Constructor for NetPing.
+	 * @param clientId int
+	 * @param ping int
+	 */
+	public NetPing(int clientId, int ping)
+	{
+		_clientId = clientId;
+		_ping = ping;
+	}
+	
+	/**
+	 * Method writeImpl.
+	 */
+	@Override
+	protected void writeImpl()
+	{
+		writeC(0xb1);
+		writeD(_clientId);
+		writeD(_ping);
+	}
+}
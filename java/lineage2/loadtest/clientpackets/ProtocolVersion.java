@@ -0,0 +1,42 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.loadtest.clientpackets;
+
+/**
+ * Opcode 0x0e, the first packet of the game connection, sent in clear.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class ProtocolVersion extends BotClientPacket
+{
+	private final int _revision;
+	
+	/**
+	 * Constructor for ProtocolVersion.
+	 * @param revision int
+	 */
+	public ProtocolVersion(int revision)
+	{
+		_revision = revision;
+	}
+	
+	/**
+	 * Method writeImpl.
+	 */
+	@Override
+	protected void writeImpl()
+	{
+		writeC(0x0e);
+		writeD(_revision);
+	}
+}
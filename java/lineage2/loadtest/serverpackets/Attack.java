@@ -0,0 +1,43 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.loadtest.serverpackets;
+
+/**
+ * Opcode 0x33.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class Attack extends BotServerPacket
+{
+	private int _attackerId;
+	private int _targetId;
+	
+	/**
+	 * Method readImpl.
+	 */
+	@Override
+	protected void readImpl()
+	{
+		_attackerId = readD();
+		_targetId = readD();
+	}
+	
+	/**
+	 * Method runImpl.
+	 */
+	@Override
+	protected void runImpl()
+	{
+		getClient().onAttack(_attackerId, _targetId);
+	}
+}
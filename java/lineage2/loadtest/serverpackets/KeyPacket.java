@@ -0,0 +1,48 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.loadtest.serverpackets;
+
+/**
+ * Opcode 0x2e, the only packet received in clear. The key is set while reading, before the next packet is decrypted.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class KeyPacket extends BotServerPacket
+{
+	private boolean _accepted;
+	
+	/**
+	 * Method readImpl.
+	 */
+	@Override
+	protected void readImpl()
+	{
+		_accepted = readC() == 0x01;
+		
+		if (_accepted)
+		{
+			byte[] key = new byte[16];
+			readB(key);
+			getClient().setKey(key);
+		}
+	}
+	
+	/**
+	 * Method runImpl.
+	 */
+	@Override
+	protected void runImpl()
+	{
+		getClient().onKey(_accepted);
+	}
+}
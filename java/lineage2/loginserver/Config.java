@@ -52,6 +52,10 @@ public class Config
 	public static int DATABASE_MAX_CONNECTIONS;
 	public static int DATABASE_MAX_IDLE_TIMEOUT;
 	public static int DATABASE_IDLE_TEST_PERIOD;
+	public static int DATABASE_STATEMENT_CACHE_SIZE;
+	public static int DATABASE_CONNECTION_TIMEOUT;
+	public static int DATABASE_LEAK_TIMEOUT;
+	public static int DATABASE_REPORT_INTERVAL;
 	public static String DATABASE_URL;
 	public static String DATABASE_LOGIN;
 	public static String DATABASE_PASSWORD;
@@ -73,6 +77,10 @@ public class Config
 	public static PasswordHash DEFAULT_CRYPT;
 	public static PasswordHash[] LEGACY_CRYPT;
 	public static boolean LOGIN_LOG;
+	public static int LOGIN_CRYPTO_THREADS;
+	public static int LOGIN_ACCOUNT_THREADS;
+	public static long ACCOUNT_CACHE_TIME;
+	public static long ACCOUNT_UPDATE_INTERVAL;
 	
 	/**
 	 * Constructor for Config.
@@ -180,6 +188,10 @@ public class Config
 		DATABASE_MAX_CONNECTIONS = serverSettings.getProperty("MaximumDbConnections", 3);
 		DATABASE_MAX_IDLE_TIMEOUT = serverSettings.getProperty("MaxIdleConnectionTimeout", 600);
 		DATABASE_IDLE_TEST_PERIOD = serverSettings.getProperty("IdleConnectionTestPeriod", 60);
+		DATABASE_STATEMENT_CACHE_SIZE = serverSettings.getProperty("PreparedStatementCacheSize", 0);
+		DATABASE_CONNECTION_TIMEOUT = serverSettings.getProperty("ConnectionTimeout", 30);
+		DATABASE_LEAK_TIMEOUT = serverSettings.getProperty("ConnectionLeakTimeout", 0);
+		DATABASE_REPORT_INTERVAL = serverSettings.getProperty("DatabaseReportInterval", 0);
 		DATABASE_URL = serverSettings.getProperty("URL", "jdbc:mysql://localhost/l2sdb");
 		DATABASE_LOGIN = serverSettings.getProperty("Login", "root");
 		DATABASE_PASSWORD = serverSettings.getProperty("Password", "");
@@ -197,6 +209,10 @@ public class Config
 		GAME_SERVER_PING_DELAY = serverSettings.getProperty("GameServerPingDelay", 30) * 1000L;
 		GAME_SERVER_PING_RETRY = serverSettings.getProperty("GameServerPingRetry", 4);
 		LOGIN_LOG = serverSettings.getProperty("LoginLog", true);
+		LOGIN_CRYPTO_THREADS = serverSettings.getProperty("LoginCryptoThreads", Runtime.getRuntime().availableProcessors());
+		LOGIN_ACCOUNT_THREADS = serverSettings.getProperty("LoginAccountThreads", 4);
+		ACCOUNT_CACHE_TIME = serverSettings.getProperty("AccountCacheTime", 60) * 1000L;
+		ACCOUNT_UPDATE_INTERVAL = serverSettings.getProperty("AccountUpdateInterval", 1000L);
 	}
 	
 	/**
@@ -12,12 +12,8 @@
  */
 package lineage2.loginserver;
 
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,10 +53,7 @@ public class IpBanManager
 		public long banExpire;
 	}
 	
-	private final Map<String, IpSession> ips = new HashMap<>();
-	private final ReadWriteLock lock = new ReentrantReadWriteLock();
-	private final Lock readLock = lock.readLock();
-	private final Lock writeLock = lock.writeLock();
+	private final Map<String, IpSession> ips = new ConcurrentHashMap<>();
 	
 	/**
 	 * Constructor for IpBanManager.
@@ -70,26 +63,19 @@ public class IpBanManager
 		ThreadPoolManager.getInstance().scheduleAtFixedRate(() ->
 		{
 			long currentMillis = System.currentTimeMillis();
-			writeLock.lock();
 			
-			try
+			for (Map.Entry<String, IpSession> entry : ips.entrySet())
 			{
-				IpSession session;
+				IpSession session = entry.getValue();
 				
-				for (Iterator<IpSession> itr = ips.values().iterator(); itr.hasNext();)
+				synchronized (session)
 				{
-					session = itr.next();
-					
 					if ((session.banExpire < currentMillis) && (session.lastTry < (currentMillis - Config.LOGIN_TRY_TIMEOUT)))
 					{
-						itr.remove();
+						ips.remove(entry.getKey(), session);
 					}
 				}
 			}
-			finally
-			{
-				writeLock.unlock();
-			}
 		}, 1000L, 1000L);
 	}
 	
@@ -100,22 +86,16 @@ public class IpBanManager
 	 */
 	boolean isIpBanned(String ip)
 	{
-		readLock.lock();
+		IpSession ipsession = ips.get(ip);
 		
-		try
+		if (ipsession == null)
 		{
-			IpSession ipsession;
-			
-			if ((ipsession = ips.get(ip)) == null)
-			{
-				return false;
-			}
-			
-			return ipsession.banExpire > System.currentTimeMillis();
+			return false;
 		}
-		finally
+		
+		synchronized (ipsession)
 		{
-			readLock.unlock();
+			return ipsession.banExpire > System.currentTimeMillis();
 		}
 	}
 	
@@ -127,17 +107,10 @@ public class IpBanManager
 	 */
 	public boolean tryLogin(String ip, boolean success)
 	{
-		writeLock.lock();
+		IpSession ipsession = ips.computeIfAbsent(ip, k -> new IpSession());
 		
-		try
+		synchronized (ipsession)
 		{
-			IpSession ipsession;
-			
-			if ((ipsession = ips.get(ip)) == null)
-			{
-				ips.put(ip, ipsession = new IpSession());
-			}
-			
 			long currentMillis = System.currentTimeMillis();
 			
 			if ((currentMillis - ipsession.lastTry) < Config.LOGIN_TRY_TIMEOUT)
@@ -171,9 +144,5 @@ public class IpBanManager
 			
 			return true;
 		}
-		finally
-		{
-			writeLock.unlock();
-		}
 	}
 }
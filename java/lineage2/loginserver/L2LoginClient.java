@@ -45,11 +45,12 @@ public final class L2LoginClient extends MMOClient<MMOConnection<L2LoginClient>>
 	{
 		CONNECTED,
 		AUTHED_GG,
+		AUTHING,
 		AUTHED,
 		DISCONNECTED
 	}
 	
-	private LoginClientState _state;
+	private volatile LoginClientState _state;
 	private LoginCrypt _loginCrypt;
 	private ScrambledKeyPair _scrambledPair;
 	private byte[] _blowfishKey;
@@ -18,6 +18,7 @@ import java.net.ServerSocket;
 
 import lineage2.commons.net.nio.impl.SelectorConfig;
 import lineage2.commons.net.nio.impl.SelectorThread;
+import lineage2.loginserver.accounts.AccountCache;
 import lineage2.loginserver.database.L2DatabaseFactory;
 import lineage2.loginserver.gameservercon.GameServerCommunication;
 
@@ -51,6 +52,7 @@ public class LoginServer
 	{
 		Config.initCrypt();
 		GameServerManager.getInstance();
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> AccountCache.getInstance().flush(), "AccountFlush"));
 		L2LoginPacketHandler loginPacketHandler = new L2LoginPacketHandler();
 		SelectorHelper sh = new SelectorHelper();
 		SelectorConfig sc = new SelectorConfig();
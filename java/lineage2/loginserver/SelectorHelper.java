@@ -38,6 +38,17 @@ public class SelectorHelper implements IMMOExecutor<L2LoginClient>, IClientFacto
 		ThreadPoolManager.getInstance().execute(r);
 	}
 	
+	/**
+	 * Method executeUrgent.
+	 * @param r Runnable
+	 * @see lineage2.commons.net.nio.impl.IMMOExecutor#executeUrgent(Runnable)
+	 */
+	@Override
+	public void executeUrgent(Runnable r)
+	{
+		ThreadPoolManager.getInstance().execute(r);
+	}
+	
 	/**
 	 * Method create.
 	 * @param con MMOConnection<L2LoginClient>
@@ -18,6 +18,7 @@ import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import lineage2.commons.threading.PriorityThreadFactory;
 import lineage2.commons.threading.RunnableImpl;
 
 /**
@@ -40,6 +41,10 @@ public class ThreadPoolManager
 	
 	final ScheduledThreadPoolExecutor scheduledExecutor = new ScheduledThreadPoolExecutor(1);
 	final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 5L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+	/** Runs the RSA decryption and the password hashing of the logins. */
+	final ThreadPoolExecutor cryptoExecutor = new ThreadPoolExecutor(Config.LOGIN_CRYPTO_THREADS, Config.LOGIN_CRYPTO_THREADS, 5L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new PriorityThreadFactory("LoginCrypto", Thread.NORM_PRIORITY));
+	/** Runs the account lookups of the logins, sized after the database connections it may hold. */
+	final ThreadPoolExecutor accountExecutor = new ThreadPoolExecutor(Config.LOGIN_ACCOUNT_THREADS, Config.LOGIN_ACCOUNT_THREADS, 5L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new PriorityThreadFactory("LoginAccount", Thread.NORM_PRIORITY));
 	
 	/**
 	 * Constructor for ThreadPoolManager.
@@ -52,6 +57,8 @@ public class ThreadPoolManager
 			public void runImpl()
 			{
 				executor.purge();
+				cryptoExecutor.purge();
+				accountExecutor.purge();
 				scheduledExecutor.purge();
 			}
 		}, 600000L, 600000L);
@@ -76,6 +83,24 @@ public class ThreadPoolManager
 		executor.execute(r);
 	}
 	
+	/**
+	 * Method executeCrypto.
+	 * @param r Runnable
+	 */
+	public void executeCrypto(Runnable r)
+	{
+		cryptoExecutor.execute(r);
+	}
+	
+	/**
+	 * Method executeAccount.
+	 * @param r Runnable
+	 */
+	public void executeAccount(Runnable r)
+	{
+		accountExecutor.execute(r);
+	}
+	
 	/**
 	 * Method schedule.
 	 * @param r Runnable
@@ -370,6 +370,7 @@ public class Account
 			statement.setInt(9, getLastAccess());
 			statement.setString(10, getLogin());
 			statement.execute();
+			AccountCache.getInstance().invalidate(getLogin());
 		}
 		catch (Exception e)
 		{
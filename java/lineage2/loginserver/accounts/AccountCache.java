@@ -0,0 +1,248 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.loginserver.accounts;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lineage2.commons.dbutils.DbUtils;
+import lineage2.commons.threading.RunnableImpl;
+import lineage2.loginserver.Config;
+import lineage2.loginserver.ThreadPoolManager;
+import lineage2.loginserver.database.L2DatabaseFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Short lived cache of the accounts read by the logins, with write-behind of their last server, IP and access time.<br>
+ * A client reconnecting after a game server restart finds its account in memory, and the accounts logged in during one interval are written with a single batch.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class AccountCache
+{
+	private static final Logger _log = LoggerFactory.getLogger(AccountCache.class);
+	private static final String UPDATE_LAST_ACCESS = "UPDATE accounts SET last_server = ?, last_ip = ?, last_access = ? WHERE login = ?";
+	private static final AccountCache _instance = new AccountCache();
+	
+	/**
+	 * Method getInstance.
+	 * @return AccountCache
+	 */
+	public static final AccountCache getInstance()
+	{
+		return _instance;
+	}
+	
+	/**
+	 * @author Mobius
+	 */
+	private static class CachedAccount
+	{
+		final Account account;
+		final long expireTime;
+		
+		/**
+		 * Constructor for CachedAccount.
+		 * @param account Account
+		 */
+		CachedAccount(Account account)
+		{
+			this.account = account;
+			expireTime = System.currentTimeMillis() + Config.ACCOUNT_CACHE_TIME;
+		}
+	}
+	
+	/**
+	 * The last server, IP and access time of one login, as they were when queued.
+	 * @author Mobius
+	 */
+	private static final class LastAccess
+	{
+		final String login;
+		final String ip;
+		final int server;
+		final int time;
+		
+		/**
+		 * Constructor for LastAccess.
+		 * @param login String
+		 * @param ip String
+		 * @param server int
+		 * @param time int
+		 */
+		LastAccess(String login, String ip, int server, int time)
+		{
+			this.login = login;
+			this.ip = ip;
+			this.server = server;
+			this.time = time;
+		}
+	}
+	
+	final Map<String, CachedAccount> accounts = new ConcurrentHashMap<>();
+	private final Map<String, LastAccess> pending = new ConcurrentHashMap<>();
+	/** Counts the invalidations, a restore overlapping one does not stay cached. */
+	private final AtomicInteger invalidations = new AtomicInteger();
+	
+	/**
+	 * Constructor for AccountCache.
+	 */
+	private AccountCache()
+	{
+		ThreadPoolManager.getInstance().scheduleAtFixedRate(new RunnableImpl()
+		{
+			@Override
+			public void runImpl()
+			{
+				long currentMillis = System.currentTimeMillis();
+				
+				for (Iterator<CachedAccount> itr = accounts.values().iterator(); itr.hasNext();)
+				{
+					if (itr.next().expireTime < currentMillis)
+					{
+						itr.remove();
+					}
+				}
+			}
+		}, 30000L, 30000L);
+		ThreadPoolManager.getInstance().scheduleAtFixedRate(new RunnableImpl()
+		{
+			@Override
+			public void runImpl()
+			{
+				flush();
+			}
+		}, Config.ACCOUNT_UPDATE_INTERVAL, Config.ACCOUNT_UPDATE_INTERVAL);
+	}
+	
+	/**
+	 * Method get.
+	 * @param login String
+	 * @return Account the cached account, or a freshly restored one; its password hash is null if the account does not exist
+	 */
+	public Account get(String login)
+	{
+		CachedAccount cached = accounts.get(login);
+		
+		if ((cached != null) && (cached.expireTime > System.currentTimeMillis()))
+		{
+			return cached.account;
+		}
+		
+		int version = invalidations.get();
+		Account account = new Account(login);
+		account.restore();
+		
+		if ((account.getPasswordHash() != null) && (Config.ACCOUNT_CACHE_TIME > 0))
+		{
+			CachedAccount restored = new CachedAccount(account);
+			accounts.put(login, restored);
+			
+			if (invalidations.get() != version)
+			{
+				// the row may have changed after it was read
+				accounts.remove(login, restored);
+			}
+		}
+		
+		return account;
+	}
+	
+	/**
+	 * Method put.
+	 * @param account Account
+	 */
+	public void put(Account account)
+	{
+		if (Config.ACCOUNT_CACHE_TIME > 0)
+		{
+			accounts.put(account.getLogin(), new CachedAccount(account));
+		}
+	}
+	
+	/**
+	 * Drops the account, called whenever its row is changed.
+	 * @param login String
+	 */
+	public void invalidate(String login)
+	{
+		invalidations.incrementAndGet();
+		accounts.remove(login);
+	}
+	
+	/**
+	 * Queues the write of the last server, IP and access time of a login.
+	 * @param login String
+	 * @param ip String
+	 * @param server int
+	 * @param time int
+	 */
+	public void updateLastAccess(String login, String ip, int server, int time)
+	{
+		pending.put(login, new LastAccess(login, ip, server, time));
+	}
+	
+	/**
+	 * Writes the queued accounts in one batch. They leave the queue only once written, a failed batch is tried again by the next flush.
+	 */
+	public void flush()
+	{
+		if (pending.isEmpty())
+		{
+			return;
+		}
+		
+		List<LastAccess> batch = new ArrayList<>(pending.values());
+		Connection con = null;
+		PreparedStatement statement = null;
+		
+		try
+		{
+			con = L2DatabaseFactory.getInstance().getConnection();
+			statement = con.prepareStatement(UPDATE_LAST_ACCESS);
+			
+			for (LastAccess access : batch)
+			{
+				statement.setInt(1, access.server);
+				statement.setString(2, access.ip);
+				statement.setInt(3, access.time);
+				statement.setString(4, access.login);
+				statement.addBatch();
+			}
+			
+			statement.executeBatch();
+			
+			for (LastAccess access : batch)
+			{
+				// a newer access queued meanwhile stays for the next flush
+				pending.remove(access.login, access);
+			}
+		}
+		catch (Exception e)
+		{
+			_log.error("AccountCache: Could not update accounts!", e);
+		}
+		finally
+		{
+			DbUtils.closeQuietly(con, statement);
+		}
+	}
+}
@@ -12,14 +12,19 @@
  */
 package lineage2.loginserver.clientpackets;
 
+import java.security.interfaces.RSAPrivateKey;
+
 import javax.crypto.Cipher;
 
+import lineage2.commons.threading.RunnableImpl;
 import lineage2.loginserver.Config;
 import lineage2.loginserver.GameServerManager;
 import lineage2.loginserver.IpBanManager;
 import lineage2.loginserver.L2LoginClient;
 import lineage2.loginserver.L2LoginClient.LoginClientState;
+import lineage2.loginserver.ThreadPoolManager;
 import lineage2.loginserver.accounts.Account;
+import lineage2.loginserver.accounts.AccountCache;
 import lineage2.loginserver.accounts.SessionManager;
 import lineage2.loginserver.accounts.SessionManager.Session;
 import lineage2.loginserver.crypt.PasswordHash;
@@ -29,12 +34,32 @@ import lineage2.loginserver.serverpackets.LoginFail.LoginFailReason;
 import lineage2.loginserver.serverpackets.LoginOk;
 import lineage2.loginserver.utils.Log;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 /**
  * @author Mobius
  * @version $Revision: 1.0 $
  */
 public class RequestAuthLogin extends L2LoginClientPacket
 {
+	private static final Logger _log = LoggerFactory.getLogger(RequestAuthLogin.class);
+	/** Cipher.getInstance looks the provider up on every call, so each crypto thread keeps its own instance. */
+	private static final ThreadLocal<Cipher> RSA_CIPHER = new ThreadLocal<Cipher>()
+	{
+		@Override
+		protected Cipher initialValue()
+		{
+			try
+			{
+				return Cipher.getInstance("RSA/ECB/nopadding");
+			}
+			catch (Exception e)
+			{
+				throw new IllegalStateException(e);
+			}
+		}
+	};
 	private final byte[] _raw = new byte[128];
 	
 	/**
@@ -61,13 +86,39 @@ public class RequestAuthLogin extends L2LoginClientPacket
 	@Override
 	protected void runImpl() throws Exception
 	{
-		L2LoginClient client = getClient();
+		final L2LoginClient client = getClient();
+		
+		if (client.getState() != LoginClientState.AUTHED_GG)
+		{
+			return;
+		}
+		
+		client.setState(LoginClientState.AUTHING);
+		final RSAPrivateKey privateKey = client.getRSAPrivateKey();
+		ThreadPoolManager.getInstance().executeCrypto(new RunnableImpl()
+		{
+			@Override
+			public void runImpl()
+			{
+				decrypt(client, privateKey);
+			}
+		});
+	}
+	
+	/**
+	 * First stage, on the crypto pool: decrypts the credentials and hashes the password.
+	 * @param client L2LoginClient
+	 * @param privateKey RSAPrivateKey
+	 */
+	void decrypt(final L2LoginClient client, RSAPrivateKey privateKey)
+	{
 		byte[] decrypted;
+		final String passwordHash;
 		
 		try
 		{
-			Cipher rsaCipher = Cipher.getInstance("RSA/ECB/nopadding");
-			rsaCipher.init(Cipher.DECRYPT_MODE, client.getRSAPrivateKey());
+			Cipher rsaCipher = RSA_CIPHER.get();
+			rsaCipher.init(Cipher.DECRYPT_MODE, privateKey);
 			decrypted = rsaCipher.doFinal(_raw, 0x00, 0x80);
 		}
 		catch (Exception e)
@@ -77,12 +128,46 @@ public class RequestAuthLogin extends L2LoginClientPacket
 		}
 		
 		String user = new String(decrypted, 0x5E, 14).trim();
-		user = user.toLowerCase();
-		String password = new String(decrypted, 0x6C, 16).trim();
+		final String login = user.toLowerCase();
+		final String password = new String(decrypted, 0x6C, 16).trim();
+		
+		try
+		{
+			passwordHash = Config.DEFAULT_CRYPT.encrypt(password);
+		}
+		catch (Exception e)
+		{
+			_log.error("RequestAuthLogin: Could not hash password!", e);
+			client.closeNow(true);
+			return;
+		}
+		
+		ThreadPoolManager.getInstance().executeAccount(new RunnableImpl()
+		{
+			@Override
+			public void runImpl()
+			{
+				authorize(client, login, password, passwordHash);
+			}
+		});
+	}
+	
+	/**
+	 * Second stage, on the account pool: checks the credentials against the account.
+	 * @param client L2LoginClient
+	 * @param user String
+	 * @param password String
+	 * @param passwordHash String
+	 */
+	void authorize(L2LoginClient client, String user, String password, String passwordHash)
+	{
+		if (client.getState() != LoginClientState.AUTHING)
+		{
+			return;
+		}
+		
 		int currentTime = (int) (System.currentTimeMillis() / 1000L);
-		Account account = new Account(user);
-		account.restore();
-		String passwordHash = Config.DEFAULT_CRYPT.encrypt(password);
+		Account account = AccountCache.getInstance().get(user);
 		
 		if (account.getPasswordHash() == null)
 		{
@@ -91,6 +176,7 @@ public class RequestAuthLogin extends L2LoginClientPacket
 				account.setAllowedIP("");
 				account.setPasswordHash(passwordHash);
 				account.save();
+				AccountCache.getInstance().put(account);
 			}
 			else
 			{
@@ -109,6 +195,7 @@ public class RequestAuthLogin extends L2LoginClientPacket
 				{
 					passwordCorrect = true;
 					account.setPasswordHash(passwordHash);
+					account.update();
 					break;
 				}
 			}
@@ -16,6 +16,7 @@ import lineage2.loginserver.GameServerManager;
 import lineage2.loginserver.L2LoginClient;
 import lineage2.loginserver.SessionKey;
 import lineage2.loginserver.accounts.Account;
+import lineage2.loginserver.accounts.AccountCache;
 import lineage2.loginserver.gameservercon.GameServer;
 import lineage2.loginserver.serverpackets.LoginFail.LoginFailReason;
 import lineage2.loginserver.serverpackets.PlayOk;
@@ -66,7 +67,7 @@ public class RequestServerLogin extends L2LoginClientPacket
 		}
 		
 		account.setLastServer(_serverId);
-		account.update();
+		AccountCache.getInstance().updateLastAccess(account.getLogin(), client.getIpAddress(), _serverId, (int) (System.currentTimeMillis() / 1000L));
 		client.close(new PlayOk(skey));
 	}
 }
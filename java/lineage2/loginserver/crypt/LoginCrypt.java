@@ -22,7 +22,7 @@ import lineage2.commons.util.Rnd;
  */
 public class LoginCrypt
 {
-	private static final byte[] STATIC_BLOWFISH_KEY =
+	public static final byte[] STATIC_BLOWFISH_KEY =
 	{
 		(byte) 0x6b,
 		(byte) 0x60,
@@ -27,7 +27,7 @@ public class NewCrypt
 	 * Constructor for NewCrypt.
 	 * @param blowfishKey byte[]
 	 */
-	NewCrypt(byte[] blowfishKey)
+	public NewCrypt(byte[] blowfishKey)
 	{
 		_crypt = new BlowfishEngine();
 		_crypt.init(true, blowfishKey);
@@ -26,6 +26,7 @@ public class PasswordHash
 {
 	private final static Logger _log = LoggerFactory.getLogger(PasswordHash.class);
 	private final String name;
+	private final ThreadLocal<MessageDigest> digest = new ThreadLocal<>();
 	
 	/**
 	 * Constructor for PasswordHash.
@@ -63,7 +64,14 @@ public class PasswordHash
 	 */
 	public String encrypt(String password) throws Exception
 	{
-		MessageDigest checksum = MessageDigest.getInstance(name);
+		MessageDigest checksum = digest.get();
+		
+		if (checksum == null)
+		{
+			checksum = MessageDigest.getInstance(name);
+			digest.set(checksum);
+		}
+		
 		byte[] raw = password.getBytes("UTF-8");
 		raw = checksum.digest(raw);
 		return Base64.getEncoder().encodeToString(raw);
@@ -40,7 +40,11 @@ public class L2DatabaseFactory extends BasicDataSource
 	 */
 	public L2DatabaseFactory()
 	{
-		super(Config.DATABASE_DRIVER, Config.DATABASE_URL, Config.DATABASE_LOGIN, Config.DATABASE_PASSWORD, Config.DATABASE_MAX_CONNECTIONS, Config.DATABASE_MAX_CONNECTIONS, Config.DATABASE_MAX_IDLE_TIMEOUT, Config.DATABASE_IDLE_TEST_PERIOD, false);
+		super(Config.DATABASE_DRIVER, Config.DATABASE_URL, Config.DATABASE_LOGIN, Config.DATABASE_PASSWORD, Config.DATABASE_MAX_CONNECTIONS, Config.DATABASE_MAX_CONNECTIONS, Config.DATABASE_MAX_IDLE_TIMEOUT, Config.DATABASE_IDLE_TEST_PERIOD, Config.DATABASE_STATEMENT_CACHE_SIZE > 0);
+		setStatementCacheSize(Config.DATABASE_STATEMENT_CACHE_SIZE);
+		setConnectionTimeout(Config.DATABASE_CONNECTION_TIMEOUT * 1000L);
+		setLeakDetectionThreshold(Config.DATABASE_LEAK_TIMEOUT * 1000L);
+		setReportInterval(Config.DATABASE_REPORT_INTERVAL * 1000L);
 	}
 	
 	/**
@@ -19,6 +19,7 @@ import java.util.logging.Logger;
 
 import lineage2.commons.dbutils.DbUtils;
 import lineage2.loginserver.Config;
+import lineage2.loginserver.accounts.AccountCache;
 import lineage2.loginserver.database.L2DatabaseFactory;
 import lineage2.loginserver.gameservercon.ReceivablePacket;
 import lineage2.loginserver.gameservercon.lspackets.ChangePasswordResponse;
@@ -97,6 +98,7 @@ public class ChangePassword extends ReceivablePacket
 					statement.setString(1, Config.DEFAULT_CRYPT.encrypt(newPass));
 					statement.setString(2, accname);
 					int result = statement.executeUpdate();
+					AccountCache.getInstance().invalidate(accname);
 					ChangePasswordResponse cp1;
 					cp1 = new ChangePasswordResponse(accname, result != 0);
 					sendPacket(cp1);
@@ -0,0 +1,389 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.loginserver.loadtest;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAKeyGenParameterSpec;
+import java.security.spec.RSAPublicKeySpec;
+
+import javax.crypto.Cipher;
+
+import lineage2.loginserver.crypt.LoginCrypt;
+import lineage2.loginserver.crypt.NewCrypt;
+
+/**
+ * Client side of the login protocol: Init, AuthGameGuard, RequestAuthLogin and RequestServerLogin over a blocking socket.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class LoginHandshake
+{
+	/**
+	 * @author Mobius
+	 */
+	public static enum Stage
+	{
+		INIT,
+		GG_AUTH,
+		AUTH_LOGIN,
+		SERVER_LOGIN
+	}
+	
+	/**
+	 * Thrown when the server answers with anything but the expected packet.
+	 * @author Mobius
+	 */
+	public static class HandshakeException extends IOException
+	{
+		private static final long serialVersionUID = 1L;
+		
+		/**
+		 * Constructor for HandshakeException.
+		 * @param message String
+		 */
+		public HandshakeException(String message)
+		{
+			super(message);
+		}
+	}
+	
+	private static final int TIMEOUT = 30000;
+	private final String _host;
+	private final int _port;
+	private final long[] _stageTimes = new long[Stage.values().length];
+	private NewCrypt _crypt;
+	private int _loginOk1;
+	private int _loginOk2;
+	private int _playOk1;
+	private int _playOk2;
+	
+	/**
+	 * Constructor for LoginHandshake.
+	 * @param host String
+	 * @param port int
+	 */
+	public LoginHandshake(String host, int port)
+	{
+		_host = host;
+		_port = port;
+	}
+	
+	/**
+	 * Method run.
+	 * @param login String
+	 * @param password String
+	 * @param serverId int
+	 * @throws Exception if the connection fails or the server refuses one of the steps
+	 */
+	public void run(String login, String password, int serverId) throws Exception
+	{
+		try (Socket socket = new Socket())
+		{
+			long begin = System.nanoTime();
+			socket.setSoTimeout(TIMEOUT);
+			socket.setTcpNoDelay(true);
+			socket.connect(new InetSocketAddress(_host, _port), TIMEOUT);
+			DataInputStream in = new DataInputStream(socket.getInputStream());
+			OutputStream out = socket.getOutputStream();
+			byte[] init = readInit(in);
+			int sessionId = readD(init, 1);
+			byte[] modulus = new byte[0x80];
+			System.arraycopy(init, 9, modulus, 0, 0x80);
+			byte[] blowfishKey = new byte[16];
+			System.arraycopy(init, 153, blowfishKey, 0, 16);
+			_crypt = new NewCrypt(blowfishKey);
+			begin = mark(Stage.INIT, begin);
+			byte[] gg = new byte[21];
+			gg[0] = 0x07;
+			writeD(gg, 1, sessionId);
+			writePacket(out, gg);
+			expect(readPacket(in), 0x0b);
+			begin = mark(Stage.GG_AUTH, begin);
+			byte[] auth = new byte[1 + 0x80 + 27];
+			auth[0] = 0x00;
+			System.arraycopy(encryptCredentials(unscrambleModulus(modulus), login, password), 0, auth, 1, 0x80);
+			writePacket(out, auth);
+			byte[] loginOk = expect(readPacket(in), 0x03);
+			begin = mark(Stage.AUTH_LOGIN, begin);
+			_loginOk1 = readD(loginOk, 1);
+			_loginOk2 = readD(loginOk, 5);
+			byte[] serverLogin = new byte[10];
+			serverLogin[0] = 0x02;
+			writeD(serverLogin, 1, _loginOk1);
+			writeD(serverLogin, 5, _loginOk2);
+			serverLogin[9] = (byte) serverId;
+			writePacket(out, serverLogin);
+			byte[] playOk = expect(readPacket(in), 0x07);
+			_playOk1 = readD(playOk, 1);
+			_playOk2 = readD(playOk, 5);
+			mark(Stage.SERVER_LOGIN, begin);
+		}
+	}
+	
+	/**
+	 * Method getStageTime.
+	 * @param stage Stage
+	 * @return long time spent in the stage, in nanoseconds
+	 */
+	public long getStageTime(Stage stage)
+	{
+		return _stageTimes[stage.ordinal()];
+	}
+	
+	/**
+	 * Method getLoginOk1.
+	 * @return int
+	 */
+	public int getLoginOk1()
+	{
+		return _loginOk1;
+	}
+	
+	/**
+	 * Method getLoginOk2.
+	 * @return int
+	 */
+	public int getLoginOk2()
+	{
+		return _loginOk2;
+	}
+	
+	/**
+	 * Method getPlayOk1.
+	 * @return int
+	 */
+	public int getPlayOk1()
+	{
+		return _playOk1;
+	}
+	
+	/**
+	 * Method getPlayOk2.
+	 * @return int
+	 */
+	public int getPlayOk2()
+	{
+		return _playOk2;
+	}
+	
+	/**
+	 * Method mark.
+	 * @param stage Stage
+	 * @param begin long
+	 * @return long
+	 */
+	private long mark(Stage stage, long begin)
+	{
+		long now = System.nanoTime();
+		_stageTimes[stage.ordinal()] = now - begin;
+		return now;
+	}
+	
+	/**
+	 * Method expect.
+	 * @param packet byte[]
+	 * @param opcode int
+	 * @return byte[]
+	 * @throws HandshakeException
+	 */
+	private static byte[] expect(byte[] packet, int opcode) throws HandshakeException
+	{
+		int received = packet[0] & 0xFF;
+		
+		if (received == opcode)
+		{
+			return packet;
+		}
+		
+		switch (received)
+		{
+			case 0x01:
+				throw new HandshakeException("LoginFail " + readD(packet, 1));
+			
+			case 0x06:
+				throw new HandshakeException("PlayFail " + (packet[1] & 0xFF));
+			
+			default:
+				throw new HandshakeException("Unexpected packet 0x" + Integer.toHexString(received));
+		}
+	}
+	
+	/**
+	 * Reads the Init packet, encrypted with the static key and the XOR pass.
+	 * @param in DataInputStream
+	 * @return byte[]
+	 * @throws IOException
+	 */
+	private static byte[] readInit(DataInputStream in) throws IOException
+	{
+		byte[] raw = new NewCrypt(LoginCrypt.STATIC_BLOWFISH_KEY).decrypt(readRaw(in));
+		int pos = raw.length - 8;
+		int ecx = readD(raw, pos);
+		
+		for (pos -= 4; pos >= 4; pos -= 4)
+		{
+			int edx = readD(raw, pos) ^ ecx;
+			ecx -= edx;
+			writeD(raw, pos, edx);
+		}
+		
+		if (raw[0] != 0x00)
+		{
+			throw new HandshakeException("Unexpected packet 0x" + Integer.toHexString(raw[0] & 0xFF));
+		}
+		
+		return raw;
+	}
+	
+	/**
+	 * Method readPacket.
+	 * @param in DataInputStream
+	 * @return byte[]
+	 * @throws IOException
+	 */
+	private byte[] readPacket(DataInputStream in) throws IOException
+	{
+		byte[] raw = _crypt.decrypt(readRaw(in));
+		
+		if (!NewCrypt.verifyChecksum(raw))
+		{
+			throw new HandshakeException("Wrong checksum");
+		}
+		
+		return raw;
+	}
+	
+	/**
+	 * Method readRaw.
+	 * @param in DataInputStream
+	 * @return byte[]
+	 * @throws IOException
+	 */
+	private static byte[] readRaw(DataInputStream in) throws IOException
+	{
+		int length = in.readUnsignedByte() | (in.readUnsignedByte() << 8);
+		byte[] raw = new byte[length - 2];
+		in.readFully(raw);
+		return raw;
+	}
+	
+	/**
+	 * Pads the packet to the blowfish block size, appends the checksum and encrypts it.
+	 * @param out OutputStream
+	 * @param body byte[]
+	 * @throws IOException
+	 */
+	private void writePacket(OutputStream out, byte[] body) throws IOException
+	{
+		int size = body.length + 4;
+		size += (8 - (size % 8)) % 8;
+		byte[] raw = new byte[size];
+		System.arraycopy(body, 0, raw, 0, body.length);
+		NewCrypt.appendChecksum(raw);
+		raw = _crypt.crypt(raw);
+		byte[] packet = new byte[size + 2];
+		packet[0] = (byte) (packet.length & 0xFF);
+		packet[1] = (byte) ((packet.length >> 8) & 0xFF);
+		System.arraycopy(raw, 0, packet, 2, size);
+		out.write(packet);
+		out.flush();
+	}
+	
+	/**
+	 * Reverses ScrambledKeyPair.scrambleModulus.
+	 * @param scrambled byte[]
+	 * @return BigInteger
+	 */
+	private static BigInteger unscrambleModulus(byte[] scrambled)
+	{
+		byte[] mod = scrambled.clone();
+		
+		for (int i = 0; i < 0x40; i++)
+		{
+			mod[0x40 + i] = (byte) (mod[0x40 + i] ^ mod[i]);
+		}
+		
+		for (int i = 0; i < 4; i++)
+		{
+			mod[0x0d + i] = (byte) (mod[0x0d + i] ^ mod[0x34 + i]);
+		}
+		
+		for (int i = 0; i < 0x40; i++)
+		{
+			mod[i] = (byte) (mod[i] ^ mod[0x40 + i]);
+		}
+		
+		for (int i = 0; i < 4; i++)
+		{
+			byte temp = mod[i];
+			mod[i] = mod[0x4d + i];
+			mod[0x4d + i] = temp;
+		}
+		
+		return new BigInteger(1, mod);
+	}
+	
+	/**
+	 * Method encryptCredentials.
+	 * @param modulus BigInteger
+	 * @param login String
+	 * @param password String
+	 * @return byte[]
+	 * @throws Exception
+	 */
+	private static byte[] encryptCredentials(BigInteger modulus, String login, String password) throws Exception
+	{
+		byte[] block = new byte[0x80];
+		byte[] user = login.getBytes(StandardCharsets.US_ASCII);
+		byte[] pass = password.getBytes(StandardCharsets.US_ASCII);
+		System.arraycopy(user, 0, block, 0x5E, Math.min(user.length, 14));
+		System.arraycopy(pass, 0, block, 0x6C, Math.min(pass.length, 16));
+		PublicKey key = KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(modulus, RSAKeyGenParameterSpec.F4));
+		Cipher cipher = Cipher.getInstance("RSA/ECB/nopadding");
+		cipher.init(Cipher.ENCRYPT_MODE, key);
+		return cipher.doFinal(block);
+	}
+	
+	/**
+	 * Method readD.
+	 * @param raw byte[]
+	 * @param pos int
+	 * @return int
+	 */
+	private static int readD(byte[] raw, int pos)
+	{
+		return (raw[pos] & 0xFF) | ((raw[pos + 1] & 0xFF) << 8) | ((raw[pos + 2] & 0xFF) << 16) | ((raw[pos + 3] & 0xFF) << 24);
+	}
+	
+	/**
+	 * Method writeD.
+	 * @param raw byte[]
+	 * @param pos int
+	 * @param value int
+	 */
+	private static void writeD(byte[] raw, int pos, int value)
+	{
+		raw[pos] = (byte) (value & 0xFF);
+		raw[pos + 1] = (byte) ((value >> 8) & 0xFF);
+		raw[pos + 2] = (byte) ((value >> 16) & 0xFF);
+		raw[pos + 3] = (byte) ((value >> 24) & 0xFF);
+	}
+}
@@ -0,0 +1,242 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.loginserver.loadtest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import lineage2.commons.threading.LatencyHistogram;
+import lineage2.commons.threading.PriorityThreadFactory;
+import lineage2.loginserver.loadtest.LoginHandshake.Stage;
+
+/**
+ * Replays the login handshake against a local login server at a fixed rate and reports the latency of every stage.<br>
+ * Usage: LoginLoadTest [-host 127.0.0.1] [-port 2106] [-rate 500] [-count 5000] [-threads 256] [-accounts 5000] [-prefix bot] [-password bot123] [-server 1]<br>
+ * All the connections come from one address, so the login server under test needs LoginTryTimeout = 0, and AutoCreateAccounts = True for the first run.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class LoginLoadTest
+{
+	private final String _host;
+	private final int _port;
+	private final int _rate;
+	private final int _count;
+	private final int _accounts;
+	private final String _prefix;
+	private final String _password;
+	private final int _serverId;
+	private final ExecutorService _executor;
+	final LatencyHistogram[] _stages = new LatencyHistogram[Stage.values().length];
+	final LatencyHistogram _total = new LatencyHistogram();
+	final AtomicInteger _done = new AtomicInteger();
+	final AtomicInteger _success = new AtomicInteger();
+	final Map<String, AtomicInteger> _errors = new ConcurrentHashMap<>();
+	
+	/**
+	 * Constructor for LoginLoadTest.
+	 * @param args Map<String, String>
+	 */
+	private LoginLoadTest(Map<String, String> args)
+	{
+		_host = get(args, "host", "127.0.0.1");
+		_port = Integer.parseInt(get(args, "port", "2106"));
+		_rate = Integer.parseInt(get(args, "rate", "500"));
+		_count = Integer.parseInt(get(args, "count", "5000"));
+		_accounts = Integer.parseInt(get(args, "accounts", String.valueOf(_count)));
+		_prefix = get(args, "prefix", "bot");
+		_password = get(args, "password", "bot123");
+		_serverId = Integer.parseInt(get(args, "server", "1"));
+		_executor = Executors.newFixedThreadPool(Integer.parseInt(get(args, "threads", "256")), new PriorityThreadFactory("LoginLoadTest", Thread.NORM_PRIORITY));
+		
+		for (int i = 0; i < _stages.length; i++)
+		{
+			_stages[i] = new LatencyHistogram();
+		}
+	}
+	
+	/**
+	 * Method get.
+	 * @param args Map<String, String>
+	 * @param name String
+	 * @param defaultValue String
+	 * @return String
+	 */
+	private static String get(Map<String, String> args, String name, String defaultValue)
+	{
+		String value = args.get(name);
+		return value == null ? defaultValue : value;
+	}
+	
+	/**
+	 * Method login.
+	 * @param index int
+	 */
+	void login(int index)
+	{
+		LoginHandshake handshake = new LoginHandshake(_host, _port);
+		long begin = System.nanoTime();
+		
+		try
+		{
+			handshake.run(_prefix + (index % _accounts), _password, _serverId);
+			_total.record(System.nanoTime() - begin);
+			_success.incrementAndGet();
+			
+			for (Stage stage : Stage.values())
+			{
+				_stages[stage.ordinal()].record(handshake.getStageTime(stage));
+			}
+		}
+		catch (Exception e)
+		{
+			String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+			AtomicInteger count = _errors.get(error);
+			
+			if (count == null)
+			{
+				AtomicInteger newCount = new AtomicInteger();
+				count = _errors.putIfAbsent(error, newCount);
+				
+				if (count == null)
+				{
+					count = newCount;
+				}
+			}
+			
+			count.incrementAndGet();
+		}
+		finally
+		{
+			_done.incrementAndGet();
+		}
+	}
+	
+	/**
+	 * Starts the logins at the configured rate, then waits for the last one.
+	 * @throws InterruptedException
+	 */
+	private void run() throws InterruptedException
+	{
+		System.out.println("LoginLoadTest: " + _count + " logins to " + _host + ":" + _port + " at " + _rate + "/s.");
+		long start = System.nanoTime();
+		long nextReport = start + TimeUnit.SECONDS.toNanos(1);
+		
+		for (int i = 0; i < _count; i++)
+		{
+			long due = start + ((i * TimeUnit.SECONDS.toNanos(1)) / _rate);
+			long now;
+			
+			while ((now = System.nanoTime()) < due)
+			{
+				LockSupport.parkNanos(due - now);
+			}
+			
+			if (now >= nextReport)
+			{
+				report(start);
+				nextReport += TimeUnit.SECONDS.toNanos(1);
+			}
+			
+			final int index = i;
+			_executor.execute(() -> login(index));
+		}
+		
+		_executor.shutdown();
+		
+		while (!_executor.awaitTermination(1, TimeUnit.SECONDS))
+		{
+			report(start);
+		}
+		
+		report(start);
+		printSummary(start);
+	}
+	
+	/**
+	 * Method report.
+	 * @param start long
+	 */
+	private void report(long start)
+	{
+		long elapsed = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+		System.out.println("[" + elapsed + "s] done: " + _done.get() + "/" + _count + ", success: " + _success.get() + ", p99: " + toMillis(_total.getPercentiles(99)[0]) + " ms");
+	}
+	
+	/**
+	 * Method printSummary.
+	 * @param start long
+	 */
+	private void printSummary(long start)
+	{
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.println("=================================================");
+		System.out.println("Logins: " + _success.get() + " succeeded, " + (_count - _success.get()) + " failed, " + String.format("%.1f", _success.get() / seconds) + " logins/s.");
+		
+		for (Stage stage : Stage.values())
+		{
+			print(stage.name(), _stages[stage.ordinal()]);
+		}
+		
+		print("TOTAL", _total);
+		
+		for (Map.Entry<String, AtomicInteger> entry : new TreeMap<>(_errors).entrySet())
+		{
+			System.out.println("Error: " + entry.getKey() + " x" + entry.getValue().get());
+		}
+	}
+	
+	/**
+	 * Method print.
+	 * @param name String
+	 * @param histogram LatencyHistogram
+	 */
+	private static void print(String name, LatencyHistogram histogram)
+	{
+		long[] percentiles = histogram.getPercentiles(50, 90, 99, 99.9);
+		System.out.println(String.format("%-13s (ms): avg=%d p50=%d p90=%d p99=%d p999=%d max=%d", name, toMillis(histogram.getAverage()), toMillis(percentiles[0]), toMillis(percentiles[1]), toMillis(percentiles[2]), toMillis(percentiles[3]), toMillis(histogram.getMax())));
+	}
+	
+	/**
+	 * Method toMillis.
+	 * @param nanos long
+	 * @return long
+	 */
+	private static long toMillis(long nanos)
+	{
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+	
+	/**
+	 * Method main.
+	 * @param args String[] pairs of -name value
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		Map<String, String> parsed = new TreeMap<>();
+		
+		for (int i = 0; (i + 1) < args.length; i += 2)
+		{
+			parsed.put(args[i].replaceFirst("^-+", ""), args[i + 1]);
+		}
+		
+		new LoginLoadTest(parsed).run();
+	}
+}